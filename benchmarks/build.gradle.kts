@@ -0,0 +1,21 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmhImplementation(projects.common)
+    jmhImplementation(libs.lavaplayer.v1)
+    jmhImplementation(libs.rhino.engine)
+    jmhImplementation(libs.annotations)
+    jmhRuntimeOnly("org.slf4j:slf4j-simple:1.7.25")
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    // Reports allocation rates and bytes allocated per operation (gc.alloc.rate.norm) next to the timings.
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    // Allows running a subset, e.g. ./gradlew :benchmarks:jmh -Pincludes=SignatureCipher
+    findProperty("includes")?.let { includes = listOf(it.toString()) }
+}
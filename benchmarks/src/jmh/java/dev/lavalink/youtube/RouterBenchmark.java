@@ -0,0 +1,64 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import dev.lavalink.youtube.clients.AndroidVr;
+import dev.lavalink.youtube.clients.Music;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks matching identifiers to a route. Only the routes are built, nothing is loaded, so no requests are made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouterBenchmark {
+    @Param({
+        "ytsearch:never gonna give you up",
+        "ytmsearch:never gonna give you up",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ&list=PLFgquLnL59alCl_2TQvOiD5Vgm1hCaGSI&index=3",
+        "https://www.youtube.com/playlist?list=PLFgquLnL59alCl_2TQvOiD5Vgm1hCaGSI",
+        "https://youtu.be/dQw4w9WgXcQ?si=Xk3kT1Hn9mOeQF2p",
+        "https://music.youtube.com/watch?v=dQw4w9WgXcQ&list=RDAMVMdQw4w9WgXcQ",
+        "dQw4w9WgXcQ",
+        "https://soundcloud.com/rick-astley-official/never-gonna-give-you-up-4"
+    })
+    public String identifier;
+
+    private YoutubeAudioSourceManager source;
+    private HttpInterface httpInterface;
+
+    @Setup
+    public void setup() {
+        source = new YoutubeAudioSourceManager(new AndroidVr(), new Music());
+        httpInterface = source.getInterface();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        httpInterface.close();
+        source.shutdown();
+    }
+
+    @Benchmark
+    public Object getRouter() {
+        return source.getRouter(httpInterface, identifier);
+    }
+}
@@ -0,0 +1,55 @@
+package dev.lavalink.youtube.benchmarks;
+
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the fixtures the benchmarks run against from {@code src/jmh/resources/fixtures}.
+ * <p>
+ * The response fixtures have the layout of the responses each client parses, with identifiers and text replaced.
+ * To benchmark against a real response instead, enable trace logging for
+ * {@code dev.lavalink.youtube.clients.skeleton.ResponseFieldMask}, which logs the body of every Innertube response,
+ * and replace the fixture with it. {@code cipher.json} holds the parts of a player script that
+ * {@link dev.lavalink.youtube.cipher.SignatureCipher} evaluates.
+ */
+public final class Fixtures {
+    private Fixtures() {
+
+    }
+
+    @NotNull
+    public static String read(@NotNull String name) {
+        try (InputStream stream = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (stream == null) {
+                throw new IllegalArgumentException("No fixture named " + name);
+            }
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @NotNull
+    public static JsonBrowser json(@NotNull String name) {
+        try {
+            return JsonBrowser.parse(read(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.lavalink.youtube.cipher;
+
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import dev.lavalink.youtube.benchmarks.Fixtures;
+import org.mozilla.javascript.engine.RhinoScriptEngineFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks evaluating the signature and n parameter functions of a player script, as
+ * {@link LocalSignatureCipherManager} does for every stream URL it resolves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureCipherBenchmark {
+    private SignatureCipher cipher;
+    private ScriptEngine scriptEngine;
+    private String signature;
+    private String n;
+
+    @Setup
+    public void setup() {
+        JsonBrowser json = Fixtures.json("cipher.json");
+
+        cipher = new SignatureCipher(
+            json.get("timestamp").text(),
+            json.get("globalVars").text(),
+            json.get("sigActions").text(),
+            json.get("sigFunction").text(),
+            json.get("nFunction").text(),
+            ""
+        );
+
+        scriptEngine = new RhinoScriptEngineFactory().getScriptEngine();
+        signature = json.get("signature").text();
+        n = json.get("n").text();
+    }
+
+    @Benchmark
+    public String decipherSignature() throws ScriptException, NoSuchMethodException {
+        return cipher.apply(signature, scriptEngine);
+    }
+
+    @Benchmark
+    public String transformN() throws ScriptException, NoSuchMethodException {
+        return cipher.transform(n, scriptEngine);
+    }
+}
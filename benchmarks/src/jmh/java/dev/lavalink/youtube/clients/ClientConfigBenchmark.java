@@ -0,0 +1,54 @@
+package dev.lavalink.youtube.clients;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks serializing the body of a player request, built the same way as by
+ * {@link dev.lavalink.youtube.clients.skeleton.NonMusicClient}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientConfigBenchmark {
+    private ClientConfig playerConfig;
+
+    @Setup
+    public void setup() {
+        playerConfig = buildPlayerConfig();
+    }
+
+    private static ClientConfig buildPlayerConfig() {
+        return AndroidVr.BASE_CONFIG.copy()
+            .withVisitorData("CgtCVkRBZFNHVU1fayiMvfO4BjIKCgJERRIEEgAgJQ%3D%3D")
+            .withClientField("clientScreen", "EMBED")
+            .withThirdPartyEmbedUrl("https://google.com")
+            .withRootField("videoId", "dQw4w9WgXcQ")
+            .withRootField("racyCheckOk", true)
+            .withRootField("contentCheckOk", true)
+            .withPlaybackSignatureTimestamp("20082");
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return playerConfig.toJsonString();
+    }
+
+    @Benchmark
+    public String buildAndSerialize() {
+        return buildPlayerConfig().toJsonString();
+    }
+}
@@ -0,0 +1,93 @@
+package dev.lavalink.youtube.clients.skeleton;
+
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import dev.lavalink.youtube.YoutubeAudioSourceManager;
+import dev.lavalink.youtube.benchmarks.Fixtures;
+import dev.lavalink.youtube.clients.AndroidVr;
+import dev.lavalink.youtube.clients.Music;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks turning parsed Innertube responses into tracks and stream formats. This lives in the skeleton package
+ * because the extraction methods are protected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientParsingBenchmark {
+    private YoutubeAudioSourceManager source;
+    private StreamingNonMusicClient client;
+    private MusicClient musicClient;
+
+    private JsonBrowser playlistVideoList;
+    private JsonBrowser searchResponse;
+    private JsonBrowser musicSearchTracks;
+    private List<JsonBrowser> streamFormats;
+
+    @Setup
+    public void setup() {
+        client = new AndroidVr();
+        musicClient = new Music();
+        source = new YoutubeAudioSourceManager(client, musicClient);
+
+        playlistVideoList = client.extractPlaylistVideoList(Fixtures.json("playlist-browse.json"));
+        searchResponse = Fixtures.json("search.json");
+        musicSearchTracks = musicClient.extractSearchResultTrackJson(Fixtures.json("music-search.json"));
+
+        JsonBrowser streamingData = Fixtures.json("player.json").get("streamingData");
+        streamFormats = new ArrayList<>(streamingData.get("formats").values());
+        streamFormats.addAll(streamingData.get("adaptiveFormats").values());
+    }
+
+    @TearDown
+    public void tearDown() {
+        source.shutdown();
+    }
+
+    @Benchmark
+    public List<AudioTrack> extractPlaylistTracks() {
+        List<AudioTrack> tracks = new ArrayList<>();
+        client.extractPlaylistTracks(playlistVideoList, tracks, source);
+        return tracks;
+    }
+
+    @Benchmark
+    public List<AudioTrack> extractSearchResults() {
+        return client.extractSearchResults(source, searchResponse);
+    }
+
+    @Benchmark
+    public List<AudioTrack> extractMusicSearchResultTracks() {
+        return musicClient.extractSearchResultTracks(source, musicSearchTracks);
+    }
+
+    @Benchmark
+    public List<StreamFormat> extractFormats() {
+        List<StreamFormat> formats = new ArrayList<>();
+
+        for (JsonBrowser format : streamFormats) {
+            client.extractFormat(format, formats, false);
+        }
+
+        return formats;
+    }
+}
@@ -0,0 +1,60 @@
+package dev.lavalink.youtube;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Helpers for the asynchronous variants of loading items, formats and stream URLs. Unlike
+ * {@link CompletableFuture#supplyAsync}, tasks may throw checked exceptions such as {@link CannotBeLoaded}, which
+ * complete the future exceptionally as they are.
+ */
+public class FutureTools {
+    /**
+     * Runs the task on the executor. If the executor rejects it, the returned future fails with the
+     * {@link RejectedExecutionException}.
+     */
+    @NotNull
+    public static <T> CompletableFuture<T> supplyAsync(@NotNull Task<T> task, @NotNull Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> complete(future, task));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    /**
+     * @return The cause of the {@link CompletionException} or {@link ExecutionException} that dependent stages and
+     * {@link CompletableFuture#get()} wrap errors in, or the error itself.
+     */
+    @Nullable
+    public static Throwable unwrap(@Nullable Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+
+        return error;
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, Task<T> task) {
+        try {
+            future.complete(task.call());
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Task<T> {
+        T call() throws Throwable;
+    }
+}
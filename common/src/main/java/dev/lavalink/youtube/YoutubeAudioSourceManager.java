@@ -9,20 +9,39 @@ import com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
 import com.sedmelluq.discord.lavaplayer.track.AudioItem;
 import com.sedmelluq.discord.lavaplayer.track.AudioReference;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import dev.lavalink.youtube.UrlTools.UrlInfo;
+import dev.lavalink.youtube.cache.CachedMediaStream;
+import dev.lavalink.youtube.cache.ContainerHeaderCache;
+import dev.lavalink.youtube.cache.HeaderCachingStream;
+import dev.lavalink.youtube.cache.MediaCache;
+import dev.lavalink.youtube.cache.MediaCacheEntry;
 import dev.lavalink.youtube.cipher.LocalSignatureCipherManager;
 import dev.lavalink.youtube.cipher.RemoteCipherManager;
 import dev.lavalink.youtube.cipher.CipherManager;
 import dev.lavalink.youtube.clients.*;
 import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.http.MediaConnectionWarmer;
+import dev.lavalink.youtube.http.MediaHostTracker;
+import dev.lavalink.youtube.http.PooledHttpInterfaceManager;
+import dev.lavalink.youtube.http.RequestRateLimiter;
 import dev.lavalink.youtube.http.YoutubeAccessTokenTracker;
 import dev.lavalink.youtube.http.YoutubeHttpContextFilter;
 import dev.lavalink.youtube.http.YoutubeOauth2Handler;
+import dev.lavalink.youtube.jfr.SourceEvents;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import dev.lavalink.youtube.track.RenewableStreamUrl;
 import dev.lavalink.youtube.track.YoutubeAudioTrack;
+import dev.lavalink.youtube.track.YoutubePersistentHttpStream;
+import dev.lavalink.youtube.track.YoutubeSegmentedHttpStream;
+import dev.lavalink.youtube.track.format.FormatSelector;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import dev.lavalink.youtube.track.timeline.TrackStartHistograms;
+import dev.lavalink.youtube.track.timeline.TrackStartListener;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.jetbrains.annotations.NotNull;
@@ -34,9 +53,13 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -75,11 +98,24 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
     protected final boolean allowSearch;
     protected final boolean allowDirectVideoIds;
     protected final boolean allowDirectPlaylistIds;
+    protected final boolean streamReadAhead;
+    protected final int segmentedDownloadConnections;
     protected final Client[] clients;
 
     protected YoutubeOauth2Handler oauth2Handler;
+    protected YoutubeAccessTokenTracker tokenTracker;
     protected YoutubeHttpContextFilter contextFilter;
     protected CipherManager cipherManager;
+    protected WebClientConfigUpdater webConfigUpdater;
+    protected MediaCache mediaCache;
+    protected ContainerHeaderCache headerCache;
+    protected final MediaHostTracker mediaHostTracker = new MediaHostTracker();
+    protected volatile FormatSelector formatSelector;
+    protected MediaConnectionWarmer connectionWarmer;
+    protected final TrackStartHistograms trackStartHistograms = new TrackStartHistograms();
+    protected final List<TrackStartListener> trackStartListeners = new CopyOnWriteArrayList<>();
+    protected final YoutubeMetrics metrics;
+    protected final RequestRateLimiter requestRateLimiter;
 
     public YoutubeAudioSourceManager() {
         this(true);
@@ -142,17 +178,34 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
 
     public YoutubeAudioSourceManager(@NotNull YoutubeSourceOptions options,
                                      @NotNull Client... clients) {
-        this.httpInterfaceManager = HttpClientTools.createCookielessThreadLocalManager();
+        this.httpInterfaceManager = options.isPooledHttpInterfaces()
+            ? new PooledHttpInterfaceManager()
+            : HttpClientTools.createCookielessThreadLocalManager();
         this.allowSearch = options.isAllowSearch();
         this.allowDirectVideoIds = options.isAllowDirectVideoIds();
         this.allowDirectPlaylistIds = options.isAllowDirectPlaylistIds();
+        this.streamReadAhead = options.isStreamReadAhead();
+        this.segmentedDownloadConnections = options.getSegmentedDownloadConnections();
+        this.formatSelector = options.getFormatSelector();
+        this.connectionWarmer = new MediaConnectionWarmer(httpInterfaceManager);
+        this.metrics = new YoutubeMetrics(options.getMetricsRegistry());
+        this.requestRateLimiter = options.getRequestRateLimiter();
+        this.trackStartListeners.add(trackStartHistograms);
+        this.trackStartListeners.add(metrics);
         this.clients = clients;
         this.oauth2Handler = new YoutubeOauth2Handler(httpInterfaceManager);
+        oauth2Handler.setMetrics(metrics);
+
+        this.tokenTracker = new YoutubeAccessTokenTracker(httpInterfaceManager, options.getVisitorIdPoolSize());
+        tokenTracker.setMetrics(metrics);
 
         contextFilter = new YoutubeHttpContextFilter();
-        contextFilter.setTokenTracker(new YoutubeAccessTokenTracker(httpInterfaceManager));
+        contextFilter.setTokenTracker(tokenTracker);
         contextFilter.setOauth2Handler(oauth2Handler);
+        contextFilter.setMetrics(metrics);
+        contextFilter.setRateLimiter(requestRateLimiter);
         httpInterfaceManager.setHttpContextFilter(contextFilter);
+        tokenTracker.start();
 
         if (!DataFormatTools.isNullOrEmpty(options.getRemoteCipherUrl())) {
             contextFilter.setCipherConfig(options.getRemoteCipherPassword(), options.getRemoteCipherUserAgent(), YoutubeSource.VERSION);
@@ -160,6 +213,32 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         } else {
             this.cipherManager = new LocalSignatureCipherManager();
         }
+
+        List<Web> webClients = Arrays.stream(clients)
+            .filter(client -> client instanceof Web)
+            .map(client -> (Web) client)
+            .collect(Collectors.toList());
+
+        if (!webClients.isEmpty()) {
+            String persistencePath = options.getClientConfigPersistencePath();
+
+            this.webConfigUpdater = new WebClientConfigUpdater(
+                httpInterfaceManager,
+                webClients,
+                options.getClientConfigRefreshInterval(),
+                persistencePath != null ? Paths.get(persistencePath) : null
+            );
+
+            webConfigUpdater.start();
+        }
+
+        if (options.getContainerHeaderCacheSize() > 0) {
+            this.headerCache = new ContainerHeaderCache(options.getContainerHeaderCacheSize());
+        }
+
+        if (options.getMediaCacheDirectory() != null) {
+            this.mediaCache = new MediaCache(Paths.get(options.getMediaCacheDirectory()), options.getMediaCacheMaxBytes());
+        }
     }
 
     @Override
@@ -193,6 +272,23 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         }
     }
 
+    /**
+     * Instructs this source to use Oauth2 integration with a pool of accounts. Requests are spread across the
+     * accounts, see {@link YoutubeOauth2Handler#setAccountSelection(YoutubeOauth2Handler.AccountSelection)}.
+     * @param refreshTokens The refresh tokens of the accounts to use. If empty, this behaves like
+     *                      {@link #useOauth2(String, boolean)} with a {@code null} token.
+     * @param skipInitialization Whether linking of an account should be skipped if no refresh tokens are provided.
+     */
+    public void useOauth2(@NotNull List<String> refreshTokens, boolean skipInitialization) {
+        oauth2Handler.setRefreshTokens(refreshTokens, skipInitialization);
+
+        if (Arrays.stream(clients).noneMatch(Client::supportsOAuth)) {
+            log.warn("OAuth has been enabled without registering any OAuth-compatible clients. " +
+                "Please consult https://github.com/lavalink-devs/youtube-source?tab=readme-ov-file#available-clients for a list of " +
+                "OAuth-compatible clients.");
+        }
+    }
+
     @Nullable
     public String getOauth2RefreshToken() {
         return oauth2Handler.getRefreshToken();
@@ -234,34 +330,158 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
                     continue;
                 }
 
-                boolean shouldLogOauthWarning = client.supportsOAuth() && !loggedOauthClientNoAccountWarning &&
-                    !oauth2Handler.hasAccessToken() && client.getOptions().getPlayback();
+                item = attemptClient(httpInterface, reference, router, client, exceptions);
 
-                if (shouldLogOauthWarning) {
-                    loggedOauthClientNoAccountWarning = true;
-                    log.warn("!!! You are using an OAuth-enabled client without a valid OAuth token! This client may not play videos!");
+                if (item != null) {
+                    break;
                 }
+            }
+        } catch (IOException e) {
+            throw ExceptionTools.toRuntimeException(e);
+        }
 
-                log.debug("Attempting to load {} with client \"{}\"", reference.identifier, client.getIdentifier());
-                httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+        return finishLoad(reference, item, exceptions);
+    }
 
-                try {
-                    item = router.route(client);
-                } catch (CannotBeLoaded cbl) {
-                    throw ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", Severity.SUSPICIOUS, cbl.getCause());
-                } catch (Throwable t) {
-                    log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier(), t);
-                    exceptions.add(new ClientException(t.getMessage(), client, t));
-                }
+    /**
+     * Asynchronous variant of {@link #loadItem}. Every client attempt runs as a separate task on the executor,
+     * submitted once the previous one has completed, so no thread is held while waiting for a fallback client to be
+     * tried. The calling thread does not acquire an HTTP interface, so it may start several loads at once. A retriable
+     * network failure is retried once, like {@link #loadItem} does.
+     * @param executor The executor to run requests on. The returned future is also completed on it.
+     * @return A future completed with the loaded item, {@code null} if the identifier is not handled by this source, or
+     * the error that {@link #loadItem} would have thrown.
+     */
+    @NotNull
+    public CompletableFuture<AudioItem> loadItemAsync(@NotNull AudioReference reference, @NotNull Executor executor) {
+        CompletableFuture<AudioItem> result = new CompletableFuture<>();
+
+        loadItemOnceAsync(reference, executor).whenComplete((item, error) -> {
+            Throwable cause = FutureTools.unwrap(error);
+
+            if (cause == null) {
+                result.complete(item);
+            } else if (cause instanceof FriendlyException && HttpClientTools.isRetriableNetworkException(cause.getCause())) {
+                // In case of a connection reset exception, try once more.
+                loadItemOnceAsync(reference, executor).whenComplete((retried, retryError) -> {
+                    if (retryError == null) {
+                        result.complete(retried);
+                    } else {
+                        result.completeExceptionally(FutureTools.unwrap(retryError));
+                    }
+                });
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
 
-                if (item != null) {
-                    break;
-                }
+        return result;
+    }
+
+    @NotNull
+    protected CompletableFuture<AudioItem> loadItemOnceAsync(@NotNull AudioReference reference, @NotNull Executor executor) {
+        return attemptClientsAsync(reference, 0, new ArrayList<>(), executor);
+    }
+
+    /**
+     * Attempts the clients from the given index onwards, each in its own task, until one of them loads the item.
+     * Every task acquires and closes its own HTTP interface, as the interface manager may tie an interface to the
+     * thread that acquired it, and resolves the identifier with it.
+     */
+    @NotNull
+    protected CompletableFuture<AudioItem> attemptClientsAsync(@NotNull AudioReference reference,
+                                                               int index,
+                                                               @NotNull List<ClientException> exceptions,
+                                                               @NotNull Executor executor) {
+        return FutureTools.supplyAsync(() -> attemptNextClient(reference, index, exceptions), executor)
+            .thenCompose(attempt -> attempt.isFinished()
+                ? CompletableFuture.completedFuture(attempt.item)
+                : attemptClientsAsync(reference, attempt.nextIndex, exceptions, executor));
+    }
+
+    /**
+     * Attempts the first client from the given index onwards that can handle the identifier.
+     */
+    @NotNull
+    protected ClientAttempt attemptNextClient(@NotNull AudioReference reference,
+                                              int index,
+                                              @NotNull List<ClientException> exceptions) {
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            Router router = getRouter(httpInterface, reference.identifier);
+
+            if (router == null) {
+                return ClientAttempt.finished(null);
+            }
+
+            if (router == Router.none) {
+                return ClientAttempt.finished(AudioReference.NO_TRACK);
+            }
+
+            int clientIndex = index;
+
+            while (clientIndex < clients.length && !clients[clientIndex].canHandleRequest(reference.identifier)) {
+                clientIndex++;
+            }
+
+            if (clientIndex == clients.length) {
+                return ClientAttempt.finished(finishLoad(reference, null, exceptions));
             }
+
+            AudioItem item = attemptClient(httpInterface, reference, router, clients[clientIndex], exceptions);
+
+            if (item != null) {
+                return ClientAttempt.finished(finishLoad(reference, item, exceptions));
+            }
+
+            return ClientAttempt.next(clientIndex + 1);
         } catch (IOException e) {
             throw ExceptionTools.toRuntimeException(e);
         }
+    }
+
+    /**
+     * Attempts to load an item with a single client.
+     * @return The loaded item, or {@code null} if the client failed or found nothing, in which case the next client
+     * should be attempted. Failures are added to {@code exceptions}.
+     * @throws FriendlyException If the item cannot be loaded by any client.
+     */
+    @Nullable
+    protected AudioItem attemptClient(@NotNull HttpInterface httpInterface,
+                                      @NotNull AudioReference reference,
+                                      @NotNull Router router,
+                                      @NotNull Client client,
+                                      @NotNull List<ClientException> exceptions) {
+        boolean shouldLogOauthWarning = client.supportsOAuth() && !loggedOauthClientNoAccountWarning &&
+            !oauth2Handler.hasAccessToken() && client.getOptions().getPlayback();
+
+        if (shouldLogOauthWarning) {
+            loggedOauthClientNoAccountWarning = true;
+            log.warn("!!! You are using an OAuth-enabled client without a valid OAuth token! This client may not play videos!");
+        }
 
+        log.debug("Attempting to load {} with client \"{}\"", reference.identifier, client.getIdentifier());
+        httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+        Object fallbackEvent = SourceEvents.beginClientAttempt();
+
+        try {
+            return router.route(client);
+        } catch (CannotBeLoaded cbl) {
+            throw ExceptionTools.wrapUnfriendlyExceptions("This video cannot be loaded.", Severity.SUSPICIOUS, cbl.getCause());
+        } catch (Throwable t) {
+            log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier(), t);
+            SourceEvents.endClientFallback(fallbackEvent, reference.identifier, client.getIdentifier(), t);
+            exceptions.add(new ClientException(t.getMessage(), client, t));
+            return null;
+        }
+    }
+
+    /**
+     * @throws AllClientsFailedException If no item was loaded and at least one client failed.
+     */
+    @Nullable
+    protected AudioItem finishLoad(@NotNull AudioReference reference,
+                                   @Nullable AudioItem item,
+                                   @NotNull List<ClientException> exceptions) {
         if (!exceptions.isEmpty()) {
             if (item == null) {
                 throw new AllClientsFailedException(exceptions);
@@ -444,11 +664,147 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
         return oauth2Handler;
     }
 
+    @NotNull
+    public YoutubeAccessTokenTracker getTokenTracker() {
+        return tokenTracker;
+    }
+
     @NotNull
     public HttpInterfaceManager getHttpInterfaceManager() {
         return httpInterfaceManager;
     }
 
+    /**
+     * @return The interface manager to use for reading ahead in track streams, or {@code null} if read-ahead
+     * is disabled.
+     */
+    @Nullable
+    public HttpInterfaceManager getReadAheadInterfaceManager() {
+        return streamReadAhead ? httpInterfaceManager : null;
+    }
+
+    /**
+     * Creates a stream for reading a static (non-live) format. The container headers of the format are kept in
+     * memory after the first play. If a media cache is configured, cached ranges of the format are read from it and
+     * everything else is cached as it is downloaded.
+     * @param httpInterface The interface to use if the stream is not segmented.
+     * @param videoId The ID of the video the format belongs to.
+     * @param format The format to read.
+     * @param streamUrl The resolved URL of the format.
+     */
+    @NotNull
+    public SeekableInputStream createStaticStream(@NotNull HttpInterface httpInterface,
+                                                  @NotNull String videoId,
+                                                  @NotNull StreamFormat format,
+                                                  @NotNull RenewableStreamUrl streamUrl) {
+        SeekableInputStream stream = createNetworkStream(httpInterface, streamUrl, format.getContentLength());
+
+        if (headerCache != null) {
+            stream = new HeaderCachingStream(headerCache, videoId, format.getItag(), stream);
+        }
+
+        MediaCacheEntry cacheEntry = mediaCache != null ? mediaCache.open(videoId, format.getItag(), format.getContentLength()) : null;
+        return cacheEntry != null ? new CachedMediaStream(cacheEntry, stream) : stream;
+    }
+
+    /**
+     * Creates a stream for downloading a static format, in segments over multiple connections if configured to do so.
+     * URLs carrying their own request number ({@code rn}) are never segmented, matching
+     * {@link YoutubePersistentHttpStream}, which doesn't request them in ranges either.
+     */
+    @NotNull
+    protected SeekableInputStream createNetworkStream(@NotNull HttpInterface httpInterface,
+                                                      @NotNull RenewableStreamUrl streamUrl,
+                                                      long contentLength) {
+        if (segmentedDownloadConnections > 1 && !streamUrl.get().toString().contains("rn=")) {
+            return new YoutubeSegmentedHttpStream(
+                httpInterfaceManager,
+                streamUrl,
+                contentLength,
+                segmentedDownloadConnections,
+                YoutubeSegmentedHttpStream.DEFAULT_SEGMENT_SIZE
+            );
+        }
+
+        return new YoutubePersistentHttpStream(httpInterface, streamUrl, contentLength, getReadAheadInterfaceManager());
+    }
+
+    @Nullable
+    public MediaCache getMediaCache() {
+        return mediaCache;
+    }
+
+    @Nullable
+    public ContainerHeaderCache getHeaderCache() {
+        return headerCache;
+    }
+
+    /**
+     * @return The tracker of media host performance, shared by all streams of this source manager.
+     */
+    @NotNull
+    public MediaHostTracker getMediaHostTracker() {
+        return mediaHostTracker;
+    }
+
+    /**
+     * Registers a listener that receives the start timeline (client attempts, player request, cipher, first media
+     * byte and first frame) of every track played by this source manager.
+     */
+    public void addTrackStartListener(@NotNull TrackStartListener listener) {
+        trackStartListeners.add(listener);
+    }
+
+    public void removeTrackStartListener(@NotNull TrackStartListener listener) {
+        trackStartListeners.remove(listener);
+    }
+
+    @NotNull
+    public List<TrackStartListener> getTrackStartListeners() {
+        return trackStartListeners;
+    }
+
+    /**
+     * @return Latency histograms of the phases of starting tracks, aggregated over all tracks played.
+     */
+    @NotNull
+    public TrackStartHistograms getTrackStartHistograms() {
+        return trackStartHistograms;
+    }
+
+    /**
+     * @return The metrics of this source manager, bound to the registry set in {@link YoutubeSourceOptions}.
+     */
+    @NotNull
+    public YoutubeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The limiter that paces Innertube requests, or {@code null} if requests are not limited.
+     */
+    @Nullable
+    public RequestRateLimiter getRequestRateLimiter() {
+        return requestRateLimiter;
+    }
+
+    @NotNull
+    public MediaConnectionWarmer getConnectionWarmer() {
+        return connectionWarmer;
+    }
+
+    @NotNull
+    public FormatSelector getFormatSelector() {
+        return formatSelector;
+    }
+
+    /**
+     * Sets how the format to play is picked for tracks that start loading after this call.
+     */
+    public void setFormatSelector(@NotNull FormatSelector formatSelector) {
+        this.formatSelector = formatSelector;
+    }
+
     @NotNull
     public HttpInterface getInterface() {
         return httpInterfaceManager.getInterface();
@@ -472,9 +828,48 @@ public class YoutubeAudioSourceManager implements AudioSourceManager {
 
     @Override
     public void shutdown() {
+        tokenTracker.shutdown();
+        oauth2Handler.shutdown();
+
+        if (webConfigUpdater != null) {
+            webConfigUpdater.shutdown();
+        }
+
         ExceptionTools.closeWithWarnings(httpInterfaceManager);
     }
 
+    /**
+     * Outcome of a single task of {@link #attemptClientsAsync}.
+     */
+    protected static class ClientAttempt {
+        @Nullable
+        public final AudioItem item;
+        public final int nextIndex;
+
+        private ClientAttempt(@Nullable AudioItem item, int nextIndex) {
+            this.item = item;
+            this.nextIndex = nextIndex;
+        }
+
+        @NotNull
+        public static ClientAttempt finished(@Nullable AudioItem item) {
+            return new ClientAttempt(item, -1);
+        }
+
+        @NotNull
+        public static ClientAttempt next(int nextIndex) {
+            return new ClientAttempt(null, nextIndex);
+        }
+
+        /**
+         * @return Whether loading is done, with {@link #item} as its result, rather than continuing at
+         * {@link #nextIndex}.
+         */
+        public boolean isFinished() {
+            return nextIndex < 0;
+        }
+    }
+
     @FunctionalInterface
     protected interface Router {
         Router none = (unused) -> AudioReference.NO_TRACK;
@@ -1,5 +1,13 @@
 package dev.lavalink.youtube;
 
+import dev.lavalink.youtube.cache.ContainerHeaderCache;
+import dev.lavalink.youtube.clients.WebClientConfigUpdater;
+import dev.lavalink.youtube.http.RequestRateLimiter;
+import dev.lavalink.youtube.http.YoutubeAccessTokenTracker;
+import dev.lavalink.youtube.metrics.MetricsRegistry;
+import dev.lavalink.youtube.track.format.FormatSelectionPolicy;
+import dev.lavalink.youtube.track.format.FormatSelector;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class YoutubeSourceOptions {
@@ -9,6 +17,18 @@ public class YoutubeSourceOptions {
     private String remoteCipherUrl;
     private String remoteCipherPassword;
     private String remoteCipherUserAgent;
+    private int visitorIdPoolSize = YoutubeAccessTokenTracker.DEFAULT_POOL_SIZE;
+    private long clientConfigRefreshInterval = WebClientConfigUpdater.DEFAULT_REFRESH_INTERVAL;
+    private String clientConfigPersistencePath;
+    private boolean streamReadAhead;
+    private int segmentedDownloadConnections = 1;
+    private boolean pooledHttpInterfaces;
+    private RequestRateLimiter requestRateLimiter;
+    private String mediaCacheDirectory;
+    private long mediaCacheMaxBytes;
+    private long containerHeaderCacheSize = ContainerHeaderCache.DEFAULT_MAX_BYTES;
+    private FormatSelector formatSelector = FormatSelectionPolicy.DEFAULT;
+    private MetricsRegistry metricsRegistry = MetricsRegistry.NOOP;
 
     public boolean isAllowSearch() {
         return allowSearch;
@@ -57,5 +77,191 @@ public class YoutubeSourceOptions {
         return remoteCipherUserAgent;
     }
 
+    public int getVisitorIdPoolSize() {
+        return visitorIdPoolSize;
+    }
+
+    /**
+     * Sets the amount of visitor ids that are kept and rotated in the background.
+     * Requests are spread across these to reduce throttling of any single identity.
+     * @param visitorIdPoolSize The pool size. Must be at least 1.
+     */
+    public YoutubeSourceOptions setVisitorIdPoolSize(int visitorIdPoolSize) {
+        if (visitorIdPoolSize < 1) {
+            throw new IllegalArgumentException("Visitor id pool size must be at least 1");
+        }
+
+        this.visitorIdPoolSize = visitorIdPoolSize;
+        return this;
+    }
+
+    public long getClientConfigRefreshInterval() {
+        return clientConfigRefreshInterval;
+    }
+
+    /**
+     * Sets how often the WEB client config (client version and API key) is scraped from the youtube.com homepage
+     * in the background.
+     * @param clientConfigRefreshInterval The interval in milliseconds. Must be positive.
+     */
+    public YoutubeSourceOptions setClientConfigRefreshInterval(long clientConfigRefreshInterval) {
+        if (clientConfigRefreshInterval <= 0) {
+            throw new IllegalArgumentException("Client config refresh interval must be positive");
+        }
+
+        this.clientConfigRefreshInterval = clientConfigRefreshInterval;
+        return this;
+    }
+
+    @Nullable
+    public String getClientConfigPersistencePath() {
+        return clientConfigPersistencePath;
+    }
+
+    /**
+     * Sets a file that the scraped WEB client config is persisted to, and loaded from on startup.
+     * @param clientConfigPersistencePath The path of the file, or {@code null} to not persist the config.
+     */
+    public YoutubeSourceOptions setClientConfigPersistencePath(@Nullable String clientConfigPersistencePath) {
+        this.clientConfigPersistencePath = clientConfigPersistencePath;
+        return this;
+    }
+
+    public boolean isStreamReadAhead() {
+        return streamReadAhead;
+    }
+
+    /**
+     * Sets whether the next range of a track's stream is requested in the background before the current range
+     * runs out, so that playback doesn't stall on connecting at range boundaries. For livestreams, the next
+     * segment is prefetched while the current one is being decoded. Disabled by default.
+     */
+    public YoutubeSourceOptions setStreamReadAhead(boolean streamReadAhead) {
+        this.streamReadAhead = streamReadAhead;
+        return this;
+    }
+
+    public int getSegmentedDownloadConnections() {
+        return segmentedDownloadConnections;
+    }
 
+    /**
+     * Sets the amount of connections used to download ranges of static (non-live) formats concurrently.
+     * With more than one connection, streams are downloaded in segments, which avoids a single slow connection
+     * capping throughput at the cost of buffering up to one segment per connection.
+     * @param segmentedDownloadConnections The amount of connections. 1 disables segmented downloads.
+     */
+    public YoutubeSourceOptions setSegmentedDownloadConnections(int segmentedDownloadConnections) {
+        if (segmentedDownloadConnections < 1) {
+            throw new IllegalArgumentException("Segmented download connections must be at least 1");
+        }
+
+        this.segmentedDownloadConnections = segmentedDownloadConnections;
+        return this;
+    }
+
+    public boolean isPooledHttpInterfaces() {
+        return pooledHttpInterfaces;
+    }
+
+    /**
+     * Sets whether HTTP interfaces are borrowed from a shared pool instead of being kept per thread. Pooling keeps the
+     * amount of interfaces proportional to the requests in flight, which matters when tracks are loaded or played
+     * from virtual threads or large executors, where per-thread interfaces would pile up.
+     * @see dev.lavalink.youtube.http.PooledHttpInterfaceManager
+     */
+    public YoutubeSourceOptions setPooledHttpInterfaces(boolean pooledHttpInterfaces) {
+        this.pooledHttpInterfaces = pooledHttpInterfaces;
+        return this;
+    }
+
+    @Nullable
+    public RequestRateLimiter getRequestRateLimiter() {
+        return requestRateLimiter;
+    }
+
+    /**
+     * Sets the limiter that paces Innertube requests per client and per endpoint. Requests are not limited by
+     * default.
+     * @param requestRateLimiter The limiter to use, or {@code null} to not limit requests.
+     */
+    public YoutubeSourceOptions setRequestRateLimiter(@Nullable RequestRateLimiter requestRateLimiter) {
+        this.requestRateLimiter = requestRateLimiter;
+        return this;
+    }
+
+    @Nullable
+    public String getMediaCacheDirectory() {
+        return mediaCacheDirectory;
+    }
+
+    public long getMediaCacheMaxBytes() {
+        return mediaCacheMaxBytes;
+    }
+
+    /**
+     * Enables caching of played media on disk. Later plays of the same format are read from the cache instead of
+     * being downloaded again. Media cached by a previous run is reused.
+     * @param directory The directory to store cached media in, or {@code null} to disable the cache.
+     * @param maxBytes The maximum total size of cached media, in bytes. The least recently used media is evicted
+     *                 once this is exceeded.
+     */
+    public YoutubeSourceOptions setMediaCache(@Nullable String directory, long maxBytes) {
+        if (directory != null && maxBytes <= 0) {
+            throw new IllegalArgumentException("Media cache size must be positive");
+        }
+
+        this.mediaCacheDirectory = directory;
+        this.mediaCacheMaxBytes = maxBytes;
+        return this;
+    }
+
+    public long getContainerHeaderCacheSize() {
+        return containerHeaderCacheSize;
+    }
+
+    /**
+     * Sets how many bytes of container headers (MP4 moov/sidx, WebM Cues) are kept in memory, so that replays,
+     * seeks and stream renewals don't have to download them again.
+     * @param containerHeaderCacheSize The maximum size in bytes, or 0 to disable the cache.
+     */
+    public YoutubeSourceOptions setContainerHeaderCacheSize(long containerHeaderCacheSize) {
+        if (containerHeaderCacheSize < 0) {
+            throw new IllegalArgumentException("Container header cache size must not be negative");
+        }
+
+        this.containerHeaderCacheSize = containerHeaderCacheSize;
+        return this;
+    }
+
+    @NotNull
+    public FormatSelector getFormatSelector() {
+        return formatSelector;
+    }
+
+    /**
+     * Sets how the format to play is picked from the formats available for a track.
+     * @param formatSelector The selector to use. {@link FormatSelectionPolicy} covers preferring codecs, capping
+     *                       bitrate and excluding DRC or multichannel formats, and
+     *                       {@link dev.lavalink.youtube.track.format.LoadAwareFormatSelector} downgrades bitrate
+     *                       while the host is under load.
+     */
+    public YoutubeSourceOptions setFormatSelector(@NotNull FormatSelector formatSelector) {
+        this.formatSelector = formatSelector;
+        return this;
+    }
+
+    @NotNull
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Sets the registry that request, cipher, stream, OAuth and visitor id metrics are reported to. Metrics are
+     * not collected by default.
+     */
+    public YoutubeSourceOptions setMetricsRegistry(@NotNull MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        return this;
+    }
 }
@@ -0,0 +1,144 @@
+package dev.lavalink.youtube.cache;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
+import com.sedmelluq.discord.lavaplayer.track.info.AudioTrackInfoProvider;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A stream that serves cached ranges of a format from a {@link MediaCacheEntry}, and reads everything else from the
+ * underlying network stream while writing it into the cache. The network stream is only connected once uncached
+ * bytes are actually needed, so fully cached formats are played without connecting at all.
+ */
+public class CachedMediaStream extends SeekableInputStream {
+    private static final Logger log = LoggerFactory.getLogger(CachedMediaStream.class);
+
+    private final MediaCacheEntry entry;
+    private final SeekableInputStream delegate;
+
+    private long position;
+    private boolean writeFailed;
+    private boolean closed;
+
+    /**
+     * @param entry The cache entry of the format. It is released when this stream is closed.
+     * @param delegate The stream to read uncached ranges from. It is closed when this stream is closed.
+     */
+    public CachedMediaStream(@NotNull MediaCacheEntry entry, @NotNull SeekableInputStream delegate) {
+        super(entry.getContentLength(), delegate.getMaxSkipDistance());
+        this.entry = entry;
+        this.delegate = delegate;
+    }
+
+    @NotNull
+    public SeekableInputStream getDelegate() {
+        return delegate;
+    }
+
+    public boolean isFullyCached() {
+        return entry.isComplete();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] buffer = new byte[1];
+        int result = read(buffer, 0, 1);
+        return result == -1 ? -1 : buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        if (position >= contentLength) {
+            return -1;
+        }
+
+        long cachedEnd = entry.getCachedEnd(position);
+
+        if (cachedEnd != -1) {
+            int length = (int) Math.min(len, cachedEnd - position);
+            entry.read(position, b, off, length);
+            position += length;
+            return length;
+        }
+
+        // stop at the next cached range, so that it is served from the cache rather than downloaded again.
+        int length = (int) Math.min(len, entry.getNextCachedStart(position) - position);
+
+        if (delegate.getPosition() != position) {
+            delegate.seek(position);
+        }
+
+        int result = delegate.read(b, off, length);
+
+        if (result > 0) {
+            cache(b, off, result);
+            position += result;
+        }
+
+        return result;
+    }
+
+    private void cache(byte[] b, int off, int length) {
+        if (writeFailed) {
+            return;
+        }
+
+        try {
+            entry.write(position, b, off, length);
+        } catch (IOException e) {
+            // playback carries on from the network, there's just no point in trying to cache the rest.
+            log.warn("Failed to write to media cache entry {}, no longer caching this stream.", entry.getKey(), e);
+            writeFailed = true;
+        }
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, contentLength - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    protected void seekHard(long position) {
+        this.position = position;
+    }
+
+    @Override
+    public boolean canSeekHard() {
+        return true;
+    }
+
+    @Override
+    public List<AudioTrackInfoProvider> getTrackInfoProviders() {
+        return delegate.getTrackInfoProviders();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        try {
+            delegate.close();
+        } finally {
+            entry.release();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.lavalink.youtube.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An in-memory cache of the leading bytes of static formats, which hold the container headers and seek indexes
+ * (moov/sidx for MP4, Cues for WebM). The container parsers re-read these on every play, seek-triggered restart and
+ * stream renewal. With the bytes cached, only the media data at the target offset has to be fetched.
+ */
+public class ContainerHeaderCache {
+    public static final long DEFAULT_MAX_BYTES = 32 * 1024 * 1024;
+    // enough for the headers of any audio format youtube serves, without caching much of the media itself.
+    static final int MAX_HEADER_SIZE = 256 * 1024;
+
+    private final long maxBytes;
+    // access-ordered, so iteration starts at the least recently used entry.
+    private final Map<String, byte[]> headers = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * @param maxBytes The maximum total size of cached headers, in bytes.
+     */
+    public ContainerHeaderCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Nullable
+    public synchronized byte[] get(@NotNull String videoId, int itag, long contentLength) {
+        return headers.get(MediaCache.getKey(videoId, itag, contentLength));
+    }
+
+    public synchronized void put(@NotNull String videoId, int itag, long contentLength, @NotNull byte[] header) {
+        byte[] previous = headers.put(MediaCache.getKey(videoId, itag, contentLength), header);
+        cachedBytes += header.length - (previous != null ? previous.length : 0);
+
+        Iterator<byte[]> iterator = headers.values().iterator();
+
+        while (cachedBytes > maxBytes && iterator.hasNext()) {
+            cachedBytes -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    public synchronized int getEntryCount() {
+        return headers.size();
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+}
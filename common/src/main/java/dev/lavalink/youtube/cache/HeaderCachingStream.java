@@ -0,0 +1,155 @@
+package dev.lavalink.youtube.cache;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
+import com.sedmelluq.discord.lavaplayer.track.info.AudioTrackInfoProvider;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A stream that serves the leading bytes of a format from a {@link ContainerHeaderCache}. If they aren't cached yet,
+ * the bytes read sequentially from the start of the format are recorded until the reader first seeks elsewhere or
+ * the size limit is reached, and are cached once recording stops.
+ * <p>
+ * The underlying stream is only repositioned once bytes past the cached header are needed, so a seek after the
+ * header was served from memory costs a single request at the target offset.
+ */
+public class HeaderCachingStream extends SeekableInputStream {
+    // anything shorter than this can't hold a usable header, e.g. when the reader seeks away straight after opening.
+    private static final int MIN_HEADER_SIZE = 1024;
+
+    private final ContainerHeaderCache cache;
+    private final String videoId;
+    private final int itag;
+    private final SeekableInputStream delegate;
+    private final byte[] header;
+
+    private ByteArrayOutputStream recording;
+    private long position;
+
+    /**
+     * @param delegate The stream to read the format from. It is closed when this stream is closed.
+     */
+    public HeaderCachingStream(@NotNull ContainerHeaderCache cache,
+                               @NotNull String videoId,
+                               int itag,
+                               @NotNull SeekableInputStream delegate) {
+        super(delegate.getContentLength(), delegate.getMaxSkipDistance());
+        this.cache = cache;
+        this.videoId = videoId;
+        this.itag = itag;
+        this.delegate = delegate;
+        this.header = cache.get(videoId, itag, contentLength);
+        this.recording = header == null ? new ByteArrayOutputStream() : null;
+    }
+
+    @NotNull
+    public SeekableInputStream getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] buffer = new byte[1];
+        int result = read(buffer, 0, 1);
+        return result == -1 ? -1 : buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        if (position >= contentLength) {
+            return -1;
+        }
+
+        if (header != null && position < header.length) {
+            int length = (int) Math.min(len, header.length - position);
+            System.arraycopy(header, (int) position, b, off, length);
+            position += length;
+            return length;
+        }
+
+        if (delegate.getPosition() != position) {
+            delegate.seek(position);
+        }
+
+        int result = delegate.read(b, off, len);
+
+        if (result > 0) {
+            record(b, off, result);
+            position += result;
+        }
+
+        return result;
+    }
+
+    private void record(byte[] b, int off, int length) {
+        if (recording == null) {
+            return;
+        } else if (position != recording.size()) {
+            finishRecording();
+            return;
+        }
+
+        recording.write(b, off, Math.min(length, ContainerHeaderCache.MAX_HEADER_SIZE - recording.size()));
+
+        if (recording.size() >= ContainerHeaderCache.MAX_HEADER_SIZE) {
+            finishRecording();
+        }
+    }
+
+    private void finishRecording() {
+        if (recording != null && recording.size() >= MIN_HEADER_SIZE) {
+            cache.put(videoId, itag, contentLength, recording.toByteArray());
+        }
+
+        recording = null;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, contentLength - position));
+        position += skipped;
+
+        if (skipped > 0) {
+            finishRecording();
+        }
+
+        return skipped;
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    protected void seekHard(long position) {
+        if (position != this.position) {
+            finishRecording();
+        }
+
+        this.position = position;
+    }
+
+    @Override
+    public boolean canSeekHard() {
+        return true;
+    }
+
+    @Override
+    public List<AudioTrackInfoProvider> getTrackInfoProviders() {
+        return delegate.getTrackInfoProviders();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finishRecording();
+        delegate.close();
+    }
+}
@@ -0,0 +1,174 @@
+package dev.lavalink.youtube.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An on-disk cache of downloaded media, shared between all tracks of a source manager. Media is keyed by
+ * (videoId, itag, contentLength) and stored in one file per format, which is filled in range by range as it is
+ * played. Cached ranges are read back through memory mapping.
+ * <p>
+ * The cache is bounded by the total amount of cached bytes. When it grows beyond the limit, the least recently used
+ * entries that are not currently being read are evicted.
+ */
+public class MediaCache {
+    private static final Logger log = LoggerFactory.getLogger(MediaCache.class);
+
+    static final String DATA_EXTENSION = ".media";
+    static final String RANGES_EXTENSION = ".ranges";
+
+    private final Path directory;
+    private final long maxBytes;
+    // access-ordered, so iteration starts at the least recently used entry.
+    private final Map<String, MediaCacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    /**
+     * @param directory The directory to store cached media in. Media cached in it by a previous run is reused.
+     * @param maxBytes The maximum total size of cached media, in bytes.
+     */
+    public MediaCache(@NotNull Path directory, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Media cache size must be positive");
+        }
+
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+
+        try {
+            Files.createDirectories(directory);
+            loadEntries();
+        } catch (IOException e) {
+            log.warn("Failed to load media cache from {}", directory, e);
+        }
+    }
+
+    /**
+     * Opens the cache entry for a format, creating it if it doesn't exist yet. The entry must be released once the
+     * caller is done with it, as entries in use are never evicted.
+     * @return The entry, or {@code null} if the format cannot be cached.
+     */
+    @Nullable
+    public MediaCacheEntry open(@NotNull String videoId, int itag, long contentLength) {
+        if (contentLength <= 0 || contentLength > Integer.MAX_VALUE || contentLength > maxBytes) {
+            return null;
+        }
+
+        String key = getKey(videoId, itag, contentLength);
+
+        synchronized (entries) {
+            MediaCacheEntry entry = entries.get(key);
+
+            if (entry == null) {
+                entry = new MediaCacheEntry(this, key, directory.resolve(key + DATA_EXTENSION), directory.resolve(key + RANGES_EXTENSION), contentLength);
+                entries.put(key, entry);
+            }
+
+            entry.retain();
+            return entry;
+        }
+    }
+
+    /**
+     * @return The total amount of cached bytes.
+     */
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Called by entries whenever new bytes have been cached.
+     */
+    void onCached(long bytes) {
+        if (cachedBytes.addAndGet(bytes) > maxBytes) {
+            evict();
+        }
+    }
+
+    void release(MediaCacheEntry entry) {
+        boolean unused;
+
+        synchronized (entries) {
+            unused = entry.releaseReference();
+        }
+
+        // closing syncs the data file, which must not hold up other tracks opening or evicting entries.
+        if (unused) {
+            entry.close();
+        }
+
+        if (cachedBytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries that are not in use until the cache fits its limit again. Entries are
+     * deleted while holding the lock, so that a new entry for the same key can't open the files while they are
+     * being deleted. Deleting doesn't sync anything, and entries that are still being closed are skipped, so the
+     * lock is never held while waiting for the disk.
+     */
+    private void evict() {
+        synchronized (entries) {
+            Iterator<MediaCacheEntry> iterator = entries.values().iterator();
+
+            while (cachedBytes.get() > maxBytes && iterator.hasNext()) {
+                MediaCacheEntry entry = iterator.next();
+
+                long bytes = entry.getCachedBytes();
+
+                if (entry.isInUse() || !entry.tryDelete()) {
+                    continue;
+                }
+
+                log.debug("Evicting {} from media cache", entry.getKey());
+                iterator.remove();
+                cachedBytes.addAndGet(-bytes);
+            }
+        }
+    }
+
+    private void loadEntries() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + DATA_EXTENSION)) {
+            for (Path dataFile : files) {
+                String fileName = dataFile.getFileName().toString();
+                String key = fileName.substring(0, fileName.length() - DATA_EXTENSION.length());
+                MediaCacheEntry entry = MediaCacheEntry.load(this, key, dataFile, directory.resolve(key + RANGES_EXTENSION));
+
+                if (entry != null) {
+                    entries.put(key, entry);
+                    cachedBytes.addAndGet(entry.getCachedBytes());
+                }
+            }
+        }
+
+        log.debug("Loaded {} media cache entries ({} bytes) from {}", entries.size(), getCachedBytes(), directory);
+        evict();
+    }
+
+    static String getKey(String videoId, int itag, long contentLength) {
+        // video ids only contain [A-Za-z0-9_-], which are safe to use in file names.
+        return videoId + "-" + itag + "-" + contentLength;
+    }
+}
@@ -0,0 +1,377 @@
+package dev.lavalink.youtube.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The cached media of a single format. The data file always has the full length of the format, but only the ranges
+ * that have been downloaded hold valid data. Those ranges are tracked in memory, and persisted next to the data file
+ * whenever the entry is no longer in use.
+ * <p>
+ * The ranges are guarded by the entry's monitor, which is only held for in-memory work. Opening, syncing and closing
+ * the data file happen under a separate lock, so that readers never wait on disk I/O of another thread while holding
+ * a monitor.
+ */
+public class MediaCacheEntry {
+    private static final Logger log = LoggerFactory.getLogger(MediaCacheEntry.class);
+
+    private final MediaCache cache;
+    private final String key;
+    private final Path dataFile;
+    private final Path rangesFile;
+    private final long contentLength;
+    // start -> end (exclusive) of each cached range. ranges never overlap or touch.
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+    // guards the file handles below and the files themselves.
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    private long cachedBytes;
+    // only changed under the cache's lock, but read under fileLock when closing.
+    private volatile int references;
+    private boolean deleted;
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+
+    MediaCacheEntry(MediaCache cache, String key, Path dataFile, Path rangesFile, long contentLength) {
+        this.cache = cache;
+        this.key = key;
+        this.dataFile = dataFile;
+        this.rangesFile = rangesFile;
+        this.contentLength = contentLength;
+    }
+
+    @NotNull
+    public String getKey() {
+        return key;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized boolean isComplete() {
+        return cachedBytes == contentLength;
+    }
+
+    /**
+     * @return The end (exclusive) of the cached range containing the position, or {@code -1} if the position
+     * isn't cached.
+     */
+    public synchronized long getCachedEnd(long position) {
+        Map.Entry<Long, Long> range = ranges.floorEntry(position);
+        return range != null && range.getValue() > position ? range.getValue() : -1;
+    }
+
+    /**
+     * @return The start of the first cached range after the position, or the content length if there is none.
+     */
+    public synchronized long getNextCachedStart(long position) {
+        Long start = ranges.higherKey(position);
+        return start != null ? start : contentLength;
+    }
+
+    /**
+     * Reads cached bytes from the memory-mapped data file. The caller must make sure the range is cached.
+     */
+    public void read(long position, byte[] buffer, int offset, int length) throws IOException {
+        ByteBuffer view = getMapping().duplicate();
+        view.position((int) position);
+        view.get(buffer, offset, length);
+    }
+
+    /**
+     * Writes downloaded bytes to the data file and marks them as cached.
+     */
+    public void write(long position, byte[] buffer, int offset, int length) throws IOException {
+        FileChannel channel = getChannel();
+        ByteBuffer source = ByteBuffer.wrap(buffer, offset, length);
+        long writePosition = position;
+
+        while (source.hasRemaining()) {
+            writePosition += channel.write(source, writePosition);
+        }
+
+        long added;
+
+        synchronized (this) {
+            added = addRange(position, position + length);
+        }
+
+        if (added > 0) {
+            cache.onCached(added);
+        }
+    }
+
+    /**
+     * Releases this entry. Once no longer in use, its cached ranges are persisted and the data file is closed.
+     */
+    public void release() {
+        cache.release(this);
+    }
+
+    private MappedByteBuffer getMapping() throws IOException {
+        fileLock.lock();
+
+        try {
+            if (mapping == null) {
+                mapping = getChannel().map(FileChannel.MapMode.READ_ONLY, 0, contentLength);
+            }
+
+            return mapping;
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private FileChannel getChannel() throws IOException {
+        fileLock.lock();
+
+        try {
+            if (channel == null) {
+                file = new RandomAccessFile(dataFile.toFile(), "rw");
+
+                if (file.length() != contentLength) {
+                    file.setLength(contentLength);
+                }
+
+                channel = file.getChannel();
+            }
+
+            return channel;
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * @return The amount of bytes that were not cached before.
+     */
+    private long addRange(long start, long end) {
+        long mergedStart = start;
+        long mergedEnd = end;
+        long removed = 0;
+
+        Map.Entry<Long, Long> floor = ranges.floorEntry(start);
+
+        if (floor != null && floor.getValue() >= start) {
+            mergedStart = floor.getKey();
+            mergedEnd = Math.max(mergedEnd, floor.getValue());
+            removed += floor.getValue() - floor.getKey();
+            ranges.remove(floor.getKey());
+        }
+
+        Map.Entry<Long, Long> next;
+
+        while ((next = ranges.ceilingEntry(mergedStart)) != null && next.getKey() <= mergedEnd) {
+            mergedEnd = Math.max(mergedEnd, next.getValue());
+            removed += next.getValue() - next.getKey();
+            ranges.remove(next.getKey());
+        }
+
+        ranges.put(mergedStart, mergedEnd);
+
+        long added = (mergedEnd - mergedStart) - removed;
+        cachedBytes += added;
+        return added;
+    }
+
+    // references are guarded by the cache's lock.
+    void retain() {
+        references++;
+    }
+
+    boolean releaseReference() {
+        return --references == 0;
+    }
+
+    boolean isInUse() {
+        return references > 0;
+    }
+
+    /**
+     * Persists the cached ranges and closes the data file. Called by the cache once the entry is no longer in use,
+     * outside of the cache's lock as syncing the file can take a while. Does nothing if the entry has been opened
+     * again or deleted in the meantime.
+     */
+    void close() {
+        fileLock.lock();
+
+        try {
+            if (references > 0 || deleted) {
+                return;
+            }
+
+            if (closeFile(true)) {
+                writeRanges();
+            }
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * @param sync Whether to sync written data to the disk first.
+     * @return Whether the data was synced, or there was nothing to sync.
+     */
+    private boolean closeFile(boolean sync) {
+        mapping = null;
+        boolean synced = true;
+
+        if (channel != null) {
+            if (sync) {
+                try {
+                    // the ranges must never claim data that has not reached the disk yet.
+                    channel.force(false);
+                } catch (IOException e) {
+                    log.warn("Failed to sync media cache file {}, keeping previously persisted ranges", dataFile, e);
+                    synced = false;
+                }
+            }
+
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.debug("Failed to close media cache file {}", dataFile, e);
+            }
+
+            channel = null;
+            file = null;
+        }
+
+        return synced;
+    }
+
+    private void writeRanges() {
+        StringBuilder content = new StringBuilder();
+
+        synchronized (this) {
+            for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+                content.append(range.getKey()).append(' ').append(range.getValue()).append('\n');
+            }
+        }
+
+        Path temp = rangesFile.resolveSibling(rangesFile.getFileName() + ".tmp");
+
+        try {
+            // write and sync a temporary file first, so a crash mid-write never leaves truncated ranges behind.
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer source = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+
+                while (source.hasRemaining()) {
+                    out.write(source);
+                }
+
+                out.force(true);
+            }
+
+            Files.move(temp, rangesFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist cached ranges of {}", key, e);
+
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // nothing more to do, the next write replaces it.
+            }
+        }
+    }
+
+    /**
+     * Closes the data file without syncing it and deletes the entry's files.
+     * @return Whether the entry was deleted. It is not if another thread is busy with its files, e.g. closing it.
+     */
+    boolean tryDelete() {
+        if (!fileLock.tryLock()) {
+            return false;
+        }
+
+        try {
+            deleted = true;
+            closeFile(false);
+
+            try {
+                Files.deleteIfExists(rangesFile);
+                Files.deleteIfExists(dataFile);
+            } catch (IOException e) {
+                log.warn("Failed to delete media cache files of {}", key, e);
+            }
+        } finally {
+            fileLock.unlock();
+        }
+
+        synchronized (this) {
+            ranges.clear();
+            cachedBytes = 0;
+        }
+
+        return true;
+    }
+
+    /**
+     * Loads an entry persisted by a previous run. Data files without valid ranges are deleted, as there is no way to
+     * tell which parts of them are valid.
+     * @return The entry, or {@code null} if it could not be loaded.
+     */
+    @Nullable
+    static MediaCacheEntry load(MediaCache cache, String key, Path dataFile, Path rangesFile) {
+        try {
+            long contentLength = Long.parseLong(key.substring(key.lastIndexOf('-') + 1));
+
+            if (Files.size(dataFile) == contentLength && Files.isRegularFile(rangesFile)) {
+                MediaCacheEntry entry = new MediaCacheEntry(cache, key, dataFile, rangesFile, contentLength);
+                List<String> lines = Files.readAllLines(rangesFile, StandardCharsets.UTF_8);
+
+                for (String line : lines) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+
+                    String[] parts = line.split(" ");
+                    long start = Long.parseLong(parts[0]);
+                    long end = Long.parseLong(parts[1]);
+
+                    if (start < 0 || end > contentLength || start >= end) {
+                        throw new IllegalStateException("Invalid range " + line);
+                    }
+
+                    entry.addRange(start, end);
+                }
+
+                return entry;
+            }
+        } catch (Exception e) {
+            log.debug("Discarding invalid media cache entry {}", key, e);
+        }
+
+        try {
+            Files.deleteIfExists(rangesFile);
+            Files.deleteIfExists(dataFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete invalid media cache files of {}", key, e);
+        }
+
+        return null;
+    }
+}
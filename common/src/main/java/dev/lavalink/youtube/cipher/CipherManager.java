@@ -4,7 +4,9 @@ import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
+import dev.lavalink.youtube.FutureTools;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -14,6 +16,8 @@ import org.jetbrains.annotations.NotNull;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -33,26 +37,45 @@ public interface CipherManager {
                                   @NotNull String playerScript,
                                   @NotNull StreamFormat format) throws IOException;
 
+    /**
+     * Asynchronous variant of {@link #resolveFormatUrl}, which runs it as a task on the given executor. The task
+     * acquires its own HTTP interface, as the interface manager may tie an interface to the thread that acquired it.
+     * @return A future completed with the playback URL, or with the error {@link #resolveFormatUrl} would have thrown.
+     */
+    @NotNull
+    default CompletableFuture<URI> resolveFormatUrlAsync(@NotNull HttpInterfaceManager httpInterfaceManager,
+                                                         @NotNull String playerScript,
+                                                         @NotNull StreamFormat format,
+                                                         @NotNull Executor executor) {
+        return FutureTools.supplyAsync(() -> {
+            try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+                return resolveFormatUrl(httpInterface, playerScript, format);
+            }
+        }, executor);
+    }
+
     CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface);
 
     String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException;
 
+    /**
+     * Fetches the URL of the current player script from the embed page, and its signature timestamp. This doesn't lock
+     * anything itself, implementations call it from {@link #getCachedPlayerScript} while holding their own lock.
+     */
     default CachedPlayerScript getPlayerScript(@NotNull HttpInterface httpInterface) {
-        synchronized (this) {
-            try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com/embed/"))) {
-                HttpClientTools.assertSuccessWithContent(response, "fetch player script (embed)");
+        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com/embed/"))) {
+            HttpClientTools.assertSuccessWithContent(response, "fetch player script (embed)");
 
-                String responseText = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-                String scriptUrl = DataFormatTools.extractBetween(responseText, "\"jsUrl\":\"", "\"");
+            String responseText = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            String scriptUrl = DataFormatTools.extractBetween(responseText, "\"jsUrl\":\"", "\"");
 
-                if (scriptUrl == null) {
-                    throw new ExceptionWithResponseBody("no jsUrl found", responseText);
-                }
-
-                return new CachedPlayerScript(scriptUrl, getTimestamp(httpInterface, scriptUrl));
-            } catch (IOException e) {
-                throw ExceptionTools.toRuntimeException(e);
+            if (scriptUrl == null) {
+                throw new ExceptionWithResponseBody("no jsUrl found", responseText);
             }
+
+            return new CachedPlayerScript(scriptUrl, getTimestamp(httpInterface, scriptUrl));
+        } catch (IOException e) {
+            throw ExceptionTools.toRuntimeException(e);
         }
     }
 
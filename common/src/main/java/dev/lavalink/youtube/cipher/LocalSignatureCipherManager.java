@@ -7,7 +7,10 @@ import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
 import dev.lavalink.youtube.YoutubeSource;
 import dev.lavalink.youtube.cipher.ScriptExtractionException.ExtractionFailureType;
+import dev.lavalink.youtube.jfr.SourceEvents;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
 import dev.lavalink.youtube.track.format.StreamFormat;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
@@ -32,6 +35,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -92,6 +96,8 @@ public class LocalSignatureCipherManager implements CipherManager {
     private final ConcurrentMap<String, SignatureCipher> cipherCache;
     private final Set<String> dumpedScriptUrls;
     private final ScriptEngine scriptEngine;
+    // held while fetching scripts. A lock rather than a monitor, so that threads waiting on it don't pin virtual threads.
+    private final ReentrantLock scriptLock = new ReentrantLock();
 
     protected volatile CachedPlayerScript cachedPlayerScript;
 
@@ -117,6 +123,23 @@ public class LocalSignatureCipherManager implements CipherManager {
     public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
                                 @NotNull String playerScript,
                                 @NotNull StreamFormat format) throws IOException {
+        YoutubeMetrics metrics = YoutubeMetrics.get(httpInterface.getContext());
+        long start = System.nanoTime();
+
+        try {
+            return decipherFormatUrl(httpInterface, playerScript, format);
+        } catch (IOException | RuntimeException e) {
+            metrics.getCipherResolveFailures().increment();
+            throw e;
+        } finally {
+            metrics.getCipherResolveTime().recordSince(start);
+        }
+    }
+
+    @NotNull
+    private URI decipherFormatUrl(@NotNull HttpInterface httpInterface,
+                                  @NotNull String playerScript,
+                                  @NotNull StreamFormat format) throws IOException {
         String signature = format.getSignature();
         String nParameter = format.getNParameter();
         URI initialUrl = format.getUrl();
@@ -126,17 +149,24 @@ public class LocalSignatureCipherManager implements CipherManager {
         SignatureCipher cipher = getCipherScript(httpInterface, playerScript);
 
         if (!DataFormatTools.isNullOrEmpty(signature)) {
+            Object event = SourceEvents.beginCipherEvaluation();
+
             try {
                 uri.setParameter(format.getSignatureKey(), cipher.apply(signature, scriptEngine));
+                SourceEvents.endCipherEvaluation(event, playerScript, "sig", true);
             } catch (ScriptException | NoSuchMethodException e) {
+                SourceEvents.endCipherEvaluation(event, playerScript, "sig", false);
                 dumpProblematicScript(cipherCache.get(playerScript).rawScript, playerScript, "Can't transform s parameter " + signature);
             }
         }
 
 
         if (!DataFormatTools.isNullOrEmpty(nParameter)) {
+            Object event = SourceEvents.beginCipherEvaluation();
+
             try {
                 String transformed = cipher.transform(nParameter, scriptEngine);
+                SourceEvents.endCipherEvaluation(event, playerScript, "n", transformed != null && !nParameter.equals(transformed));
                 String logMessage = null;
 
                 if (transformed == null) {
@@ -154,6 +184,7 @@ public class LocalSignatureCipherManager implements CipherManager {
 
                 uri.setParameter("n", transformed);
             } catch (ScriptException | NoSuchMethodException e) {
+                SourceEvents.endCipherEvaluation(event, playerScript, "n", false);
                 // URLs can still be played without a resolved n parameter. It just means they're
                 // throttled. But we shouldn't throw an exception anyway as it's not really fatal.
                 dumpProblematicScript(cipherCache.get(playerScript).rawScript, playerScript, "Can't transform n parameter " + nParameter + " with " + cipher.nFunction + " n function");
@@ -169,8 +200,12 @@ public class LocalSignatureCipherManager implements CipherManager {
 
     public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
         if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
-            synchronized (this) {
+            scriptLock.lock();
+
+            try {
                 if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
+                    YoutubeMetrics.get(httpInterface.getContext()).getPlayerScriptCache(false).increment();
+
                     try {
                         return (cachedPlayerScript = getPlayerScript(httpInterface));
                     } catch (RuntimeException e) {
@@ -181,19 +216,34 @@ public class LocalSignatureCipherManager implements CipherManager {
                         throw e;
                     }
                 }
+            } finally {
+                scriptLock.unlock();
             }
         }
 
+        YoutubeMetrics.get(httpInterface.getContext()).getPlayerScriptCache(true).increment();
         return cachedPlayerScript;
     }
 
     private SignatureCipher getCipherScript(@NotNull HttpInterface httpInterface,
                                            @NotNull String cipherScriptUrl) throws IOException {
         SignatureCipher cipherKey = cipherCache.get(cipherScriptUrl);
+        YoutubeMetrics.get(httpInterface.getContext()).getCipherScriptCache(cipherKey != null).increment();
 
         if (cipherKey == null) {
-            synchronized (this) {
+            scriptLock.lock();
+
+            try {
+                SignatureCipher fetched = cipherCache.get(cipherScriptUrl);
+
+                if (fetched != null) {
+                    // fetched by another thread while this one was waiting.
+                    return fetched;
+                }
+
                 log.debug("Parsing player script {}", cipherScriptUrl);
+                TrackStartTimeline timeline = TrackStartTimeline.get(httpInterface.getContext());
+                long scriptBegin = System.nanoTime();
 
                 try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(cipherScriptUrl)))) {
                     int statusCode = response.getStatusLine().getStatusCode();
@@ -205,7 +255,19 @@ public class LocalSignatureCipherManager implements CipherManager {
 
                     cipherKey = extractFromScript(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8), cipherScriptUrl);
                     cipherCache.put(cipherScriptUrl, cipherKey);
+                } catch (IOException | RuntimeException e) {
+                    if (timeline != null) {
+                        timeline.record(TrackStartTimeline.Phase.PLAYER_SCRIPT, scriptBegin, null, e);
+                    }
+
+                    throw e;
                 }
+
+                if (timeline != null) {
+                    timeline.record(TrackStartTimeline.Phase.PLAYER_SCRIPT, scriptBegin, null, null);
+                }
+            } finally {
+                scriptLock.unlock();
             }
         }
 
@@ -214,7 +276,9 @@ public class LocalSignatureCipherManager implements CipherManager {
 
     public String getRawScript(@NotNull HttpInterface httpInterface,
                                @NotNull String cipherScriptUrl) throws IOException {
-        synchronized (this) {
+        scriptLock.lock();
+
+        try {
             log.debug("getting raw player script {}", cipherScriptUrl);
 
             try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(cipherScriptUrl)))) {
@@ -227,6 +291,8 @@ public class LocalSignatureCipherManager implements CipherManager {
 
                 return EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
             }
+        } finally {
+            scriptLock.unlock();
         }
     }
 
@@ -255,7 +321,9 @@ public class LocalSignatureCipherManager implements CipherManager {
     }
 
     public String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
-        synchronized (this) {
+        scriptLock.lock();
+
+        try {
             log.debug("Timestamp from script {}", sourceUrl);
 
             try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(CipherUtils.parseTokenScriptUrl(sourceUrl)))) {
@@ -268,6 +336,8 @@ public class LocalSignatureCipherManager implements CipherManager {
 
                 return getScriptTimestamp(httpInterface, EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8), sourceUrl);
             }
+        } finally {
+            scriptLock.unlock();
         }
     }
 
@@ -8,6 +8,8 @@ import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import dev.lavalink.youtube.ExceptionWithResponseBody;
 import dev.lavalink.youtube.http.YoutubeHttpContextFilter;
+import dev.lavalink.youtube.jfr.SourceEvents;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
@@ -24,6 +26,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.sedmelluq.discord.lavaplayer.tools.ExceptionTools.throwWithDebugInfo;
 
@@ -35,6 +38,8 @@ public class RemoteCipherManager implements CipherManager {
 
     private final @NotNull String remoteUrl;
 
+    private final ReentrantLock scriptLock = new ReentrantLock();
+
     protected volatile CachedPlayerScript cachedPlayerScript;
 
     /**
@@ -63,20 +68,39 @@ public class RemoteCipherManager implements CipherManager {
     public URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
                                 @NotNull String playerScript,
                                 @NotNull StreamFormat format) throws IOException {
-        return resolveUrl(
-            httpInterface,
-            format.getUrl(),
-            playerScript,
-            format.getSignature(),
-            format.getNParameter(),
-            format.getSignatureKey()
-        );
+        YoutubeMetrics metrics = YoutubeMetrics.get(httpInterface.getContext());
+        Object event = SourceEvents.beginCipherEvaluation();
+        long start = System.nanoTime();
+
+        try {
+            URI url = resolveUrl(
+                httpInterface,
+                format.getUrl(),
+                playerScript,
+                format.getSignature(),
+                format.getNParameter(),
+                format.getSignatureKey()
+            );
+
+            SourceEvents.endCipherEvaluation(event, playerScript, "remote", true);
+            return url;
+        } catch (IOException | RuntimeException e) {
+            metrics.getCipherResolveFailures().increment();
+            SourceEvents.endCipherEvaluation(event, playerScript, "remote", false);
+            throw e;
+        } finally {
+            metrics.getCipherResolveTime().recordSince(start);
+        }
     }
 
     public CachedPlayerScript getCachedPlayerScript(@NotNull HttpInterface httpInterface) {
         if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
-            synchronized (this) {
+            scriptLock.lock();
+
+            try {
                 if (cachedPlayerScript == null || System.currentTimeMillis() >= cachedPlayerScript.expireTimestampMs) {
+                    YoutubeMetrics.get(httpInterface.getContext()).getPlayerScriptCache(false).increment();
+
                     try {
                         return (cachedPlayerScript = getPlayerScript(httpInterface));
                     } catch (RuntimeException e) {
@@ -87,14 +111,19 @@ public class RemoteCipherManager implements CipherManager {
                         throw e;
                     }
                 }
+            } finally {
+                scriptLock.unlock();
             }
         }
 
+        YoutubeMetrics.get(httpInterface.getContext()).getPlayerScriptCache(true).increment();
         return cachedPlayerScript;
     }
 
     public String getTimestamp(HttpInterface httpInterface, String sourceUrl) throws IOException {
-        synchronized (this) {
+        scriptLock.lock();
+
+        try {
             HttpPost request = new HttpPost(getRemoteEndpoint("get_sts"));
 
             log.debug("Getting timestamp for script: {}", sourceUrl);
@@ -114,6 +143,8 @@ public class RemoteCipherManager implements CipherManager {
                 JsonBrowser json = JsonBrowser.parse(responseBody);
                 return json.get("sts").text();
             }
+        } finally {
+            scriptLock.unlock();
         }
     }
 
@@ -3,15 +3,12 @@ package dev.lavalink.youtube.clients;
 import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
-import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
+import dev.lavalink.youtube.clients.skeleton.ResponseFieldMask;
 import dev.lavalink.youtube.clients.skeleton.StreamingNonMusicClient;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -19,20 +16,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 public class Web extends StreamingNonMusicClient {
     private static final Logger log = LoggerFactory.getLogger(Web.class);
 
-    protected static Pattern CONFIG_REGEX = Pattern.compile("ytcfg\\.set\\((\\{.+})\\);");
-
     public static ClientConfig BASE_CONFIG = new ClientConfig()
             .withClientName("WEB")
             .withClientField("clientVersion", "2.20250403.01.00")
@@ -41,6 +34,11 @@ public class Web extends StreamingNonMusicClient {
     public static String poToken;
 
     protected volatile long lastConfigUpdate = -1;
+    private final ReentrantLock configLock = new ReentrantLock();
+
+    // set while a WebClientConfigUpdater is keeping BASE_CONFIG up to date for this client, in which case requests
+    // never fetch the config themselves.
+    private volatile boolean backgroundConfigUpdates;
 
     protected ClientOptions options;
 
@@ -50,6 +48,8 @@ public class Web extends StreamingNonMusicClient {
 
     public Web(@NotNull ClientOptions options) {
         this.options = options;
+        // WEB uses different top-level sections for playlist names and continuations.
+        this.browseFieldMask = new ResponseFieldMask("alerts,header,metadata,contents,onResponseReceivedActions");
     }
 
     public static void setPoTokenAndVisitorData(String poToken, String visitorData) {
@@ -66,58 +66,54 @@ public class Web extends StreamingNonMusicClient {
         BASE_CONFIG.withVisitorData(visitorData);
     }
 
+    /**
+     * Updates the base config with values scraped from the youtube.com homepage.
+     * Null or empty values are ignored.
+     */
+    public static void applyClientConfig(@Nullable String clientVersion, @Nullable String apiKey) {
+        if (!DataFormatTools.isNullOrEmpty(apiKey)) {
+            BASE_CONFIG.withApiKey(apiKey);
+        }
+
+        if (!DataFormatTools.isNullOrEmpty(clientVersion)) {
+            // overwrite baseConfig version so we're always up-to-date
+            BASE_CONFIG.withClientField("clientVersion", clientVersion);
+        }
+    }
+
+    void setBackgroundConfigUpdates(boolean backgroundConfigUpdates) {
+        this.backgroundConfigUpdates = backgroundConfigUpdates;
+    }
+
     protected void fetchClientConfig(@NotNull HttpInterface httpInterface) {
-        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com"))) {
-            HttpClientTools.assertSuccessWithContent(response, "client config fetch");
+        try {
             lastConfigUpdate = System.currentTimeMillis();
+            JsonBrowser json = WebClientConfigUpdater.scrape(httpInterface);
 
-            String page = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-            Matcher m = CONFIG_REGEX.matcher(page);
-
-            if (!m.find()) {
-                log.warn("Unable to find youtube client config in base page, html: {}", page);
+            if (json == null) {
+                log.warn("Unable to find youtube client config in base page");
                 return;
             }
 
-            JsonBrowser json = JsonBrowser.parse(m.group(1));
+            /*
+             * "client": {
+             * "hl": "en-GB",
+             * "gl": "GB",
+             * "remoteHost": "<ip>",
+             * "deviceMake": "",
+             * "deviceModel": "",
+             * "visitorData": "<base64>",
+             * "userAgent": "...",
+             * "clientName": "WEB",
+             * "clientVersion": "2.20240401.05.00",
+             * "osVersion": "",
+             * "originalUrl": "https://www.youtube.com/",
+             * "platform": "DESKTOP",
+             * "clientFormFactor": "UNKNOWN_FORM_FACTOR",
+             * ...
+             */
             JsonBrowser client = json.get("INNERTUBE_CONTEXT").get("client");
-            String apiKey = json.get("INNERTUBE_API_KEY").text();
-
-            if (!apiKey.isEmpty()) {
-                BASE_CONFIG.withApiKey(apiKey);
-            }
-
-            if (!client.isNull()) {
-                /*
-                 * "client": {
-                 * "hl": "en-GB",
-                 * "gl": "GB",
-                 * "remoteHost": "<ip>",
-                 * "deviceMake": "",
-                 * "deviceModel": "",
-                 * "visitorData": "<base64>",
-                 * "userAgent": "...",
-                 * "clientName": "WEB",
-                 * "clientVersion": "2.20240401.05.00",
-                 * "osVersion": "",
-                 * "originalUrl": "https://www.youtube.com/",
-                 * "platform": "DESKTOP",
-                 * "clientFormFactor": "UNKNOWN_FORM_FACTOR",
-                 * ...
-                 */
-                String clientVersion = client.get("clientVersion").text();
-
-                if (!clientVersion.isEmpty()) {
-                    // overwrite baseConfig version so we're always up-to-date
-                    BASE_CONFIG.withClientField("clientVersion", clientVersion);
-                }
-
-                // String visitorData = client.get("visitorData").text();
-                //
-                // if (visitorData != null && !visitorData.isEmpty()) {
-                // BASE_CONFIG.withVisitorData(visitorData);
-                // }
-            }
+            applyClientConfig(client.get("clientVersion").text(), json.get("INNERTUBE_API_KEY").text());
         } catch (IOException e) {
             throw ExceptionTools.toRuntimeException(e);
         }
@@ -126,11 +122,15 @@ public class Web extends StreamingNonMusicClient {
     @Override
     @NotNull
     public ClientConfig getBaseClientConfig(@NotNull HttpInterface httpInterface) {
-        if (lastConfigUpdate == -1) {
-            synchronized (this) {
+        if (lastConfigUpdate == -1 && !backgroundConfigUpdates) {
+            configLock.lock();
+
+            try {
                 if (lastConfigUpdate == -1) {
                     fetchClientConfig(httpInterface);
                 }
+            } finally {
+                configLock.unlock();
             }
         }
 
@@ -0,0 +1,264 @@
+package dev.lavalink.youtube.clients;
+
+import com.grack.nanojson.JsonWriter;
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the scraped {@link Web} client config (client version and API key) up to date in the background, so that
+ * requests never have to wait on the youtube.com homepage being downloaded. The last scraped config can optionally
+ * be persisted to a file, which is loaded on startup so that a restart doesn't have to scrape again straight away.
+ */
+public class WebClientConfigUpdater {
+    private static final Logger log = LoggerFactory.getLogger(WebClientConfigUpdater.class);
+
+    public static final long DEFAULT_REFRESH_INTERVAL = TimeUnit.HOURS.toMillis(6);
+    private static final long RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+    private static final String CONFIG_MARKER = "ytcfg.set({";
+    // the config block is usually a few hundred KB at most. anything above this is not what we're looking for.
+    private static final int MAX_CONFIG_LENGTH = 4 * 1024 * 1024;
+
+    private final HttpInterfaceManager httpInterfaceManager;
+    private final List<Web> clients;
+    private final long refreshInterval;
+    private final Path persistencePath;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param httpInterfaceManager The interface manager to use for fetching the homepage.
+     * @param clients The clients that rely on the scraped config. They stop fetching it themselves while this
+     *                updater is running.
+     * @param refreshInterval How often the config should be scraped, in milliseconds.
+     * @param persistencePath The file to persist the scraped config to, or {@code null} to not persist it.
+     */
+    public WebClientConfigUpdater(@NotNull HttpInterfaceManager httpInterfaceManager,
+                                  @NotNull Collection<? extends Web> clients,
+                                  long refreshInterval,
+                                  @Nullable Path persistencePath) {
+        this.httpInterfaceManager = httpInterfaceManager;
+        this.clients = new ArrayList<>(clients);
+        this.refreshInterval = refreshInterval;
+        this.persistencePath = persistencePath;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("yt-web-config"));
+    }
+
+    /**
+     * Applies the persisted config (if any) and schedules the first scrape. If the persisted config is still
+     * fresh, the first scrape happens once it becomes stale rather than straight away.
+     */
+    public void start() {
+        clients.forEach(client -> client.setBackgroundConfigUpdates(true));
+        long delay = 0;
+
+        if (persistencePath != null) {
+            Long updatedAt = loadPersisted();
+
+            if (updatedAt != null) {
+                delay = Math.max(0, updatedAt + refreshInterval - System.currentTimeMillis());
+            }
+        }
+
+        schedule(delay);
+    }
+
+    /**
+     * Stops updating the config. The clients go back to fetching it themselves if they never received it.
+     */
+    public void shutdown() {
+        ExecutorTools.shutdownExecutor(scheduler, "YouTube web config updater");
+        clients.forEach(client -> client.setBackgroundConfigUpdates(false));
+    }
+
+    private void schedule(long delay) {
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh() {
+        long delay;
+
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            JsonBrowser config = scrape(httpInterface);
+
+            if (config == null) {
+                log.warn("Unable to find youtube client config in base page");
+                delay = RETRY_INTERVAL;
+            } else {
+                String clientVersion = config.get("INNERTUBE_CONTEXT").get("client").get("clientVersion").text();
+                String apiKey = config.get("INNERTUBE_API_KEY").text();
+                Web.applyClientConfig(clientVersion, apiKey);
+                persist(clientVersion, apiKey);
+                delay = refreshInterval;
+                log.debug("Updated WEB client config (version: {}), next update in {} minutes", clientVersion, TimeUnit.MILLISECONDS.toMinutes(delay));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to update WEB client config, retrying in {} minutes", TimeUnit.MILLISECONDS.toMinutes(RETRY_INTERVAL), e);
+            delay = RETRY_INTERVAL;
+        }
+
+        schedule(delay);
+    }
+
+    @Nullable
+    private Long loadPersisted() {
+        if (!Files.isRegularFile(persistencePath)) {
+            return null;
+        }
+
+        try (InputStream stream = Files.newInputStream(persistencePath)) {
+            JsonBrowser json = JsonBrowser.parse(stream);
+            Web.applyClientConfig(json.get("clientVersion").text(), json.get("apiKey").text());
+            long updatedAt = json.get("updatedAt").asLong(0);
+            log.debug("Loaded persisted WEB client config from {} (version: {})", persistencePath, json.get("clientVersion").text());
+            return updatedAt;
+        } catch (Exception e) {
+            log.warn("Failed to load persisted WEB client config from {}", persistencePath, e);
+            return null;
+        }
+    }
+
+    private void persist(@Nullable String clientVersion, @Nullable String apiKey) {
+        if (persistencePath == null) {
+            return;
+        }
+
+        // @formatter:off
+        String json = JsonWriter.string()
+            .object()
+                .value("clientVersion", clientVersion)
+                .value("apiKey", apiKey)
+                .value("updatedAt", System.currentTimeMillis())
+            .end()
+            .done();
+        // @formatter:on
+
+        try {
+            Path parent = persistencePath.toAbsolutePath().getParent();
+
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            // write to a temporary file first so a crash mid-write never leaves a truncated config behind.
+            Path temp = persistencePath.resolveSibling(persistencePath.getFileName() + ".tmp");
+            Files.write(temp, json.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, persistencePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist WEB client config to {}", persistencePath, e);
+        }
+    }
+
+    /**
+     * Fetches the youtube.com homepage and extracts the {@code ytcfg.set({...})} block containing the innertube
+     * config. The page is scanned as it is received and the response is closed as soon as the block has been found,
+     * so the rest of the page is never downloaded or buffered.
+     * @return The parsed config, or {@code null} if it could not be found.
+     */
+    @Nullable
+    public static JsonBrowser scrape(@NotNull HttpInterface httpInterface) throws IOException {
+        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet("https://www.youtube.com"))) {
+            HttpClientTools.assertSuccessWithContent(response, "client config fetch");
+
+            Reader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8));
+            String block;
+
+            while ((block = nextConfigBlock(reader)) != null) {
+                JsonBrowser json = JsonBrowser.parse(block);
+
+                if (!json.get("INNERTUBE_CONTEXT").isNull() || !json.get("INNERTUBE_API_KEY").isNull()) {
+                    return json;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Reads up to and including the next {@code ytcfg.set({...})} object literal, tracking brace depth and string
+     * literals so that braces within strings don't end the block early. The reader should be buffered, as it is
+     * read one character at a time.
+     * @return The object literal, or {@code null} if the end of the stream was reached first.
+     */
+    @Nullable
+    static String nextConfigBlock(@NotNull Reader reader) throws IOException {
+        StringBuilder block = null;
+        int markerIndex = 0;
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        char quote = 0;
+        int read;
+
+        while ((read = reader.read()) != -1) {
+            char c = (char) read;
+
+            if (block == null) {
+                if (c == CONFIG_MARKER.charAt(markerIndex)) {
+                    if (++markerIndex == CONFIG_MARKER.length()) {
+                        block = new StringBuilder().append('{');
+                        depth = 1;
+                        markerIndex = 0;
+                    }
+                } else {
+                    markerIndex = c == CONFIG_MARKER.charAt(0) ? 1 : 0;
+                }
+
+                continue;
+            }
+
+            block.append(c);
+
+            if (block.length() > MAX_CONFIG_LENGTH) {
+                throw new IOException("Client config block exceeds " + MAX_CONFIG_LENGTH + " characters");
+            }
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == quote) {
+                    inString = false;
+                }
+            } else if (c == '"' || c == '\'') {
+                inString = true;
+                quote = c;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return block.toString();
+            }
+        }
+
+        return null;
+    }
+}
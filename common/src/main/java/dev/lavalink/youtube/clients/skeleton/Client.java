@@ -7,6 +7,7 @@ import com.sedmelluq.discord.lavaplayer.track.AudioItem;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import dev.lavalink.youtube.CannotBeLoaded;
+import dev.lavalink.youtube.FutureTools;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.clients.ClientOptions;
 import dev.lavalink.youtube.track.format.TrackFormats;
@@ -16,6 +17,8 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.COMMON;
@@ -238,6 +241,23 @@ public interface Client {
                              @NotNull HttpInterface httpInterface,
                              @NotNull String videoId) throws CannotBeLoaded, IOException;
 
+    /**
+     * Asynchronous variant of {@link #loadFormats}, which runs it as a task on the given executor. The task acquires
+     * its own HTTP interface from the source manager, as interfaces may be tied to the thread that acquired them.
+     * @return A future completed with the formats, or with the {@link CannotBeLoaded} or {@link IOException} that
+     * {@link #loadFormats} would have thrown.
+     */
+    @NotNull
+    default CompletableFuture<TrackFormats> loadFormatsAsync(@NotNull YoutubeAudioSourceManager source,
+                                                             @NotNull String videoId,
+                                                             @NotNull Executor executor) {
+        return FutureTools.supplyAsync(() -> {
+            try (HttpInterface httpInterface = source.getInterface()) {
+                return loadFormats(source, httpInterface, videoId);
+            }
+        }, executor);
+    }
+
     /**
      * Loads a single video.
      * @param source The source manager responsible for this client.
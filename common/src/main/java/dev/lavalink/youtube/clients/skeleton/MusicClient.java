@@ -3,14 +3,15 @@ package dev.lavalink.youtube.clients.skeleton;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
-import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.track.*;
 import dev.lavalink.youtube.OptionDisabledException;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.clients.ClientConfig;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.Operation;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.RequestMetrics;
 import dev.lavalink.youtube.track.format.TrackFormats;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.jetbrains.annotations.NotNull;
@@ -28,6 +29,8 @@ import java.util.List;
 public abstract class MusicClient implements Client {
     private static final Logger log = LoggerFactory.getLogger(MusicClient.class);
 
+    protected ResponseFieldMask searchFieldMask = new ResponseFieldMask("contents");
+
     @NotNull
     protected abstract ClientConfig getBaseClientConfig(@NotNull HttpInterface httpInterface);
 
@@ -42,11 +45,21 @@ public abstract class MusicClient implements Client {
         request.setEntity(new StringEntity(config.toJsonString(), "UTF-8"));
         request.setHeader("Referer", "music.youtube.com");
 
-        try (CloseableHttpResponse response = httpInterface.execute(request)) {
-            HttpClientTools.assertSuccessWithContent(response, "search music response");
-            return JsonBrowser.parse(response.getEntity().getContent());
+        RequestMetrics metrics = YoutubeMetrics.get(httpInterface.getContext())
+            .getRequestMetrics(getIdentifier(), Operation.MUSIC_SEARCH);
+        long start = System.nanoTime();
+
+        try {
+            JsonBrowser json = searchFieldMask.load(httpInterface, request, "search music response", getIdentifier(),
+                response -> !response.get("contents").isNull());
+            metrics.record(start, null);
+            return json;
         } catch (IOException e) {
+            metrics.record(start, e);
             throw ExceptionTools.toRuntimeException(e);
+        } catch (RuntimeException e) {
+            metrics.record(start, e);
+            throw e;
         }
     }
 
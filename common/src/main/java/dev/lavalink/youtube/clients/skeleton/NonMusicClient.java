@@ -2,7 +2,6 @@ package dev.lavalink.youtube.clients.skeleton;
 
 import com.sedmelluq.discord.lavaplayer.tools.*;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity;
-import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.track.*;
 import dev.lavalink.youtube.CannotBeLoaded;
@@ -11,14 +10,14 @@ import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.cipher.CipherManager;
 import dev.lavalink.youtube.cipher.CipherManager.CachedPlayerScript;
 import dev.lavalink.youtube.clients.ClientConfig;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.Operation;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.RequestMetrics;
 import dev.lavalink.youtube.track.TemporalInfo;
-import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,6 +29,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -42,12 +42,19 @@ import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.
  */
 public abstract class NonMusicClient implements Client {
     private static final Logger log = LoggerFactory.getLogger(NonMusicClient.class);
+    private static final Pattern ENCRYPTED_HOST_FLAGS_PATTERN = Pattern.compile("\"encryptedHostFlags\":\"([^\"]+)\"");
 
     protected static String WEB_PLAYER_PARAMS = "2AMB";
     protected static String MOBILE_PLAYER_PARAMS = "CgIIAdgDAQ%3D%3D";
 
     protected int playlistPageCount = 6;
 
+    // only the top-level sections that are actually read are requested. see ResponseFieldMask.
+    protected ResponseFieldMask playerFieldMask = new ResponseFieldMask("playabilityStatus,videoDetails,streamingData");
+    protected ResponseFieldMask searchFieldMask = new ResponseFieldMask("contents");
+    protected ResponseFieldMask nextFieldMask = new ResponseFieldMask("contents");
+    protected ResponseFieldMask browseFieldMask = new ResponseFieldMask("alerts,header,contents,continuationContents");
+
     //<editor-fold desc="Class-Specific Methods">
     /**
      * Retrieves a base client config payload to be used for requests.
@@ -62,22 +69,65 @@ public abstract class NonMusicClient implements Client {
     protected JsonBrowser loadJsonResponse(@NotNull HttpInterface httpInterface,
                                            @NotNull HttpPost request,
                                            @NotNull String context) throws IOException {
-        if (request.getEntity() instanceof StringEntity) {
-            log.debug("Requesting {} ({}) with payload {}", request.getURI(), context, EntityUtils.toString(request.getEntity(), StandardCharsets.UTF_8));
-        } else {
-            log.debug("Requesting {} ({})", context, request.getURI());
+        logRequest(request, context);
+        RequestMetrics metrics = getRequestMetrics(httpInterface, request);
+        long start = System.nanoTime();
+
+        try {
+            JsonBrowser json = ResponseFieldMask.execute(httpInterface, request, context, getIdentifier(), false);
+
+            if (json == null) {
+                throw new IllegalStateException("Missing response for " + context);
+            }
+
+            metrics.record(start, null);
+            return json;
+        } catch (IOException | RuntimeException e) {
+            metrics.record(start, e);
+            throw e;
         }
+    }
 
-        try (CloseableHttpResponse response = httpInterface.execute(request)) {
-            HttpClientTools.assertSuccessWithContent(response, context);
-            // todo: flag for checking json content type?
-            //       from my testing, json is always returned so might not be necessary.
-            HttpClientTools.assertJsonContentType(response);
+    /**
+     * Loads a JSON response with the given field mask applied, falling back to the full response if the
+     * masked one is unusable.
+     * @param validator Checks that the response contains the fields required by the caller.
+     */
+    @NotNull
+    protected JsonBrowser loadJsonResponse(@NotNull HttpInterface httpInterface,
+                                           @NotNull HttpPost request,
+                                           @NotNull String context,
+                                           @NotNull ResponseFieldMask fieldMask,
+                                           @NotNull Predicate<JsonBrowser> validator) throws IOException {
+        logRequest(request, context);
+        RequestMetrics metrics = getRequestMetrics(httpInterface, request);
+        long start = System.nanoTime();
+
+        try {
+            JsonBrowser json = fieldMask.load(httpInterface, request, context, getIdentifier(), validator);
+            metrics.record(start, null);
+            return json;
+        } catch (IOException | RuntimeException e) {
+            metrics.record(start, e);
+            throw e;
+        }
+    }
+
+    @NotNull
+    protected RequestMetrics getRequestMetrics(@NotNull HttpInterface httpInterface, @NotNull HttpPost request) {
+        return YoutubeMetrics.get(httpInterface.getContext())
+            .getRequestMetrics(getIdentifier(), Operation.forUrl(request.getURI()));
+    }
 
-            String json = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-            log.trace("Response from {} ({}) {}", request.getURI(), context, json);
+    private void logRequest(@NotNull HttpPost request, @NotNull String context) throws IOException {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
 
-            return JsonBrowser.parse(json);
+        if (request.getEntity() instanceof StringEntity) {
+            log.debug("Requesting {} ({}) with payload {}", request.getURI(), context, EntityUtils.toString(request.getEntity(), StandardCharsets.UTF_8));
+        } else {
+            log.debug("Requesting {} ({})", context, request.getURI());
         }
     }
 
@@ -133,7 +183,7 @@ public abstract class NonMusicClient implements Client {
 
         // For embedded clients, fetch and include encryptedHostFlags to avoid playback restrictions.
         if (isEmbedded()) {
-            String encryptedHostFlags = fetchEncryptedHostFlags(videoId);
+            String encryptedHostFlags = fetchEncryptedHostFlags(httpInterface, videoId);
             if (encryptedHostFlags != null) {
                 config.withEncryptedHostFlags(encryptedHostFlags);
             }
@@ -152,7 +202,8 @@ public abstract class NonMusicClient implements Client {
         HttpPost request = new HttpPost(PLAYER_URL);
         request.setEntity(new StringEntity(payload, "UTF-8"));
 
-        JsonBrowser json = loadJsonResponse(httpInterface, request, "player api response");
+        JsonBrowser json = loadJsonResponse(httpInterface, request, "player api response", playerFieldMask,
+            response -> !response.get("playabilityStatus").isNull());
         JsonBrowser playabilityJson = json.get("playabilityStatus");
         JsonBrowser videoDetails = json.get("videoDetails");
 
@@ -197,27 +248,28 @@ public abstract class NonMusicClient implements Client {
      * Fetches the encryptedHostFlags from the YouTube embed page.
      * This is required for embedded clients to avoid playback restrictions.
      *
+     * @param httpInterface The interface to fetch the embed page with. Its rate limits apply to the request.
      * @param videoId The video ID to fetch the embed page for.
      * @return The encryptedHostFlags value, or null if not found.
+     * @throws IOException If the rate limiter rejected the request.
      */
     @Nullable
-    protected String fetchEncryptedHostFlags(@NotNull String videoId) {
-        String embedUrl = "https://www.youtube.com/embed/" + videoId;
+    protected String fetchEncryptedHostFlags(@NotNull HttpInterface httpInterface,
+                                             @NotNull String videoId) throws IOException {
+        HttpGet request = new HttpGet("https://www.youtube.com/embed/" + videoId);
+        request.setHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet request = new HttpGet(embedUrl);
-            request.setHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
+        ResponseFieldMask.acquireRateLimit(httpInterface, request, getIdentifier());
 
-            HttpResponse response = httpClient.execute(request);
+        try (CloseableHttpResponse response = httpInterface.execute(request)) {
             String html = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-
-            Pattern pattern = Pattern.compile("\"encryptedHostFlags\":\"([^\"]+)\"");
-            Matcher matcher = pattern.matcher(html);
+            Matcher matcher = ENCRYPTED_HOST_FLAGS_PATTERN.matcher(html);
 
             if (matcher.find()) {
                 return matcher.group(1);
             }
         } catch (IOException e) {
+            // the player request can still go ahead without the flags.
             log.debug("Failed to fetch encryptedHostFlags for video {}", videoId, e);
         }
 
@@ -237,7 +289,8 @@ public abstract class NonMusicClient implements Client {
         request.setEntity(new StringEntity(payload, "UTF-8"));
 
         try {
-            return loadJsonResponse(httpInterface, request, "search response");
+            return loadJsonResponse(httpInterface, request, "search response", searchFieldMask,
+                response -> !response.get("contents").isNull());
         } catch (IOException e) {
             throw ExceptionTools.toRuntimeException(e);
         }
@@ -270,7 +323,8 @@ public abstract class NonMusicClient implements Client {
         request.setEntity(new StringEntity(clientConfig.toJsonString(), "UTF-8"));
 
         try {
-            return loadJsonResponse(httpInterface, request, "mix response");
+            return loadJsonResponse(httpInterface, request, "mix response", nextFieldMask,
+                response -> !response.get("contents").isNull());
         } catch (IOException e) {
             throw new FriendlyException("Could not read mix page.", SUSPICIOUS, e);
         }
@@ -295,7 +349,8 @@ public abstract class NonMusicClient implements Client {
         request.setEntity(new StringEntity(clientConfig.toJsonString(), "UTF-8"));
 
         try {
-            return loadJsonResponse(httpInterface, request, "playlist response");
+            return loadJsonResponse(httpInterface, request, "playlist response", browseFieldMask,
+                response -> !response.get("contents").isNull() || !response.get("alerts").isNull());
         } catch (IOException e) {
             throw ExceptionTools.toRuntimeException(e);
         }
@@ -532,7 +587,8 @@ public abstract class NonMusicClient implements Client {
             request.setEntity(new StringEntity(clientConfig.toJsonString(), "UTF-8"));
 
             try {
-                JsonBrowser continuationJson = loadJsonResponse(httpInterface, request, "playlist response");
+                JsonBrowser continuationJson = loadJsonResponse(httpInterface, request, "playlist continuation response", browseFieldMask,
+                    response -> !extractPlaylistContinuationVideos(response).isNull());
                 playlistVideoList = extractPlaylistContinuationVideos(continuationJson);
                 continuationsToken = extractPlaylistContinuationToken(playlistVideoList);
                 extractPlaylistTracks(playlistVideoList, tracks, source);
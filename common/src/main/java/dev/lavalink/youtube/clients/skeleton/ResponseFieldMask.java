@@ -0,0 +1,207 @@
+package dev.lavalink.youtube.clients.skeleton;
+
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import dev.lavalink.youtube.http.RequestRateLimiter;
+import dev.lavalink.youtube.jfr.SourceEvents;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.Operation;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * A response field mask for a single Innertube operation of a client. The mask is sent with the request so that
+ * YouTube only returns the listed fields. If a masked response is rejected, cannot be parsed or is missing the fields
+ * the caller needs, the request is repeated without the mask. After repeated failures, the mask is no longer applied
+ * until the retry interval has passed, after which it is tried again.
+ * <p>
+ * Responses are counted in the {@link YoutubeMetrics} of the HTTP interface.
+ */
+public class ResponseFieldMask {
+    private static final Logger log = LoggerFactory.getLogger(ResponseFieldMask.class);
+
+    public static final String HEADER = "X-Goog-FieldMask";
+    public static final long DEFAULT_RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+    static final int FAILURE_THRESHOLD = 3;
+
+    private final String fields;
+    private final long retryInterval;
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile long disabledUntil;
+
+    /**
+     * @param fields A comma-separated list of the top-level response fields to keep,
+     *               e.g. {@code playabilityStatus,videoDetails}.
+     */
+    public ResponseFieldMask(@NotNull String fields) {
+        this(fields, DEFAULT_RETRY_INTERVAL);
+    }
+
+    /**
+     * @param fields A comma-separated list of the top-level response fields to keep.
+     * @param retryInterval How long the mask stays disabled after repeated failures, in milliseconds.
+     */
+    public ResponseFieldMask(@NotNull String fields, long retryInterval) {
+        this.fields = fields;
+        this.retryInterval = retryInterval;
+    }
+
+    @NotNull
+    public String getFields() {
+        return fields;
+    }
+
+    public boolean isEnabled() {
+        return failures.get() < FAILURE_THRESHOLD || System.currentTimeMillis() >= disabledUntil;
+    }
+
+    /**
+     * Executes the request with this mask applied, falling back to the full response if needed.
+     * @param validator Checks that the masked response contains what the caller needs.
+     */
+    @NotNull
+    public JsonBrowser load(@NotNull HttpInterface httpInterface,
+                            @NotNull HttpPost request,
+                            @NotNull String context,
+                            @NotNull Predicate<JsonBrowser> validator) throws IOException {
+        return load(httpInterface, request, context, null, validator);
+    }
+
+    /**
+     * Executes the request with this mask applied, falling back to the full response if needed. The request takes a
+     * single token from the rate limiter, even if it has to be repeated.
+     * @param client The identifier of the client making the request, if known.
+     * @param validator Checks that the masked response contains what the caller needs.
+     */
+    @NotNull
+    public JsonBrowser load(@NotNull HttpInterface httpInterface,
+                            @NotNull HttpPost request,
+                            @NotNull String context,
+                            @Nullable String client,
+                            @NotNull Predicate<JsonBrowser> validator) throws IOException {
+        acquireRateLimit(httpInterface, request, client);
+
+        if (isEnabled()) {
+            request.setHeader(HEADER, fields);
+            JsonBrowser json = send(httpInterface, request, context, client, true);
+
+            if (json != null && validator.test(json)) {
+                failures.set(0);
+                return json;
+            }
+
+            int failureCount = failures.incrementAndGet();
+            YoutubeMetrics.get(httpInterface.getContext()).getFieldMaskFallbacks().increment();
+            request.removeHeaders(HEADER);
+
+            log.debug("Masked {} was unusable (mask: {}, failures: {}), retrying with full response.", context, fields, failureCount);
+
+            if (failureCount >= FAILURE_THRESHOLD) {
+                disabledUntil = System.currentTimeMillis() + retryInterval;
+
+                if (failureCount == FAILURE_THRESHOLD) {
+                    log.warn("Disabling response field mask for {} after {} consecutive failures, retrying in {} ms.", context, failureCount, retryInterval);
+                }
+            }
+        }
+
+        JsonBrowser json = send(httpInterface, request, context, client, false);
+
+        if (json == null) {
+            // only masked requests yield null.
+            throw new IllegalStateException("Missing response for " + context);
+        }
+
+        return json;
+    }
+
+    /**
+     * Executes an Innertube request and parses the JSON response.
+     * @param client The identifier of the client making the request, if known.
+     * @param masked Whether a field mask was applied to the request. Masked requests that are rejected or cannot
+     *               be parsed return {@code null} rather than throwing.
+     */
+    @Nullable
+    static JsonBrowser execute(@NotNull HttpInterface httpInterface,
+                               @NotNull HttpPost request,
+                               @NotNull String context,
+                               @Nullable String client,
+                               boolean masked) throws IOException {
+        acquireRateLimit(httpInterface, request, client);
+        return send(httpInterface, request, context, client, masked);
+    }
+
+    /**
+     * Waits for the rate limiter attached to the interface, if any, to allow the request.
+     * @param client The identifier of the client making the request, if known.
+     */
+    static void acquireRateLimit(@NotNull HttpInterface httpInterface,
+                                 @NotNull HttpUriRequest request,
+                                 @Nullable String client) throws IOException {
+        RequestRateLimiter rateLimiter = RequestRateLimiter.get(httpInterface.getContext());
+
+        if (rateLimiter != null) {
+            rateLimiter.acquire(httpInterface.getContext(), client, Operation.forUrl(request.getURI()));
+        }
+    }
+
+    @Nullable
+    private static JsonBrowser send(HttpInterface httpInterface,
+                                    HttpPost request,
+                                    String context,
+                                    @Nullable String client,
+                                    boolean masked) throws IOException {
+        Object event = SourceEvents.beginInnertubeRequest();
+        int statusCode = 0;
+        long bytes = 0;
+
+        try (CloseableHttpResponse response = httpInterface.execute(request)) {
+            statusCode = response.getStatusLine().getStatusCode();
+
+            if (masked && statusCode == 400) {
+                return null;
+            }
+
+            HttpClientTools.assertSuccessWithContent(response, context);
+            // todo: flag for checking json content type?
+            //       from my testing, json is always returned so might not be necessary.
+            HttpClientTools.assertJsonContentType(response);
+
+            byte[] body = EntityUtils.toByteArray(response.getEntity());
+            bytes = body.length;
+
+            YoutubeMetrics metrics = YoutubeMetrics.get(httpInterface.getContext());
+            metrics.getInnertubeResponses(masked).increment();
+            metrics.getInnertubeResponseBytes(masked).increment(body.length);
+
+            String json = new String(body, StandardCharsets.UTF_8);
+            log.trace("Response from {} ({}) {}", request.getURI(), context, json);
+
+            try {
+                return JsonBrowser.parse(json);
+            } catch (IOException e) {
+                if (masked) {
+                    log.debug("Failed to parse masked {}", context, e);
+                    return null;
+                }
+
+                throw e;
+            }
+        } finally {
+            SourceEvents.endInnertubeRequest(event, client, request.getURI(), statusCode, bytes, masked);
+        }
+    }
+}
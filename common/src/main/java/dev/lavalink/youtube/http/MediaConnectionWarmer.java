@@ -0,0 +1,108 @@
+package dev.lavalink.youtube.http;
+
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Opens a connection to the media host of a format while its URL is still being resolved, so that DNS lookup, TCP
+ * connect and TLS handshake are done by the time the stream is opened. The warm-up request leaves the connection in
+ * the pool of the interface manager, where the stream request picks it up.
+ */
+public class MediaConnectionWarmer {
+    private static final Logger log = LoggerFactory.getLogger(MediaConnectionWarmer.class);
+
+    // googlevideo hosts answer this with an empty 204, which is what the YouTube player uses for warming up as well.
+    private static final String WARM_UP_PATH = "/generate_204";
+    // pooled connections are kept alive for a while, hosts warmed up more recently than this are skipped.
+    private static final long WARM_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    static final int MAX_HOSTS = 1024;
+
+    private static final ExecutorService warmUpExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("yt-warm-up"));
+
+    private final HttpInterfaceManager httpInterfaceManager;
+    private final Map<String, Long> lastWarmUp = new ConcurrentHashMap<>();
+
+    /**
+     * @param httpInterfaceManager The interface manager that streams are opened with.
+     */
+    public MediaConnectionWarmer(@NotNull HttpInterfaceManager httpInterfaceManager) {
+        this.httpInterfaceManager = httpInterfaceManager;
+    }
+
+    /**
+     * Starts warming up a connection to the host of the given media URL in the background, unless that host was
+     * warmed up recently. The URL doesn't have to be signed yet.
+     */
+    public void warmUp(@NotNull URI mediaUrl) {
+        String host = mediaUrl.getHost();
+
+        if (host == null || !host.endsWith(".googlevideo.com")) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+
+        if (lastWarmUp.size() >= MAX_HOSTS && !lastWarmUp.containsKey(host)) {
+            makeRoom(now);
+        }
+
+        Long previous = lastWarmUp.get(host);
+
+        if ((previous != null && now - previous < WARM_INTERVAL) || !replace(host, previous, now)) {
+            return;
+        }
+
+        URI warmUpUrl = URI.create(mediaUrl.getScheme() + "://" + host + WARM_UP_PATH);
+        warmUpExecutor.submit(() -> connect(warmUpUrl));
+    }
+
+    int getHostCount() {
+        return lastWarmUp.size();
+    }
+
+    private void makeRoom(long now) {
+        lastWarmUp.values().removeIf(time -> now - time >= WARM_INTERVAL);
+
+        if (lastWarmUp.size() >= MAX_HOSTS) {
+            // every host was warmed up recently, so forget the ones that were warmed up first.
+            lastWarmUp.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .limit(lastWarmUp.size() - MAX_HOSTS + 1)
+                .collect(Collectors.toList())
+                .forEach(entry -> lastWarmUp.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private boolean replace(String host, Long previous, long now) {
+        return previous == null ? lastWarmUp.putIfAbsent(host, now) == null : lastWarmUp.replace(host, previous, now);
+    }
+
+    private void connect(URI warmUpUrl) {
+        long start = System.nanoTime();
+
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface();
+             CloseableHttpResponse response = httpInterface.execute(new HttpGet(warmUpUrl))) {
+            // consuming the entity releases the connection back to the pool instead of closing it.
+            EntityUtils.consumeQuietly(response.getEntity());
+            log.debug("Warmed up connection to {} in {} ms (status {})", warmUpUrl.getHost(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), response.getStatusLine().getStatusCode());
+        } catch (Exception e) {
+            log.debug("Failed to warm up connection to {}", warmUpUrl.getHost(), e);
+        }
+    }
+}
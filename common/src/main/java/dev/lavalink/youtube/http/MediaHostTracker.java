@@ -0,0 +1,147 @@
+package dev.lavalink.youtube.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks connect latency and failures of googlevideo media hosts, and picks which of the alternate hosts listed in a
+ * stream URL should serve the next request. Streams stay on the host they are using unless it is failing, slow, or
+ * a known alternate is considerably faster.
+ */
+public class MediaHostTracker {
+    private static final double LATENCY_WEIGHT = 0.3;
+    // hosts slower than this are switched away from even if the alternates haven't been measured yet.
+    private static final long SLOW_LATENCY = 1500;
+    // the latency assumed for alternates that haven't been measured yet.
+    private static final long UNKNOWN_LATENCY = 500;
+    private static final double SWITCH_RATIO = 0.7;
+    private static final long SWITCH_MIN_DIFFERENCE = 50;
+    private static final long AVOID_BASE = TimeUnit.SECONDS.toMillis(30);
+    private static final long AVOID_MAX = TimeUnit.MINUTES.toMillis(5);
+    private static final long STALE_AFTER = TimeUnit.HOURS.toMillis(1);
+    static final int MAX_HOSTS = 1024;
+
+    private final Map<String, HostStats> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Records a successful connection to a host.
+     * @param latency The time until the response headers were received, in milliseconds.
+     */
+    public void recordSuccess(@NotNull String host, long latency) {
+        HostStats stats = getStats(host);
+
+        synchronized (stats) {
+            stats.latency = stats.latency < 0 ? latency : stats.latency + LATENCY_WEIGHT * (latency - stats.latency);
+            stats.consecutiveFailures = 0;
+            stats.avoidUntil = 0;
+            stats.lastSeen = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Records a failed connection to a host. Repeatedly failing hosts are avoided for increasingly long periods.
+     */
+    public void recordFailure(@NotNull String host) {
+        HostStats stats = getStats(host);
+
+        synchronized (stats) {
+            stats.consecutiveFailures++;
+            long now = System.currentTimeMillis();
+            stats.avoidUntil = now + getAvoidDuration(stats.consecutiveFailures);
+            stats.lastSeen = now;
+        }
+    }
+
+    /**
+     * @param candidates The hosts the media is available from.
+     * @param current The host currently in use, which is preferred unless it is failing or slow.
+     * @return The host to use for the next request.
+     */
+    @NotNull
+    public String choose(@NotNull List<String> candidates, @NotNull String current) {
+        long now = System.currentTimeMillis();
+        double currentLatency = getLatency(current, now);
+        String best = current;
+        double bestLatency = currentLatency;
+
+        for (String candidate : candidates) {
+            double latency = getLatency(candidate, now);
+
+            if (latency < bestLatency) {
+                best = candidate;
+                bestLatency = latency;
+            }
+        }
+
+        if (best.equals(current)) {
+            return current;
+        }
+
+        boolean currentUsable = currentLatency < SLOW_LATENCY;
+        boolean muchFaster = bestLatency < currentLatency * SWITCH_RATIO && currentLatency - bestLatency >= SWITCH_MIN_DIFFERENCE;
+        return !currentUsable || muchFaster ? best : current;
+    }
+
+    /**
+     * @return The expected latency of a host, or {@link Double#MAX_VALUE} if it is being avoided.
+     */
+    private double getLatency(String host, long now) {
+        HostStats stats = hosts.get(host);
+
+        if (stats == null) {
+            return UNKNOWN_LATENCY;
+        }
+
+        synchronized (stats) {
+            if (stats.avoidUntil > now) {
+                return Double.MAX_VALUE;
+            }
+
+            return stats.latency < 0 ? UNKNOWN_LATENCY : stats.latency;
+        }
+    }
+
+    int getHostCount() {
+        return hosts.size();
+    }
+
+    /**
+     * @return How long a host is avoided for after the given amount of consecutive failures, in milliseconds.
+     */
+    static long getAvoidDuration(int consecutiveFailures) {
+        return Math.min(AVOID_BASE << Math.min(consecutiveFailures - 1, 10), AVOID_MAX);
+    }
+
+    private HostStats getStats(String host) {
+        if (hosts.size() >= MAX_HOSTS && !hosts.containsKey(host)) {
+            long staleBefore = System.currentTimeMillis() - STALE_AFTER;
+            hosts.values().removeIf(stats -> stats.lastSeen < staleBefore);
+
+            if (hosts.size() >= MAX_HOSTS) {
+                // nothing is stale, so make room by dropping the hosts that were seen least recently.
+                hosts.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastSeen))
+                    .limit(hosts.size() - MAX_HOSTS + 1)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList())
+                    .forEach(hosts::remove);
+            }
+        }
+
+        return hosts.computeIfAbsent(host, unused -> new HostStats());
+    }
+
+    private static class HostStats {
+        private double latency = -1;
+        private int consecutiveFailures;
+        private long avoidUntil;
+        // read without holding the lock when making room for new hosts.
+        private volatile long lastSeen = System.currentTimeMillis();
+    }
+}
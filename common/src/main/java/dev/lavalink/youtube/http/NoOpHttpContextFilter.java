@@ -0,0 +1,36 @@
+package dev.lavalink.youtube.http;
+
+import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextFilter;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+
+/**
+ * A filter that leaves contexts and requests as they are.
+ */
+public class NoOpHttpContextFilter implements HttpContextFilter {
+    @Override
+    public void onContextOpen(HttpClientContext context) {
+
+    }
+
+    @Override
+    public void onContextClose(HttpClientContext context) {
+
+    }
+
+    @Override
+    public void onRequest(HttpClientContext context, HttpUriRequest request, boolean isRepetition) {
+
+    }
+
+    @Override
+    public boolean onRequestResponse(HttpClientContext context, HttpUriRequest request, HttpResponse response) {
+        return false;
+    }
+
+    @Override
+    public boolean onRequestException(HttpClientContext context, HttpUriRequest request, Throwable error) {
+        return false;
+    }
+}
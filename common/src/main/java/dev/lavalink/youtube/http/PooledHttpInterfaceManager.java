@@ -0,0 +1,123 @@
+package dev.lavalink.youtube.http;
+
+import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextFilter;
+import com.sedmelluq.discord.lavaplayer.tools.io.AbstractHttpInterfaceManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out HTTP interfaces from a shared pool, instead of keeping one per thread like the thread-local managers of
+ * {@link HttpClientTools} do. An interface goes back to the pool when it is closed, so the amount of interfaces and
+ * request contexts follows the amount of requests in flight rather than the amount of threads that ever made one.
+ * This suits virtual threads and large executors, which would otherwise leave an interface behind for every thread.
+ * <p>
+ * As with thread-local interfaces, a pooled interface keeps its context between uses, so state bound to a context
+ * (e.g. its visitor id) carries over to whoever uses the interface next. Cookies are not stored. Pooled interfaces
+ * made before the client or filter was reconfigured are discarded rather than handed out again.
+ */
+public class PooledHttpInterfaceManager extends AbstractHttpInterfaceManager {
+    public static final int DEFAULT_MAX_IDLE = 64;
+
+    private final Queue<PooledHttpInterface> idleInterfaces = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+    private volatile HttpContextFilter filter = new NoOpHttpContextFilter();
+
+    public PooledHttpInterfaceManager() {
+        this(HttpClientTools.createSharedCookiesHttpBuilder().disableCookieManagement(), HttpClientTools.DEFAULT_REQUEST_CONFIG, DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * @param maxIdle The maximum amount of interfaces kept in the pool. Interfaces closed while the pool is full are
+     *                discarded.
+     */
+    public PooledHttpInterfaceManager(@NotNull HttpClientBuilder clientBuilder,
+                                      @NotNull RequestConfig requestConfig,
+                                      int maxIdle) {
+        super(clientBuilder, requestConfig);
+
+        if (maxIdle < 1) {
+            throw new IllegalArgumentException("Max idle interfaces must be at least 1");
+        }
+
+        this.maxIdle = maxIdle;
+    }
+
+    @Override
+    public HttpInterface getInterface() {
+        CloseableHttpClient client = getSharedClient();
+        HttpContextFilter currentFilter = filter;
+        PooledHttpInterface httpInterface;
+
+        while ((httpInterface = idleInterfaces.poll()) != null) {
+            idleCount.decrementAndGet();
+
+            // made with a client or filter that has since been replaced, so it's dropped.
+            if (httpInterface.client == client && httpInterface.filter == currentFilter) {
+                httpInterface.open();
+                return httpInterface;
+            }
+        }
+
+        httpInterface = new PooledHttpInterface(client, HttpClientContext.create(), currentFilter);
+        httpInterface.open();
+        return httpInterface;
+    }
+
+    @Override
+    public void setHttpContextFilter(HttpContextFilter filter) {
+        this.filter = filter != null ? filter : new NoOpHttpContextFilter();
+    }
+
+    /**
+     * @return The amount of interfaces waiting in the pool.
+     */
+    public int getIdleCount() {
+        return Math.max(0, idleCount.get());
+    }
+
+    private void release(PooledHttpInterface httpInterface) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idleInterfaces.offer(httpInterface);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    private class PooledHttpInterface extends HttpInterface {
+        private final CloseableHttpClient client;
+        private final HttpContextFilter filter;
+        private final AtomicBoolean inUse = new AtomicBoolean();
+
+        private PooledHttpInterface(CloseableHttpClient client, HttpClientContext context, HttpContextFilter filter) {
+            super(client, context, false, filter);
+            this.client = client;
+            this.filter = filter;
+        }
+
+        private void open() {
+            acquire();
+            inUse.set(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // only the first close releases it, so closing twice can't put the interface in the pool twice.
+            if (inUse.compareAndSet(true, false)) {
+                super.close();
+                release(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.lavalink.youtube.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of making an Innertube request when the {@link RequestRateLimiter} would have had to delay it for
+ * longer than its maximum wait. Like any other failed request, this makes the source fall back to the next client.
+ */
+public class RateLimitExceededException extends IOException {
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package dev.lavalink.youtube.http;
+
+/**
+ * Thrown when the OAuth token endpoint rejects a refresh token with {@code invalid_grant}, meaning the token was
+ * revoked or has expired and refreshing it again will not succeed until the account is linked again.
+ */
+public class RefreshTokenRevokedException extends RuntimeException {
+    public RefreshTokenRevokedException(String message) {
+        super(message);
+    }
+}
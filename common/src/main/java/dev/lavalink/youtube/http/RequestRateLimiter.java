@@ -0,0 +1,202 @@
+package dev.lavalink.youtube.http;
+
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.Operation;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces Innertube requests with token buckets, so that bursts (e.g. loading a large playlist while others search)
+ * are spread out to a rate YouTube tolerates, rather than running into 429s and bot checks that then affect every
+ * request. Buckets can be set per endpoint, shared by all clients, and per client, shared by all endpoints. A request
+ * takes a token from each bucket that applies to it.
+ * <p>
+ * Every request reserves the next free slot of its buckets, so waiting requests are served in the order they arrived,
+ * and each endpoint queues separately, so searches don't wait behind a backlog of player requests. Requests that
+ * would have to wait for longer than the maximum wait fail right away with a {@link RateLimitExceededException},
+ * which keeps the queues short and lets the source fall back to another client.
+ * <p>
+ * The limiter is stored in the context of every HTTP interface of the source manager under
+ * {@link #CONTEXT_ATTRIBUTE}, which is how requests get hold of it.
+ */
+public class RequestRateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(RequestRateLimiter.class);
+
+    public static final String CONTEXT_ATTRIBUTE = "yt-rate-limiter";
+    public static final long DEFAULT_MAX_WAIT = TimeUnit.SECONDS.toMillis(2);
+
+    private final long maxWaitNanos;
+    private final TokenBucket[] endpointBuckets = new TokenBucket[Operation.values().length];
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+
+    public RequestRateLimiter() {
+        this(DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * @param maxWaitMs The longest a request may be delayed for. Requests that would have to wait longer are rejected.
+     */
+    public RequestRateLimiter(long maxWaitMs) {
+        if (maxWaitMs < 0) {
+            throw new IllegalArgumentException("Max wait must not be negative");
+        }
+
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    }
+
+    /**
+     * @return The limiter stored in the given context, or {@code null} if requests are not rate limited.
+     */
+    @Nullable
+    public static RequestRateLimiter get(@NotNull HttpClientContext context) {
+        Object limiter = context.getAttribute(CONTEXT_ATTRIBUTE);
+        return limiter instanceof RequestRateLimiter ? (RequestRateLimiter) limiter : null;
+    }
+
+    /**
+     * Stores this limiter in the given context, unless it is stored there already.
+     */
+    public void attach(@NotNull HttpClientContext context) {
+        if (context.getAttribute(CONTEXT_ATTRIBUTE) != this) {
+            context.setAttribute(CONTEXT_ATTRIBUTE, this);
+        }
+    }
+
+    /**
+     * Limits requests to an endpoint, across all clients.
+     * @param permitsPerSecond The sustained rate of requests.
+     * @param burst The amount of requests that may be made at once after a quiet period.
+     */
+    public RequestRateLimiter setEndpointLimit(@NotNull Operation operation, double permitsPerSecond, int burst) {
+        endpointBuckets[operation.ordinal()] = new TokenBucket(operation.name().toLowerCase(Locale.ROOT), permitsPerSecond, burst);
+        return this;
+    }
+
+    /**
+     * Limits requests made by a client, across all endpoints.
+     * @param client The identifier of the client, e.g. {@code WEB}.
+     * @param permitsPerSecond The sustained rate of requests.
+     * @param burst The amount of requests that may be made at once after a quiet period.
+     */
+    public RequestRateLimiter setClientLimit(@NotNull String client, double permitsPerSecond, int burst) {
+        clientBuckets.put(client, new TokenBucket(client, permitsPerSecond, burst));
+        return this;
+    }
+
+    /**
+     * Waits until a request may be made.
+     * @param context The context of the request, used for metrics.
+     * @param client The identifier of the client making the request, if known.
+     * @throws RateLimitExceededException If the request would have had to wait longer than the maximum wait.
+     * @throws InterruptedIOException If the thread was interrupted while waiting.
+     */
+    public void acquire(@NotNull HttpClientContext context,
+                        @Nullable String client,
+                        @NotNull Operation operation) throws IOException {
+        TokenBucket endpointBucket = endpointBuckets[operation.ordinal()];
+        TokenBucket clientBucket = client != null ? clientBuckets.get(client) : null;
+
+        if (endpointBucket == null && clientBucket == null) {
+            return;
+        }
+
+        YoutubeMetrics metrics = YoutubeMetrics.get(context);
+        long now = System.nanoTime();
+        long clientWait = clientBucket != null ? clientBucket.reserve(now, maxWaitNanos) : 0;
+
+        if (clientWait < 0) {
+            throw reject(metrics, clientBucket, operation);
+        }
+
+        long endpointWait = endpointBucket != null ? endpointBucket.reserve(now, maxWaitNanos) : 0;
+
+        if (endpointWait < 0) {
+            if (clientBucket != null) {
+                clientBucket.cancel();
+            }
+
+            throw reject(metrics, endpointBucket, operation);
+        }
+
+        long wait = Math.max(clientWait, endpointWait);
+
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for rate limit");
+            }
+        }
+
+        metrics.getRateLimitWait().record(wait);
+    }
+
+    private RateLimitExceededException reject(YoutubeMetrics metrics, TokenBucket bucket, Operation operation) {
+        metrics.getRateLimitRejections().increment();
+        log.debug("Rejected {} request, rate limit of {} would be exceeded", operation, bucket.name);
+        return new RateLimitExceededException("Rate limit of " + bucket.name + " exceeded for " + operation.name().toLowerCase(Locale.ROOT) + " request");
+    }
+
+    /**
+     * A token bucket in the form of the generic cell rate algorithm: instead of counting tokens, it tracks the time at
+     * which the bucket would be empty, and every reservation pushes that time back by one interval. A reservation has
+     * to wait for as long as that time is more than the burst ahead of now.
+     */
+    static class TokenBucket {
+        private final String name;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private long emptyAt;
+        private boolean used;
+
+        TokenBucket(String name, double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0) {
+                throw new IllegalArgumentException("Permits per second must be positive");
+            }
+
+            if (burst < 1) {
+                throw new IllegalArgumentException("Burst must be at least 1");
+            }
+
+            this.name = name;
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.toleranceNanos = intervalNanos * (burst - 1);
+        }
+
+        /**
+         * @return How long to wait before making the request, or -1 if that would be longer than the maximum wait, in
+         * which case nothing is reserved.
+         */
+        synchronized long reserve(long now, long maxWaitNanos) {
+            long start = used && emptyAt - now > 0 ? emptyAt : now;
+            long wait = Math.max(0, start - toleranceNanos - now);
+
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+
+            emptyAt = start + intervalNanos;
+            used = true;
+            return wait;
+        }
+
+        /**
+         * Gives back a reservation by moving the time the bucket empties back by one interval. If others have
+         * reserved since, their reservations keep their wait times; the freed interval only benefits later ones.
+         */
+        synchronized void cancel() {
+            emptyAt -= intervalNanos;
+        }
+    }
+}
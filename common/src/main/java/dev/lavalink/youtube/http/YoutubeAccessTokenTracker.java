@@ -1,71 +1,192 @@
 package dev.lavalink.youtube.http;
 
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import dev.lavalink.youtube.clients.Android;
 import dev.lavalink.youtube.clients.ClientConfig;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.entity.StringEntity;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Maintains a pool of visitor ids which are fetched and rotated in the background. Request threads
+ * only ever read from the pool, so they are never blocked on a {@code /visitor_id} request.
+ */
 public class YoutubeAccessTokenTracker {
   private static final Logger log = LoggerFactory.getLogger(YoutubeAccessTokenTracker.class);
 
   private static final String TOKEN_FETCH_CONTEXT_ATTRIBUTE = "yt-raw";
+  private static final String VISITOR_ID_CONTEXT_ATTRIBUTE = "yt-visitor-id";
   private static final long VISITOR_ID_REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+  private static final long VISITOR_ID_RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(15);
+
+  public static final int DEFAULT_POOL_SIZE = 3;
 
-  private final Object tokenLock = new Object();
   private final HttpInterfaceManager httpInterfaceManager;
-  private String visitorId;
-  private long lastVisitorIdUpdate;
+  private final AtomicReferenceArray<String> pool;
+  private final AtomicInteger cursor = new AtomicInteger();
+  private final ScheduledExecutorService scheduler;
+  private volatile boolean started;
+  private YoutubeMetrics metrics = YoutubeMetrics.NOOP;
 
   public YoutubeAccessTokenTracker(@NotNull HttpInterfaceManager httpInterfaceManager) {
+    this(httpInterfaceManager, DEFAULT_POOL_SIZE);
+  }
+
+  /**
+   * @param httpInterfaceManager The interface manager to use for fetching visitor ids.
+   * @param poolSize The amount of visitor ids to keep. Requests are spread across them.
+   */
+  public YoutubeAccessTokenTracker(@NotNull HttpInterfaceManager httpInterfaceManager, int poolSize) {
     this.httpInterfaceManager = httpInterfaceManager;
+    this.pool = new AtomicReferenceArray<>(Math.max(1, poolSize));
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("yt-visitor-id"));
   }
 
   /**
-   * Updates the visitor id if more than {@link #VISITOR_ID_REFRESH_INTERVAL} time has passed since last updated.
+   * Sets the metrics visitor id fetches are counted in. Must be called before {@link #start()}.
    */
-  public String getVisitorId() {
-    long now = System.currentTimeMillis();
+  public void setMetrics(@NotNull YoutubeMetrics metrics) {
+    this.metrics = metrics;
+  }
 
-    if (visitorId == null || now - lastVisitorIdUpdate < VISITOR_ID_REFRESH_INTERVAL) {
-      synchronized (tokenLock) {
-        if (now - lastVisitorIdUpdate < VISITOR_ID_REFRESH_INTERVAL) {
-          log.debug("YouTube visitor id was recently updated, not updating again right away.");
-          return visitorId;
-        }
+  /**
+   * Starts populating the pool in the background. Each slot is refreshed every {@link #VISITOR_ID_REFRESH_INTERVAL},
+   * with the refreshes staggered so that only one identity rotates at a time.
+   */
+  public void start() {
+    if (started) {
+      return;
+    }
 
-        lastVisitorIdUpdate = now;
+    synchronized (scheduler) {
+      if (started) {
+        return;
+      }
 
-        try {
-          visitorId = fetchVisitorId();
-          log.info("Updating YouTube visitor id succeeded, new one is {}, next update will be after {} seconds.",
-              visitorId,
-              TimeUnit.MILLISECONDS.toSeconds(VISITOR_ID_REFRESH_INTERVAL)
-          );
-        } catch (Exception e) {
-          log.error("YouTube visitor id update failed.", e);
-        }
+      started = true;
+      long stagger = VISITOR_ID_REFRESH_INTERVAL / pool.length();
+
+      for (int i = 0; i < pool.length(); i++) {
+        final int slot = i;
+        scheduler.execute(() -> refreshSlot(slot, stagger * slot));
+      }
+    }
+  }
+
+  public void shutdown() {
+    ExecutorTools.shutdownExecutor(scheduler, "YouTube visitor id refresher");
+  }
+
+  public int getPoolSize() {
+    return pool.length();
+  }
+
+  /**
+   * Returns a visitor id from the pool. Ids are handed out round-robin, but a single request context keeps the
+   * same id for the lifetime of that context, so that a chain of requests appears to come from one visitor.
+   * @param context The context of the request, or {@code null} if the id should not be bound to a context.
+   * @return A visitor id, or {@code null} if none have been fetched yet.
+   */
+  @Nullable
+  public String getVisitorId(@Nullable HttpClientContext context) {
+    if (!started) {
+      start();
+    }
+
+    if (context != null) {
+      String bound = context.getAttribute(VISITOR_ID_CONTEXT_ATTRIBUTE, String.class);
+
+      if (bound != null) {
+        return bound;
       }
     }
 
+    String visitorId = nextVisitorId();
+
+    if (context != null && visitorId != null) {
+      context.setAttribute(VISITOR_ID_CONTEXT_ATTRIBUTE, visitorId);
+    }
+
     return visitorId;
   }
 
+  /**
+   * @return A visitor id from the pool, or {@code null} if none have been fetched yet.
+   */
+  @Nullable
+  public String getVisitorId() {
+    return getVisitorId(null);
+  }
+
+  public void resetContext(@NotNull HttpClientContext context) {
+    context.removeAttribute(VISITOR_ID_CONTEXT_ATTRIBUTE);
+  }
+
   public boolean isTokenFetchContext(@NotNull HttpClientContext context) {
     return context.removeAttribute(TOKEN_FETCH_CONTEXT_ATTRIBUTE) == Boolean.TRUE;
   }
 
+  @Nullable
+  private String nextVisitorId() {
+    int size = pool.length();
+    int start = Math.floorMod(cursor.getAndIncrement(), size);
+
+    // skip over slots that have not been populated yet.
+    for (int i = 0; i < size; i++) {
+      String visitorId = pool.get((start + i) % size);
+
+      if (visitorId != null) {
+        return visitorId;
+      }
+    }
+
+    return null;
+  }
+
+  private void refreshSlot(int slot, long nextDelay) {
+    long delay;
+
+    try {
+      String visitorId = fetchVisitorId();
+      pool.set(slot, visitorId);
+      metrics.getVisitorIdFetches(true).increment();
+      delay = nextDelay > 0 ? nextDelay : VISITOR_ID_REFRESH_INTERVAL;
+
+      log.debug("Updating YouTube visitor id for slot {} succeeded, new one is {}, next update will be after {} seconds.",
+          slot,
+          visitorId,
+          TimeUnit.MILLISECONDS.toSeconds(delay)
+      );
+    } catch (Exception e) {
+      // the previous id (if any) is kept so requests can carry on using it until the refresh succeeds.
+      log.error("YouTube visitor id update for slot {} failed.", slot, e);
+      metrics.getVisitorIdFetches(false).increment();
+      delay = VISITOR_ID_RETRY_INTERVAL;
+    }
+
+    if (!scheduler.isShutdown()) {
+      scheduler.schedule(() -> refreshSlot(slot, 0), delay, TimeUnit.MILLISECONDS);
+    }
+  }
+
   private String fetchVisitorId() throws IOException {
     try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
       httpInterface.getContext().setAttribute(TOKEN_FETCH_CONTEXT_ATTRIBUTE, true);
@@ -78,7 +199,13 @@ public class YoutubeAccessTokenTracker {
       try (CloseableHttpResponse response = httpInterface.execute(visitorIdPost)) {
         HttpClientTools.assertSuccessWithContent(response, "youtube visitor id");
         JsonBrowser json = JsonBrowser.parse(response.getEntity().getContent());
-        return json.get("responseContext").get("visitorData").text();
+        String visitorId = json.get("responseContext").get("visitorData").text();
+
+        if (visitorId == null || visitorId.isEmpty()) {
+          throw new IOException("Visitor id response did not contain visitorData");
+        }
+
+        return visitorId;
       }
     }
   }
@@ -4,6 +4,7 @@ import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextRetryCounter;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.CookieStore;
 import org.apache.http.client.methods.HttpUriRequest;
@@ -28,6 +29,8 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
 
   private YoutubeAccessTokenTracker tokenTracker;
   private YoutubeOauth2Handler oauth2Handler;
+  private YoutubeMetrics metrics = YoutubeMetrics.NOOP;
+  private RequestRateLimiter rateLimiter;
 
   private String remoteCipherPass;
   private String remoteCipherUserAgent;
@@ -37,10 +40,28 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
     this.tokenTracker = tokenTracker;
   }
 
+  @NotNull
+  public YoutubeAccessTokenTracker getTokenTracker() {
+    return tokenTracker;
+  }
+
   public void setOauth2Handler(@NotNull YoutubeOauth2Handler oauth2Handler) {
     this.oauth2Handler = oauth2Handler;
   }
 
+  public void setMetrics(@NotNull YoutubeMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @NotNull
+  public YoutubeMetrics getMetrics() {
+    return metrics;
+  }
+
+  public void setRateLimiter(@Nullable RequestRateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
   public void setCipherConfig(@Nullable String remotePass,
                               @Nullable String userAgent,
                               @NotNull String pluginVersion) {
@@ -61,6 +82,17 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
 
     // Reset cookies for each sequence of requests.
     cookieStore.clear();
+
+    if (tokenTracker != null) {
+      // each sequence of requests may be assigned a different visitor id from the pool.
+      tokenTracker.resetContext(context);
+    }
+
+    metrics.attach(context);
+
+    if (rateLimiter != null) {
+      rateLimiter.attach(context);
+    }
   }
 
   @Override
@@ -99,7 +131,15 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
         request.setHeader("User-Agent", userAgent);
 
         String visitorData = context.getAttribute(ATTRIBUTE_VISITOR_DATA_SPECIFIED, String.class);
-        request.setHeader("X-Goog-Visitor-Id", visitorData != null ? visitorData : tokenTracker.getVisitorId());
+
+        if (visitorData == null) {
+          visitorData = tokenTracker.getVisitorId(context);
+        }
+
+        // the visitor id pool may not have been populated yet, in which case we let YouTube assign one.
+        if (visitorData != null) {
+          request.setHeader("X-Goog-Visitor-Id", visitorData);
+        }
 
         context.removeAttribute(ATTRIBUTE_VISITOR_DATA_SPECIFIED);
         context.removeAttribute(ATTRIBUTE_USER_AGENT_SPECIFIED);
@@ -116,7 +156,7 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
         if (oauthToken != null && !oauthToken.isEmpty()) {
           oauth2Handler.applyToken(request, oauthToken);
         } else {
-          oauth2Handler.applyToken(request);
+          oauth2Handler.applyToken(context, request);
         }
 
         // complements above fix, ensure we consume this attribute when we use it to ensure it doesn't leak
@@ -146,6 +186,9 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
   public boolean onRequestResponse(HttpClientContext context,
                                    HttpUriRequest request,
                                    HttpResponse response) {
+    if (oauth2Handler != null) {
+      oauth2Handler.handleResponse(context, response);
+    }
 
 //    if (tokenTracker.isTokenFetchContext(context) || retryCounter.getRetryCount(context) >= 1) {
 //      return false;
@@ -157,6 +200,10 @@ public class YoutubeHttpContextFilter extends BaseYoutubeHttpContextFilter {
   public boolean onRequestException(HttpClientContext context,
                                     HttpUriRequest request,
                                     Throwable error) {
+    if (oauth2Handler != null) {
+      oauth2Handler.clearContextAccount(context);
+    }
+
     // Always retry once in case of connection reset exception.
     if (HttpClientTools.isConnectionResetException(error)) {
       if (context.getAttribute(ATTRIBUTE_RESET_RETRY) == null) {
@@ -0,0 +1,115 @@
+package dev.lavalink.youtube.http;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A single account within the {@link YoutubeOauth2Handler} pool. Holds the refresh token, the current access token
+ * and the health of the account. Instances are managed by the handler, but can be inspected for monitoring purposes.
+ */
+public class YoutubeOauth2Account {
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicInteger consecutiveErrors = new AtomicInteger();
+
+    volatile String refreshToken;
+    volatile AccessToken accessToken;
+    volatile long lastUsed;
+    volatile long quarantinedUntil;
+    volatile String quarantineReason;
+
+    // serializes refreshes of this account, which make requests to the token endpoint.
+    final ReentrantLock refreshLock = new ReentrantLock();
+
+    // refreshTask is guarded by the handler's refresh lock, refreshFailures is only touched by the refresh thread.
+    ScheduledFuture<?> refreshTask;
+    int refreshFailures;
+
+    YoutubeOauth2Account(@NotNull String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    @NotNull
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public boolean hasAccessToken() {
+        return accessToken != null;
+    }
+
+    /**
+     * @return The amount of requests this account's access token has been applied to.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return The amount of requests made with this account that were rejected, or refreshes of its access token
+     * that failed.
+     */
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public boolean isQuarantined() {
+        return System.currentTimeMillis() < quarantinedUntil;
+    }
+
+    /**
+     * @return The time (in epoch milliseconds) at which this account becomes usable again, or a value in the past
+     * if the account is not quarantined.
+     */
+    public long getQuarantinedUntil() {
+        return quarantinedUntil;
+    }
+
+    /**
+     * @return The reason for the most recent quarantine, if any.
+     */
+    public String getQuarantineReason() {
+        return quarantineReason;
+    }
+
+    int getConsecutiveErrors() {
+        return consecutiveErrors.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("YoutubeOauth2Account(requests=%d, errors=%d, quarantined=%s)",
+            requestCount.get(), errorCount.get(), isQuarantined());
+    }
+
+    void recordRequest() {
+        requestCount.incrementAndGet();
+    }
+
+    void recordSuccess() {
+        consecutiveErrors.set(0);
+    }
+
+    int recordError() {
+        errorCount.incrementAndGet();
+        return consecutiveErrors.incrementAndGet();
+    }
+
+    static class AccessToken {
+        final String type;
+        final String value;
+        final long expires;
+        final long refreshAt;
+
+        AccessToken(String type, String value, long expires, long refreshAt) {
+            this.type = type;
+            this.value = value;
+            this.expires = expires;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
@@ -1,29 +1,53 @@
 package dev.lavalink.youtube.http;
 
 import com.grack.nanojson.JsonWriter;
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import com.sedmelluq.discord.lavaplayer.tools.ExceptionTools;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.http.YoutubeOauth2Account.AccessToken;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Manages OAuth integration for a pool of accounts. Each account's access token is refreshed in the background,
+ * and requests are spread across the accounts that are currently healthy. Accounts that get rate limited or whose
+ * tokens are rejected are quarantined for a while before being used again.
+ */
 public class YoutubeOauth2Handler {
     private static final Logger log = LoggerFactory.getLogger(YoutubeOauth2Handler.class);
-    private static int fetchErrorLogCount = 0;
 
     // no, i haven't leaked anything of mine
     // this (i presume) can be found within youtube's page source
@@ -32,31 +56,104 @@ public class YoutubeOauth2Handler {
     private static final String CLIENT_SECRET = "SboVhoG9s0rNafixCSGGKXAT";
     private static final String SCOPES = "http://gdata.youtube.com https://www.googleapis.com/auth/youtube";
     private static final String OAUTH_FETCH_CONTEXT_ATTRIBUTE = "yt-oauth";
+    private static final String OAUTH_ACCOUNT_CONTEXT_ATTRIBUTE = "yt-oauth-account";
     public static final String OAUTH_INJECT_CONTEXT_ATTRIBUTE = "yt-oauth-token";
 
-    private final HttpInterfaceManager httpInterfaceManager;
+    // how long before expiry the background refresh should happen. tokens are considered unusable
+    // once less than EXPIRY_GRACE remains, so there is always room for a few retries in between.
+    private static final long REFRESH_MARGIN = TimeUnit.MINUTES.toMillis(5);
+    private static final long EXPIRY_GRACE = TimeUnit.SECONDS.toMillis(30);
+    private static final long RETRY_BASE_DELAY = TimeUnit.SECONDS.toMillis(15);
+    private static final long RETRY_MAX_DELAY = TimeUnit.MINUTES.toMillis(5);
+
+    private static final long RATE_LIMIT_QUARANTINE = TimeUnit.MINUTES.toMillis(2);
+    private static final long REJECTED_QUARANTINE = TimeUnit.MINUTES.toMillis(5);
+    private static final long REVOKED_QUARANTINE = TimeUnit.HOURS.toMillis(1);
+    private static final long MAX_QUARANTINE = TimeUnit.HOURS.toMillis(1);
+    private static final int REJECTED_THRESHOLD = 3;
+
+    public enum AccountSelection {
+        /**
+         * Uses the account that has gone the longest without being used.
+         */
+        LEAST_RECENTLY_USED,
+        /**
+         * Picks an account at random, favouring accounts that have not failed recently.
+         */
+        FAILURE_WEIGHTED
+    }
 
-    private boolean enabled;
-    private String refreshToken;
+    private final HttpInterfaceManager httpInterfaceManager;
+    private final ScheduledExecutorService refreshExecutor;
+    private final Object refreshTaskLock = new Object();
+    private final List<YoutubeOauth2Account> accounts = new CopyOnWriteArrayList<>();
+    private final AtomicLong useSequence = new AtomicLong();
 
-    private String tokenType;
-    private String accessToken;
-    private long tokenExpires;
+    private volatile boolean enabled;
+    private volatile AccountSelection accountSelection = AccountSelection.LEAST_RECENTLY_USED;
+    private YoutubeMetrics metrics = YoutubeMetrics.NOOP;
 
     public YoutubeOauth2Handler(HttpInterfaceManager httpInterfaceManager) {
         this.httpInterfaceManager = httpInterfaceManager;
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("yt-oauth-refresh"));
+    }
+
+    public void setMetrics(@NotNull YoutubeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void shutdown() {
+        ExecutorTools.shutdownExecutor(refreshExecutor, "YouTube OAuth token refresher");
     }
 
     public void setRefreshToken(@Nullable String refreshToken, boolean skipInitialization) {
-        this.refreshToken = refreshToken;
-        this.tokenExpires = System.currentTimeMillis();
-        this.accessToken = null;
+        setRefreshTokens(DataFormatTools.isNullOrEmpty(refreshToken) ? Collections.emptyList() : Collections.singletonList(refreshToken), skipInitialization);
+    }
+
+    /**
+     * Replaces the account pool with the given refresh tokens. Access tokens are fetched for each account before
+     * this method returns. Accounts whose initial refresh fails are kept and retried in the background, unless
+     * every account failed, in which case the last error is thrown and OAuth stays disabled.
+     * @param refreshTokens The refresh tokens to use. Empty or duplicate tokens are ignored.
+     * @param skipInitialization Whether linking of an account should be skipped if no refresh tokens are provided.
+     */
+    public void setRefreshTokens(@NotNull List<String> refreshTokens, boolean skipInitialization) {
+        enabled = false;
+        clearAccounts();
+
+        Set<String> distinct = new LinkedHashSet<>();
 
-        if (!DataFormatTools.isNullOrEmpty(refreshToken)) {
-            refreshAccessToken(true);
+        for (String refreshToken : refreshTokens) {
+            if (!DataFormatTools.isNullOrEmpty(refreshToken)) {
+                distinct.add(refreshToken);
+            }
+        }
+
+        if (!distinct.isEmpty()) {
+            List<YoutubeOauth2Account> added = new ArrayList<>();
+            RuntimeException lastError = null;
+
+            for (String refreshToken : distinct) {
+                YoutubeOauth2Account account = new YoutubeOauth2Account(refreshToken);
+
+                try {
+                    refreshAccount(account, true);
+                } catch (RuntimeException e) {
+                    log.error("Initial access token refresh failed for OAuth account {} of {}", added.size() + 1, distinct.size(), e);
+                    scheduleRefresh(account, getRetryDelay(account, ++account.refreshFailures));
+                    lastError = e;
+                }
+
+                added.add(account);
+            }
+
+            if (lastError != null && added.stream().noneMatch(YoutubeOauth2Account::hasAccessToken)) {
+                added.forEach(this::cancelRefresh);
+                throw lastError;
+            }
 
-            // if refreshAccessToken() fails, enabled will never be flipped, so we don't use
-            // oauth tokens erroneously.
+            accounts.addAll(added);
+            // if every refresh failed above, enabled will never be flipped, so we don't use oauth tokens erroneously.
             enabled = true;
             return;
         }
@@ -66,17 +163,56 @@ public class YoutubeOauth2Handler {
         }
     }
 
+    /**
+     * Adds an account to the existing pool. Its access token is fetched in the background.
+     * @param refreshToken The refresh token of the account.
+     */
+    public void addRefreshToken(@NotNull String refreshToken) {
+        if (accounts.stream().anyMatch(account -> refreshToken.equals(account.refreshToken))) {
+            return;
+        }
+
+        YoutubeOauth2Account account = new YoutubeOauth2Account(refreshToken);
+        accounts.add(account);
+        enabled = true;
+        requestRefresh(account);
+    }
+
+    public void setAccountSelection(@NotNull AccountSelection accountSelection) {
+        this.accountSelection = accountSelection;
+    }
+
+    @NotNull
+    public AccountSelection getAccountSelection() {
+        return accountSelection;
+    }
+
+    /**
+     * @return The accounts currently in the pool, in the order they were added.
+     */
+    @NotNull
+    public List<YoutubeOauth2Account> getAccounts() {
+        return Collections.unmodifiableList(accounts);
+    }
+
     public boolean hasAccessToken() {
-        return accessToken != null;
+        return accounts.stream().anyMatch(YoutubeOauth2Account::hasAccessToken);
     }
 
     public boolean shouldRefreshAccessToken() {
-        return enabled && !DataFormatTools.isNullOrEmpty(refreshToken) && (DataFormatTools.isNullOrEmpty(accessToken) || System.currentTimeMillis() >= tokenExpires);
+        return enabled && accounts.stream().anyMatch(this::needsRefresh);
     }
 
+    /**
+     * @return The refresh token of the first account in the pool, if any.
+     */
     @Nullable
     public String getRefreshToken() {
-        return refreshToken;
+        for (YoutubeOauth2Account account : accounts) {
+            return account.refreshToken;
+        }
+
+        return null;
     }
 
     public boolean isOauthFetchContext(HttpClientContext context) {
@@ -86,7 +222,7 @@ public class YoutubeOauth2Handler {
     /**
      * Makes a request to YouTube for a device code that users can then authorise to allow
      * this source to make requests using an account access token.
-     * This will begin the oauth flow. If a refresh token is present, {@link #refreshAccessToken(boolean)} should
+     * This will begin the oauth flow. If a refresh token is present, {@link #setRefreshToken(String, boolean)} should
      * be used instead.
      */
     private void initializeAccessToken() {
@@ -205,8 +341,10 @@ public class YoutubeOauth2Handler {
                         return;
                     }
 
-                    updateTokens(response);
-                    log.info("OAUTH INTEGRATION: Token retrieved successfully. Store your refresh token as this can be reused. ({})", refreshToken);
+                    YoutubeOauth2Account account = new YoutubeOauth2Account(response.get("refresh_token").text());
+                    updateTokens(account, response);
+                    accounts.add(account);
+                    log.info("OAUTH INTEGRATION: Token retrieved successfully. Store your refresh token as this can be reused. ({})", account.refreshToken);
                     enabled = true;
                     return;
                 } catch (InterruptedException | RuntimeException e) {
@@ -219,46 +357,168 @@ public class YoutubeOauth2Handler {
     }
 
     /**
-     * Refreshes an access token using a supplied refresh token.
+     * Refreshes the access tokens of every account in the pool. This blocks for the duration of the token
+     * requests; requests made through {@link #applyToken(HttpClientContext, HttpUriRequest)} never call this
+     * directly, instead a refresh is scheduled in the background ahead of each token expiring.
      *
-     * @param force Whether to forcefully renew the access token, even if it doesn't necessarily
+     * @param force Whether to forcefully renew the access tokens, even if they don't necessarily
      *              need to be refreshed yet.
      */
     public void refreshAccessToken(boolean force) {
-        log.debug("Refreshing access token (force: {})", force);
+        log.debug("Refreshing access tokens (force: {})", force);
 
-        if (DataFormatTools.isNullOrEmpty(refreshToken)) {
+        if (accounts.isEmpty()) {
             throw new IllegalStateException("Cannot fetch access token without a refresh token!");
         }
 
-        if (!shouldRefreshAccessToken() && !force) {
-            log.debug("Access token does not need to be refreshed yet.");
-            return;
-        }
+        RuntimeException lastError = null;
 
-        synchronized (this) {
-            if (DataFormatTools.isNullOrEmpty(refreshToken)) {
-                throw new IllegalStateException("Cannot fetch access token without a refresh token!");
+        for (YoutubeOauth2Account account : accounts) {
+            try {
+                refreshAccount(account, force);
+            } catch (RuntimeException e) {
+                lastError = e;
             }
+        }
+
+        if (lastError != null) {
+            throw lastError;
+        }
+    }
+
+    private void refreshAccount(YoutubeOauth2Account account, boolean force) {
+        account.refreshLock.lock();
 
-            if (!shouldRefreshAccessToken() && !force) {
+        try {
+            if (!force && !needsRefresh(account)) {
                 log.debug("Access token does not need to be refreshed yet.");
                 return;
             }
 
-            JsonBrowser json = createNewAccessToken(refreshToken);
-            updateTokens(json);
+            JsonBrowser json;
+
+            try {
+                json = createNewAccessToken(account.refreshToken);
+            } catch (RuntimeException e) {
+                metrics.getOauthRefreshes(false).increment();
+                account.recordError();
+
+                if (e instanceof RefreshTokenRevokedException) {
+                    quarantine(account, REVOKED_QUARANTINE, "refresh token revoked or expired");
+                }
+
+                throw e;
+            }
+
+            updateTokens(account, json);
+            metrics.getOauthRefreshes(true).increment();
             log.info("YouTube access token refreshed successfully");
-            log.debug("YouTube access token is {} and refresh token is {}. Access token expires in {} seconds.", accessToken, refreshToken, json.get("expires_in").asLong(300));
+        } finally {
+            account.refreshLock.unlock();
+        }
+    }
+
+    private boolean needsRefresh(YoutubeOauth2Account account) {
+        AccessToken token = account.accessToken;
+        return token == null || System.currentTimeMillis() >= token.refreshAt;
+    }
+
+    private void backgroundRefresh(YoutubeOauth2Account account) {
+        synchronized (refreshTaskLock) {
+            account.refreshTask = null;
+        }
+
+        if (!enabled || !accounts.contains(account)) {
+            return;
+        }
+
+        try {
+            refreshAccount(account, false);
+            account.refreshFailures = 0;
+        } catch (Throwable t) {
+            if (++account.refreshFailures <= 3) {
+                // log fetch errors up to 3 consecutive times to avoid spamming logs. in theory requests can still be made
+                // without an access token, but they are less likely to succeed. regardless, we shouldn't bloat a
+                // user's logs just in case YT changed something and broke oauth integration.
+                log.error("Refreshing YouTube access token failed", t);
+            } else {
+                log.debug("Refreshing YouTube access token failed", t);
+            }
+
+            // the last good token (if any) stays in use until it actually expires.
+            scheduleRefresh(account, getRetryDelay(account, account.refreshFailures));
+        }
+    }
+
+    /**
+     * Exponential backoff starting at {@link #RETRY_BASE_DELAY}, with up to 20% jitter so that multiple nodes
+     * sharing a refresh token don't all hit the token endpoint at the same time.
+     */
+    private long getRetryDelay(int failures) {
+        long delay = Math.min(RETRY_MAX_DELAY, RETRY_BASE_DELAY << Math.min(failures - 1, 5));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    /**
+     * The backoff delay, extended to the end of the account's quarantine so that quarantined accounts (e.g. ones
+     * whose refresh token was revoked) are not retried before it ends.
+     */
+    private long getRetryDelay(YoutubeOauth2Account account, int failures) {
+        return Math.max(getRetryDelay(failures), account.quarantinedUntil - System.currentTimeMillis());
+    }
+
+    private void scheduleRefresh(YoutubeOauth2Account account, long delay) {
+        synchronized (refreshTaskLock) {
+            if (account.refreshTask != null && !account.refreshTask.isDone()) {
+                if (account.refreshTask.getDelay(TimeUnit.MILLISECONDS) <= delay) {
+                    return;
+                }
+
+                account.refreshTask.cancel(false);
+            }
+
+            if (refreshExecutor.isShutdown()) {
+                return;
+            }
+
+            account.refreshTask = refreshExecutor.schedule(() -> backgroundRefresh(account), Math.max(0, delay), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queues an immediate refresh unless one (or a retry) is already pending.
+     */
+    private void requestRefresh(YoutubeOauth2Account account) {
+        synchronized (refreshTaskLock) {
+            if (account.refreshTask == null || account.refreshTask.isDone()) {
+                scheduleRefresh(account, 0);
+            }
+        }
+    }
+
+    private void cancelRefresh(YoutubeOauth2Account account) {
+        synchronized (refreshTaskLock) {
+            if (account.refreshTask != null) {
+                account.refreshTask.cancel(false);
+                account.refreshTask = null;
+            }
         }
     }
 
+    private void clearAccounts() {
+        for (YoutubeOauth2Account account : accounts) {
+            cancelRefresh(account);
+        }
+
+        accounts.clear();
+    }
 
     /**
      * Executes the HTTP request to refresh the access token and returns the response.
      *
      * @param refreshToken The refresh token to be included in the request.
      * @return The JSON response as a JsonObject.
+     * @throws RefreshTokenRevokedException If the refresh token was revoked or has expired.
      */
     public JsonBrowser createNewAccessToken(String refreshToken) {
         // @formatter:off
@@ -278,10 +538,18 @@ public class YoutubeOauth2Handler {
 
         try (HttpInterface httpInterface = getHttpInterface();
              CloseableHttpResponse response = httpInterface.execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+
+            if (statusCode != HttpStatus.SC_OK) {
+                // google reports revoked tokens with a 400, so the error has to be read before the status is asserted.
+                assertNotRevoked(readError(response));
+            }
+
             HttpClientTools.assertSuccessWithContent(response, "oauth2 token fetch");
             JsonBrowser parsed = JsonBrowser.parse(response.getEntity().getContent());
 
             if (!parsed.get("error").isNull()) {
+                assertNotRevoked(parsed.get("error").text());
                 throw new RuntimeException("Refreshing access token returned error " + parsed.get("error").text());
             }
 
@@ -291,57 +559,209 @@ public class YoutubeOauth2Handler {
         }
     }
 
-    private void updateTokens(JsonBrowser json) {
+    @Nullable
+    private static String readError(HttpResponse response) {
+        HttpEntity entity = response.getEntity();
+
+        if (entity == null) {
+            return null;
+        }
+
+        try {
+            return JsonBrowser.parse(EntityUtils.toString(entity, StandardCharsets.UTF_8)).get("error").text();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to read error of oauth2 token fetch response", e);
+            return null;
+        }
+    }
+
+    private static void assertNotRevoked(@Nullable String error) {
+        if ("invalid_grant".equals(error)) {
+            throw new RefreshTokenRevokedException("Refresh token was revoked or has expired (invalid_grant)");
+        }
+    }
+
+    private void updateTokens(YoutubeOauth2Account account, JsonBrowser json) {
         JsonBrowser newRefreshToken = json.get("refresh_token");
 
-        long tokenLifespan = json.get("expires_in").asLong(300);
-        tokenType = json.get("token_type").text();
-        accessToken = json.get("access_token").text();
-        refreshToken = newRefreshToken.isNull() ? refreshToken : newRefreshToken.text();
-        tokenExpires = System.currentTimeMillis() + (tokenLifespan * 1000) - 60000;
+        long tokenLifespan = json.get("expires_in").asLong(300) * 1000;
+        long now = System.currentTimeMillis();
+        // refresh a fixed margin ahead of expiry, or halfway through the lifespan for unusually short-lived tokens.
+        long refreshIn = Math.max(tokenLifespan / 2, tokenLifespan - REFRESH_MARGIN);
+
+        AccessToken token = new AccessToken(
+            json.get("token_type").text(),
+            json.get("access_token").text(),
+            now + tokenLifespan - EXPIRY_GRACE,
+            now + refreshIn
+        );
+
+        if (!newRefreshToken.isNull()) {
+            account.refreshToken = newRefreshToken.text();
+        }
+
+        account.accessToken = token;
+        scheduleRefresh(account, refreshIn);
 
-        log.debug("OAuth access token is {} and refresh token is {}. Access token expires in {} seconds.", accessToken, refreshToken, tokenLifespan);
+        log.debug("OAuth access token is {} and refresh token is {}. Access token expires in {} seconds, next refresh in {} seconds.",
+            token.value, account.refreshToken, TimeUnit.MILLISECONDS.toSeconds(tokenLifespan), TimeUnit.MILLISECONDS.toSeconds(refreshIn));
     }
 
     public void applyToken(HttpUriRequest request) {
-        if (!enabled || DataFormatTools.isNullOrEmpty(refreshToken)) {
+        applyToken(null, request);
+    }
+
+    /**
+     * Applies the access token of one of the accounts in the pool to the given request. The chosen account is
+     * recorded on the context, so that {@link #handleResponse(HttpClientContext, HttpResponse)} can attribute
+     * the outcome of the request to it.
+     */
+    public void applyToken(@Nullable HttpClientContext context, HttpUriRequest request) {
+        if (!enabled || accounts.isEmpty()) {
             return;
         }
 
-        if (shouldRefreshAccessToken()) {
-            log.debug("Access token has expired, refreshing...");
+        YoutubeOauth2Account account = selectAccount();
 
-            try {
-                refreshAccessToken(false);
-            } catch (Throwable t) {
-                if (++fetchErrorLogCount <= 3) {
-                    // log fetch errors up to 3 consecutive times to avoid spamming logs. in theory requests can still be made
-                    // without an access token, but they are less likely to succeed. regardless, we shouldn't bloat a
-                    // user's logs just in case YT changed something and broke oauth integration.
-                    log.error("Refreshing YouTube access token failed", t);
-                } else {
-                    log.debug("Refreshing YouTube access token failed", t);
-                }
+        if (account == null) {
+            log.debug("No healthy OAuth account available, request will be made without authorization.");
+            return;
+        }
 
-                // retry in 15 seconds to avoid spamming YouTube with requests.
-                tokenExpires = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(15);
-                return;
-            }
+        AccessToken token = account.accessToken;
+        account.recordRequest();
 
-            fetchErrorLogCount = 0;
+        if (context != null) {
+            context.setAttribute(OAUTH_ACCOUNT_CONTEXT_ATTRIBUTE, account);
         }
 
-        // check again to ensure updating worked as expected.
-        if (accessToken != null && tokenType != null && System.currentTimeMillis() < tokenExpires) {
-            log.debug("Using oauth authorization header with value \"{} {}\"", tokenType, accessToken);
-            request.setHeader("Authorization", String.format("%s %s", tokenType, accessToken));
-        }
+        log.debug("Using oauth authorization header with value \"{} {}\"", token.type, token.value);
+        request.setHeader("Authorization", String.format("%s %s", token.type, token.value));
     }
 
     public void applyToken(HttpUriRequest request, String token) {
         request.setHeader("Authorization", String.format("%s %s", "Bearer", token));
     }
 
+    /**
+     * Updates the health of the account that was used for the request on this context, if any.
+     * Rate limited accounts are quarantined straight away, accounts that keep getting rejected are quarantined
+     * after {@link #REJECTED_THRESHOLD} consecutive failures.
+     */
+    public void handleResponse(@NotNull HttpClientContext context, @NotNull HttpResponse response) {
+        Object attribute = context.removeAttribute(OAUTH_ACCOUNT_CONTEXT_ATTRIBUTE);
+
+        if (!(attribute instanceof YoutubeOauth2Account)) {
+            return;
+        }
+
+        YoutubeOauth2Account account = (YoutubeOauth2Account) attribute;
+        int statusCode = response.getStatusLine().getStatusCode();
+
+        if (statusCode >= 200 && statusCode < 300) {
+            account.recordSuccess();
+        } else if (statusCode == 429) {
+            int errors = account.recordError();
+            quarantine(account, RATE_LIMIT_QUARANTINE << Math.min(errors - 1, 5), "rate limited");
+        } else if (statusCode == 401 || statusCode == 403) {
+            int errors = account.recordError();
+
+            if (statusCode == 401) {
+                // the access token itself was rejected, so get a new one rather than waiting for expiry.
+                account.accessToken = null;
+                requestRefresh(account);
+            }
+
+            if (errors >= REJECTED_THRESHOLD) {
+                quarantine(account, REJECTED_QUARANTINE << Math.min(errors - REJECTED_THRESHOLD, 4), "requests rejected with status " + statusCode);
+            }
+        }
+    }
+
+    /**
+     * Forgets the account recorded on the context. Used when a request fails without a response.
+     */
+    public void clearContextAccount(@NotNull HttpClientContext context) {
+        context.removeAttribute(OAUTH_ACCOUNT_CONTEXT_ATTRIBUTE);
+    }
+
+    private void quarantine(YoutubeOauth2Account account, long duration, String reason) {
+        duration = Math.min(duration, MAX_QUARANTINE);
+        long until = System.currentTimeMillis() + duration;
+
+        if (until > account.quarantinedUntil) {
+            account.quarantinedUntil = until;
+            account.quarantineReason = reason;
+            log.warn("Quarantining OAuth account {} for {} seconds: {}", accounts.indexOf(account) + 1, TimeUnit.MILLISECONDS.toSeconds(duration), reason);
+        }
+    }
+
+    @Nullable
+    private YoutubeOauth2Account selectAccount() {
+        long now = System.currentTimeMillis();
+        List<YoutubeOauth2Account> candidates = new ArrayList<>(accounts.size());
+
+        for (YoutubeOauth2Account account : accounts) {
+            AccessToken token = account.accessToken;
+
+            if (token == null || now >= token.refreshAt) {
+                // normally the scheduled refresh has already taken care of this. if it hasn't (e.g. the token was
+                // never fetched, or the host was suspended), make sure one is queued but don't wait for it here.
+                requestRefresh(account);
+            }
+
+            if (token != null && token.type != null && token.value != null && now < token.expires && now >= account.quarantinedUntil) {
+                candidates.add(account);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        YoutubeOauth2Account selected = accountSelection == AccountSelection.FAILURE_WEIGHTED
+            ? selectWeighted(candidates)
+            : selectLeastRecentlyUsed(candidates);
+
+        selected.lastUsed = useSequence.incrementAndGet();
+        return selected;
+    }
+
+    private YoutubeOauth2Account selectLeastRecentlyUsed(List<YoutubeOauth2Account> candidates) {
+        YoutubeOauth2Account selected = candidates.get(0);
+
+        for (YoutubeOauth2Account account : candidates) {
+            if (account.lastUsed < selected.lastUsed) {
+                selected = account;
+            }
+        }
+
+        return selected;
+    }
+
+    private YoutubeOauth2Account selectWeighted(List<YoutubeOauth2Account> candidates) {
+        double[] weights = new double[candidates.size()];
+        double total = 0;
+
+        for (int i = 0; i < weights.length; i++) {
+            // halve the weight of an account for each consecutive failure.
+            weights[i] = 1.0 / (1L << Math.min(candidates.get(i).getConsecutiveErrors(), 10));
+            total += weights[i];
+        }
+
+        double point = ThreadLocalRandom.current().nextDouble(total);
+
+        for (int i = 0; i < weights.length; i++) {
+            point -= weights[i];
+
+            if (point < 0) {
+                return candidates.get(i);
+            }
+        }
+
+        return candidates.get(candidates.size() - 1);
+    }
+
     private HttpInterface getHttpInterface() {
         HttpInterface httpInterface = httpInterfaceManager.getInterface();
         httpInterface.getContext().setAttribute(OAUTH_FETCH_CONTEXT_ATTRIBUTE, true);
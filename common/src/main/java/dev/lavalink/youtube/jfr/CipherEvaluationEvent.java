@@ -0,0 +1,50 @@
+package dev.lavalink.youtube.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.lavalink.youtube.CipherEvaluation")
+@Label("Cipher Evaluation")
+@Description("Deciphering the signature or n parameter of a stream URL")
+@Category({"YouTube Source", "Cipher"})
+@StackTrace(false)
+class CipherEvaluationEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(CipherEvaluationEvent.class);
+
+    @Label("Player Script")
+    String playerScript;
+
+    @Label("Parameter")
+    @Description("The deciphered parameter: sig, n, or remote if both were resolved by a remote cipher server")
+    String parameter;
+
+    @Label("Successful")
+    boolean successful;
+
+    static Object start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        CipherEvaluationEvent event = new CipherEvaluationEvent();
+        event.begin();
+        return event;
+    }
+
+    static void finish(Object handle, String playerScript, String parameter, boolean successful) {
+        CipherEvaluationEvent event = (CipherEvaluationEvent) handle;
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.playerScript = playerScript;
+            event.parameter = parameter;
+            event.successful = successful;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package dev.lavalink.youtube.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.lavalink.youtube.ClientFallback")
+@Label("Client Fallback")
+@Description("A client failing to load an item, after which the next client is tried")
+@Category({"YouTube Source", "Innertube"})
+@StackTrace(false)
+class ClientFallbackEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(ClientFallbackEvent.class);
+
+    @Label("Identifier")
+    String identifier;
+
+    @Label("Client")
+    String client;
+
+    @Label("Error")
+    String error;
+
+    static Object start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        ClientFallbackEvent event = new ClientFallbackEvent();
+        event.begin();
+        return event;
+    }
+
+    static void finish(Object handle, String identifier, String client, String error) {
+        ClientFallbackEvent event = (ClientFallbackEvent) handle;
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.identifier = identifier;
+            event.client = client;
+            event.error = error;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dev.lavalink.youtube.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.lavalink.youtube.InnertubeRequest")
+@Label("Innertube Request")
+@Description("An HTTP request to the Innertube API made by a client")
+@Category({"YouTube Source", "Innertube"})
+@StackTrace(false)
+class InnertubeRequestEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(InnertubeRequestEvent.class);
+
+    @Label("Client")
+    String client;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status Code")
+    @Description("The HTTP status code, or 0 if no response was received")
+    int statusCode;
+
+    @Label("Response Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Field Mask")
+    @Description("Whether a response field mask was applied")
+    boolean masked;
+
+    static Object start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        InnertubeRequestEvent event = new InnertubeRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    static void finish(Object handle, String client, String endpoint, int statusCode, long bytes, boolean masked) {
+        InnertubeRequestEvent event = (InnertubeRequestEvent) handle;
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.client = client;
+            event.endpoint = endpoint;
+            event.statusCode = statusCode;
+            event.bytes = bytes;
+            event.masked = masked;
+            event.commit();
+        }
+    }
+}
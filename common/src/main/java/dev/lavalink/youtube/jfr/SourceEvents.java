@@ -0,0 +1,126 @@
+package dev.lavalink.youtube.jfr;
+
+import jdk.jfr.FlightRecorder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+
+/**
+ * Emits Java Flight Recorder events for Innertube requests, cipher evaluation, stream connections and range switches,
+ * and client fallbacks, so that recordings of live nodes can correlate GC, CPU and I/O stalls with source activity.
+ * <p>
+ * Each event is started with a {@code begin} method, which returns {@code null} if the event is not being recorded,
+ * and is committed by the matching {@code end} method. Nothing is allocated while the events are disabled. On
+ * runtimes without Flight Recorder (Java 8 before 8u262), all methods do nothing and the event classes are never
+ * loaded.
+ */
+public final class SourceEvents {
+    private static final boolean AVAILABLE = isAvailable();
+
+    private SourceEvents() {
+
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+            return FlightRecorder.isAvailable();
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    public static Object beginInnertubeRequest() {
+        return AVAILABLE ? InnertubeRequestEvent.start() : null;
+    }
+
+    /**
+     * @param statusCode The HTTP status code of the response, or 0 if none was received.
+     * @param bytes The size of the response body.
+     * @param masked Whether a response field mask was applied.
+     */
+    public static void endInnertubeRequest(@Nullable Object event,
+                                           @Nullable String client,
+                                           @NotNull URI url,
+                                           int statusCode,
+                                           long bytes,
+                                           boolean masked) {
+        if (event != null) {
+            InnertubeRequestEvent.finish(event, client, url.getPath(), statusCode, bytes, masked);
+        }
+    }
+
+    @Nullable
+    public static Object beginCipherEvaluation() {
+        return AVAILABLE ? CipherEvaluationEvent.start() : null;
+    }
+
+    /**
+     * @param parameter {@code sig}, {@code n} or {@code remote}.
+     */
+    public static void endCipherEvaluation(@Nullable Object event,
+                                           @NotNull String playerScript,
+                                           @NotNull String parameter,
+                                           boolean successful) {
+        if (event != null) {
+            CipherEvaluationEvent.finish(event, playerScript, parameter, successful);
+        }
+    }
+
+    @Nullable
+    public static Object beginStreamConnect() {
+        return AVAILABLE ? StreamConnectEvent.start() : null;
+    }
+
+    /**
+     * @param url The URL that was connected to, or {@code null} if connecting failed before it was known.
+     * @param attempt The attempt number, starting at 1, when a failed connection is retried on another host.
+     * @param readAhead Whether the range was requested in the background.
+     */
+    public static void endStreamConnect(@Nullable Object event,
+                                        @Nullable URI url,
+                                        long rangeStart,
+                                        long rangeEnd,
+                                        int attempt,
+                                        boolean readAhead,
+                                        boolean successful) {
+        if (event != null) {
+            StreamConnectEvent.finish(event, url != null ? url.getHost() : null, rangeStart, rangeEnd, attempt, readAhead, successful);
+        }
+    }
+
+    @Nullable
+    public static Object beginStreamRangeSwitch() {
+        return AVAILABLE ? StreamRangeSwitchEvent.start() : null;
+    }
+
+    /**
+     * @param position The position at which the range ended.
+     * @param prefetched Whether the next range had been requested in the background.
+     */
+    public static void endStreamRangeSwitch(@Nullable Object event, long position, boolean prefetched) {
+        if (event != null) {
+            StreamRangeSwitchEvent.finish(event, position, prefetched);
+        }
+    }
+
+    @Nullable
+    public static Object beginClientAttempt() {
+        return AVAILABLE ? ClientFallbackEvent.start() : null;
+    }
+
+    /**
+     * Commits a client fallback event for an attempt that failed. Attempts that succeed are simply not ended.
+     * @param identifier The identifier of the item that was being loaded.
+     */
+    public static void endClientFallback(@Nullable Object event,
+                                         @NotNull String identifier,
+                                         @NotNull String client,
+                                         @NotNull Throwable error) {
+        if (event != null) {
+            ClientFallbackEvent.finish(event, identifier, client, error.toString());
+        }
+    }
+}
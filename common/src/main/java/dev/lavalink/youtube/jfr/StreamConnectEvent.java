@@ -0,0 +1,62 @@
+package dev.lavalink.youtube.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.lavalink.youtube.StreamConnect")
+@Label("Stream Connect")
+@Description("A connection made by a stream to a media host, up to the response headers")
+@Category({"YouTube Source", "Stream"})
+@StackTrace(false)
+class StreamConnectEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(StreamConnectEvent.class);
+
+    @Label("Host")
+    String host;
+
+    @Label("Range Start")
+    long rangeStart;
+
+    @Label("Range End")
+    long rangeEnd;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Read-Ahead")
+    @Description("Whether the range was requested in the background, ahead of being read")
+    boolean readAhead;
+
+    @Label("Successful")
+    boolean successful;
+
+    static Object start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        StreamConnectEvent event = new StreamConnectEvent();
+        event.begin();
+        return event;
+    }
+
+    static void finish(Object handle, String host, long rangeStart, long rangeEnd, int attempt, boolean readAhead, boolean successful) {
+        StreamConnectEvent event = (StreamConnectEvent) handle;
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.host = host;
+            event.rangeStart = rangeStart;
+            event.rangeEnd = rangeEnd;
+            event.attempt = attempt;
+            event.readAhead = readAhead;
+            event.successful = successful;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package dev.lavalink.youtube.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dev.lavalink.youtube.StreamRangeSwitch")
+@Label("Stream Range Switch")
+@Description("A stream reaching the end of its current range, including waiting for the prefetched next range")
+@Category({"YouTube Source", "Stream"})
+@StackTrace(false)
+class StreamRangeSwitchEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(StreamRangeSwitchEvent.class);
+
+    @Label("Position")
+    long position;
+
+    @Label("Prefetched")
+    @Description("Whether the next range had been requested in the background, so that no new connection is needed")
+    boolean prefetched;
+
+    static Object start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        StreamRangeSwitchEvent event = new StreamRangeSwitchEvent();
+        event.begin();
+        return event;
+    }
+
+    static void finish(Object handle, long position, boolean prefetched) {
+        StreamRangeSwitchEvent event = (StreamRangeSwitchEvent) handle;
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.position = position;
+            event.prefetched = prefetched;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.lavalink.youtube.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates the counters and timers the source reports to. Implementations bind them to a metrics library, e.g.
+ * Micrometer or Prometheus. Metrics are created once with all of their tags bound, and are only incremented or
+ * recorded to afterwards, so recording does not need to look anything up or allocate.
+ * <p>
+ * Names are dot-separated, e.g. {@code youtube.requests}, and may be requested more than once with different tag
+ * values. The tag keys of a name are always the same.
+ */
+public interface MetricsRegistry {
+    MetricsRegistry NOOP = new MetricsRegistry() {
+        @NotNull
+        @Override
+        public Counter counter(@NotNull String name, @NotNull String description, @NotNull String... tags) {
+            return Counter.NOOP;
+        }
+
+        @NotNull
+        @Override
+        public Timer timer(@NotNull String name, @NotNull String description, @NotNull String... tags) {
+            return Timer.NOOP;
+        }
+    };
+
+    /**
+     * @param tags Alternating tag keys and values.
+     */
+    @NotNull
+    Counter counter(@NotNull String name, @NotNull String description, @NotNull String... tags);
+
+    /**
+     * @param tags Alternating tag keys and values.
+     */
+    @NotNull
+    Timer timer(@NotNull String name, @NotNull String description, @NotNull String... tags);
+
+    @FunctionalInterface
+    interface Counter {
+        Counter NOOP = amount -> {};
+
+        void increment(long amount);
+
+        default void increment() {
+            increment(1);
+        }
+    }
+
+    @FunctionalInterface
+    interface Timer {
+        Timer NOOP = nanos -> {};
+
+        void record(long nanos);
+
+        /**
+         * Records the time since the given {@link System#nanoTime()} timestamp.
+         */
+        default void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package dev.lavalink.youtube.metrics;
+
+import dev.lavalink.youtube.metrics.MetricsRegistry.Counter;
+import dev.lavalink.youtube.metrics.MetricsRegistry.Timer;
+import dev.lavalink.youtube.track.YoutubeAudioTrack;
+import dev.lavalink.youtube.track.timeline.TrackStartListener;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Phase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of a source manager, bound to a {@link MetricsRegistry}. Every metric is bound with its tags up front
+ * (request metrics on the first request of each client), so that recording only increments a counter or records to a
+ * timer.
+ * <p>
+ * The metrics are stored in the context of every HTTP interface of the source manager under
+ * {@link #CONTEXT_ATTRIBUTE}, which is how clients, cipher managers and streams get hold of them.
+ */
+public class YoutubeMetrics implements TrackStartListener {
+    public static final String CONTEXT_ATTRIBUTE = "yt-metrics";
+    public static final YoutubeMetrics NOOP = new YoutubeMetrics(MetricsRegistry.NOOP);
+
+    private final MetricsRegistry registry;
+    private final ConcurrentMap<String, RequestMetrics[]> requestMetrics = new ConcurrentHashMap<>();
+
+    private final Timer cipherResolveTime;
+    private final Counter cipherResolveFailures;
+    private final Counter cipherScriptCacheHits;
+    private final Counter cipherScriptCacheMisses;
+    private final Counter playerScriptCacheHits;
+    private final Counter playerScriptCacheMisses;
+    private final Counter streamRangeRequests;
+    private final Counter streamReconnects;
+    private final Counter oauthRefreshes;
+    private final Counter oauthRefreshFailures;
+    private final Counter visitorIdFetches;
+    private final Counter visitorIdFetchFailures;
+    private final Timer rateLimitWait;
+    private final Counter rateLimitRejections;
+    private final Counter maskedResponses;
+    private final Counter fullResponses;
+    private final Counter maskedResponseBytes;
+    private final Counter fullResponseBytes;
+    private final Counter fieldMaskFallbacks;
+    private final Timer[] trackStartPhases;
+    private final Counter trackStartFailures;
+
+    public YoutubeMetrics(@NotNull MetricsRegistry registry) {
+        this.registry = registry;
+
+        this.cipherResolveTime = registry.timer("youtube.cipher.resolve", "Time taken to decipher the signature and n parameter of a stream URL");
+        this.cipherResolveFailures = registry.counter("youtube.cipher.resolve.failures", "Stream URLs that could not be deciphered");
+        this.cipherScriptCacheHits = registry.counter("youtube.cipher.cache", "Lookups of cached player scripts", "cache", "cipher", "result", "hit");
+        this.cipherScriptCacheMisses = registry.counter("youtube.cipher.cache", "Lookups of cached player scripts", "cache", "cipher", "result", "miss");
+        this.playerScriptCacheHits = registry.counter("youtube.cipher.cache", "Lookups of cached player scripts", "cache", "player", "result", "hit");
+        this.playerScriptCacheMisses = registry.counter("youtube.cipher.cache", "Lookups of cached player scripts", "cache", "player", "result", "miss");
+        this.streamRangeRequests = registry.counter("youtube.stream.range.requests", "Range requests made by streams");
+        this.streamReconnects = registry.counter("youtube.stream.reconnects", "Streams reconnected after a connection failed");
+        this.oauthRefreshes = registry.counter("youtube.oauth.refreshes", "OAuth access token refreshes", "result", "success");
+        this.oauthRefreshFailures = registry.counter("youtube.oauth.refreshes", "OAuth access token refreshes", "result", "failure");
+        this.visitorIdFetches = registry.counter("youtube.visitorid.fetches", "Visitor ID fetches", "result", "success");
+        this.visitorIdFetchFailures = registry.counter("youtube.visitorid.fetches", "Visitor ID fetches", "result", "failure");
+        this.rateLimitWait = registry.timer("youtube.ratelimit.wait", "Time Innertube requests waited for the rate limiter");
+        this.rateLimitRejections = registry.counter("youtube.ratelimit.rejections", "Innertube requests rejected by the rate limiter");
+        this.maskedResponses = registry.counter("youtube.innertube.responses", "Innertube responses received", "masked", "true");
+        this.fullResponses = registry.counter("youtube.innertube.responses", "Innertube responses received", "masked", "false");
+        this.maskedResponseBytes = registry.counter("youtube.innertube.response.bytes", "Decoded size of Innertube responses in bytes", "masked", "true");
+        this.fullResponseBytes = registry.counter("youtube.innertube.response.bytes", "Decoded size of Innertube responses in bytes", "masked", "false");
+        this.fieldMaskFallbacks = registry.counter("youtube.fieldmask.fallbacks", "Masked Innertube responses that were unusable, after which the full response was requested");
+
+        Phase[] phases = Phase.values();
+        this.trackStartPhases = new Timer[phases.length];
+
+        for (Phase phase : phases) {
+            trackStartPhases[phase.ordinal()] = registry.timer("youtube.track.start", "Duration of the phases of starting a track",
+                "phase", phase.name().toLowerCase(Locale.ROOT));
+        }
+
+        this.trackStartFailures = registry.counter("youtube.track.start.failures", "Tracks that failed before their first frame was decoded");
+    }
+
+    /**
+     * @return The metrics stored in the given context, or {@link #NOOP} if there are none.
+     */
+    @NotNull
+    public static YoutubeMetrics get(@NotNull HttpClientContext context) {
+        Object metrics = context.getAttribute(CONTEXT_ATTRIBUTE);
+        return metrics instanceof YoutubeMetrics ? (YoutubeMetrics) metrics : NOOP;
+    }
+
+    /**
+     * Stores these metrics in the given context, unless they are stored there already.
+     */
+    public void attach(@NotNull HttpClientContext context) {
+        if (context.getAttribute(CONTEXT_ATTRIBUTE) != this) {
+            context.setAttribute(CONTEXT_ATTRIBUTE, this);
+        }
+    }
+
+    @NotNull
+    public RequestMetrics getRequestMetrics(@NotNull String client, @NotNull Operation operation) {
+        RequestMetrics[] byOperation = requestMetrics.get(client);
+
+        if (byOperation == null) {
+            byOperation = requestMetrics.computeIfAbsent(client, this::bindRequestMetrics);
+        }
+
+        return byOperation[operation.ordinal()];
+    }
+
+    private RequestMetrics[] bindRequestMetrics(String client) {
+        Operation[] operations = Operation.values();
+        RequestMetrics[] byOperation = new RequestMetrics[operations.length];
+
+        for (Operation operation : operations) {
+            byOperation[operation.ordinal()] = new RequestMetrics(registry, client, operation);
+        }
+
+        return byOperation;
+    }
+
+    @NotNull
+    public Timer getCipherResolveTime() {
+        return cipherResolveTime;
+    }
+
+    @NotNull
+    public Counter getCipherResolveFailures() {
+        return cipherResolveFailures;
+    }
+
+    /**
+     * @return The counter of lookups of parsed cipher scripts, by player script URL.
+     */
+    @NotNull
+    public Counter getCipherScriptCache(boolean hit) {
+        return hit ? cipherScriptCacheHits : cipherScriptCacheMisses;
+    }
+
+    /**
+     * @return The counter of lookups of the current player script and its signature timestamp.
+     */
+    @NotNull
+    public Counter getPlayerScriptCache(boolean hit) {
+        return hit ? playerScriptCacheHits : playerScriptCacheMisses;
+    }
+
+    @NotNull
+    public Counter getStreamRangeRequests() {
+        return streamRangeRequests;
+    }
+
+    @NotNull
+    public Counter getStreamReconnects() {
+        return streamReconnects;
+    }
+
+    @NotNull
+    public Counter getOauthRefreshes(boolean successful) {
+        return successful ? oauthRefreshes : oauthRefreshFailures;
+    }
+
+    @NotNull
+    public Counter getVisitorIdFetches(boolean successful) {
+        return successful ? visitorIdFetches : visitorIdFetchFailures;
+    }
+
+    @NotNull
+    public Timer getRateLimitWait() {
+        return rateLimitWait;
+    }
+
+    @NotNull
+    public Counter getRateLimitRejections() {
+        return rateLimitRejections;
+    }
+
+    /**
+     * @param masked Whether a response field mask was applied to the request.
+     */
+    @NotNull
+    public Counter getInnertubeResponses(boolean masked) {
+        return masked ? maskedResponses : fullResponses;
+    }
+
+    /**
+     * @param masked Whether a response field mask was applied to the request.
+     */
+    @NotNull
+    public Counter getInnertubeResponseBytes(boolean masked) {
+        return masked ? maskedResponseBytes : fullResponseBytes;
+    }
+
+    @NotNull
+    public Counter getFieldMaskFallbacks() {
+        return fieldMaskFallbacks;
+    }
+
+    @Override
+    public void onTrackStart(@NotNull YoutubeAudioTrack track, @NotNull TrackStartTimeline timeline) {
+        for (TrackStartTimeline.Entry entry : timeline.getEntries()) {
+            trackStartPhases[entry.getPhase().ordinal()].record(TimeUnit.MILLISECONDS.toNanos(entry.getDurationMs()));
+        }
+
+        if (!timeline.isSuccessful()) {
+            trackStartFailures.increment();
+        }
+    }
+
+    /**
+     * The Innertube endpoints requested by clients.
+     */
+    public enum Operation {
+        PLAYER,
+        SEARCH,
+        MUSIC_SEARCH,
+        NEXT,
+        BROWSE,
+        OTHER;
+
+        @NotNull
+        public static Operation forUrl(@NotNull URI url) {
+            String path = url.getPath();
+
+            if (path == null) {
+                return OTHER;
+            } else if (path.endsWith("/player")) {
+                return PLAYER;
+            } else if (path.endsWith("/search")) {
+                return "music.youtube.com".equals(url.getHost()) ? MUSIC_SEARCH : SEARCH;
+            } else if (path.endsWith("/next")) {
+                return NEXT;
+            } else if (path.endsWith("/browse")) {
+                return BROWSE;
+            }
+
+            return OTHER;
+        }
+    }
+
+    /**
+     * The request rate, errors and latency of one operation of one client.
+     */
+    public static class RequestMetrics {
+        private final Counter requests;
+        private final Counter errors;
+        private final Timer latency;
+
+        private RequestMetrics(MetricsRegistry registry, String client, Operation operation) {
+            String operationName = operation.name().toLowerCase(Locale.ROOT);
+
+            this.requests = registry.counter("youtube.requests", "Innertube requests made by clients",
+                "client", client, "operation", operationName);
+            this.errors = registry.counter("youtube.requests.errors", "Innertube requests that failed",
+                "client", client, "operation", operationName);
+            this.latency = registry.timer("youtube.requests.latency", "Latency of Innertube requests",
+                "client", client, "operation", operationName);
+        }
+
+        /**
+         * Records a request that started at the given {@link System#nanoTime()} timestamp and ended now.
+         * @param error The error the request failed with, or {@code null} if it succeeded.
+         */
+        public void record(long startNanos, @Nullable Throwable error) {
+            requests.increment();
+            latency.recordSince(startNanos);
+
+            if (error != null) {
+                errors.increment();
+            }
+        }
+    }
+}
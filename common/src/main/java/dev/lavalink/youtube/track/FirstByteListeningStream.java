@@ -0,0 +1,87 @@
+package dev.lavalink.youtube.track;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
+import com.sedmelluq.discord.lavaplayer.track.info.AudioTrackInfoProvider;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Runs a callback when the first bytes have been read from a stream.
+ */
+class FirstByteListeningStream extends SeekableInputStream {
+    private final SeekableInputStream delegate;
+    private Runnable listener;
+
+    FirstByteListeningStream(@NotNull SeekableInputStream delegate, @NotNull Runnable listener) {
+        super(delegate.getContentLength(), delegate.getMaxSkipDistance());
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = delegate.read();
+
+        if (result != -1) {
+            onRead();
+        }
+
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int result = delegate.read(b, off, len);
+
+        if (result > 0) {
+            onRead();
+        }
+
+        return result;
+    }
+
+    private void onRead() {
+        if (listener != null) {
+            Runnable current = listener;
+            listener = null;
+            current.run();
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        return delegate.skip(n);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return delegate.available();
+    }
+
+    @Override
+    public long getPosition() {
+        return delegate.getPosition();
+    }
+
+    @Override
+    protected void seekHard(long position) throws IOException {
+        delegate.seek(position);
+    }
+
+    @Override
+    public boolean canSeekHard() {
+        return delegate.canSeekHard();
+    }
+
+    @Override
+    public List<AudioTrackInfoProvider> getTrackInfoProviders() {
+        return delegate.getTrackInfoProviders();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,316 @@
+package dev.lavalink.youtube.track;
+
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import dev.lavalink.youtube.UrlTools;
+import dev.lavalink.youtube.http.MediaHostTracker;
+import org.apache.http.client.utils.URIBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The URL of a format that is renewed in the background shortly before it expires. Streams ask for the URL before
+ * every new connection, so they switch to the renewed URL at their next range request, and never run into the
+ * 403 that an expired URL would cause.
+ * <p>
+ * If a {@link MediaHostTracker} is given, the URL is also pointed at whichever of the alternate media hosts listed
+ * in its {@code mn} parameter is performing best, based on the results streams report back.
+ */
+public class RenewableStreamUrl {
+    private static final Logger log = LoggerFactory.getLogger(RenewableStreamUrl.class);
+
+    private static final long RENEWAL_MARGIN = TimeUnit.MINUTES.toMillis(5);
+    private static final long RENEWAL_JITTER = TimeUnit.MINUTES.toMillis(1);
+    private static final long RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+
+    private static final int RENEWAL_THREADS = 4;
+    private static final int RENEWAL_QUEUE_CAPACITY = 1000;
+
+    // the scheduler only times renewals, the renewal requests themselves run on a bounded pool so that one slow
+    // request doesn't hold up the renewals of every other track.
+    private static final ScheduledExecutorService renewalScheduler =
+        Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("yt-url-renewal-timer"));
+    private static final ThreadPoolExecutor renewalExecutor =
+        StreamExecutors.create("yt-url-renewal", RENEWAL_THREADS, RENEWAL_QUEUE_CAPACITY);
+
+    private final Renewer renewer;
+    private final MediaHostTracker hostTracker;
+    // renewalLock guards scheduling, renewLock serializes renewals so that stop() never waits on a renewal request.
+    private final Object renewalLock = new Object();
+    private final ReentrantLock renewLock = new ReentrantLock();
+
+    private volatile URI url;
+    private volatile List<String> mediaHosts;
+    private volatile String activeHost;
+    private volatile long expiresAt;
+    private volatile long lastAttempt;
+    private ScheduledFuture<?> renewalTask;
+    private volatile boolean stopped;
+
+    /**
+     * @param url The current URL of the format.
+     * @param renewer Loads a new URL for the same format, or {@code null} if the URL cannot be renewed.
+     */
+    public RenewableStreamUrl(@NotNull URI url, @Nullable Renewer renewer) {
+        this(url, renewer, null);
+    }
+
+    /**
+     * @param url The current URL of the format.
+     * @param renewer Loads a new URL for the same format, or {@code null} if the URL cannot be renewed.
+     * @param hostTracker The tracker used to pick between alternate media hosts, or {@code null} to always use the
+     *                    host of the URL.
+     */
+    public RenewableStreamUrl(@NotNull URI url, @Nullable Renewer renewer, @Nullable MediaHostTracker hostTracker) {
+        this.renewer = renewer;
+        this.hostTracker = hostTracker;
+        setUrl(url);
+    }
+
+    /**
+     * @return A URL that is never renewed.
+     */
+    @NotNull
+    public static RenewableStreamUrl fixed(@NotNull URI url) {
+        return new RenewableStreamUrl(url, null);
+    }
+
+    private void setUrl(URI url) {
+        // the expiry goes first, so that whoever sees the new URL also sees when it expires.
+        this.expiresAt = getExpiry(url);
+        this.url = url;
+
+        String mn = UrlTools.getUrlInfo(url.toString(), true).parameters.get("mn");
+        String host = getHostId(url);
+        List<String> hosts = mn != null ? Arrays.asList(mn.split(",")) : Collections.emptyList();
+
+        // failover is only possible if the URL's own host is one of the listed ones.
+        this.mediaHosts = host != null && hosts.size() > 1 && hosts.contains(host) ? hosts : Collections.emptyList();
+        this.activeHost = host;
+    }
+
+    /**
+     * @return The current URL. If it has expired because background renewal failed, renewal is attempted once more
+     * before returning.
+     */
+    @NotNull
+    public URI get() {
+        if (renewer != null && expiresAt != Long.MAX_VALUE && System.currentTimeMillis() >= expiresAt
+            && System.currentTimeMillis() - lastAttempt >= RETRY_INTERVAL) {
+            renew(true);
+        }
+
+        URI current = url;
+        List<String> hosts = mediaHosts;
+
+        if (hostTracker == null || hosts.isEmpty()) {
+            return current;
+        }
+
+        String host = hostTracker.choose(hosts, activeHost);
+
+        if (!host.equals(activeHost)) {
+            log.debug("Switching media host from {} to {}", activeHost, host);
+            activeHost = host;
+        }
+
+        return withHost(current, host);
+    }
+
+    /**
+     * Reports that a connection to the given URL succeeded.
+     * @param latency The time until the response headers were received, in milliseconds.
+     */
+    public void reportSuccess(@NotNull URI url, long latency) {
+        String host = getHostId(url);
+
+        if (hostTracker != null && host != null) {
+            hostTracker.recordSuccess(host, latency);
+        }
+    }
+
+    /**
+     * Reports that a connection to the given URL failed for reasons specific to its host.
+     * @return Whether the next {@link #get()} will use a different host.
+     */
+    public boolean reportFailure(@NotNull URI url) {
+        String host = getHostId(url);
+
+        if (hostTracker == null || host == null || mediaHosts.isEmpty()) {
+            return false;
+        }
+
+        hostTracker.recordFailure(host);
+        return !hostTracker.choose(mediaHosts, host).equals(host);
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+
+    /**
+     * Schedules renewal of the URL shortly before it expires.
+     */
+    public void start() {
+        if (renewer != null) {
+            scheduleRenewal();
+        }
+    }
+
+    /**
+     * Cancels any scheduled renewal. Must be called once the URL is no longer in use.
+     */
+    public void stop() {
+        synchronized (renewalLock) {
+            stopped = true;
+
+            if (renewalTask != null) {
+                renewalTask.cancel(false);
+                renewalTask = null;
+            }
+        }
+    }
+
+    private void scheduleRenewal() {
+        if (expiresAt == Long.MAX_VALUE) {
+            return;
+        }
+
+        // spread renewals of tracks that started at the same time.
+        long renewAt = expiresAt - RENEWAL_MARGIN - ThreadLocalRandom.current().nextLong(RENEWAL_JITTER);
+        schedule(Math.max(0, renewAt - System.currentTimeMillis()));
+    }
+
+    private void schedule(long delay) {
+        synchronized (renewalLock) {
+            if (!stopped) {
+                renewalTask = renewalScheduler.schedule(this::submitRenewal, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void submitRenewal() {
+        try {
+            renewalExecutor.execute(this::renewInBackground);
+        } catch (RejectedExecutionException e) {
+            log.debug("Too many pending stream URL renewals, retrying later");
+            schedule(RETRY_INTERVAL);
+        }
+    }
+
+    private void renewInBackground() {
+        if (renew(false)) {
+            scheduleRenewal();
+        } else if (!isExpired()) {
+            schedule(RETRY_INTERVAL);
+        }
+    }
+
+    /**
+     * @param onlyIfExpired Whether to skip renewal if another thread renewed the URL while this one was waiting.
+     */
+    private boolean renew(boolean onlyIfExpired) {
+        renewLock.lock();
+
+        try {
+            if (stopped || (onlyIfExpired && !isExpired())) {
+                return false;
+            }
+
+            lastAttempt = System.currentTimeMillis();
+
+            try {
+                URI renewed = renewer.renew();
+                setUrl(renewed);
+                log.debug("Renewed stream URL, now expiring at {}", expiresAt);
+                return true;
+            } catch (Exception e) {
+                log.warn("Failed to renew stream URL", e);
+                return false;
+            }
+        } finally {
+            renewLock.unlock();
+        }
+    }
+
+    /**
+     * @return The time (in epoch milliseconds) at which the URL expires, or {@link Long#MAX_VALUE} if it doesn't.
+     */
+    public static long getExpiry(@NotNull URI url) {
+        String expire = UrlTools.getUrlInfo(url.toString(), true).parameters.get("expire");
+
+        if (expire == null) {
+            return Long.MAX_VALUE;
+        }
+
+        try {
+            return Long.parseLong(expire) * 1000;
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * @return The media host ID ({@code sn-...}) of a googlevideo URL, e.g. {@code sn-abcd1234} for
+     * {@code rr3---sn-abcd1234.googlevideo.com}, or {@code null} if the host isn't in this form.
+     */
+    @Nullable
+    static String getHostId(@NotNull URI url) {
+        String host = url.getHost();
+
+        if (host == null) {
+            return null;
+        }
+
+        int start = host.indexOf("---");
+        int end = host.indexOf('.');
+
+        if (start == -1 || end == -1 || end < start) {
+            return null;
+        }
+
+        return host.substring(start + 3, end);
+    }
+
+    static URI withHost(@NotNull URI url, @NotNull String hostId) {
+        String current = getHostId(url);
+
+        if (current == null || current.equals(hostId)) {
+            return url;
+        }
+
+        try {
+            return new URIBuilder(url).setHost(url.getHost().replace(current, hostId)).build();
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Renewer {
+        /**
+         * @return A new URL for the same format.
+         */
+        @NotNull
+        URI renew() throws Exception;
+    }
+}
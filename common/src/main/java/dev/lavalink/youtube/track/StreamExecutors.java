@@ -0,0 +1,33 @@
+package dev.lavalink.youtube.track;
+
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded thread pools for the background work of streams, shared by all tracks. Tasks beyond the queue capacity are
+ * rejected, and idle threads time out, so the pools hold no threads while nothing is playing.
+ */
+final class StreamExecutors {
+    private static final int DOWNLOAD_THREADS = 32;
+    private static final int DOWNLOAD_QUEUE_CAPACITY = 256;
+
+    /**
+     * Runs the requests streams make ahead of the reader, i.e. read-ahead ranges and segments.
+     */
+    static final ThreadPoolExecutor downloadExecutor = create("yt-stream-download", DOWNLOAD_THREADS, DOWNLOAD_QUEUE_CAPACITY);
+
+    private StreamExecutors() {
+
+    }
+
+    static ThreadPoolExecutor create(String name, int threads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity), new DaemonThreadFactory(name));
+
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
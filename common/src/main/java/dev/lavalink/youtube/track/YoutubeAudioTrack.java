@@ -8,31 +8,35 @@ import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import com.sedmelluq.discord.lavaplayer.track.DelegatedAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.AudioFrame;
 import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
+import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
 import dev.lavalink.youtube.*;
-import dev.lavalink.youtube.UrlTools.UrlInfo;
 import dev.lavalink.youtube.cipher.ScriptExtractionException;
 import dev.lavalink.youtube.clients.skeleton.Client;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import dev.lavalink.youtube.track.format.TrackFormats;
+import dev.lavalink.youtube.track.timeline.TrackStartRecorder;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Phase;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.sedmelluq.discord.lavaplayer.container.Formats.MIME_AUDIO_WEBM;
-import static com.sedmelluq.discord.lavaplayer.tools.DataFormatTools.decodeUrlEncodedItems;
 import static com.sedmelluq.discord.lavaplayer.tools.Units.CONTENT_LENGTH_UNKNOWN;
 import static dev.lavalink.youtube.http.YoutubeOauth2Handler.OAUTH_INJECT_CONTEXT_ATTRIBUTE;
 
@@ -48,6 +52,8 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
   public static long BAD_STREAM_POSITION_THRESHOLD_MS = 3000;
 
   private final YoutubeAudioSourceManager sourceManager;
+  // cleared once the first frame has been provided, so later frames only pay for a volatile read.
+  private volatile TrackStartRecorder startRecorder;
 
   /**
    * @param trackInfo Track info
@@ -68,20 +74,16 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
           new RuntimeException("None of the registered clients supports loading of formats"));
     }
 
-    try (HttpInterface httpInterface = sourceManager.getInterface()) {
-      try {
-        Object userData = getUserData();
+    TrackStartRecorder startRecorder = new TrackStartRecorder(this, sourceManager.getTrackStartListeners());
+    HttpClientContext context = null;
+    Throwable error = null;
+    this.startRecorder = startRecorder;
 
-        if (userData != null) {
-          JsonBrowser jsonUserData = JsonBrowser.parse(userData.toString());
-
-          if (!jsonUserData.get("oauth-token").isNull()) {
-            httpInterface.getContext().setAttribute(OAUTH_INJECT_CONTEXT_ATTRIBUTE, jsonUserData.get("oauth-token").text());
-          }
-        }
-      } catch (IOException e) {
-        log.debug("Failed to parse token from userData", e);
-      }
+    try (HttpInterface httpInterface = sourceManager.getInterface()) {
+      applyOauthToken(httpInterface);
+      // lets the client and cipher layers record their phases.
+      context = httpInterface.getContext();
+      context.setAttribute(TrackStartTimeline.CONTEXT_ATTRIBUTE, startRecorder.getTimeline());
 
       List<ClientException> exceptions = new ArrayList<>();
 
@@ -91,6 +93,7 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
         }
 
         httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+        startRecorder.beginAttempt(client.getIdentifier());
 
         try {
           processWithClient(localExecutor, httpInterface, client, 0);
@@ -98,6 +101,8 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
         } catch (CannotBeLoaded e) {
           throw e;
         } catch (Exception e) {
+          startRecorder.attemptFailed(e);
+
           if (e instanceof ScriptExtractionException) {
             // If we're still early in playback, we can try another client
             if (localExecutor.getPosition() >= BAD_STREAM_POSITION_THRESHOLD_MS) {
@@ -120,7 +125,35 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
         throw new AllClientsFailedException(exceptions);
       }
     } catch (CannotBeLoaded e) {
+      error = e;
       throw ExceptionTools.wrapUnfriendlyExceptions("This video is unavailable", Severity.SUSPICIOUS, e.getCause());
+    } catch (Exception | Error e) {
+      error = e;
+      throw e;
+    } finally {
+      if (context != null) {
+        // the interface is reused by later tracks on this thread.
+        context.removeAttribute(TrackStartTimeline.CONTEXT_ATTRIBUTE);
+      }
+
+      this.startRecorder = null;
+      startRecorder.finish(localExecutor.getAudioBuffer() != null && localExecutor.getAudioBuffer().hasReceivedFrames(), error);
+    }
+  }
+
+  private void applyOauthToken(HttpInterface httpInterface) {
+    try {
+      Object userData = getUserData();
+
+      if (userData != null) {
+        JsonBrowser jsonUserData = JsonBrowser.parse(userData.toString());
+
+        if (!jsonUserData.get("oauth-token").isNull()) {
+          httpInterface.getContext().setAttribute(OAUTH_INJECT_CONTEXT_ATTRIBUTE, jsonUserData.get("oauth-token").text());
+        }
+      }
+    } catch (IOException e) {
+      log.debug("Failed to parse token from userData", e);
     }
   }
 
@@ -135,7 +168,7 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       if (trackInfo.isStream || augmentedFormat.format.getContentLength() == CONTENT_LENGTH_UNKNOWN) {
         processStream(localExecutor, httpInterface, augmentedFormat);
       } else {
-        processStatic(localExecutor, httpInterface, augmentedFormat, streamPosition);
+        processStatic(localExecutor, httpInterface, client, augmentedFormat, streamPosition);
       }
     } catch (StreamExpiredException e) {
       processWithClient(localExecutor, httpInterface, client, e.lastStreamPosition);
@@ -144,12 +177,27 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
 
   private void processStatic(LocalAudioTrackExecutor localExecutor,
                              HttpInterface httpInterface,
+                             Client client,
                              FormatWithUrl augmentedFormat,
                              long streamPosition) throws Exception {
-    YoutubePersistentHttpStream stream = null;
+    // renewed in the background before it expires, so that long or paused tracks don't have to recover from a 403,
+    // and moved to another media host if the current one is failing or slow.
+    RenewableStreamUrl streamUrl = new RenewableStreamUrl(
+        augmentedFormat.signedUrl,
+        () -> renewFormatUrl(client, augmentedFormat.format),
+        sourceManager.getMediaHostTracker()
+    );
+
+    SeekableInputStream stream = null;
 
     try {
-      stream = new YoutubePersistentHttpStream(httpInterface, augmentedFormat.signedUrl, augmentedFormat.format.getContentLength());
+      streamUrl.start();
+      stream = sourceManager.createStaticStream(httpInterface, getIdentifier(), augmentedFormat.format, streamUrl);
+      TrackStartTimeline timeline = TrackStartTimeline.get(httpInterface.getContext());
+
+      if (timeline != null) {
+        stream = new FirstByteListeningStream(stream, () -> timeline.mark(Phase.FIRST_MEDIA_BYTE));
+      }
 
       if (streamPosition > 0) {
         stream.seek(streamPosition);
@@ -161,12 +209,14 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
         processDelegate(new MpegAudioTrack(trackInfo, stream), localExecutor);
       }
     } catch (RuntimeException e) {
-      if ("Not success status code: 403".equals(e.getMessage()) && augmentedFormat.isExpired() && stream != null) {
+      if ("Not success status code: 403".equals(e.getMessage()) && streamUrl.isExpired() && stream != null) {
         throw new StreamExpiredException(stream.getPosition(), e);
       }
 
       throw e;
     } finally {
+      streamUrl.stop();
+
       if (stream != null) {
         stream.close();
       }
@@ -181,7 +231,7 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
     }
 
     // TODO: Catch 403 and retry? Can't use position though because it's a livestream.
-    processDelegate(new YoutubeMpegStreamAudioTrack(trackInfo, httpInterface, augmentedFormat.signedUrl), localExecutor);
+    processDelegate(new YoutubeMpegStreamAudioTrack(trackInfo, httpInterface, augmentedFormat.signedUrl, sourceManager.getReadAheadInterfaceManager()), localExecutor);
   }
 
   @NotNull
@@ -191,22 +241,153 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       throw new RuntimeException(client.getIdentifier() + " does not support loading of formats!");
     }
 
-    TrackFormats formats = client.loadFormats(sourceManager, httpInterface, getIdentifier());
+    TrackStartTimeline timeline = TrackStartTimeline.get(httpInterface.getContext());
+    long playerRequestBegin = System.nanoTime();
+    TrackFormats formats;
+
+    try {
+      formats = client.loadFormats(sourceManager, httpInterface, getIdentifier());
+    } catch (CannotBeLoaded | Exception e) {
+      if (timeline != null) {
+        timeline.record(Phase.PLAYER_REQUEST, playerRequestBegin, client.getIdentifier(), e);
+      }
+
+      throw e;
+    }
+
+    if (timeline != null) {
+      timeline.record(Phase.PLAYER_REQUEST, playerRequestBegin, client.getIdentifier(), null);
+    }
 
     if (formats == null) {
       throw new FriendlyException("This video cannot be played", Severity.SUSPICIOUS, null);
     }
 
-    StreamFormat format = formats.getBestFormat();
+    StreamFormat format = formats.getBestFormat(sourceManager.getFormatSelector());
 
+    if (client.requirePlayerScript()) {
+      // connect to the media host while the cipher is being resolved.
+      sourceManager.getConnectionWarmer().warmUp(format.getUrl());
+    }
+
+    return new FormatWithUrl(format, resolveFormatUrl(httpInterface, client, formats, format));
+  }
+
+  @NotNull
+  private URI resolveFormatUrl(@NotNull HttpInterface httpInterface,
+                               @NotNull Client client,
+                               @NotNull TrackFormats formats,
+                               @NotNull StreamFormat format) throws Exception {
     URI resolvedUrl = format.getUrl();
     if (client.requirePlayerScript()) {
-      resolvedUrl = sourceManager.getCipherManager()
-              .resolveFormatUrl(httpInterface, formats.getPlayerScriptUrl(), format);
+      TrackStartTimeline timeline = TrackStartTimeline.get(httpInterface.getContext());
+      long cipherBegin = System.nanoTime();
+
+      try {
+        resolvedUrl = sourceManager.getCipherManager()
+                .resolveFormatUrl(httpInterface, formats.getPlayerScriptUrl(), format);
+      } catch (Exception e) {
+        if (timeline != null) {
+          timeline.record(Phase.CIPHER, cipherBegin, client.getIdentifier(), e);
+        }
+
+        throw e;
+      }
+
+      if (timeline != null) {
+        timeline.record(Phase.CIPHER, cipherBegin, client.getIdentifier(), null);
+      }
+
       resolvedUrl = client.transformPlaybackUri(format.getUrl(), resolvedUrl);
     }
 
-    return new FormatWithUrl(format, resolvedUrl);
+    return resolvedUrl;
+  }
+
+  /**
+   * Loads a fresh URL for the given format with the same client that loaded it originally.
+   */
+  @NotNull
+  private URI renewFormatUrl(@NotNull Client client, @NotNull StreamFormat current) throws Exception {
+    try (HttpInterface httpInterface = sourceManager.getInterface()) {
+      applyOauthToken(httpInterface);
+      httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
+
+      TrackFormats formats;
+
+      try {
+        formats = client.loadFormats(sourceManager, httpInterface, getIdentifier());
+      } catch (CannotBeLoaded e) {
+        throw new IllegalStateException("Video is no longer available", e.getCause());
+      }
+
+      if (formats == null) {
+        throw new IllegalStateException("No formats were returned by " + client.getIdentifier());
+      }
+
+      // the new URL must point to the same content, as the stream continues at its current byte position.
+      StreamFormat format = formats.getFormats().stream()
+          .filter(candidate -> candidate.getItag() == current.getItag() && candidate.getContentLength() == current.getContentLength())
+          .findFirst()
+          .orElseThrow(() -> new IllegalStateException("Format " + current.getItag() + " is no longer available"));
+
+      log.debug("Renewing stream URL of {} with client {}", getIdentifier(), client.getIdentifier());
+      return resolveFormatUrl(httpInterface, client, formats, format);
+    }
+  }
+
+  @Override
+  public AudioFrame provide() {
+    AudioFrame frame = super.provide();
+
+    if (frame != null) {
+      onFrameProvided();
+    }
+
+    return frame;
+  }
+
+  @Override
+  public AudioFrame provide(long timeout, TimeUnit unit) throws TimeoutException, InterruptedException {
+    AudioFrame frame = super.provide(timeout, unit);
+
+    if (frame != null) {
+      onFrameProvided();
+    }
+
+    return frame;
+  }
+
+  @Override
+  public boolean provide(MutableAudioFrame targetFrame) {
+    boolean provided = super.provide(targetFrame);
+
+    if (provided) {
+      onFrameProvided();
+    }
+
+    return provided;
+  }
+
+  @Override
+  public boolean provide(MutableAudioFrame targetFrame, long timeout, TimeUnit unit)
+      throws TimeoutException, InterruptedException {
+    boolean provided = super.provide(targetFrame, timeout, unit);
+
+    if (provided) {
+      onFrameProvided();
+    }
+
+    return provided;
+  }
+
+  private void onFrameProvided() {
+    TrackStartRecorder recorder = startRecorder;
+
+    if (recorder != null) {
+      startRecorder = null;
+      recorder.onFrameProvided();
+    }
   }
 
   @Override
@@ -233,46 +414,6 @@ public class YoutubeAudioTrack extends DelegatedAudioTrack {
       this.format = format;
       this.signedUrl = signedUrl;
     }
-
-    public boolean isExpired() {
-      UrlInfo urlInfo = UrlTools.getUrlInfo(signedUrl.toString(), true);
-      String expire = urlInfo.parameters.get("expire");
-
-      if (expire == null) {
-        return false;
-      }
-
-      long expiresAbsMillis = Long.parseLong(expire) * 1000;
-      return System.currentTimeMillis() >= expiresAbsMillis;
-    }
-
-    @Nullable
-    public FormatWithUrl getFallback() {
-      String signedString = signedUrl.toString();
-      Map<String, String> urlParameters = decodeUrlEncodedItems(signedString, false);
-
-      String mn = urlParameters.get("mn");
-
-      if (mn == null) {
-        return null;
-      }
-
-      String[] hosts = mn.split(",");
-
-      if (hosts.length < 2) {
-        log.warn("Cannot fallback, available hosts: {}", String.join(", ", hosts));
-        return null;
-      }
-
-      String newUrl = signedString.replaceFirst(hosts[0], hosts[1]);
-
-      try {
-        URI uri = new URI(newUrl);
-        return new FormatWithUrl(format, uri);
-      } catch (URISyntaxException e) {
-        return null;
-      }
-    }
   }
 
   private static class StreamExpiredException extends RuntimeException {
@@ -4,16 +4,26 @@ import com.sedmelluq.discord.lavaplayer.container.mpeg.MpegAudioTrack;
 import com.sedmelluq.discord.lavaplayer.container.mpeg.MpegFileLoader;
 import com.sedmelluq.discord.lavaplayer.container.mpeg.MpegTrackConsumer;
 import com.sedmelluq.discord.lavaplayer.container.mpeg.reader.MpegFileTrackProvider;
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.info.AudioTrackInfoProvider;
 import com.sedmelluq.discord.lavaplayer.track.playback.AudioProcessingContext;
 import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,7 +31,14 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.SUSPICIOUS;
 import static com.sedmelluq.discord.lavaplayer.tools.Units.CONTENT_LENGTH_UNKNOWN;
@@ -30,6 +47,11 @@ import static com.sedmelluq.discord.lavaplayer.tools.Units.CONTENT_LENGTH_UNKNOW
  * YouTube segmented MPEG stream track. The base URL always gives the latest chunk. Every chunk contains the current
  * sequence number in it, which is used to get the sequence number of the next segment. This is repeated until YouTube
  * responds to a segment request with 204.
+ * <p>
+ * If an interface manager for prefetching is given, the next segment is requested in the background as soon as the
+ * headers of the current one have been parsed, so it is usually available by the time the current one is decoded.
+ * Segments that aren't available yet are polled for at intervals derived from the target segment duration that
+ * YouTube reports, rather than at a fixed rate.
  */
 public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
     private static final Logger log = LoggerFactory.getLogger(YoutubeMpegStreamAudioTrack.class);
@@ -41,9 +63,22 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
     private static final long EMPTY_RETRY_THRESHOLD_MS = 400;
     private static final long EMPTY_RETRY_INTERVAL_MS = 50;
     private static final long MAX_REWIND_TIME = 43200; // Seconds
+    // segments are polled for this many times per target duration while they aren't available yet.
+    private static final long POLLS_PER_SEGMENT = 8;
+    private static final long MAX_POLL_INTERVAL_MS = 500;
+    // audio segments are a few hundred KB at most, anything larger is not a segment we can use.
+    private static final int MAX_SEGMENT_SIZE = 32 * 1024 * 1024;
+    // how long a prefetch may still take after its polling deadline, for the request that was in flight at the time.
+    private static final long PREFETCH_GRACE_MS = 10000;
+
+    private static final ExecutorService prefetchExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("yt-live-prefetch"));
 
     private final HttpInterface httpInterface;
+    private final HttpInterfaceManager prefetchInterfaceManager;
     private final TrackState state;
+    private PrefetchedSegment prefetch;
+    // when the prefetch that found the current segment not ready yet started polling for it, or -1.
+    private long prefetchPollStart = -1;
 
     /**
      * @param trackInfo Track info
@@ -53,9 +88,24 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
     public YoutubeMpegStreamAudioTrack(AudioTrackInfo trackInfo,
                                        HttpInterface httpInterface,
                                        URI signedUrl) {
+        this(trackInfo, httpInterface, signedUrl, null);
+    }
+
+    /**
+     * @param trackInfo Track info
+     * @param httpInterface HTTP interface to use for loading segments
+     * @param signedUrl URI of the base stream with signature resolved
+     * @param prefetchInterfaceManager The interface manager to use for prefetching the next segment in the
+     *                                 background, or {@code null} to disable prefetching.
+     */
+    public YoutubeMpegStreamAudioTrack(AudioTrackInfo trackInfo,
+                                       HttpInterface httpInterface,
+                                       URI signedUrl,
+                                       @Nullable HttpInterfaceManager prefetchInterfaceManager) {
         super(trackInfo, null);
 
         this.httpInterface = httpInterface;
+        this.prefetchInterfaceManager = prefetchInterfaceManager;
         this.state = new TrackState(signedUrl);
 
         // YouTube does not return a segment until it is ready, this might trigger a connect timeout otherwise.
@@ -117,6 +167,8 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
                 state.globalSequence++;
             }
         } finally {
+            cancelPrefetch();
+
             if (state.trackConsumer != null && !state.seeking) {
                 state.trackConsumer.close();
             } else {
@@ -140,28 +192,41 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
     private void processNextSegmentWithRetry(
         LocalAudioTrackExecutor localExecutor
     ) throws InterruptedException {
+        prefetchPollStart = -1;
+
         if (processNextSegment(localExecutor)) {
             return;
         }
 
         // First attempt gave empty result, possibly because the stream is not yet finished, but the next segment is just
-        // not ready yet. Keep retrying at EMPTY_RETRY_INTERVAL_MS intervals until EMPTY_RETRY_THRESHOLD_MS is reached.
-        long waitStart = System.currentTimeMillis();
-        long iterationStart = waitStart;
+        // not ready yet. Keep retrying at the poll interval until the retry threshold is reached. For livestreams, the
+        // next segment may legitimately take up to one target duration to appear. Time the prefetch already spent
+        // polling for the segment counts towards the threshold.
+        long retryThreshold = trackInfo.isStream ? Math.max(EMPTY_RETRY_THRESHOLD_MS, state.globalSequenceDuration) : EMPTY_RETRY_THRESHOLD_MS;
+        long iterationStart = System.currentTimeMillis();
+        long waitStart = prefetchPollStart >= 0 ? Math.min(prefetchPollStart, iterationStart) : iterationStart;
 
         while (!processNextSegment(localExecutor)) {
-            // EMPTY_RETRY_THRESHOLD_MS is the maximum time between the end of the first attempt and the beginning of the last
+            // The retry threshold is the maximum time between the end of the first attempt and the beginning of the last
             // attempt, to avoid retry being skipped due to response coming slowly.
-            if (iterationStart - waitStart >= EMPTY_RETRY_THRESHOLD_MS) {
+            if (iterationStart - waitStart >= retryThreshold) {
                 state.finished = true;
                 break;
             } else {
-                Thread.sleep(EMPTY_RETRY_INTERVAL_MS);
+                Thread.sleep(getPollInterval(state));
                 iterationStart = System.currentTimeMillis();
             }
         }
     }
 
+    private static long getPollInterval(TrackState state) {
+        if (state.globalSequenceDuration <= 0) {
+            return EMPTY_RETRY_INTERVAL_MS;
+        }
+
+        return Math.max(EMPTY_RETRY_INTERVAL_MS, Math.min(MAX_POLL_INTERVAL_MS, state.globalSequenceDuration / POLLS_PER_SEGMENT));
+    }
+
     private boolean processNextSegment(
         LocalAudioTrackExecutor localExecutor
     ) throws InterruptedException {
@@ -169,19 +234,29 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
 
         log.debug("Segment URL: {}", segmentUrl.toString());
 
-        try (YoutubePersistentHttpStream stream = new YoutubePersistentHttpStream(httpInterface, segmentUrl, CONTENT_LENGTH_UNKNOWN)) {
-            if (stream.checkStatusCode() == HttpStatus.SC_NO_CONTENT || stream.getContentLength() == 0) {
+        try {
+            Segment segment = takePrefetchedSegment(segmentUrl);
+
+            if (segment == null) {
+                segment = fetchSegment(httpInterface, segmentUrl);
+            }
+
+            if (segment == Segment.NOT_READY) {
                 return false;
             }
 
+            TrackStartTimeline timeline = TrackStartTimeline.get(httpInterface.getContext());
+
+            if (timeline != null) {
+                timeline.mark(TrackStartTimeline.Phase.FIRST_MEDIA_BYTE);
+            }
+
             // If we were redirected, use that URL as a base for the next segment URL. Otherwise we will likely get redirected
             // again on every other request, which is inefficient (redirects across domains, the original URL is always
             // closing the connection, whereas the final URL is keep-alive).
-            state.redirectUrl = httpInterface.getFinalLocation();
-
-            processSegmentStream(stream, localExecutor.getProcessingContext(), state);
+            state.redirectUrl = segment.finalLocation;
 
-            stream.releaseConnection();
+            processSegmentStream(new SegmentStream(segment.data), localExecutor.getProcessingContext(), state);
         } catch (IOException e) {
             // IOException here usually means that stream is about to end.
             return false;
@@ -190,6 +265,108 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
         return true;
     }
 
+    /**
+     * Downloads a whole segment.
+     * @return The segment, or {@link Segment#NOT_READY} if it isn't available (yet).
+     */
+    private static Segment fetchSegment(HttpInterface httpInterface, URI segmentUrl) throws IOException {
+        try (CloseableHttpResponse response = httpInterface.execute(new HttpGet(segmentUrl))) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+
+            if (statusCode == HttpStatus.SC_NO_CONTENT || entity == null || entity.getContentLength() == 0) {
+                return Segment.NOT_READY;
+            }
+
+            if (!HttpClientTools.isSuccessWithContent(statusCode)) {
+                throw new IOException("Not success status code: " + statusCode);
+            }
+
+            if (entity.getContentLength() > MAX_SEGMENT_SIZE) {
+                throw new IOException("Segment is too large: " + entity.getContentLength() + " bytes");
+            }
+
+            byte[] data = EntityUtils.toByteArray(entity);
+            return data.length == 0 ? Segment.NOT_READY : new Segment(data, httpInterface.getFinalLocation());
+        }
+    }
+
+    /**
+     * Starts downloading the segment following the current one in the background. If it isn't available yet, it is
+     * polled for until roughly one target duration has passed.
+     */
+    private void startPrefetch(TrackState state) {
+        if (prefetchInterfaceManager == null || state.absoluteSequence == null || state.seeking) {
+            return;
+        }
+
+        cancelPrefetch();
+
+        URI segmentUrl = getSegmentUrl(state, state.relativeSequence + 1, state.absoluteSequence);
+        long pollInterval = getPollInterval(state);
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + Math.max(EMPTY_RETRY_THRESHOLD_MS, state.globalSequenceDuration);
+
+        Future<Segment> future = prefetchExecutor.submit(() -> {
+            try (HttpInterface prefetchInterface = prefetchInterfaceManager.getInterface()) {
+                prefetchInterface.getContext().setRequestConfig(streamingRequestConfig);
+                Segment segment;
+
+                while ((segment = fetchSegment(prefetchInterface, segmentUrl)) == Segment.NOT_READY && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(pollInterval);
+                }
+
+                return segment;
+            }
+        });
+
+        prefetch = new PrefetchedSegment(segmentUrl, future, startedAt, deadline);
+    }
+
+    /**
+     * @return The prefetched segment if it is the one at the given URL, or {@code null} if it has to be fetched
+     * normally.
+     */
+    @Nullable
+    private Segment takePrefetchedSegment(URI segmentUrl) throws InterruptedException {
+        PrefetchedSegment current = prefetch;
+        prefetch = null;
+
+        if (current == null) {
+            return null;
+        } else if (!current.segmentUrl.equals(segmentUrl)) {
+            // the sequence changed in the meantime, e.g. because of a seek.
+            current.future.cancel(true);
+            return null;
+        }
+
+        try {
+            long timeout = Math.max(0, current.deadline - System.currentTimeMillis()) + PREFETCH_GRACE_MS;
+            Segment segment = current.future.get(timeout, TimeUnit.MILLISECONDS);
+
+            if (segment == Segment.NOT_READY) {
+                // the prefetch polled for the segment in the meantime, so this already counts as a poll.
+                prefetchPollStart = current.startedAt;
+            }
+
+            return segment;
+        } catch (ExecutionException e) {
+            log.debug("Prefetching segment {} failed, fetching it normally.", segmentUrl, e.getCause());
+            return null;
+        } catch (TimeoutException e) {
+            log.debug("Prefetching segment {} is taking too long, fetching it normally.", segmentUrl);
+            current.future.cancel(true);
+            return null;
+        }
+    }
+
+    private void cancelPrefetch() {
+        if (prefetch != null) {
+            prefetch.future.cancel(true);
+            prefetch = null;
+        }
+    }
+
     private void processSegmentStream(SeekableInputStream stream, AudioProcessingContext context, TrackState state) throws InterruptedException, IOException {
         MpegFileLoader file = new MpegFileLoader(stream);
         file.parseHeaders();
@@ -201,9 +378,13 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
 
             if (sequenceInfo != null) {
                 state.absoluteSequence = sequenceInfo.sequence;
+                state.globalSequenceDuration = sequenceInfo.duration;
             }
         }
 
+        // the next segment's URL is known now, so it can be downloaded while this one is being decoded.
+        startPrefetch(state);
+
         if (state.trackConsumer == null) {
             state.trackConsumer = loadAudioTrack(file, context);
         }
@@ -217,12 +398,19 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
     }
 
     private URI getNextSegmentUrl(TrackState state) {
+        return getSegmentUrl(state, state.relativeSequence, state.absoluteSequence);
+    }
+
+    /**
+     * @param absoluteSequence The sequence number of the segment before the requested one, if known.
+     */
+    private static URI getSegmentUrl(TrackState state, long relativeSequence, Long absoluteSequence) {
         URIBuilder builder = new URIBuilder(state.redirectUrl == null ? state.initialUrl : state.redirectUrl)
-            .setParameter("rn", String.valueOf(state.relativeSequence))
+            .setParameter("rn", String.valueOf(relativeSequence))
             .setParameter("rbuf", "0");
 
-        if (state.absoluteSequence != null) {
-            builder.setParameter("sq", String.valueOf(state.absoluteSequence + 1));
+        if (absoluteSequence != null) {
+            builder.setParameter("sq", String.valueOf(absoluteSequence + 1));
         }
 
         try {
@@ -264,6 +452,94 @@ public class YoutubeMpegStreamAudioTrack extends MpegAudioTrack {
         }
     }
 
+    private static class Segment {
+        private static final Segment NOT_READY = new Segment(new byte[0], null);
+
+        private final byte[] data;
+        private final URI finalLocation;
+
+        private Segment(byte[] data, URI finalLocation) {
+            this.data = data;
+            this.finalLocation = finalLocation;
+        }
+    }
+
+    private static class PrefetchedSegment {
+        private final URI segmentUrl;
+        private final Future<Segment> future;
+        private final long startedAt;
+        private final long deadline;
+
+        private PrefetchedSegment(URI segmentUrl, Future<Segment> future, long startedAt, long deadline) {
+            this.segmentUrl = segmentUrl;
+            this.future = future;
+            this.startedAt = startedAt;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * A seekable stream over a segment that has been downloaded in full.
+     */
+    private static class SegmentStream extends SeekableInputStream {
+        private final byte[] data;
+        private int position;
+
+        private SegmentStream(byte[] data) {
+            super(data.length, data.length);
+            this.data = data;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= data.length) {
+                return -1;
+            }
+
+            int length = Math.min(len, data.length - position);
+            System.arraycopy(data, position, b, off, length);
+            position += length;
+            return length;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, data.length - position));
+            position += (int) skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return data.length - position;
+        }
+
+        @Override
+        public long getPosition() {
+            return position;
+        }
+
+        @Override
+        protected void seekHard(long position) {
+            this.position = (int) Math.min(position, data.length);
+        }
+
+        @Override
+        public boolean canSeekHard() {
+            return true;
+        }
+
+        @Override
+        public List<AudioTrackInfoProvider> getTrackInfoProviders() {
+            return Collections.emptyList();
+        }
+    }
+
     private static class SequenceInfo {
         private final long sequence;
         private final long duration;
@@ -2,26 +2,60 @@ package dev.lavalink.youtube.track;
 
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import com.sedmelluq.discord.lavaplayer.tools.io.PersistentHttpStream;
+import dev.lavalink.youtube.jfr.SourceEvents;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.sedmelluq.discord.lavaplayer.tools.Units.CONTENT_LENGTH_UNKNOWN;
 
 /**
  * A persistent HTTP stream implementation that uses the range parameter instead of HTTP headers for specifying
  * the start position at which to start reading on a new connection.
+ * <p>
+ * When constructed with an interface manager for read-ahead, the next range is requested in the background shortly
+ * before the current one is exhausted, and its first bytes are buffered. Switching ranges then no longer stalls
+ * on connecting and waiting for the first byte.
  */
 public class YoutubePersistentHttpStream extends PersistentHttpStream {
     private static final Logger log = LoggerFactory.getLogger(YoutubePersistentHttpStream.class);
 
     // Valid range for requesting without throttling is 0-11862014
-    private static final long BUFFER_SIZE = 11862014;
+    static final long BUFFER_SIZE = 11862014;
+
+    // the next range is requested once fewer than this many bytes remain in the current one.
+    static final long READ_AHEAD_THRESHOLD = 2 * 1024 * 1024;
+    // the most that is buffered from the next range before it is needed. the rest stays on the connection.
+    private static final int READ_AHEAD_BUFFER_SIZE = 1024 * 1024;
+    private static final long READ_AHEAD_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+    private static final int MAX_HOST_ATTEMPTS = 2;
+
+    private final HttpInterfaceManager readAheadInterfaceManager;
+    private final RenewableStreamUrl streamUrl;
+    private final YoutubeMetrics metrics;
+    private URI lastConnectUrl;
 
     private long rangeEnd;
+    private Future<PrefetchedRange> pendingRange;
+    private PrefetchedRange activeRange;
 
     /**
      * @param httpInterface The HTTP interface to use for requests
@@ -29,7 +63,51 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
      * @param contentLength The length of the resource in bytes
      */
     public YoutubePersistentHttpStream(HttpInterface httpInterface, URI contentUrl, long contentLength) {
+        this(httpInterface, contentUrl, contentLength, null);
+    }
+
+    /**
+     * @param httpInterface The HTTP interface to use for requests
+     * @param contentUrl The URL of the resource
+     * @param contentLength The length of the resource in bytes
+     * @param readAheadInterfaceManager The interface manager to use for fetching the next range in the background,
+     *                                  or {@code null} to disable read-ahead. Interfaces are acquired on the
+     *                                  read-ahead thread, as the stream's own interface may be in use.
+     */
+    public YoutubePersistentHttpStream(HttpInterface httpInterface,
+                                       URI contentUrl,
+                                       long contentLength,
+                                       @Nullable HttpInterfaceManager readAheadInterfaceManager) {
         super(httpInterface, contentUrl, contentLength);
+        this.readAheadInterfaceManager = readAheadInterfaceManager;
+        this.streamUrl = null;
+        this.metrics = YoutubeMetrics.get(httpInterface.getContext());
+    }
+
+    /**
+     * @param httpInterface The HTTP interface to use for requests
+     * @param streamUrl The URL of the resource. Every new connection uses its current value, so that renewed URLs
+     *                  are picked up at the next range request.
+     * @param contentLength The length of the resource in bytes
+     * @param readAheadInterfaceManager The interface manager to use for fetching the next range in the background,
+     *                                  or {@code null} to disable read-ahead.
+     */
+    public YoutubePersistentHttpStream(HttpInterface httpInterface,
+                                       RenewableStreamUrl streamUrl,
+                                       long contentLength,
+                                       @Nullable HttpInterfaceManager readAheadInterfaceManager) {
+        super(httpInterface, streamUrl.get(), contentLength);
+        this.readAheadInterfaceManager = readAheadInterfaceManager;
+        this.streamUrl = streamUrl;
+        this.metrics = YoutubeMetrics.get(httpInterface.getContext());
+    }
+
+    private URI getCurrentUrl() {
+        return streamUrl != null ? streamUrl.get() : contentUrl;
+    }
+
+    private boolean isReadAheadEnabled() {
+        return readAheadInterfaceManager != null && contentLength != CONTENT_LENGTH_UNKNOWN && !contentUrl.toString().contains("rn=");
     }
 
     @Override
@@ -38,16 +116,90 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
             URI rangeUrl = getNextRangeUrl();
 
             log.debug("Range URL: {}", rangeUrl.toString());
+            metrics.getStreamRangeRequests().increment();
 
+            lastConnectUrl = rangeUrl;
             return rangeUrl;
         } else {
-            return contentUrl;
+            lastConnectUrl = getCurrentUrl();
+            return lastConnectUrl;
+        }
+    }
+
+    /**
+     * Connects if not connected yet. Connect latency and host-specific failures are reported to the stream URL, and a
+     * failed connection is retried once on another media host if one is available.
+     */
+    private void connectWithFailover() throws IOException {
+        if (currentContent != null || streamUrl == null) {
+            connectAttempt(1);
+            return;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            lastConnectUrl = null;
+
+            try {
+                connectAttempt(attempt);
+
+                if (lastConnectUrl != null) {
+                    streamUrl.reportSuccess(lastConnectUrl, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= MAX_HOST_ATTEMPTS || lastConnectUrl == null || !isHostFailure(e) || !streamUrl.reportFailure(lastConnectUrl)) {
+                    throw e;
+                }
+
+                log.debug("Connecting to {} failed, retrying on another media host.", lastConnectUrl.getHost(), e);
+                metrics.getStreamReconnects().increment();
+            }
+        }
+    }
+
+    /**
+     * Connects if not connected yet, emitting a flight recorder event for the new connection.
+     */
+    private void connectAttempt(int attempt) throws IOException {
+        if (currentContent != null) {
+            connect(false);
+            return;
+        }
+
+        Object event = SourceEvents.beginStreamConnect();
+        long rangeStart = position;
+        boolean successful = false;
+
+        try {
+            connect(false);
+            successful = true;
+        } finally {
+            SourceEvents.endStreamConnect(event, lastConnectUrl, rangeStart, rangeEnd, attempt, false, successful);
         }
     }
 
+    /**
+     * @return Whether the failure is likely caused by the media host rather than the URL itself. Network errors and
+     * server errors are, but e.g. a 403 for an expired URL would occur on any host.
+     */
+    static boolean isHostFailure(Exception exception) {
+        if (exception instanceof IOException) {
+            return true;
+        }
+
+        String message = exception.getMessage();
+        return message != null && message.startsWith("Not success status code: 5");
+    }
+
     @Override
     protected int internalRead(byte[] b, int off, int len, boolean attemptReconnect) throws IOException {
-        connect(false);
+        if (isReadAheadEnabled()) {
+            return readAheadRead(b, off, len, attemptReconnect);
+        }
+
+        connectWithFailover();
         long nextExpectedPosition = position + len + (len / 2);
 
         try {
@@ -79,7 +231,19 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
 
     @Override
     protected long internalSkip(long n, boolean attemptReconnect) throws IOException {
-        connect(false);
+        if (currentContent == null && activeRange == null && contentLength != CONTENT_LENGTH_UNKNOWN && !contentUrl.toString().contains("rn=")) {
+            // not connected, the next connection simply starts at the new position instead of downloading the
+            // skipped bytes.
+            long skipped = Math.max(0, Math.min(n, contentLength - position));
+            position += skipped;
+            return skipped;
+        }
+
+        if (isReadAheadEnabled()) {
+            return readAheadSkip(n, attemptReconnect);
+        }
+
+        connectWithFailover();
         long nextExpectedPosition = position + n;
 
         try {
@@ -109,25 +273,214 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
     }
 
     private URI getNextRangeUrl() {
-        rangeEnd = position + BUFFER_SIZE;
-
-        if (rangeEnd > contentLength) {
-            rangeEnd = contentLength;
-        }
+        rangeEnd = Math.min(position + BUFFER_SIZE, contentLength);
+        return getRangeUrl(position, rangeEnd);
+    }
 
+    private URI getRangeUrl(long start, long end) {
         try {
-            return new URIBuilder(contentUrl).addParameter("range", position + "-" + rangeEnd).build();
+            return new URIBuilder(getCurrentUrl()).addParameter("range", start + "-" + end).build();
         } catch (URISyntaxException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Reads from the current range, but never past its end, so that the range boundary is hit exactly and the
+     * prefetched range (which starts at the boundary) can take over. A range that ends early is reconnected from the
+     * current position, the same as after a network error.
+     */
+    private int readAheadRead(byte[] b, int off, int len, boolean attemptReconnect) throws IOException {
+        if (position >= contentLength) {
+            return -1;
+        }
+
+        try {
+            InputStream content = getRangeContent();
+            maybeStartReadAhead();
+
+            int result = content.read(b, off, (int) Math.min(len, rangeEnd - position));
+
+            if (result >= 0) {
+                position += result;
+
+                if (position >= rangeEnd) {
+                    switchRange();
+                }
+
+                return result;
+            }
+        } catch (IOException e) {
+            handleReadAheadFailure(e, attemptReconnect);
+            return readAheadRead(b, off, len, false);
+        }
+
+        // the connection ended cleanly before the end of the range.
+        if (!attemptReconnect) {
+            throw new IOException("Range ended prematurely at " + position + ", expected end at " + rangeEnd);
+        }
+
+        log.debug("Range ended prematurely at {}, expected end at {}, reconnecting.", position, rangeEnd);
+        reconnectFromPosition();
+        return readAheadRead(b, off, len, false);
+    }
+
+    private long readAheadSkip(long n, boolean attemptReconnect) throws IOException {
+        if (position >= contentLength) {
+            return 0;
+        }
+
+        try {
+            InputStream content = getRangeContent();
+            long result = content.skip(Math.min(n, rangeEnd - position));
+            position += result;
+
+            if (position >= rangeEnd) {
+                switchRange();
+            }
+
+            return result;
+        } catch (IOException e) {
+            handleReadAheadFailure(e, attemptReconnect);
+            return readAheadSkip(n, false);
+        }
+    }
+
+    private InputStream getRangeContent() throws IOException {
+        if (activeRange != null) {
+            return activeRange.content;
+        }
+
+        // getConnectUrl() sets rangeEnd for the new connection.
+        connectWithFailover();
+        return currentContent;
+    }
+
+    private void maybeStartReadAhead() {
+        if (pendingRange != null || rangeEnd >= contentLength || rangeEnd - position > READ_AHEAD_THRESHOLD) {
+            return;
+        }
+
+        long start = rangeEnd;
+        long end = Math.min(start + BUFFER_SIZE, contentLength);
+        URI url = getRangeUrl(start, end);
+
+        try {
+            pendingRange = StreamExecutors.downloadExecutor.submit(() -> PrefetchedRange.fetch(readAheadInterfaceManager, url, start, end));
+        } catch (RejectedExecutionException e) {
+            // the next range is connected to as usual once this one runs out.
+            log.debug("Too many pending downloads, skipping read-ahead of range {}-{}", start, end);
+            return;
+        }
+
+        log.debug("Started read-ahead of range {}-{}", start, end);
+        metrics.getStreamRangeRequests().increment();
+    }
+
+    /**
+     * Moves on to the range following the current one. The prefetched range is used if it is available,
+     * otherwise the next read connects as usual.
+     */
+    private void switchRange() throws IOException {
+        Object event = SourceEvents.beginStreamRangeSwitch();
+        PrefetchedRange next = takePendingRange();
+        SourceEvents.endStreamRangeSwitch(event, position, next != null);
+
+        releaseActiveRange();
+        super.close();
+
+        if (next != null) {
+            activeRange = next;
+            rangeEnd = next.end;
+        }
+    }
+
+    @Nullable
+    private PrefetchedRange takePendingRange() {
+        Future<PrefetchedRange> future = pendingRange;
+        pendingRange = null;
+
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            PrefetchedRange range = future.get(READ_AHEAD_TIMEOUT, TimeUnit.MILLISECONDS);
+
+            if (range.start == position) {
+                return range;
+            }
+
+            range.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Read-ahead of next range failed, connecting normally.", e);
+            cancel(future);
+        }
+
+        return null;
+    }
+
+    private void handleReadAheadFailure(IOException exception, boolean attemptReconnect) throws IOException {
+        if (!attemptReconnect || !HttpClientTools.isRetriableNetworkException(exception)) {
+            throw exception;
+        }
+
+        reconnectFromPosition();
+    }
+
+    /**
+     * Drops the current connection and any prefetched range, so that the next read reconnects from the current
+     * position.
+     */
+    private void reconnectFromPosition() throws IOException {
+        metrics.getStreamReconnects().increment();
+        close();
+    }
+
+    private void releaseActiveRange() {
+        if (activeRange != null) {
+            activeRange.close();
+            activeRange = null;
+        }
+    }
+
+    private static void cancel(Future<PrefetchedRange> future) {
+        if (!future.cancel(true) && future.isDone()) {
+            try {
+                future.get().close();
+            } catch (Exception ignored) {
+                // failed fetches have nothing to release.
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (pendingRange != null) {
+            cancel(pendingRange);
+            pendingRange = null;
+        }
+
+        releaseActiveRange();
+        super.close();
+    }
+
     private void handleRangeEnd(IOException exception, boolean attemptReconnect) throws IOException {
         if (!attemptReconnect || (!HttpClientTools.isRetriableNetworkException(exception) && exception != null)) {
             throw exception;
         }
 
-        close();
+        if (exception != null) {
+            metrics.getStreamReconnects().increment();
+            close();
+        } else {
+            // the next read connects to the following range.
+            Object event = SourceEvents.beginStreamRangeSwitch();
+            close();
+            SourceEvents.endStreamRangeSwitch(event, position, false);
+        }
     }
 
     @Override
@@ -139,4 +492,67 @@ public class YoutubePersistentHttpStream extends PersistentHttpStream {
     public boolean canSeekHard() {
         return true;
     }
+
+    private static class PrefetchedRange {
+        private final long start;
+        private final long end;
+        private final CloseableHttpResponse response;
+        private final InputStream content;
+
+        private PrefetchedRange(long start, long end, CloseableHttpResponse response, InputStream content) {
+            this.start = start;
+            this.end = end;
+            this.response = response;
+            this.content = content;
+        }
+
+        private static PrefetchedRange fetch(HttpInterfaceManager interfaceManager, URI url, long start, long end) throws IOException {
+            CloseableHttpResponse response;
+            Object event = SourceEvents.beginStreamConnect();
+            boolean connected = false;
+
+            try {
+                // the interface is only needed to execute the request. the response keeps its own connection.
+                try (HttpInterface httpInterface = interfaceManager.getInterface()) {
+                    response = httpInterface.execute(new HttpGet(url));
+                }
+
+                int statusCode = response.getStatusLine().getStatusCode();
+
+                if (!HttpClientTools.isSuccessWithContent(statusCode)) {
+                    response.close();
+                    throw new IOException("Not success status code: " + statusCode);
+                }
+
+                connected = true;
+            } finally {
+                SourceEvents.endStreamConnect(event, url, start, end, 1, true, connected);
+            }
+
+            try {
+                InputStream remaining = response.getEntity().getContent();
+                byte[] buffer = new byte[(int) Math.min(READ_AHEAD_BUFFER_SIZE, end - start)];
+                int filled = 0;
+                int read;
+
+                while (filled < buffer.length && (read = remaining.read(buffer, filled, buffer.length - filled)) != -1) {
+                    filled += read;
+                }
+
+                InputStream content = new SequenceInputStream(new ByteArrayInputStream(buffer, 0, filled), remaining);
+                return new PrefetchedRange(start, end, response, content);
+            } catch (IOException | RuntimeException e) {
+                response.close();
+                throw e;
+            }
+        }
+
+        private void close() {
+            try {
+                response.close();
+            } catch (IOException e) {
+                log.debug("Failed to close read-ahead response", e);
+            }
+        }
+    }
 }
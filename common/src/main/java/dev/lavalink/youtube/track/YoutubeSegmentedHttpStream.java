@@ -0,0 +1,368 @@
+package dev.lavalink.youtube.track;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
+import com.sedmelluq.discord.lavaplayer.track.info.AudioTrackInfoProvider;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A stream for static formats that downloads several consecutive ranges of the resource concurrently, each over its
+ * own connection, and hands them out in order. This avoids a single slow connection to a googlevideo edge capping
+ * throughput.
+ * <p>
+ * At most {@code connections} segments are in flight ahead of the one being read, so memory use is bounded by
+ * {@code (connections + 1) * segmentSize}. Seeking to a position covered by the current or an in-flight segment keeps
+ * that segment and the ones after it; seeking elsewhere discards the window and starts over at the new position.
+ */
+public class YoutubeSegmentedHttpStream extends SeekableInputStream {
+    private static final Logger log = LoggerFactory.getLogger(YoutubeSegmentedHttpStream.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 2 * 1024 * 1024;
+    private static final long SEGMENT_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+    private static final int MAX_SEGMENT_ATTEMPTS = 3;
+
+    private final HttpInterfaceManager httpInterfaceManager;
+    private final RenewableStreamUrl streamUrl;
+    private final int connections;
+    private final int segmentSize;
+    private final Deque<Segment> pendingSegments = new ArrayDeque<>();
+
+    private Segment currentSegment;
+    private long nextSegmentStart;
+    private long position;
+
+    /**
+     * @param httpInterfaceManager The interface manager to use for requests. Interfaces are acquired on the
+     *                             download threads.
+     * @param streamUrl The URL of the resource. Each segment request uses its current value.
+     * @param contentLength The length of the resource in bytes
+     * @param connections The amount of segments to download concurrently
+     * @param segmentSize The size of each segment in bytes
+     */
+    public YoutubeSegmentedHttpStream(@NotNull HttpInterfaceManager httpInterfaceManager,
+                                      @NotNull RenewableStreamUrl streamUrl,
+                                      long contentLength,
+                                      int connections,
+                                      int segmentSize) {
+        super(contentLength, (long) connections * segmentSize);
+
+        if (connections < 1 || segmentSize < 1) {
+            throw new IllegalArgumentException("Connections and segment size must be at least 1");
+        }
+
+        this.httpInterfaceManager = httpInterfaceManager;
+        this.streamUrl = streamUrl;
+        this.connections = connections;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Waits for the first segment at the current position to be downloaded.
+     * @return The status code of the response for the segment.
+     */
+    public int checkStatusCode() throws IOException {
+        if (position >= contentLength) {
+            return 200;
+        }
+
+        return currentSegment().statusCode;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] buffer = new byte[1];
+        int result = read(buffer, 0, 1);
+        return result == -1 ? -1 : buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        if (position >= contentLength) {
+            return -1;
+        }
+
+        Segment segment = currentSegment();
+        int offset = (int) (position - segment.start);
+        int length = Math.min(len, segment.data.length - offset);
+
+        System.arraycopy(segment.data, offset, b, off, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = Math.max(0, Math.min(n, contentLength - position));
+        // segments that are skipped over entirely are released by currentSegment() on the next read.
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        Segment segment = currentSegment;
+
+        if (segment == null || segment.data == null || position < segment.start || position >= segment.end) {
+            return 0;
+        }
+
+        return (int) (segment.end - position);
+    }
+
+    @Override
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    protected void seekHard(long position) {
+        this.position = position;
+
+        if (currentSegment != null && position >= currentSegment.start && position < currentSegment.end) {
+            // the segments after the current one are still in order from it.
+            return;
+        }
+
+        if (currentSegment != null) {
+            currentSegment.cancel();
+            currentSegment = null;
+        }
+
+        while (!pendingSegments.isEmpty() && position >= pendingSegments.peekFirst().end) {
+            pendingSegments.removeFirst().cancel();
+        }
+
+        Segment next = pendingSegments.peekFirst();
+
+        if (next == null || position < next.start) {
+            restartAt(position);
+        }
+    }
+
+    @Override
+    public boolean canSeekHard() {
+        return true;
+    }
+
+    @Override
+    public List<AudioTrackInfoProvider> getTrackInfoProviders() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void close() {
+        discardSegments();
+    }
+
+    /**
+     * @return The downloaded segment containing the current position. Segments before it are released and the
+     * download window is topped up.
+     */
+    private Segment currentSegment() throws IOException {
+        while (currentSegment == null || position < currentSegment.start || position >= currentSegment.end) {
+            currentSegment = null;
+            Segment next = pendingSegments.peekFirst();
+
+            if (next == null || position < next.start) {
+                // nothing downloaded or downloading covers the position, start over from it.
+                restartAt(position);
+                fillWindow();
+                continue;
+            }
+
+            pendingSegments.removeFirst();
+
+            if (position >= next.end) {
+                next.cancel();
+                continue;
+            }
+
+            currentSegment = next;
+        }
+
+        fillWindow();
+        currentSegment.await();
+        return currentSegment;
+    }
+
+    private void fillWindow() {
+        while (pendingSegments.size() < connections && nextSegmentStart < contentLength) {
+            long start = nextSegmentStart;
+            long end = Math.min(start + segmentSize, contentLength);
+
+            FutureTask<DownloadedSegment> task = new FutureTask<>(() -> download(start, end));
+
+            try {
+                StreamExecutors.downloadExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                if (currentSegment != null || !pendingSegments.isEmpty()) {
+                    // there is something to read meanwhile, the window is topped up again on the next read.
+                    log.debug("Too many pending downloads, not downloading segment {}-{} ahead yet", start, end);
+                    return;
+                }
+
+                // nothing else is downloading the position being read, so it is downloaded right here.
+                task.run();
+            }
+
+            pendingSegments.addLast(new Segment(start, end, task));
+            nextSegmentStart = end;
+        }
+    }
+
+    private void restartAt(long position) {
+        discardSegments();
+        this.nextSegmentStart = position;
+    }
+
+    private void discardSegments() {
+        if (currentSegment != null) {
+            currentSegment.cancel();
+            currentSegment = null;
+        }
+
+        for (Segment segment : pendingSegments) {
+            segment.cancel();
+        }
+
+        pendingSegments.clear();
+    }
+
+    private DownloadedSegment download(long start, long end) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            // youtube range parameters are inclusive. the url is built per attempt, so retries can use another host.
+            URI url = getRangeUrl(start, end - 1);
+            long startTime = System.nanoTime();
+
+            try {
+                return downloadOnce(url, (int) (end - start), startTime);
+            } catch (IOException | RuntimeException e) {
+                boolean switchedHost = YoutubePersistentHttpStream.isHostFailure(e) && streamUrl.reportFailure(url);
+
+                if (attempt >= MAX_SEGMENT_ATTEMPTS || !(switchedHost || (e instanceof IOException && HttpClientTools.isRetriableNetworkException((IOException) e)))) {
+                    throw e;
+                }
+
+                log.debug("Retrying download of segment {}-{} after error (attempt {})", start, end, attempt, e);
+            }
+        }
+    }
+
+    private DownloadedSegment downloadOnce(URI url, int length, long startTime) throws IOException {
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface();
+             CloseableHttpResponse response = httpInterface.execute(new HttpGet(url))) {
+            int statusCode = response.getStatusLine().getStatusCode();
+
+            if (!HttpClientTools.isSuccessWithContent(statusCode)) {
+                throw new RuntimeException("Not success status code: " + statusCode);
+            }
+
+            streamUrl.reportSuccess(url, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+            InputStream content = response.getEntity().getContent();
+            byte[] data = new byte[length];
+            int filled = 0;
+            int read;
+
+            while (filled < length && (read = content.read(data, filled, length - filled)) != -1) {
+                filled += read;
+            }
+
+            if (filled < length) {
+                throw new IOException("Segment ended prematurely after " + filled + " of " + length + " bytes");
+            }
+
+            return new DownloadedSegment(statusCode, data);
+        }
+    }
+
+    private URI getRangeUrl(long start, long end) {
+        try {
+            return new URIBuilder(streamUrl.get()).addParameter("range", start + "-" + end).build();
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class DownloadedSegment {
+        private final int statusCode;
+        private final byte[] data;
+
+        private DownloadedSegment(int statusCode, byte[] data) {
+            this.statusCode = statusCode;
+            this.data = data;
+        }
+    }
+
+    private static class Segment {
+        private final long start;
+        private final long end;
+        private final Future<DownloadedSegment> future;
+        private int statusCode;
+        private byte[] data;
+
+        private Segment(long start, long end, Future<DownloadedSegment> future) {
+            this.start = start;
+            this.end = end;
+            this.future = future;
+        }
+
+        private void await() throws IOException {
+            if (data != null) {
+                return;
+            }
+
+            try {
+                DownloadedSegment downloaded = future.get(SEGMENT_TIMEOUT, TimeUnit.MILLISECONDS);
+                statusCode = downloaded.statusCode;
+                data = downloaded.data;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for segment " + start + "-" + end);
+            } catch (TimeoutException e) {
+                throw new IOException("Timed out waiting for segment " + start + "-" + end, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+
+                throw new IOException(cause);
+            }
+        }
+
+        private void cancel() {
+            future.cancel(true);
+        }
+    }
+}
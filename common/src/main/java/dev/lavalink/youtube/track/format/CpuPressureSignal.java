@@ -0,0 +1,61 @@
+package dev.lavalink.youtube.track.format;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link LoadAwareFormatSelector.PressureSignal} that reports pressure while the system CPU load is above a
+ * threshold. Pressure is only reported as gone once the load drops a margin below the threshold, so the selection
+ * doesn't flip back and forth around it.
+ */
+public class CpuPressureSignal implements LoadAwareFormatSelector.PressureSignal {
+    private static final double RELEASE_MARGIN = 0.1;
+    private static final long SAMPLE_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+    private final double threshold;
+    private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+
+    private volatile boolean underPressure;
+    private volatile long lastSample;
+
+    /**
+     * @param threshold The system CPU load, between 0 and 1, at or above which pressure is reported.
+     */
+    public CpuPressureSignal(double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("CPU threshold must be greater than 0 and at most 1");
+        }
+
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean isUnderPressure() {
+        long now = System.currentTimeMillis();
+
+        if (now - lastSample >= SAMPLE_INTERVAL) {
+            lastSample = now;
+            double load = getCpuLoad();
+
+            if (load >= 0) {
+                underPressure = underPressure ? load >= threshold - RELEASE_MARGIN : load >= threshold;
+            }
+        }
+
+        return underPressure;
+    }
+
+    /**
+     * @return The system CPU load between 0 and 1, or a negative value if it is not available.
+     */
+    private double getCpuLoad() {
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getSystemCpuLoad();
+        }
+
+        // the load average is per core and over a minute, but better than nothing.
+        double loadAverage = osBean.getSystemLoadAverage();
+        return loadAverage < 0 ? loadAverage : loadAverage / osBean.getAvailableProcessors();
+    }
+}
@@ -0,0 +1,161 @@
+package dev.lavalink.youtube.track.format;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.sedmelluq.discord.lavaplayer.container.Formats.MIME_AUDIO_WEBM;
+
+/**
+ * A configurable {@link FormatSelector}. Formats are picked by the position of their container and codec in the
+ * ranking first, so the default of WebM/Opus first lets lavaplayer pass Opus through to the output without decoding
+ * and re-encoding it. Within the same codec, formats within the bitrate cap, then formats without dynamic range
+ * compression, then higher bitrates are preferred.
+ * <p>
+ * Instances are immutable, the {@code with} methods return modified copies.
+ */
+public class FormatSelectionPolicy implements FormatSelector {
+    /**
+     * The policy used if none is configured, which ranks formats in the order of {@link FormatInfo}.
+     */
+    public static final FormatSelectionPolicy DEFAULT = new FormatSelectionPolicy(
+        Arrays.asList(FormatInfo.values()), 0, false, false
+    );
+
+    private final List<FormatInfo> ranking;
+    private final long maxBitrate;
+    private final boolean excludeDrc;
+    private final boolean excludeMultichannel;
+
+    /**
+     * @param ranking The accepted formats, most preferred first. Formats not listed are never picked.
+     * @param maxBitrate The highest bitrate to prefer, in bits per second, or 0 for no cap. If a codec is only
+     *                   available above the cap, its lowest bitrate is picked.
+     * @param excludeDrc Whether formats with dynamic range compression are never picked, rather than just ranked
+     *                   below formats without.
+     * @param excludeMultichannel Whether formats with more than 2 audio channels are never picked. Opus formats
+     *                            with more than 2 channels are never picked regardless, as lavaplayer can't play them.
+     */
+    public FormatSelectionPolicy(@NotNull List<FormatInfo> ranking,
+                                 long maxBitrate,
+                                 boolean excludeDrc,
+                                 boolean excludeMultichannel) {
+        if (ranking.isEmpty()) {
+            throw new IllegalArgumentException("Ranking must contain at least one format");
+        }
+
+        if (maxBitrate < 0) {
+            throw new IllegalArgumentException("Max bitrate must not be negative");
+        }
+
+        this.ranking = Collections.unmodifiableList(new ArrayList<>(ranking));
+        this.maxBitrate = maxBitrate;
+        this.excludeDrc = excludeDrc;
+        this.excludeMultichannel = excludeMultichannel;
+    }
+
+    @NotNull
+    public List<FormatInfo> getRanking() {
+        return ranking;
+    }
+
+    public long getMaxBitrate() {
+        return maxBitrate;
+    }
+
+    public boolean isExcludeDrc() {
+        return excludeDrc;
+    }
+
+    public boolean isExcludeMultichannel() {
+        return excludeMultichannel;
+    }
+
+    @NotNull
+    public FormatSelectionPolicy withRanking(@NotNull List<FormatInfo> ranking) {
+        return new FormatSelectionPolicy(ranking, maxBitrate, excludeDrc, excludeMultichannel);
+    }
+
+    @NotNull
+    public FormatSelectionPolicy withMaxBitrate(long maxBitrate) {
+        return new FormatSelectionPolicy(ranking, maxBitrate, excludeDrc, excludeMultichannel);
+    }
+
+    @NotNull
+    public FormatSelectionPolicy withExcludeDrc(boolean excludeDrc) {
+        return new FormatSelectionPolicy(ranking, maxBitrate, excludeDrc, excludeMultichannel);
+    }
+
+    @NotNull
+    public FormatSelectionPolicy withExcludeMultichannel(boolean excludeMultichannel) {
+        return new FormatSelectionPolicy(ranking, maxBitrate, excludeDrc, excludeMultichannel);
+    }
+
+    @Override
+    @Nullable
+    public StreamFormat select(@NotNull List<StreamFormat> formats) {
+        StreamFormat bestFormat = null;
+
+        for (StreamFormat format : formats) {
+            if (isAccepted(format) && (bestFormat == null || isBetterFormat(format, bestFormat))) {
+                bestFormat = format;
+            }
+        }
+
+        return bestFormat;
+    }
+
+    private boolean isAccepted(StreamFormat format) {
+        FormatInfo info = format.getInfo();
+
+        if (info == null || !ranking.contains(info)) {
+            return false;
+        } else if (format.getAudioChannels() > 2 && (excludeMultichannel || MIME_AUDIO_WEBM.equals(info.mimeType))) {
+            // Opus with more than 2 audio channels is unsupported by LavaPlayer currently.
+            return false;
+        }
+
+        return !excludeDrc || !format.isDrc();
+    }
+
+    private boolean isBetterFormat(StreamFormat format, StreamFormat other) {
+        int rank = ranking.indexOf(format.getInfo());
+        int otherRank = ranking.indexOf(other.getInfo());
+
+        if (rank != otherRank) {
+            return rank < otherRank;
+        }
+
+        boolean withinCap = isWithinCap(format);
+
+        if (withinCap != isWithinCap(other)) {
+            return withinCap;
+        } else if (format.isDrc() != other.isDrc()) {
+            // prefer non-drc formats
+            return !format.isDrc();
+        } else if (withinCap) {
+            return format.getBitrate() > other.getBitrate();
+        } else {
+            // everything is above the cap, get as close to it as possible.
+            return format.getBitrate() < other.getBitrate();
+        }
+    }
+
+    private boolean isWithinCap(StreamFormat format) {
+        return maxBitrate == 0 || format.getBitrate() <= maxBitrate;
+    }
+
+    @Override
+    public String toString() {
+        return "FormatSelectionPolicy{" +
+            "ranking=" + ranking +
+            ", maxBitrate=" + maxBitrate +
+            ", excludeDrc=" + excludeDrc +
+            ", excludeMultichannel=" + excludeMultichannel +
+            '}';
+    }
+}
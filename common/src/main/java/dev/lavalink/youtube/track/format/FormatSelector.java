@@ -0,0 +1,20 @@
+package dev.lavalink.youtube.track.format;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Picks the format of a track to play from the ones YouTube offers.
+ * @see FormatSelectionPolicy
+ */
+@FunctionalInterface
+public interface FormatSelector {
+    /**
+     * @param formats The available formats that contain the default audio track.
+     * @return The format to play, or {@code null} if none of them are acceptable.
+     */
+    @Nullable
+    StreamFormat select(@NotNull List<StreamFormat> formats);
+}
@@ -0,0 +1,122 @@
+package dev.lavalink.youtube.track.format;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link FormatSelector} that switches to lower bitrate, audio-only formats while the host reports that it is under
+ * load, e.g. when CPU or egress bandwidth is saturated. Playing 70 kbps Opus is preferable to dropping frames, and
+ * lets a node carry more players during peaks. Once the pressure is gone, tracks that start loading use the normal
+ * policy again. Tracks that are already playing keep their format.
+ */
+public class LoadAwareFormatSelector implements FormatSelector {
+    private static final Logger log = LoggerFactory.getLogger(LoadAwareFormatSelector.class);
+
+    public static final long DEFAULT_PRESSURE_MAX_BITRATE = 70_000;
+
+    private final FormatSelectionPolicy normalPolicy;
+    private final FormatSelectionPolicy pressurePolicy;
+    private final PressureSignal signal;
+    private volatile boolean underPressure;
+
+    /**
+     * @param normalPolicy The policy to use while not under pressure.
+     * @param signal Reports whether the host is currently under pressure.
+     */
+    public LoadAwareFormatSelector(@NotNull FormatSelectionPolicy normalPolicy, @NotNull PressureSignal signal) {
+        this(normalPolicy, signal, DEFAULT_PRESSURE_MAX_BITRATE);
+    }
+
+    /**
+     * @param normalPolicy The policy to use while not under pressure.
+     * @param signal Reports whether the host is currently under pressure.
+     * @param pressureMaxBitrate The bitrate cap to apply while under pressure, in bits per second. If the normal
+     *                           policy has a lower cap, that one is kept.
+     */
+    public LoadAwareFormatSelector(@NotNull FormatSelectionPolicy normalPolicy,
+                                   @NotNull PressureSignal signal,
+                                   long pressureMaxBitrate) {
+        if (pressureMaxBitrate <= 0) {
+            throw new IllegalArgumentException("Pressure max bitrate must be positive");
+        }
+
+        long maxBitrate = normalPolicy.getMaxBitrate() == 0 ? pressureMaxBitrate : Math.min(normalPolicy.getMaxBitrate(), pressureMaxBitrate);
+
+        this.normalPolicy = normalPolicy;
+        this.pressurePolicy = normalPolicy.withRanking(getAudioOnlyRanking(normalPolicy.getRanking())).withMaxBitrate(maxBitrate);
+        this.signal = signal;
+    }
+
+    @NotNull
+    public FormatSelectionPolicy getNormalPolicy() {
+        return normalPolicy;
+    }
+
+    @NotNull
+    public FormatSelectionPolicy getPressurePolicy() {
+        return pressurePolicy;
+    }
+
+    /**
+     * @return Whether the last selection was made under pressure.
+     */
+    public boolean isUnderPressure() {
+        return underPressure;
+    }
+
+    @Override
+    @Nullable
+    public StreamFormat select(@NotNull List<StreamFormat> formats) {
+        boolean pressure = isPressureReported();
+
+        if (pressure != underPressure) {
+            underPressure = pressure;
+            log.info(pressure ? "Under load, selecting lower bitrate formats." : "No longer under load, selecting formats normally.");
+        }
+
+        if (pressure) {
+            StreamFormat format = pressurePolicy.select(formats);
+
+            if (format != null) {
+                return format;
+            }
+        }
+
+        return normalPolicy.select(formats);
+    }
+
+    private boolean isPressureReported() {
+        try {
+            return signal.isUnderPressure();
+        } catch (RuntimeException e) {
+            log.warn("Failed to query load pressure signal, assuming no pressure.", e);
+            return false;
+        }
+    }
+
+    private static List<FormatInfo> getAudioOnlyRanking(List<FormatInfo> ranking) {
+        List<FormatInfo> audioOnly = new ArrayList<>();
+
+        for (FormatInfo info : ranking) {
+            if (info.mimeType.startsWith("audio/")) {
+                audioOnly.add(info);
+            }
+        }
+
+        return audioOnly.isEmpty() ? ranking : audioOnly;
+    }
+
+    @FunctionalInterface
+    public interface PressureSignal {
+        /**
+         * Called every time a format is selected, so it should be cheap.
+         * @return Whether the host is currently under enough load that lower bitrate formats should be played.
+         */
+        boolean isUnderPressure();
+    }
+}
@@ -2,11 +2,10 @@ package dev.lavalink.youtube.track.format;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
 
-import static com.sedmelluq.discord.lavaplayer.container.Formats.MIME_AUDIO_WEBM;
-
 public class TrackFormats {
     private final List<StreamFormat> formats;
     private final String playerScriptUrl;
@@ -27,20 +26,30 @@ public class TrackFormats {
         return playerScriptUrl;
     }
 
+    /**
+     * @return The best format according to {@link FormatSelectionPolicy#DEFAULT}.
+     */
     @NotNull
     public StreamFormat getBestFormat() {
-        StreamFormat bestFormat = null;
+        return getBestFormat(FormatSelectionPolicy.DEFAULT);
+    }
 
-        for (StreamFormat format : formats) {
-            if (!format.isDefaultAudioTrack()) {
-                continue;
-            }
+    /**
+     * @param selector The selector that picks among the formats containing the default audio track.
+     * @return The selected format.
+     */
+    @NotNull
+    public StreamFormat getBestFormat(@NotNull FormatSelector selector) {
+        List<StreamFormat> candidates = new ArrayList<>();
 
-            if (isBetterFormat(format, bestFormat)) {
-                bestFormat = format;
+        for (StreamFormat format : formats) {
+            if (format.isDefaultAudioTrack()) {
+                candidates.add(format);
             }
         }
 
+        StreamFormat bestFormat = selector.select(candidates);
+
         if (bestFormat == null) {
             StringJoiner joiner = new StringJoiner(", ");
             formats.forEach(format -> joiner.add(format.getType().toString()));
@@ -49,25 +58,4 @@ public class TrackFormats {
 
         return bestFormat;
     }
-
-    private static boolean isBetterFormat(StreamFormat format, StreamFormat other) {
-        FormatInfo info = format.getInfo();
-
-        if (info == null) {
-            return false;
-        } else if (other == null) {
-            return true;
-        } else if (MIME_AUDIO_WEBM.equals(info.mimeType) && format.getAudioChannels() > 2) {
-            // Opus with more than 2 audio channels is unsupported by LavaPlayer currently.
-            return false;
-        } else if (info.ordinal() != other.getInfo().ordinal()) {
-            return info.ordinal() < other.getInfo().ordinal();
-        } else if (format.isDrc() && !other.isDrc()) {
-            // prefer non-drc formats
-            // IF ANYTHING BREAKS/SOUNDS BAD, REMOVE THIS
-            return false;
-        } else {
-            return format.getBitrate() > other.getBitrate();
-        }
-    }
 }
@@ -0,0 +1,90 @@
+package dev.lavalink.youtube.track.timeline;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies with fixed bucket bounds. Recording is lock-free and doesn't allocate.
+ */
+public class LatencyHistogram {
+    /**
+     * The inclusive upper bounds of the buckets, in milliseconds. Latencies above the last bound are counted in an
+     * additional overflow bucket.
+     */
+    public static final long[] BUCKET_BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+    private final LongAdder sum = new LongAdder();
+
+    public void record(long latencyMs) {
+        int bucket = 0;
+
+        while (bucket < BUCKET_BOUNDS_MS.length && latencyMs > BUCKET_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+
+        counts.incrementAndGet(bucket);
+        sum.add(latencyMs);
+    }
+
+    /**
+     * @return The amount of latencies in each bucket, with the overflow bucket last.
+     */
+    @NotNull
+    public long[] getCounts() {
+        long[] result = new long[counts.length()];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+        }
+
+        return result;
+    }
+
+    public long getCount() {
+        long count = 0;
+
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+
+        return count;
+    }
+
+    public long getSumMs() {
+        return sum.sum();
+    }
+
+    /**
+     * @param quantile The quantile, between 0 and 1.
+     * @return The upper bound of the bucket containing the quantile, {@link Long#MAX_VALUE} if it is in the overflow
+     * bucket, or 0 if nothing was recorded.
+     */
+    public long getQuantileUpperBoundMs(double quantile) {
+        long[] snapshot = getCounts();
+        long total = 0;
+
+        for (long count : snapshot) {
+            total += count;
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(quantile * total);
+        long seen = 0;
+
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+
+            if (seen >= target) {
+                return i < BUCKET_BOUNDS_MS.length ? BUCKET_BOUNDS_MS[i] : Long.MAX_VALUE;
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,62 @@
+package dev.lavalink.youtube.track.timeline;
+
+import dev.lavalink.youtube.track.YoutubeAudioTrack;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Entry;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Phase;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the start timelines of tracks into one latency histogram per phase. Failed phases are counted
+ * separately and not included in the histograms.
+ */
+public class TrackStartHistograms implements TrackStartListener {
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> failures = new EnumMap<>(Phase.class);
+    private final LongAdder failedStarts = new LongAdder();
+
+    public TrackStartHistograms() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+            failures.put(phase, new LongAdder());
+        }
+    }
+
+    @Override
+    public void onTrackStart(@NotNull YoutubeAudioTrack track, @NotNull TrackStartTimeline timeline) {
+        for (Entry entry : timeline.getEntries()) {
+            if (entry.isSuccessful()) {
+                histograms.get(entry.getPhase()).record(entry.getDurationMs());
+            } else {
+                failures.get(entry.getPhase()).increment();
+            }
+        }
+
+        if (!timeline.isSuccessful()) {
+            failedStarts.increment();
+        }
+    }
+
+    /**
+     * @return The histogram of successful occurrences of a phase. The {@link Phase#FIRST_FRAME} histogram holds the
+     * time to first audio.
+     */
+    @NotNull
+    public LatencyHistogram getHistogram(@NotNull Phase phase) {
+        return histograms.get(phase);
+    }
+
+    public long getFailureCount(@NotNull Phase phase) {
+        return failures.get(phase).sum();
+    }
+
+    /**
+     * @return The amount of tracks that failed before their first frame was decoded.
+     */
+    public long getFailedStartCount() {
+        return failedStarts.sum();
+    }
+}
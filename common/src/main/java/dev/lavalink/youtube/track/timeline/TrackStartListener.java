@@ -0,0 +1,19 @@
+package dev.lavalink.youtube.track.timeline;
+
+import dev.lavalink.youtube.track.YoutubeAudioTrack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the start timeline of every track played by a source manager.
+ */
+@FunctionalInterface
+public interface TrackStartListener {
+    /**
+     * Called once per track, when its first frame has been provided to the player or when it failed before that.
+     * This is called from the thread that pulls frames from the player or from the track's playback thread, so
+     * implementations should return quickly.
+     * @param timeline The phases of starting the track. Check {@link TrackStartTimeline#isSuccessful()} to tell
+     *                 whether the track started.
+     */
+    void onTrackStart(@NotNull YoutubeAudioTrack track, @NotNull TrackStartTimeline timeline);
+}
@@ -0,0 +1,114 @@
+package dev.lavalink.youtube.track.timeline;
+
+import dev.lavalink.youtube.track.YoutubeAudioTrack;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Phase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Drives the {@link TrackStartTimeline} of a single track: tracks which client is being attempted, records the first
+ * frame provided to the player and reports the timeline to the listeners once the track has started or failed.
+ */
+public class TrackStartRecorder {
+    private static final Logger log = LoggerFactory.getLogger(TrackStartRecorder.class);
+
+    private final YoutubeAudioTrack track;
+    private final List<TrackStartListener> listeners;
+    private final TrackStartTimeline timeline = new TrackStartTimeline();
+
+    private String attemptClient;
+    private long attemptBegin;
+    private boolean reported;
+    private volatile boolean firstFrameSeen;
+
+    public TrackStartRecorder(@NotNull YoutubeAudioTrack track, @NotNull List<TrackStartListener> listeners) {
+        this.track = track;
+        this.listeners = listeners;
+    }
+
+    @NotNull
+    public TrackStartTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Marks the start of an attempt to play the track with a client. The attempt ends with the first frame or with
+     * {@link #attemptFailed}.
+     */
+    public synchronized void beginAttempt(@NotNull String client) {
+        attemptClient = client;
+        attemptBegin = timeline.begin();
+    }
+
+    public synchronized void attemptFailed(@NotNull Throwable error) {
+        if (attemptClient != null) {
+            timeline.record(Phase.CLIENT_ATTEMPT, attemptBegin, attemptClient, error);
+            attemptClient = null;
+        }
+    }
+
+    /**
+     * Called by the track when it provides a frame to the player. Only the first call does anything.
+     */
+    public void onFrameProvided() {
+        if (firstFrameSeen) {
+            return;
+        }
+
+        firstFrameSeen = true;
+
+        synchronized (this) {
+            timeline.mark(Phase.FIRST_FRAME);
+
+            if (attemptClient != null) {
+                timeline.record(Phase.CLIENT_ATTEMPT, attemptBegin, attemptClient, null);
+                attemptClient = null;
+            }
+        }
+
+        report();
+    }
+
+    /**
+     * Reports the timeline if that hasn't happened yet. Must be called once the track has stopped processing.
+     * @param receivedFrames Whether the track's frame buffer received any frames.
+     * @param error The error the track failed with, if any.
+     */
+    public void finish(boolean receivedFrames, @Nullable Throwable error) {
+        if (receivedFrames) {
+            // the track ended before the player took its first frame.
+            onFrameProvided();
+        } else {
+            if (error != null) {
+                attemptFailed(error);
+            }
+
+            report();
+        }
+    }
+
+    private void report() {
+        synchronized (this) {
+            if (reported) {
+                return;
+            }
+
+            reported = true;
+        }
+
+        timeline.finish();
+        log.debug("Start of track {}: {}", track.getIdentifier(), timeline);
+
+        for (TrackStartListener listener : listeners) {
+            try {
+                listener.onTrackStart(track, timeline);
+            } catch (RuntimeException e) {
+                log.warn("Track start listener {} failed", listener, e);
+            }
+        }
+    }
+}
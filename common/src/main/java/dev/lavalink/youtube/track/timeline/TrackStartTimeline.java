@@ -0,0 +1,217 @@
+package dev.lavalink.youtube.track.timeline;
+
+import org.apache.http.client.protocol.HttpClientContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each phase of starting a track took, from the start of processing until the first frame was
+ * provided to the player. While a track is starting, the timeline is stored in the context of its HTTP interface under
+ * {@link #CONTEXT_ATTRIBUTE}, so that the client and cipher layers can add their phases to it.
+ */
+public class TrackStartTimeline {
+    public static final String CONTEXT_ATTRIBUTE = "yt-track-start-timeline";
+
+    private final long startNanos = System.nanoTime();
+    private final List<Entry> entries = new ArrayList<>();
+    private volatile boolean finished;
+
+    @Nullable
+    public static TrackStartTimeline get(@NotNull HttpClientContext context) {
+        Object timeline = context.getAttribute(CONTEXT_ATTRIBUTE);
+        return timeline instanceof TrackStartTimeline ? (TrackStartTimeline) timeline : null;
+    }
+
+    /**
+     * @return A timestamp to pass to {@link #record} once the phase has ended.
+     */
+    public long begin() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a phase that started at the given timestamp and ended now.
+     * @param client The identifier of the client the phase was performed with, if any.
+     * @param error The error the phase failed with, or {@code null} if it succeeded.
+     */
+    public void record(@NotNull Phase phase, long beginNanos, @Nullable String client, @Nullable Throwable error) {
+        long now = System.nanoTime();
+        add(new Entry(phase, client, toMillis(beginNanos - startNanos), toMillis(now - beginNanos), error != null ? error.toString() : null));
+    }
+
+    /**
+     * Records a milestone, whose duration is the time since the track started processing. Only the first occurrence
+     * of each milestone is recorded.
+     */
+    public void mark(@NotNull Phase phase) {
+        add(new Entry(phase, null, 0, toMillis(System.nanoTime() - startNanos), null));
+    }
+
+    private void add(Entry entry) {
+        if (finished) {
+            return;
+        }
+
+        synchronized (entries) {
+            if (entry.phase.milestone && getEntry(entry.phase) != null) {
+                return;
+            }
+
+            entries.add(entry);
+        }
+    }
+
+    /**
+     * Stops recording, after which the timeline no longer changes.
+     */
+    public void finish() {
+        finished = true;
+    }
+
+    /**
+     * @return Whether the track got as far as decoding its first frame.
+     */
+    public boolean isSuccessful() {
+        return getEntry(Phase.FIRST_FRAME) != null;
+    }
+
+    /**
+     * @return The recorded phases, in the order they ended.
+     */
+    @NotNull
+    public List<Entry> getEntries() {
+        synchronized (entries) {
+            return Collections.unmodifiableList(new ArrayList<>(entries));
+        }
+    }
+
+    /**
+     * @return The first recorded entry of a phase, or {@code null} if it wasn't recorded.
+     */
+    @Nullable
+    public Entry getEntry(@NotNull Phase phase) {
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                if (entry.phase == phase) {
+                    return entry;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "TrackStartTimeline[", "]");
+
+        for (Entry entry : getEntries()) {
+            joiner.add(entry.phase + (entry.client != null ? "(" + entry.client + ")" : "") + "=" + entry.durationMs + "ms"
+                + (entry.error != null ? " failed" : ""));
+        }
+
+        return joiner.toString();
+    }
+
+    public enum Phase {
+        /**
+         * Loading formats and resolving the stream URL with one client. Recorded once per client tried.
+         */
+        CLIENT_ATTEMPT(false),
+        /**
+         * The player request that loads the formats of the track.
+         */
+        PLAYER_REQUEST(false),
+        /**
+         * Downloading and parsing a player script that wasn't cached yet.
+         */
+        PLAYER_SCRIPT(false),
+        /**
+         * Deciphering the signature and n parameter of the stream URL, including fetching the player script.
+         */
+        CIPHER(false),
+        /**
+         * The first byte of media was received.
+         */
+        FIRST_MEDIA_BYTE(true),
+        /**
+         * The first audio frame was provided to the player, i.e. the time to first audio.
+         */
+        FIRST_FRAME(true);
+
+        private final boolean milestone;
+
+        Phase(boolean milestone) {
+            this.milestone = milestone;
+        }
+
+        /**
+         * @return Whether this phase is a point in time, with its duration measured from the start of the track.
+         */
+        public boolean isMilestone() {
+            return milestone;
+        }
+    }
+
+    public static class Entry {
+        private final Phase phase;
+        private final String client;
+        private final long offsetMs;
+        private final long durationMs;
+        private final String error;
+
+        private Entry(Phase phase, String client, long offsetMs, long durationMs, String error) {
+            this.phase = phase;
+            this.client = client;
+            this.offsetMs = offsetMs;
+            this.durationMs = durationMs;
+            this.error = error;
+        }
+
+        @NotNull
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return The identifier of the client the phase was performed with, if any.
+         */
+        @Nullable
+        public String getClient() {
+            return client;
+        }
+
+        /**
+         * @return When the phase started, relative to the start of the track.
+         */
+        public long getOffsetMs() {
+            return offsetMs;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        /**
+         * @return A description of the error the phase failed with, or {@code null} if it succeeded.
+         */
+        @Nullable
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package dev.lavalink.youtube;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import dev.lavalink.youtube.clients.AndroidVr;
+import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.emulator.Endpoint;
+import dev.lavalink.youtube.emulator.EmulatorOptions;
+import dev.lavalink.youtube.emulator.InnertubeEmulator;
+import dev.lavalink.youtube.track.RenewableStreamUrl;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import dev.lavalink.youtube.track.format.TrackFormats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the source manager against the Innertube emulator, so that loading and streaming are exercised end to end
+ * without reaching YouTube.
+ */
+public class YoutubeAudioSourceManagerEmulatorTest {
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    private final byte[] media = new byte[300_000];
+
+    private InnertubeEmulator emulator;
+    private AudioPlayerManager manager;
+    private YoutubeAudioSourceManager source;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        new Random(1).nextBytes(media);
+
+        emulator = new InnertubeEmulator(new EmulatorOptions().setMedia(media));
+        emulator.start();
+
+        source = new YoutubeAudioSourceManager(new AndroidVr());
+        emulator.install(source);
+
+        manager = new DefaultAudioPlayerManager();
+        manager.registerSourceManager(source);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        manager.shutdown();
+        emulator.close();
+    }
+
+    @Test
+    public void loadsVideo() {
+        AudioItem item = source.loadItem(manager, new AudioReference("https://www.youtube.com/watch?v=" + VIDEO_ID, null));
+
+        assertTrue(item instanceof AudioTrack);
+        assertEquals(VIDEO_ID, ((AudioTrack) item).getIdentifier());
+        assertTrue(emulator.getRequestCount(Endpoint.PLAYER) > 0);
+    }
+
+    @Test
+    public void loadsConcurrentlyFromOneThread() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            List<CompletableFuture<AudioItem>> loads = new ArrayList<>();
+
+            for (int i = 0; i < 4; i++) {
+                loads.add(source.loadItemAsync(new AudioReference(VIDEO_ID, null), executor));
+            }
+
+            for (CompletableFuture<AudioItem> load : loads) {
+                AudioItem item = load.get(10, TimeUnit.SECONDS);
+
+                assertTrue(item instanceof AudioTrack);
+                assertEquals(VIDEO_ID, ((AudioTrack) item).getIdentifier());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readsRangeOfStaticFormat() throws Exception, CannotBeLoaded {
+        Client client = source.getClients()[0];
+
+        try (HttpInterface httpInterface = source.getInterface()) {
+            TrackFormats formats = client.loadFormats(source, httpInterface, VIDEO_ID);
+            assertNotNull(formats);
+
+            StreamFormat format = formats.getBestFormat(source.getFormatSelector());
+            assertEquals(media.length, format.getContentLength());
+
+            try (SeekableInputStream stream = source.createStaticStream(httpInterface, VIDEO_ID, format, RenewableStreamUrl.fixed(format.getUrl()))) {
+                int offset = 200_000;
+                byte[] read = new byte[10_000];
+
+                stream.seek(offset);
+
+                for (int filled = 0; filled < read.length; ) {
+                    int length = stream.read(read, filled, read.length - filled);
+                    assertTrue(length > 0, "Stream ended at " + stream.getPosition());
+                    filled += length;
+                }
+
+                assertArrayEquals(Arrays.copyOfRange(media, offset, offset + read.length), read);
+            }
+        }
+
+        assertTrue(emulator.getRequestCount(Endpoint.MEDIA) > 0);
+    }
+}
@@ -0,0 +1,130 @@
+package dev.lavalink.youtube.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MediaCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void overlappingAndAdjacentRangesAreMerged() throws IOException {
+        MediaCache cache = new MediaCache(directory, 10_000);
+        MediaCacheEntry entry = cache.open("video", 251, 1000);
+
+        write(entry, 100, 100);
+        write(entry, 300, 100);
+        assertEquals(200, entry.getCachedBytes());
+        assertEquals(200, entry.getCachedEnd(150));
+        assertEquals(-1, entry.getCachedEnd(200));
+        assertEquals(300, entry.getNextCachedStart(200));
+
+        // overlaps the end of the first range and touches the start of the second.
+        write(entry, 150, 150);
+        assertEquals(300, entry.getCachedBytes());
+        assertEquals(400, entry.getCachedEnd(100));
+        assertEquals(1000, entry.getNextCachedStart(100));
+
+        // entirely inside an existing range.
+        write(entry, 120, 10);
+        assertEquals(300, entry.getCachedBytes());
+
+        // covers several ranges at once.
+        write(entry, 500, 50);
+        write(entry, 0, 600);
+        assertEquals(600, entry.getCachedBytes());
+        assertEquals(600, entry.getCachedEnd(0));
+        assertEquals(600, cache.getCachedBytes());
+
+        write(entry, 600, 400);
+        assertTrue(entry.isComplete());
+
+        entry.release();
+    }
+
+    @Test
+    public void entriesInUseAreNotEvicted() throws IOException {
+        MediaCache cache = new MediaCache(directory, 100);
+        MediaCacheEntry first = cache.open("first", 251, 60);
+        MediaCacheEntry second = cache.open("second", 251, 60);
+
+        write(first, 0, 60);
+        write(second, 0, 60);
+
+        // both are being read, so the cache is allowed to exceed its limit.
+        assertEquals(2, cache.getEntryCount());
+        assertEquals(120, cache.getCachedBytes());
+
+        second.release();
+
+        // the least recently used entry is still in use, so the released one goes instead.
+        assertEquals(1, cache.getEntryCount());
+        assertEquals(60, cache.getCachedBytes());
+        assertEquals(60, first.getCachedEnd(0));
+        assertFalse(Files.exists(directory.resolve(MediaCache.getKey("second", 251, 60) + MediaCache.DATA_EXTENSION)));
+
+        first.release();
+        assertEquals(1, cache.getEntryCount());
+    }
+
+    @Test
+    public void releasedEntryIsReloadedWithItsRanges() throws IOException {
+        MediaCacheEntry entry = new MediaCache(directory, 10_000).open("video", 140, 1000);
+        byte[] data = write(entry, 200, 300);
+        entry.release();
+
+        Path rangesFile = directory.resolve(MediaCache.getKey("video", 140, 1000) + MediaCache.RANGES_EXTENSION);
+        assertEquals(Arrays.asList("200 500"), Files.readAllLines(rangesFile, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(rangesFile.resolveSibling(rangesFile.getFileName() + ".tmp")));
+
+        MediaCache reloaded = new MediaCache(directory, 10_000);
+        assertEquals(300, reloaded.getCachedBytes());
+
+        MediaCacheEntry reopened = reloaded.open("video", 140, 1000);
+        byte[] read = new byte[300];
+        reopened.read(200, read, 0, read.length);
+
+        assertEquals(500, reopened.getCachedEnd(200));
+        assertArrayEquals(data, read);
+        reopened.release();
+    }
+
+    @Test
+    public void entryReopenedAfterCloseIsWritable() throws IOException {
+        MediaCache cache = new MediaCache(directory, 10_000);
+        MediaCacheEntry entry = cache.open("video", 251, 1000);
+        write(entry, 0, 100);
+        entry.release();
+
+        // the same entry is handed out again, and reopens its data file.
+        MediaCacheEntry reopened = cache.open("video", 251, 1000);
+        write(reopened, 100, 100);
+        reopened.release();
+
+        Path rangesFile = directory.resolve(MediaCache.getKey("video", 251, 1000) + MediaCache.RANGES_EXTENSION);
+        assertEquals(Arrays.asList("0 200"), Files.readAllLines(rangesFile, StandardCharsets.UTF_8));
+        assertEquals(200, new MediaCache(directory, 10_000).getCachedBytes());
+    }
+
+    private static byte[] write(MediaCacheEntry entry, long position, int length) throws IOException {
+        byte[] data = new byte[length];
+
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (position + i);
+        }
+
+        entry.write(position, data, 0, length);
+        return data;
+    }
+}
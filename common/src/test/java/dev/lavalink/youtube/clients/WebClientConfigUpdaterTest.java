@@ -0,0 +1,92 @@
+package dev.lavalink.youtube.clients;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import dev.lavalink.youtube.http.StubHttpInterfaceManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class WebClientConfigUpdaterTest {
+    @Test
+    public void findsBlockAfterPartialMarker() throws IOException {
+        Reader reader = chunked("<script>ytcfg.sytcfg.set({\"a\": 1});</script>", 3);
+
+        assertEquals("{\"a\": 1}", WebClientConfigUpdater.nextConfigBlock(reader));
+        assertNull(WebClientConfigUpdater.nextConfigBlock(reader));
+    }
+
+    @Test
+    public void ignoresBracesWithinStrings() throws IOException {
+        String block = "{\"a\": \"}{\", \"b\": '}', \"c\": {\"d\": \"\\\"}\"}}";
+        Reader reader = chunked("ytcfg.set(" + block + ");", 5);
+
+        assertEquals(block, WebClientConfigUpdater.nextConfigBlock(reader));
+    }
+
+    @Test
+    public void handlesEscapedBackslashBeforeClosingQuote() throws IOException {
+        String block = "{\"a\": \"\\\\\", \"b\": {}}";
+        Reader reader = chunked("ytcfg.set(" + block + ")", 1);
+
+        assertEquals(block, WebClientConfigUpdater.nextConfigBlock(reader));
+    }
+
+    @Test
+    public void readsConsecutiveBlocks() throws IOException {
+        Reader reader = chunked("ytcfg.set({\"a\": 1}); x = 1; ytcfg.set({\"b\": {\"c\": 2}});", 7);
+
+        assertEquals("{\"a\": 1}", WebClientConfigUpdater.nextConfigBlock(reader));
+        assertEquals("{\"b\": {\"c\": 2}}", WebClientConfigUpdater.nextConfigBlock(reader));
+        assertNull(WebClientConfigUpdater.nextConfigBlock(reader));
+    }
+
+    @Test
+    public void returnsNullForUnterminatedBlock() throws IOException {
+        assertNull(WebClientConfigUpdater.nextConfigBlock(chunked("ytcfg.set({\"a\": \"}", 4)));
+    }
+
+    @Test
+    public void clientsFetchConfigThemselvesOnlyWhileUpdaterIsStopped() {
+        AtomicInteger fetches = new AtomicInteger();
+
+        Web web = new Web() {
+            @Override
+            protected void fetchClientConfig(HttpInterface httpInterface) {
+                fetches.incrementAndGet();
+            }
+        };
+
+        StubHttpInterfaceManager httpInterfaceManager = new StubHttpInterfaceManager(request -> StubHttpInterfaceManager.response(503, "{}"));
+        WebClientConfigUpdater updater = new WebClientConfigUpdater(httpInterfaceManager, Collections.singletonList(web), TimeUnit.HOURS.toMillis(1), null);
+
+        updater.start();
+        web.getBaseClientConfig(null);
+        assertEquals(0, fetches.get());
+
+        updater.shutdown();
+        web.getBaseClientConfig(null);
+        assertEquals(1, fetches.get());
+    }
+
+    /**
+     * Returns at most {@code chunkSize} characters per read, so that markers, strings and escapes are split across
+     * reads the way a network stream would split them.
+     */
+    private static Reader chunked(String content, int chunkSize) {
+        return new BufferedReader(new StringReader(content) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, chunkSize));
+            }
+        }, chunkSize);
+    }
+}
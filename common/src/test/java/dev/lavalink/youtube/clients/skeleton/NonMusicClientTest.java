@@ -0,0 +1,53 @@
+package dev.lavalink.youtube.clients.skeleton;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import dev.lavalink.youtube.clients.AndroidVr;
+import dev.lavalink.youtube.http.RateLimitExceededException;
+import dev.lavalink.youtube.http.RequestRateLimiter;
+import dev.lavalink.youtube.http.StubHttpInterfaceManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static dev.lavalink.youtube.http.StubHttpInterfaceManager.response;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NonMusicClientTest {
+    private static final String EMBED_PAGE = "<script>ytcfg.set({\"encryptedHostFlags\":\"flags123\",\"other\":1})</script>";
+
+    private final NonMusicClient client = new AndroidVr();
+    private final List<String> requestedUrls = new ArrayList<>();
+
+    private HttpInterface httpInterface;
+
+    @BeforeEach
+    public void setUp() {
+        StubHttpInterfaceManager manager = new StubHttpInterfaceManager(request -> {
+            requestedUrls.add(request.getRequestLine().getUri());
+            return response(200, EMBED_PAGE);
+        });
+
+        httpInterface = manager.getInterface();
+    }
+
+    @Test
+    public void encryptedHostFlagsAreFetchedThroughInterface() throws IOException {
+        assertEquals("flags123", client.fetchEncryptedHostFlags(httpInterface, "dQw4w9WgXcQ"));
+        assertEquals(Collections.singletonList("https://www.youtube.com/embed/dQw4w9WgXcQ"), requestedUrls);
+    }
+
+    @Test
+    public void embedPageCountsAgainstClientLimit() throws IOException {
+        new RequestRateLimiter(0).setClientLimit(client.getIdentifier(), 1, 1).attach(httpInterface.getContext());
+
+        client.fetchEncryptedHostFlags(httpInterface, "dQw4w9WgXcQ");
+
+        assertThrows(RateLimitExceededException.class, () -> client.fetchEncryptedHostFlags(httpInterface, "dQw4w9WgXcQ"));
+        assertEquals(1, requestedUrls.size());
+    }
+}
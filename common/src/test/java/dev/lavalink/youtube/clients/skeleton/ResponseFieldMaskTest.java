@@ -0,0 +1,157 @@
+package dev.lavalink.youtube.clients.skeleton;
+
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import dev.lavalink.youtube.http.RequestRateLimiter;
+import dev.lavalink.youtube.http.StubHttpInterfaceManager;
+import dev.lavalink.youtube.metrics.MetricsRegistry;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.Operation;
+import org.apache.http.client.methods.HttpPost;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.lavalink.youtube.http.StubHttpInterfaceManager.response;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseFieldMaskTest {
+    private static final String PLAYER_URL = "https://youtubei.googleapis.com/youtubei/v1/player?prettyPrint=false";
+    private static final String FULL_RESPONSE = "{\"playabilityStatus\":{\"status\":\"OK\"},\"videoDetails\":{\"videoId\":\"test\"}}";
+
+    // whether each request had the mask applied, in order.
+    private final List<Boolean> maskedRequests = new ArrayList<>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private int maskedStatus = 200;
+    private String maskedResponse = "{\"playabilityStatus\":{\"status\":\"OK\"}}";
+
+    private HttpInterface httpInterface;
+
+    @BeforeEach
+    public void setUp() {
+        StubHttpInterfaceManager manager = new StubHttpInterfaceManager(request -> {
+            boolean masked = request.containsHeader(ResponseFieldMask.HEADER);
+            maskedRequests.add(masked);
+            return masked ? response(maskedStatus, maskedResponse) : response(200, FULL_RESPONSE);
+        });
+
+        httpInterface = manager.getInterface();
+        new YoutubeMetrics(new CountingRegistry()).attach(httpInterface.getContext());
+    }
+
+    @Test
+    public void usableMaskedResponseIsReturned() throws IOException {
+        JsonBrowser json = load(new ResponseFieldMask("playabilityStatus"));
+
+        assertEquals("OK", json.get("playabilityStatus").get("status").text());
+        assertEquals(Arrays.asList(true), maskedRequests);
+        assertEquals(1, counter("youtube.innertube.responses", "true"));
+        assertEquals(maskedResponse.length(), counter("youtube.innertube.response.bytes", "true"));
+    }
+
+    @Test
+    public void rejectedMaskFallsBackToFullResponse() throws IOException {
+        maskedStatus = 400;
+
+        JsonBrowser json = load(new ResponseFieldMask("playabilityStatus"));
+
+        assertEquals("test", json.get("videoDetails").get("videoId").text());
+        assertEquals(Arrays.asList(true, false), maskedRequests);
+        assertEquals(1, counter("youtube.fieldmask.fallbacks"));
+        assertEquals(1, counter("youtube.innertube.responses", "false"));
+        assertEquals(FULL_RESPONSE.length(), counter("youtube.innertube.response.bytes", "false"));
+    }
+
+    @Test
+    public void fallbackTakesNoSecondRateLimitToken() throws IOException {
+        maskedStatus = 400;
+        new RequestRateLimiter(0).setEndpointLimit(Operation.PLAYER, 1, 1).attach(httpInterface.getContext());
+
+        load(new ResponseFieldMask("playabilityStatus"));
+
+        assertEquals(Arrays.asList(true, false), maskedRequests);
+        assertEquals(0, counter("youtube.ratelimit.rejections"));
+    }
+
+    @Test
+    public void maskIsDisabledAfterRepeatedFailures() throws IOException {
+        ResponseFieldMask mask = new ResponseFieldMask("playabilityStatus");
+
+        for (int i = 0; i < ResponseFieldMask.FAILURE_THRESHOLD; i++) {
+            loadRequiringVideoDetails(mask);
+        }
+
+        assertFalse(mask.isEnabled());
+        maskedRequests.clear();
+
+        loadRequiringVideoDetails(mask);
+        assertEquals(Arrays.asList(false), maskedRequests);
+    }
+
+    @Test
+    public void disabledMaskIsRetriedAfterInterval() throws Exception {
+        ResponseFieldMask mask = new ResponseFieldMask("playabilityStatus", 50);
+
+        for (int i = 0; i < ResponseFieldMask.FAILURE_THRESHOLD; i++) {
+            loadRequiringVideoDetails(mask);
+        }
+
+        assertFalse(mask.isEnabled());
+        Thread.sleep(100);
+        assertTrue(mask.isEnabled());
+
+        maskedRequests.clear();
+        load(mask);
+
+        // a masked success resets the failures, so the mask stays enabled.
+        assertEquals(Arrays.asList(true), maskedRequests);
+        assertTrue(mask.isEnabled());
+    }
+
+    private JsonBrowser load(ResponseFieldMask mask) throws IOException {
+        return mask.load(httpInterface, new HttpPost(PLAYER_URL), "player api response", "WEB", json -> !json.get("playabilityStatus").isNull());
+    }
+
+    private void loadRequiringVideoDetails(ResponseFieldMask mask) throws IOException {
+        mask.load(httpInterface, new HttpPost(PLAYER_URL), "player api response", "WEB", json -> !json.get("videoDetails").isNull());
+    }
+
+    private long counter(String name, String... tags) {
+        AtomicLong counter = counters.get(name + String.join(",", tags));
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Counts by name and tag values. Timers are not recorded.
+     */
+    private class CountingRegistry implements MetricsRegistry {
+        @NotNull
+        @Override
+        public Counter counter(@NotNull String name, @NotNull String description, @NotNull String... tags) {
+            StringBuilder key = new StringBuilder(name);
+
+            for (int i = 1; i < tags.length; i += 2) {
+                key.append(i > 1 ? "," : "").append(tags[i]);
+            }
+
+            AtomicLong counter = counters.computeIfAbsent(key.toString(), unused -> new AtomicLong());
+            return counter::addAndGet;
+        }
+
+        @NotNull
+        @Override
+        public Timer timer(@NotNull String name, @NotNull String description, @NotNull String... tags) {
+            return Timer.NOOP;
+        }
+    }
+}
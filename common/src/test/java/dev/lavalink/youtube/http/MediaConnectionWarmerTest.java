@@ -0,0 +1,58 @@
+package dev.lavalink.youtube.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static dev.lavalink.youtube.http.StubHttpInterfaceManager.response;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MediaConnectionWarmerTest {
+    private final List<String> requestedUrls = new CopyOnWriteArrayList<>();
+    private final MediaConnectionWarmer warmer = new MediaConnectionWarmer(new StubHttpInterfaceManager(request -> {
+        requestedUrls.add(request.getRequestLine().getUri());
+        return response(204, "");
+    }));
+
+    @Test
+    public void hostIsWarmedUpOncePerInterval() throws InterruptedException {
+        warmer.warmUp(URI.create("https://rr1---sn-abcd1234.googlevideo.com/videoplayback?itag=251"));
+        warmer.warmUp(URI.create("https://rr1---sn-abcd1234.googlevideo.com/videoplayback?itag=140"));
+        awaitRequests(1);
+
+        assertEquals(1, requestedUrls.size());
+        assertEquals("https://rr1---sn-abcd1234.googlevideo.com/generate_204", requestedUrls.get(0));
+    }
+
+    @Test
+    public void otherHostsAreIgnored() throws InterruptedException {
+        warmer.warmUp(URI.create("https://example.com/videoplayback"));
+        Thread.sleep(100);
+
+        assertEquals(0, requestedUrls.size());
+        assertEquals(0, warmer.getHostCount());
+    }
+
+    @Test
+    public void warmedUpHostsAreCapped() throws InterruptedException {
+        for (int i = 0; i < MediaConnectionWarmer.MAX_HOSTS + 100; i++) {
+            warmer.warmUp(URI.create("https://rr1---sn-" + i + ".googlevideo.com/videoplayback"));
+        }
+
+        assertEquals(MediaConnectionWarmer.MAX_HOSTS, warmer.getHostCount());
+        awaitRequests(MediaConnectionWarmer.MAX_HOSTS + 100);
+    }
+
+    private void awaitRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (requestedUrls.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // give unexpected extra requests a chance to show up.
+        Thread.sleep(50);
+    }
+}
@@ -0,0 +1,96 @@
+package dev.lavalink.youtube.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MediaHostTrackerTest {
+    private static final List<String> HOSTS = Arrays.asList("sn-a", "sn-b", "sn-c");
+
+    private final MediaHostTracker tracker = new MediaHostTracker();
+
+    @Test
+    public void staysOnCurrentHostWithoutMeasurements() {
+        assertEquals("sn-b", tracker.choose(HOSTS, "sn-b"));
+    }
+
+    @Test
+    public void switchesToMuchFasterHost() {
+        tracker.recordSuccess("sn-a", 1000);
+        tracker.recordSuccess("sn-b", 100);
+
+        assertEquals("sn-b", tracker.choose(HOSTS, "sn-a"));
+    }
+
+    @Test
+    public void staysOnCurrentHostWhenAlternateIsNotFasterByRatio() {
+        tracker.recordSuccess("sn-a", 200);
+        tracker.recordSuccess("sn-b", 150);
+
+        assertEquals("sn-a", tracker.choose(HOSTS, "sn-a"));
+    }
+
+    @Test
+    public void staysOnCurrentHostWhenAlternateIsNotFasterByMinimumDifference() {
+        tracker.recordSuccess("sn-a", 100);
+        tracker.recordSuccess("sn-b", 60);
+
+        assertEquals("sn-a", tracker.choose(HOSTS, "sn-a"));
+    }
+
+    @Test
+    public void leavesSlowHostForAnyFasterOne() {
+        tracker.recordSuccess("sn-a", 1600);
+        tracker.recordSuccess("sn-b", 1550);
+        tracker.recordSuccess("sn-c", 1700);
+
+        assertEquals("sn-b", tracker.choose(HOSTS, "sn-a"));
+    }
+
+    @Test
+    public void leavesSlowHostForUnmeasuredOne() {
+        tracker.recordSuccess("sn-a", 2000);
+
+        assertEquals("sn-b", tracker.choose(HOSTS, "sn-a"));
+    }
+
+    @Test
+    public void failingHostIsAvoidedUntilItSucceeds() {
+        tracker.recordSuccess("sn-a", 100);
+        tracker.recordSuccess("sn-b", 300);
+        tracker.recordSuccess("sn-c", 400);
+        tracker.recordFailure("sn-a");
+
+        assertEquals("sn-b", tracker.choose(HOSTS, "sn-a"));
+        // an avoided host is never picked, however fast it was.
+        assertEquals("sn-c", tracker.choose(HOSTS, "sn-c"));
+
+        tracker.recordSuccess("sn-a", 100);
+        assertEquals("sn-a", tracker.choose(HOSTS, "sn-a"));
+    }
+
+    @Test
+    public void avoidDurationDoublesUpToMaximum() {
+        long base = TimeUnit.SECONDS.toMillis(30);
+
+        assertEquals(base, MediaHostTracker.getAvoidDuration(1));
+        assertEquals(base * 2, MediaHostTracker.getAvoidDuration(2));
+        assertEquals(base * 4, MediaHostTracker.getAvoidDuration(3));
+        assertEquals(base * 8, MediaHostTracker.getAvoidDuration(4));
+        assertEquals(TimeUnit.MINUTES.toMillis(5), MediaHostTracker.getAvoidDuration(5));
+        assertEquals(TimeUnit.MINUTES.toMillis(5), MediaHostTracker.getAvoidDuration(100));
+    }
+
+    @Test
+    public void trackedHostsAreCapped() {
+        for (int i = 0; i < MediaHostTracker.MAX_HOSTS + 100; i++) {
+            tracker.recordSuccess("sn-" + i, 100);
+        }
+
+        assertEquals(MediaHostTracker.MAX_HOSTS, tracker.getHostCount());
+    }
+}
@@ -0,0 +1,71 @@
+package dev.lavalink.youtube.http;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PooledHttpInterfaceManagerTest {
+    private final PooledHttpInterfaceManager manager = new PooledHttpInterfaceManager();
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        manager.close();
+    }
+
+    @Test
+    public void closedInterfaceIsReused() throws IOException {
+        HttpInterface first = manager.getInterface();
+        first.close();
+
+        assertEquals(1, manager.getIdleCount());
+        assertSame(first, manager.getInterface());
+        assertEquals(0, manager.getIdleCount());
+    }
+
+    @Test
+    public void closingTwiceReleasesOnce() throws IOException {
+        HttpInterface first = manager.getInterface();
+        first.close();
+        first.close();
+
+        assertEquals(1, manager.getIdleCount());
+
+        HttpInterface second = manager.getInterface();
+        HttpInterface third = manager.getInterface();
+
+        assertSame(first, second);
+        assertNotSame(second, third);
+    }
+
+    @Test
+    public void reconfiguringDropsPooledInterfaces() throws IOException {
+        HttpInterface first = manager.getInterface();
+        first.close();
+
+        manager.configureRequests(config -> config);
+
+        HttpInterface second = manager.getInterface();
+        assertNotSame(first, second);
+        assertEquals(0, manager.getIdleCount());
+        second.close();
+
+        manager.configureBuilder(builder -> {});
+        assertNotSame(second, manager.getInterface());
+    }
+
+    @Test
+    public void changingFilterDropsPooledInterfaces() throws IOException {
+        HttpInterface first = manager.getInterface();
+        first.close();
+
+        manager.setHttpContextFilter(new NoOpHttpContextFilter());
+
+        assertNotSame(first, manager.getInterface());
+    }
+}
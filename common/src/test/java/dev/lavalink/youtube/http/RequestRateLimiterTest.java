@@ -0,0 +1,134 @@
+package dev.lavalink.youtube.http;
+
+import dev.lavalink.youtube.http.RequestRateLimiter.TokenBucket;
+import dev.lavalink.youtube.metrics.MetricsRegistry;
+import dev.lavalink.youtube.metrics.YoutubeMetrics;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.Operation;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestRateLimiterTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_WAIT = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicInteger rejections = new AtomicInteger();
+    private final HttpClientContext context = HttpClientContext.create();
+
+    @BeforeEach
+    public void setUp() {
+        context.setAttribute(YoutubeMetrics.CONTEXT_ATTRIBUTE, new YoutubeMetrics(new MetricsRegistry() {
+            @NotNull
+            @Override
+            public Counter counter(@NotNull String name, @NotNull String description, @NotNull String... tags) {
+                return name.equals("youtube.ratelimit.rejections") ? amount -> rejections.incrementAndGet() : Counter.NOOP;
+            }
+
+            @NotNull
+            @Override
+            public Timer timer(@NotNull String name, @NotNull String description, @NotNull String... tags) {
+                return Timer.NOOP;
+            }
+        }));
+    }
+
+    @Test
+    public void burstIsServedAtOnceThenPaced() {
+        TokenBucket bucket = new TokenBucket("test", 10, 3);
+
+        assertEquals(0, bucket.reserve(0, MAX_WAIT));
+        assertEquals(0, bucket.reserve(0, MAX_WAIT));
+        assertEquals(0, bucket.reserve(0, MAX_WAIT));
+        assertEquals(INTERVAL, bucket.reserve(0, MAX_WAIT));
+        assertEquals(INTERVAL * 2, bucket.reserve(0, MAX_WAIT));
+    }
+
+    @Test
+    public void bucketRefillsOverTime() {
+        TokenBucket bucket = new TokenBucket("test", 10, 2);
+
+        assertEquals(0, bucket.reserve(0, MAX_WAIT));
+        assertEquals(0, bucket.reserve(0, MAX_WAIT));
+        assertEquals(INTERVAL, bucket.reserve(0, MAX_WAIT));
+
+        // long after the last reservation, the whole burst is available again.
+        long later = TimeUnit.SECONDS.toNanos(10);
+        assertEquals(0, bucket.reserve(later, MAX_WAIT));
+        assertEquals(0, bucket.reserve(later, MAX_WAIT));
+        assertEquals(INTERVAL, bucket.reserve(later, MAX_WAIT));
+    }
+
+    @Test
+    public void reservationOverMaxWaitIsRejectedWithoutReserving() {
+        TokenBucket bucket = new TokenBucket("test", 10, 1);
+
+        assertEquals(0, bucket.reserve(0, INTERVAL / 2));
+        assertEquals(-1, bucket.reserve(0, INTERVAL / 2));
+        assertEquals(-1, bucket.reserve(0, INTERVAL / 2));
+
+        // the rejected reservations did not push the next free slot back.
+        assertEquals(INTERVAL, bucket.reserve(0, MAX_WAIT));
+    }
+
+    @Test
+    public void cancelGivesBackReservation() {
+        TokenBucket bucket = new TokenBucket("test", 10, 1);
+
+        assertEquals(0, bucket.reserve(0, MAX_WAIT));
+        assertEquals(INTERVAL, bucket.reserve(0, MAX_WAIT));
+
+        bucket.cancel();
+
+        assertEquals(INTERVAL, bucket.reserve(0, MAX_WAIT));
+    }
+
+    @Test
+    public void endpointOnlyLimitRejectsWithException() throws IOException {
+        RequestRateLimiter limiter = new RequestRateLimiter(0).setEndpointLimit(Operation.PLAYER, 1, 1);
+
+        limiter.acquire(context, "WEB", Operation.PLAYER);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(context, "WEB", Operation.PLAYER));
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(context, null, Operation.PLAYER));
+        assertEquals(2, rejections.get());
+
+        // other endpoints are not limited.
+        limiter.acquire(context, "WEB", Operation.SEARCH);
+        assertEquals(2, rejections.get());
+    }
+
+    @Test
+    public void clientOnlyLimitAppliesToThatClient() throws IOException {
+        RequestRateLimiter limiter = new RequestRateLimiter(0).setClientLimit("WEB", 1, 1);
+
+        limiter.acquire(context, "WEB", Operation.PLAYER);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(context, "WEB", Operation.SEARCH));
+        assertEquals(1, rejections.get());
+
+        limiter.acquire(context, "ANDROID", Operation.PLAYER);
+        limiter.acquire(context, null, Operation.PLAYER);
+        assertEquals(1, rejections.get());
+    }
+
+    @Test
+    public void endpointRejectionGivesBackClientReservation() throws IOException {
+        RequestRateLimiter limiter = new RequestRateLimiter(0)
+            .setClientLimit("WEB", 1, 2)
+            .setEndpointLimit(Operation.SEARCH, 1, 1);
+
+        limiter.acquire(context, "WEB", Operation.SEARCH);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(context, "WEB", Operation.SEARCH));
+
+        // the client's second token was handed back when the endpoint rejected the request.
+        limiter.acquire(context, "WEB", Operation.PLAYER);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(context, "WEB", Operation.PLAYER));
+        assertEquals(2, rejections.get());
+    }
+}
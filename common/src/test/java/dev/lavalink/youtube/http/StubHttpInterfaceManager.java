@@ -0,0 +1,118 @@
+package dev.lavalink.youtube.http;
+
+import com.sedmelluq.discord.lavaplayer.tools.http.HttpContextFilter;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Hands out HTTP interfaces that answer every request with a canned response instead of going to the network.
+ */
+public class StubHttpInterfaceManager implements HttpInterfaceManager {
+    private final Function<HttpRequest, CloseableHttpResponse> handler;
+    private final CloseableHttpClient client = new StubHttpClient();
+    private HttpContextFilter filter = new NoOpHttpContextFilter();
+
+    public StubHttpInterfaceManager(Function<HttpRequest, CloseableHttpResponse> handler) {
+        this.handler = handler;
+    }
+
+    public static CloseableHttpResponse response(int statusCode, String json) {
+        StubResponse response = new StubResponse(statusCode);
+        response.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+        return response;
+    }
+
+    public static String body(HttpRequest request) {
+        try {
+            return request instanceof HttpEntityEnclosingRequest
+                ? EntityUtils.toString(((HttpEntityEnclosingRequest) request).getEntity(), StandardCharsets.UTF_8)
+                : "";
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public HttpInterface getInterface() {
+        HttpInterface httpInterface = new HttpInterface(client, HttpClientContext.create(), false, filter);
+        httpInterface.acquire();
+        return httpInterface;
+    }
+
+    @Override
+    public void setHttpContextFilter(HttpContextFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void configureRequests(Function<RequestConfig, RequestConfig> configurator) {
+
+    }
+
+    @Override
+    public void configureBuilder(Consumer<HttpClientBuilder> configurator) {
+
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    private class StubHttpClient extends CloseableHttpClient {
+        @Override
+        protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) {
+            return handler.apply(request);
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public HttpParams getParams() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public ClientConnectionManager getConnectionManager() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+
+    private static class StubResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        private StubResponse(int statusCode) {
+            super(new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode, null));
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dev.lavalink.youtube.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static dev.lavalink.youtube.http.StubHttpInterfaceManager.body;
+import static dev.lavalink.youtube.http.StubHttpInterfaceManager.response;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class YoutubeOauth2HandlerTest {
+    private static final String INVALID_GRANT = "{\"error\": \"invalid_grant\", \"error_description\": \"Token has been expired or revoked.\"}";
+    private static final String ACCESS_TOKEN = "{\"access_token\": \"token\", \"token_type\": \"Bearer\", \"expires_in\": 3600}";
+
+    private YoutubeOauth2Handler handler;
+
+    @AfterEach
+    public void shutdown() {
+        if (handler != null) {
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void invalidGrantWithBadRequestIsReportedAsRevoked() {
+        handler = new YoutubeOauth2Handler(new StubHttpInterfaceManager(request -> response(400, INVALID_GRANT)));
+
+        assertThrows(RefreshTokenRevokedException.class, () -> handler.createNewAccessToken("revoked"));
+    }
+
+    @Test
+    public void otherErrorsAreNotReportedAsRevoked() {
+        handler = new YoutubeOauth2Handler(new StubHttpInterfaceManager(request -> response(500, "{\"error\": \"internal_failure\"}")));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> handler.createNewAccessToken("token"));
+        assertFalse(error instanceof RefreshTokenRevokedException);
+    }
+
+    @Test
+    public void revokedAccountIsQuarantined() {
+        handler = new YoutubeOauth2Handler(new StubHttpInterfaceManager(request ->
+            body(request).contains("revoked") ? response(400, INVALID_GRANT) : response(200, ACCESS_TOKEN)
+        ));
+
+        // with one healthy account the pool is kept, so the state of the revoked one can be inspected.
+        handler.setRefreshTokens(Arrays.asList("healthy", "revoked"), true);
+
+        YoutubeOauth2Account healthy = handler.getAccounts().get(0);
+        YoutubeOauth2Account revoked = handler.getAccounts().get(1);
+
+        assertTrue(healthy.hasAccessToken());
+        assertFalse(healthy.isQuarantined());
+        assertFalse(revoked.hasAccessToken());
+        assertTrue(revoked.isQuarantined());
+        assertEquals("refresh token revoked or expired", revoked.getQuarantineReason());
+    }
+}
@@ -0,0 +1,117 @@
+package dev.lavalink.youtube.track;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves a block of random bytes the way googlevideo does, with the {@code range} query parameter selecting an
+ * inclusive byte range. Every requested range is recorded.
+ */
+public class RangeContentServer implements AutoCloseable {
+    private static final Pattern RANGE_PARAMETER = Pattern.compile("range=(\\d+)-(\\d+)");
+
+    private final byte[] content;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> requestedRanges = new CopyOnWriteArrayList<>();
+    private volatile long responseDelayMs;
+    private volatile int truncateLength = -1;
+
+    public RangeContentServer(int length) throws IOException {
+        this.content = new byte[length];
+        new Random(length).nextBytes(content);
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/videoplayback", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public URI getUrl() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/videoplayback?id=test");
+    }
+
+    /**
+     * @return The {@code range} parameters of all requests so far, in the order they were received.
+     */
+    public List<String> getRequestedRanges() {
+        return requestedRanges;
+    }
+
+    /**
+     * Delays the response headers of every following request, e.g. to keep a prefetch in flight.
+     */
+    public void setResponseDelay(long responseDelayMs) {
+        this.responseDelayMs = responseDelayMs;
+    }
+
+    /**
+     * Cuts the body of every following response short after the given amount of bytes, or not at all if negative. The
+     * body is sent chunked, so it ends cleanly as if the upstream had closed the range early.
+     */
+    public void setTruncateLength(int truncateLength) {
+        this.truncateLength = truncateLength;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String query = exchange.getRequestURI().getRawQuery();
+            Matcher matcher = RANGE_PARAMETER.matcher(query == null ? "" : query);
+            int start = 0;
+            int end = content.length;
+
+            if (matcher.find()) {
+                requestedRanges.add(matcher.group(1) + "-" + matcher.group(2));
+                start = (int) Math.min(Long.parseLong(matcher.group(1)), content.length);
+                end = (int) Math.min(Long.parseLong(matcher.group(2)) + 1, content.length);
+            } else {
+                requestedRanges.add("");
+            }
+
+            if (responseDelayMs > 0) {
+                Thread.sleep(responseDelayMs);
+            }
+
+            int truncate = truncateLength;
+
+            if (truncate >= 0 && truncate < end - start) {
+                end = start + truncate;
+                exchange.sendResponseHeaders(200, 0);
+            } else {
+                exchange.sendResponseHeaders(200, end - start);
+            }
+
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(content, start, end - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the client closed the connection early, which streams do at every range switch.
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,82 @@
+package dev.lavalink.youtube.track;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RenewableStreamUrlTest {
+    private static final URI URL = URI.create(
+        "https://rr3---sn-abcd1234.googlevideo.com/videoplayback?expire=1700000000&id=o-abc&mn=sn-abcd1234%2Csn-efgh5678&itag=251"
+    );
+
+    @Test
+    public void expiryIsReadFromExpireParameter() {
+        assertEquals(1700000000000L, RenewableStreamUrl.getExpiry(URL));
+        assertEquals(Long.MAX_VALUE, RenewableStreamUrl.getExpiry(URI.create("https://example.com/videoplayback?id=o-abc")));
+        assertEquals(Long.MAX_VALUE, RenewableStreamUrl.getExpiry(URI.create("https://example.com/videoplayback?expire=soon")));
+    }
+
+    @Test
+    public void expiredUrlIsReportedAsExpired() {
+        assertTrue(RenewableStreamUrl.fixed(URL).isExpired());
+        assertFalse(RenewableStreamUrl.fixed(URI.create("https://example.com/videoplayback?id=o-abc")).isExpired());
+    }
+
+    @Test
+    public void urlCloseToExpiryIsRenewedInBackground() throws InterruptedException {
+        long expire = System.currentTimeMillis() / 1000 + 60;
+        URI renewed = URI.create("https://rr3---sn-abcd1234.googlevideo.com/videoplayback?id=o-renewed");
+        CountDownLatch renewals = new CountDownLatch(1);
+
+        RenewableStreamUrl url = new RenewableStreamUrl(URI.create("https://example.com/videoplayback?expire=" + expire), () -> {
+            renewals.countDown();
+            return renewed;
+        });
+
+        try {
+            url.start();
+            assertTrue(renewals.await(5, TimeUnit.SECONDS));
+
+            long deadline = System.currentTimeMillis() + 5000;
+
+            while (!renewed.equals(url.get()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(renewed, url.get());
+            assertEquals(Long.MAX_VALUE, url.getExpiresAt());
+        } finally {
+            url.stop();
+        }
+    }
+
+    @Test
+    public void hostIdIsReadFromGooglevideoHost() {
+        assertEquals("sn-abcd1234", RenewableStreamUrl.getHostId(URL));
+        assertNull(RenewableStreamUrl.getHostId(URI.create("https://redirector.googlevideo.com/videoplayback")));
+        assertNull(RenewableStreamUrl.getHostId(URI.create("https://example.com/videoplayback")));
+        assertNull(RenewableStreamUrl.getHostId(URI.create("/videoplayback?id=o-abc")));
+    }
+
+    @Test
+    public void withHostReplacesOnlyHostId() {
+        URI moved = RenewableStreamUrl.withHost(URL, "sn-efgh5678");
+
+        assertEquals("rr3---sn-efgh5678.googlevideo.com", moved.getHost());
+        assertEquals(URL.getRawQuery(), moved.getRawQuery());
+        assertEquals(URL.getPath(), moved.getPath());
+
+        assertSame(URL, RenewableStreamUrl.withHost(URL, "sn-abcd1234"));
+
+        URI plain = URI.create("https://example.com/videoplayback");
+        assertSame(plain, RenewableStreamUrl.withHost(plain, "sn-efgh5678"));
+    }
+}
@@ -0,0 +1,180 @@
+package dev.lavalink.youtube.track;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.http.NoOpHttpContextFilter;
+import dev.lavalink.youtube.http.PooledHttpInterfaceManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static dev.lavalink.youtube.track.YoutubePersistentHttpStream.BUFFER_SIZE;
+import static dev.lavalink.youtube.track.YoutubePersistentHttpStream.READ_AHEAD_THRESHOLD;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class YoutubePersistentHttpStreamTest {
+    private static final int LENGTH = (int) (BUFFER_SIZE * 2 + 100_000);
+
+    private RangeContentServer server;
+    private HttpInterfaceManager httpInterfaceManager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new RangeContentServer(LENGTH);
+        httpInterfaceManager = new PooledHttpInterfaceManager();
+        httpInterfaceManager.setHttpContextFilter(new NoOpHttpContextFilter());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+        httpInterfaceManager.close();
+    }
+
+    @Test
+    public void readsAcrossRangeBoundariesWithoutReadAhead() throws IOException {
+        try (YoutubePersistentHttpStream stream = open(false)) {
+            assertArrayEquals(server.getContent(), readFully(stream, LENGTH));
+            assertEquals(-1, stream.read(new byte[16], 0, 16));
+        }
+    }
+
+    @Test
+    public void readAheadRequestsEachRangeOnceAndStopsAtBoundaries() throws IOException {
+        try (YoutubePersistentHttpStream stream = open(true)) {
+            assertArrayEquals(server.getContent(), readFully(stream, LENGTH));
+            assertEquals(-1, stream.read(new byte[16], 0, 16));
+        }
+
+        assertEquals(Arrays.asList(
+            "0-" + BUFFER_SIZE,
+            BUFFER_SIZE + "-" + BUFFER_SIZE * 2,
+            BUFFER_SIZE * 2 + "-" + LENGTH
+        ), server.getRequestedRanges());
+    }
+
+    @Test
+    public void skipsAcrossPrefetchedRange() throws IOException {
+        try (YoutubePersistentHttpStream stream = open(true)) {
+            startReadAhead(stream);
+
+            long target = BUFFER_SIZE + 5000;
+
+            while (stream.getPosition() < target) {
+                assertTrue(stream.skip(target - stream.getPosition()) > 0, "skip made no progress");
+            }
+
+            assertEquals(target, stream.getPosition());
+            assertArrayEquals(slice(target, 10_000), readFully(stream, 10_000));
+        }
+
+        // the prefetched range took over at the boundary, rather than a new connection from the skip target.
+        assertEquals(Arrays.asList("0-" + BUFFER_SIZE, BUFFER_SIZE + "-" + BUFFER_SIZE * 2), server.getRequestedRanges());
+    }
+
+    @Test
+    public void seeksBackwardWhilePrefetchIsInFlight() throws IOException {
+        try (YoutubePersistentHttpStream stream = open(true)) {
+            readFully(stream, 1000);
+            server.setResponseDelay(500);
+            startReadAhead(stream);
+
+            stream.seek(1000);
+            server.setResponseDelay(0);
+
+            assertEquals(1000, stream.getPosition());
+            assertArrayEquals(slice(1000, LENGTH - 1000), readFully(stream, LENGTH - 1000));
+        }
+
+        // the cancelled prefetch may or may not have reached the server, and before or after the new connection.
+        assertTrue(server.getRequestedRanges().contains("1000-" + (BUFFER_SIZE + 1000)));
+    }
+
+    @Test
+    public void seeksPastBoundaryWhilePrefetchIsInFlight() throws IOException {
+        long target = BUFFER_SIZE + 1_000_000;
+
+        try (YoutubePersistentHttpStream stream = open(true)) {
+            readFully(stream, 1000);
+            server.setResponseDelay(500);
+            startReadAhead(stream);
+
+            stream.seek(target);
+            server.setResponseDelay(0);
+
+            assertEquals(target, stream.getPosition());
+            assertArrayEquals(slice(target, (int) (LENGTH - target)), readFully(stream, (int) (LENGTH - target)));
+        }
+
+        assertTrue(server.getRequestedRanges().contains(target + "-" + LENGTH));
+    }
+
+    @Test
+    public void readAheadReconnectsWhenRangeEndsEarly() throws IOException {
+        try (YoutubePersistentHttpStream stream = open(true)) {
+            server.setTruncateLength(100_000);
+            readFully(stream, 1000);
+            server.setTruncateLength(-1);
+
+            assertArrayEquals(slice(1000, LENGTH - 1000), readFully(stream, LENGTH - 1000));
+        }
+
+        assertEquals("100000-" + (BUFFER_SIZE + 100_000), server.getRequestedRanges().get(1));
+    }
+
+    @Test
+    public void readAheadFailsWhenReconnectedRangeEndsEarlyToo() throws IOException {
+        server.setTruncateLength(0);
+
+        try (YoutubePersistentHttpStream stream = open(true)) {
+            assertThrows(IOException.class, () -> stream.read(new byte[16], 0, 16));
+        }
+
+        // a read reconnects only once.
+        assertEquals(Arrays.asList("0-" + BUFFER_SIZE, "0-" + BUFFER_SIZE), server.getRequestedRanges());
+    }
+
+    private YoutubePersistentHttpStream open(boolean readAhead) {
+        return new YoutubePersistentHttpStream(
+            httpInterfaceManager.getInterface(),
+            server.getUrl(),
+            LENGTH,
+            readAhead ? httpInterfaceManager : null
+        );
+    }
+
+    /**
+     * Reads up to the point where the next range is requested in the background.
+     */
+    private static void startReadAhead(YoutubePersistentHttpStream stream) throws IOException {
+        long remaining = BUFFER_SIZE - READ_AHEAD_THRESHOLD - stream.getPosition();
+        readFully(stream, (int) remaining);
+        readFully(stream, 1);
+    }
+
+    private byte[] slice(long offset, int length) {
+        return Arrays.copyOfRange(server.getContent(), (int) offset, (int) offset + length);
+    }
+
+    private static byte[] readFully(YoutubePersistentHttpStream stream, int length) throws IOException {
+        byte[] buffer = new byte[length];
+        int filled = 0;
+
+        while (filled < length) {
+            int read = stream.read(buffer, filled, Math.min(32 * 1024, length - filled));
+
+            if (read < 0) {
+                throw new IOException("Stream ended at " + stream.getPosition());
+            }
+
+            filled += read;
+        }
+
+        return buffer;
+    }
+}
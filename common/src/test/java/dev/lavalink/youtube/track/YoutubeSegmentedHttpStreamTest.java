@@ -0,0 +1,182 @@
+package dev.lavalink.youtube.track;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import dev.lavalink.youtube.http.NoOpHttpContextFilter;
+import dev.lavalink.youtube.http.PooledHttpInterfaceManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class YoutubeSegmentedHttpStreamTest {
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final int CONNECTIONS = 2;
+    // deliberately not a multiple of the segment size, so the last segment is shorter.
+    private static final int LENGTH = SEGMENT_SIZE * 5 + 1234;
+
+    private RangeContentServer server;
+    private HttpInterfaceManager httpInterfaceManager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new RangeContentServer(LENGTH);
+        httpInterfaceManager = new PooledHttpInterfaceManager();
+        httpInterfaceManager.setHttpContextFilter(new NoOpHttpContextFilter());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+        httpInterfaceManager.close();
+    }
+
+    @Test
+    public void readsEverySegmentOnceUpToTheEnd() throws IOException {
+        try (YoutubeSegmentedHttpStream stream = open()) {
+            assertArrayEquals(server.getContent(), readFully(stream, LENGTH));
+            assertEquals(-1, stream.read(new byte[16], 0, 16));
+        }
+
+        // segments are downloaded concurrently, so the order the server sees them in is not fixed.
+        assertEquals(new HashSet<>(Arrays.asList(
+            range(0, SEGMENT_SIZE),
+            range(SEGMENT_SIZE, SEGMENT_SIZE * 2),
+            range(SEGMENT_SIZE * 2, SEGMENT_SIZE * 3),
+            range(SEGMENT_SIZE * 3, SEGMENT_SIZE * 4),
+            range(SEGMENT_SIZE * 4, SEGMENT_SIZE * 5),
+            range(SEGMENT_SIZE * 5, LENGTH)
+        )), new HashSet<>(server.getRequestedRanges()));
+        assertEquals(6, server.getRequestedRanges().size());
+    }
+
+    @Test
+    public void downloadWindowIsBoundedByConnections() throws Exception {
+        try (YoutubeSegmentedHttpStream stream = open()) {
+            readFully(stream, 1000);
+            Thread.sleep(200);
+
+            // the segment being read plus the ones in flight ahead of it.
+            assertEquals(CONNECTIONS + 1, server.getRequestedRanges().size());
+
+            readFully(stream, SEGMENT_SIZE);
+            Thread.sleep(200);
+
+            assertEquals(CONNECTIONS + 2, server.getRequestedRanges().size());
+        }
+    }
+
+    @Test
+    public void seekingBackwardWithinCurrentSegmentKeepsWindow() throws Exception {
+        try (YoutubeSegmentedHttpStream stream = open()) {
+            readFully(stream, 5000);
+            stream.seek(100);
+
+            assertEquals(100, stream.getPosition());
+            assertArrayEquals(slice(100, 10_000), readFully(stream, 10_000));
+        }
+
+        // the prefetched segments may or may not have reached the server before close, but the current one is not
+        // requested again.
+        assertEquals(1, Collections.frequency(server.getRequestedRanges(), range(0, SEGMENT_SIZE)));
+        assertTrue(server.getRequestedRanges().size() <= CONNECTIONS + 1);
+    }
+
+    @Test
+    public void hardSeekIntoInFlightSegmentKeepsIt() throws IOException {
+        long target = SEGMENT_SIZE * 2 + 10;
+
+        try (YoutubeSegmentedHttpStream stream = open()) {
+            readFully(stream, 1000);
+            stream.seekHard(target);
+
+            assertEquals(target, stream.getPosition());
+            assertArrayEquals(slice(target, 1000), readFully(stream, 1000));
+        }
+
+        // the segment at the target was already in flight, so the window carried on from it instead of the target.
+        assertTrue(server.getRequestedRanges().contains(range(SEGMENT_SIZE * 2, SEGMENT_SIZE * 3)));
+        assertFalse(server.getRequestedRanges().stream().anyMatch(range -> range.startsWith(target + "-")));
+    }
+
+    @Test
+    public void seekingOutsideWindowStartsOver() throws IOException {
+        long target = SEGMENT_SIZE * 4 + 7;
+
+        try (YoutubeSegmentedHttpStream stream = open()) {
+            readFully(stream, 1000);
+            stream.seek(target);
+
+            assertArrayEquals(slice(target, LENGTH - (int) target), readFully(stream, LENGTH - (int) target));
+            assertEquals(-1, stream.read(new byte[16], 0, 16));
+        }
+
+        assertTrue(server.getRequestedRanges().containsAll(Arrays.asList(
+            range(target, target + SEGMENT_SIZE),
+            range(target + SEGMENT_SIZE, LENGTH)
+        )));
+    }
+
+    @Test
+    public void endOfContentNeedsNoRequest() throws IOException {
+        try (YoutubeSegmentedHttpStream stream = open()) {
+            stream.seek(LENGTH);
+
+            assertEquals(200, stream.checkStatusCode());
+            assertEquals(-1, stream.read(new byte[16], 0, 16));
+            assertEquals(0, stream.skip(100));
+
+            stream.seek(LENGTH - 1);
+            assertEquals(server.getContent()[LENGTH - 1] & 0xFF, stream.read());
+            assertEquals(-1, stream.read());
+        }
+
+        assertEquals(Arrays.asList(range(LENGTH - 1, LENGTH)), server.getRequestedRanges());
+    }
+
+    private YoutubeSegmentedHttpStream open() {
+        return new YoutubeSegmentedHttpStream(
+            httpInterfaceManager,
+            RenewableStreamUrl.fixed(server.getUrl()),
+            LENGTH,
+            CONNECTIONS,
+            SEGMENT_SIZE
+        );
+    }
+
+    /**
+     * @return The inclusive range parameter for the bytes from start to the exclusive end.
+     */
+    private static String range(long start, long end) {
+        return start + "-" + (end - 1);
+    }
+
+    private byte[] slice(long offset, int length) {
+        return Arrays.copyOfRange(server.getContent(), (int) offset, (int) offset + length);
+    }
+
+    private static byte[] readFully(YoutubeSegmentedHttpStream stream, int length) throws IOException {
+        byte[] buffer = new byte[length];
+        int filled = 0;
+
+        while (filled < length) {
+            int read = stream.read(buffer, filled, Math.min(32 * 1024, length - filled));
+
+            if (read < 0) {
+                throw new IOException("Stream ended at " + stream.getPosition());
+            }
+
+            filled += read;
+        }
+
+        return buffer;
+    }
+}
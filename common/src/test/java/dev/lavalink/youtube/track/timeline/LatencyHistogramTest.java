@@ -0,0 +1,54 @@
+package dev.lavalink.youtube.track.timeline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LatencyHistogramTest {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void bucketBoundsAreInclusive() {
+        histogram.record(0);
+        histogram.record(10);
+        histogram.record(11);
+        histogram.record(30000);
+        histogram.record(30001);
+
+        long[] expected = new long[LatencyHistogram.BUCKET_BOUNDS_MS.length + 1];
+        expected[0] = 2;
+        expected[1] = 1;
+        expected[LatencyHistogram.BUCKET_BOUNDS_MS.length - 1] = 1;
+        expected[LatencyHistogram.BUCKET_BOUNDS_MS.length] = 1;
+
+        assertArrayEquals(expected, histogram.getCounts());
+        assertEquals(5, histogram.getCount());
+        assertEquals(60022, histogram.getSumMs());
+    }
+
+    @Test
+    public void quantileIsUpperBoundOfItsBucket() {
+        for (int i = 0; i < 9; i++) {
+            histogram.record(40);
+        }
+
+        histogram.record(700);
+
+        assertEquals(50, histogram.getQuantileUpperBoundMs(0.5));
+        assertEquals(50, histogram.getQuantileUpperBoundMs(0.9));
+        assertEquals(1000, histogram.getQuantileUpperBoundMs(0.99));
+    }
+
+    @Test
+    public void quantileInOverflowBucketIsUnbounded() {
+        histogram.record(60000);
+
+        assertEquals(Long.MAX_VALUE, histogram.getQuantileUpperBoundMs(0.5));
+    }
+
+    @Test
+    public void quantileOfEmptyHistogramIsZero() {
+        assertEquals(0, histogram.getQuantileUpperBoundMs(0.5));
+    }
+}
@@ -0,0 +1,122 @@
+package dev.lavalink.youtube.track.timeline;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import dev.lavalink.youtube.YoutubeAudioSourceManager;
+import dev.lavalink.youtube.clients.AndroidVr;
+import dev.lavalink.youtube.track.YoutubeAudioTrack;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Entry;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Phase;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrackStartRecorderTest {
+    private final YoutubeAudioTrack track = new YoutubeAudioTrack(
+        new AudioTrackInfo("title", "author", 1000, "dQw4w9WgXcQ", false, "https://www.youtube.com/watch?v=dQw4w9WgXcQ"),
+        new YoutubeAudioSourceManager(new AndroidVr())
+    );
+
+    private final List<TrackStartTimeline> reports = new ArrayList<>();
+    private final TrackStartHistograms histograms = new TrackStartHistograms();
+    private final TrackStartRecorder recorder = new TrackStartRecorder(track, Arrays.asList(
+        (unused, timeline) -> reports.add(timeline),
+        histograms
+    ));
+
+    @Test
+    public void firstFrameEndsAttemptAndReportsOnce() {
+        recorder.beginAttempt("ANDROID_VR");
+        recorder.onFrameProvided();
+        recorder.onFrameProvided();
+        recorder.finish(true, null);
+
+        assertEquals(1, reports.size());
+        TrackStartTimeline timeline = reports.get(0);
+        assertTrue(timeline.isSuccessful());
+
+        Entry attempt = timeline.getEntry(Phase.CLIENT_ATTEMPT);
+        assertNotNull(attempt);
+        assertEquals("ANDROID_VR", attempt.getClient());
+        assertTrue(attempt.isSuccessful());
+
+        assertEquals(1, histograms.getHistogram(Phase.FIRST_FRAME).getCount());
+        assertEquals(0, histograms.getFailedStartCount());
+    }
+
+    @Test
+    public void failedAttemptsAreKeptWhenLaterClientStarts() {
+        recorder.beginAttempt("WEB");
+        recorder.attemptFailed(new IOException("Not success status code: 403"));
+        recorder.beginAttempt("ANDROID_VR");
+        recorder.onFrameProvided();
+
+        List<Entry> attempts = new ArrayList<>();
+
+        for (Entry entry : recorder.getTimeline().getEntries()) {
+            if (entry.getPhase() == Phase.CLIENT_ATTEMPT) {
+                attempts.add(entry);
+            }
+        }
+
+        assertEquals(2, attempts.size());
+        assertEquals("WEB", attempts.get(0).getClient());
+        assertFalse(attempts.get(0).isSuccessful());
+        assertEquals("ANDROID_VR", attempts.get(1).getClient());
+        assertTrue(attempts.get(1).isSuccessful());
+        assertEquals(1, histograms.getFailureCount(Phase.CLIENT_ATTEMPT));
+    }
+
+    @Test
+    public void failureWithoutFramesIsReported() {
+        recorder.beginAttempt("ANDROID_VR");
+        recorder.finish(false, new IOException("broken"));
+
+        assertEquals(1, reports.size());
+        TrackStartTimeline timeline = reports.get(0);
+        assertFalse(timeline.isSuccessful());
+        assertFalse(timeline.getEntry(Phase.CLIENT_ATTEMPT).isSuccessful());
+        assertEquals(1, histograms.getFailedStartCount());
+    }
+
+    @Test
+    public void framesNotTakenByPlayerStillCountAsStarted() {
+        recorder.beginAttempt("ANDROID_VR");
+        recorder.finish(true, null);
+
+        assertEquals(1, reports.size());
+        assertTrue(reports.get(0).isSuccessful());
+    }
+
+    @Test
+    public void failingListenerDoesNotStopOthers() {
+        TrackStartRecorder failing = new TrackStartRecorder(track, Arrays.asList(
+            (unused, timeline) -> {
+                throw new IllegalStateException("listener failure");
+            },
+            histograms
+        ));
+
+        failing.onFrameProvided();
+
+        assertEquals(1, histograms.getHistogram(Phase.FIRST_FRAME).getCount());
+    }
+
+    @Test
+    public void timelineIsFrozenAfterReport() {
+        recorder.onFrameProvided();
+        recorder.attemptFailed(new IOException("late"));
+        recorder.getTimeline().mark(Phase.FIRST_MEDIA_BYTE);
+
+        assertNull(recorder.getTimeline().getEntry(Phase.FIRST_MEDIA_BYTE));
+        assertEquals(1, recorder.getTimeline().getEntries().size());
+    }
+}
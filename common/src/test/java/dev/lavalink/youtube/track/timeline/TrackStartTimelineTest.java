@@ -0,0 +1,83 @@
+package dev.lavalink.youtube.track.timeline;
+
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Entry;
+import dev.lavalink.youtube.track.timeline.TrackStartTimeline.Phase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrackStartTimelineTest {
+    private final TrackStartTimeline timeline = new TrackStartTimeline();
+
+    @Test
+    public void phasesAreKeptInTheOrderTheyEnded() {
+        long attempt = timeline.begin();
+        timeline.record(Phase.PLAYER_REQUEST, timeline.begin(), "WEB", null);
+        timeline.record(Phase.CLIENT_ATTEMPT, attempt, "WEB", new IOException("broken"));
+
+        List<Entry> entries = timeline.getEntries();
+
+        assertEquals(2, entries.size());
+        assertEquals(Phase.PLAYER_REQUEST, entries.get(0).getPhase());
+        assertTrue(entries.get(0).isSuccessful());
+        assertEquals(Phase.CLIENT_ATTEMPT, entries.get(1).getPhase());
+        assertEquals("WEB", entries.get(1).getClient());
+        assertEquals("java.io.IOException: broken", entries.get(1).getError());
+    }
+
+    @Test
+    public void repeatedPhasesAreAllRecorded() {
+        timeline.record(Phase.CLIENT_ATTEMPT, timeline.begin(), "WEB", new IOException());
+        timeline.record(Phase.CLIENT_ATTEMPT, timeline.begin(), "TV", null);
+
+        assertEquals(2, timeline.getEntries().size());
+        assertEquals("WEB", timeline.getEntry(Phase.CLIENT_ATTEMPT).getClient());
+    }
+
+    @Test
+    public void milestoneIsOnlyRecordedOnce() throws InterruptedException {
+        timeline.mark(Phase.FIRST_MEDIA_BYTE);
+        long first = timeline.getEntry(Phase.FIRST_MEDIA_BYTE).getDurationMs();
+
+        Thread.sleep(20);
+        timeline.mark(Phase.FIRST_MEDIA_BYTE);
+
+        assertEquals(1, timeline.getEntries().size());
+        assertEquals(first, timeline.getEntry(Phase.FIRST_MEDIA_BYTE).getDurationMs());
+    }
+
+    @Test
+    public void successfulOnlyWithFirstFrame() {
+        timeline.mark(Phase.FIRST_MEDIA_BYTE);
+        assertFalse(timeline.isSuccessful());
+
+        timeline.mark(Phase.FIRST_FRAME);
+        assertTrue(timeline.isSuccessful());
+    }
+
+    @Test
+    public void finishedTimelineDoesNotChange() {
+        timeline.finish();
+        timeline.mark(Phase.FIRST_FRAME);
+        timeline.record(Phase.CIPHER, timeline.begin(), null, null);
+
+        assertTrue(timeline.getEntries().isEmpty());
+    }
+
+    @Test
+    public void isStoredInContext() {
+        HttpClientContext context = HttpClientContext.create();
+        assertNull(TrackStartTimeline.get(context));
+
+        context.setAttribute(TrackStartTimeline.CONTEXT_ATTRIBUTE, timeline);
+        assertSame(timeline, TrackStartTimeline.get(context));
+    }
+}
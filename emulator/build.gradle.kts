@@ -0,0 +1,17 @@
+plugins {
+    `java-library`
+    application
+}
+
+dependencies {
+    api(projects.common)
+    api(libs.lavaplayer.v1)
+    compileOnly(libs.annotations)
+    implementation(libs.slf4j)
+    runtimeOnly("org.slf4j:slf4j-simple:1.7.25")
+}
+
+application {
+    // ./gradlew :emulator:run --args="--concurrency 16 --duration 60 --latency 50 --error-rate 0.01"
+    mainClass = "dev.lavalink.youtube.emulator.LoadDriver"
+}
@@ -0,0 +1,199 @@
+package dev.lavalink.youtube.emulator;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options of an {@link InnertubeEmulator}. Changes to the faults take effect on the next request, everything else must
+ * be set before the emulator is started.
+ */
+public class EmulatorOptions {
+    private int port = 0;
+    private Faults defaultFaults = new Faults();
+    private final Map<Endpoint, Faults> faults = Collections.synchronizedMap(new EnumMap<>(Endpoint.class));
+    private final Map<Endpoint, String> responses = new EnumMap<>(Endpoint.class);
+    private long mediaLength = 4 * 1024 * 1024;
+    private byte[] media = null;
+    private final Set<String> liveVideoIds = new HashSet<>();
+    private long liveSegmentDurationMs = 2000;
+    private int liveSegmentLength = 32 * 1024;
+    private byte[] liveSegmentTemplate = null;
+    private int searchResultCount = 20;
+    private int playlistLength = 100;
+    private int mixLength = 25;
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return The faults injected into the given endpoint.
+     */
+    @NotNull
+    public Faults getFaults(@NotNull Endpoint endpoint) {
+        Faults endpointFaults = faults.get(endpoint);
+        return endpointFaults != null ? endpointFaults : defaultFaults;
+    }
+
+    /**
+     * @return The recorded response template that replaces the built-in one of the endpoint, if any.
+     */
+    @Nullable
+    public String getResponse(@NotNull Endpoint endpoint) {
+        return responses.get(endpoint);
+    }
+
+    public long getMediaLength() {
+        return media != null ? media.length : mediaLength;
+    }
+
+    @Nullable
+    public byte[] getMedia() {
+        return media;
+    }
+
+    public boolean isLiveVideo(@NotNull String videoId) {
+        return liveVideoIds.contains(videoId);
+    }
+
+    public long getLiveSegmentDurationMs() {
+        return liveSegmentDurationMs;
+    }
+
+    public int getLiveSegmentLength() {
+        return liveSegmentLength;
+    }
+
+    @Nullable
+    public byte[] getLiveSegmentTemplate() {
+        return liveSegmentTemplate;
+    }
+
+    public int getSearchResultCount() {
+        return searchResultCount;
+    }
+
+    public int getPlaylistLength() {
+        return playlistLength;
+    }
+
+    public int getMixLength() {
+        return mixLength;
+    }
+
+    /**
+     * @param port The local port to listen on, or 0 to pick a free one.
+     */
+    @NotNull
+    public EmulatorOptions setPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * @param faults The faults to inject into endpoints that have none set with {@link #setFaults(Endpoint, Faults)}.
+     */
+    @NotNull
+    public EmulatorOptions setFaults(@NotNull Faults faults) {
+        this.defaultFaults = faults;
+        return this;
+    }
+
+    @NotNull
+    public EmulatorOptions setFaults(@NotNull Endpoint endpoint, @NotNull Faults faults) {
+        this.faults.put(endpoint, faults);
+        return this;
+    }
+
+    /**
+     * Replaces the built-in response of an endpoint with a recorded one, e.g. a response body logged by
+     * {@code ResponseFieldMask} at trace level. The same placeholders as in the built-in templates, such as
+     * {@code ${videoId}}, are filled in.
+     */
+    @NotNull
+    public EmulatorOptions setResponse(@NotNull Endpoint endpoint, @NotNull String response) {
+        this.responses.put(endpoint, response);
+        return this;
+    }
+
+    /**
+     * @param mediaLength The length of the generated media of static formats. Ignored if media is set with
+     *                    {@link #setMedia(byte[])}.
+     */
+    @NotNull
+    public EmulatorOptions setMediaLength(long mediaLength) {
+        this.mediaLength = mediaLength;
+        return this;
+    }
+
+    /**
+     * @param media The bytes to serve for every static format instead of generated ones, e.g. a real WebM file, so
+     *              that tracks can be decoded and not just downloaded.
+     */
+    @NotNull
+    public EmulatorOptions setMedia(@Nullable byte[] media) {
+        this.media = media;
+        return this;
+    }
+
+    /**
+     * Makes the player endpoint describe the given video as a livestream, which is served in segments.
+     */
+    @NotNull
+    public EmulatorOptions addLiveVideo(@NotNull String videoId) {
+        this.liveVideoIds.add(videoId);
+        return this;
+    }
+
+    /**
+     * @param liveSegmentDurationMs The target duration of live segments. A new segment becomes available this often.
+     */
+    @NotNull
+    public EmulatorOptions setLiveSegmentDurationMs(long liveSegmentDurationMs) {
+        this.liveSegmentDurationMs = liveSegmentDurationMs;
+        return this;
+    }
+
+    /**
+     * @param liveSegmentLength The length of the media data of generated live segments.
+     */
+    @NotNull
+    public EmulatorOptions setLiveSegmentLength(int liveSegmentLength) {
+        this.liveSegmentLength = liveSegmentLength;
+        return this;
+    }
+
+    /**
+     * @param liveSegmentTemplate A recorded live segment to serve instead of generated ones. Its event message box is
+     *                            replaced with one carrying the sequence number of each segment.
+     */
+    @NotNull
+    public EmulatorOptions setLiveSegmentTemplate(@Nullable byte[] liveSegmentTemplate) {
+        this.liveSegmentTemplate = liveSegmentTemplate;
+        return this;
+    }
+
+    @NotNull
+    public EmulatorOptions setSearchResultCount(int searchResultCount) {
+        this.searchResultCount = searchResultCount;
+        return this;
+    }
+
+    @NotNull
+    public EmulatorOptions setPlaylistLength(int playlistLength) {
+        this.playlistLength = playlistLength;
+        return this;
+    }
+
+    @NotNull
+    public EmulatorOptions setMixLength(int mixLength) {
+        this.mixLength = mixLength;
+        return this;
+    }
+}
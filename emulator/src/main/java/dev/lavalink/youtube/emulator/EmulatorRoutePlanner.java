@@ -0,0 +1,25 @@
+package dev.lavalink.youtube.emulator;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.routing.HttpRoutePlanner;
+import org.apache.http.conn.routing.RouteInfo;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Routes every request to the emulator as if it was a plain HTTP proxy, including requests to HTTPS URLs. They are
+ * sent unencrypted with their full URL in the request line, so the emulator sees which host they were meant for.
+ */
+class EmulatorRoutePlanner implements HttpRoutePlanner {
+    private final HttpHost emulator;
+
+    EmulatorRoutePlanner(HttpHost emulator) {
+        this.emulator = emulator;
+    }
+
+    @Override
+    public HttpRoute determineRoute(HttpHost target, HttpRequest request, HttpContext context) {
+        return new HttpRoute(target, null, emulator, false, RouteInfo.TunnelType.PLAIN, RouteInfo.LayerType.PLAIN);
+    }
+}
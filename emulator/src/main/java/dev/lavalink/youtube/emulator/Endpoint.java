@@ -0,0 +1,46 @@
+package dev.lavalink.youtube.emulator;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The YouTube endpoints served by the {@link InnertubeEmulator}.
+ */
+public enum Endpoint {
+    PLAYER,
+    SEARCH,
+    MUSIC_SEARCH,
+    BROWSE,
+    NEXT,
+    VISITOR_ID,
+    EMBED,
+    PLAYER_SCRIPT,
+    MEDIA,
+    UNKNOWN;
+
+    @NotNull
+    public static Endpoint forRequest(@Nullable String host, @Nullable String path) {
+        if (host == null || path == null) {
+            return UNKNOWN;
+        } else if (host.endsWith(".googlevideo.com")) {
+            return path.equals("/videoplayback") ? MEDIA : UNKNOWN;
+        } else if (path.startsWith("/youtubei/v1/")) {
+            String name = path.substring("/youtubei/v1/".length());
+
+            switch (name) {
+                case "player": return PLAYER;
+                case "search": return host.equals("music.youtube.com") ? MUSIC_SEARCH : SEARCH;
+                case "browse": return BROWSE;
+                case "next": return NEXT;
+                case "visitor_id": return VISITOR_ID;
+                default: return UNKNOWN;
+            }
+        } else if (path.startsWith("/embed/")) {
+            return EMBED;
+        } else if (path.startsWith("/s/player/") && path.endsWith("/base.js")) {
+            return PLAYER_SCRIPT;
+        }
+
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,163 @@
+package dev.lavalink.youtube.emulator;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The media served by the emulator: either the configured bytes or generated ones for static formats, and live
+ * segments that carry their sequence number in an event message ({@code emsg}) box the way YouTube's do.
+ * <p>
+ * Generated bytes are not decodable, they only exercise downloading. The byte at every position is fixed, so that
+ * ranges stitched together by a stream can be checked with {@link #byteAt(long)}.
+ */
+class FakeMedia {
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final String EVENT_SCHEME = "urn:youtube:live:seqnum";
+
+    private final EmulatorOptions options;
+
+    FakeMedia(@NotNull EmulatorOptions options) {
+        this.options = options;
+    }
+
+    static byte byteAt(long position) {
+        return (byte) ((position * 2654435761L) >>> 13);
+    }
+
+    long getLength() {
+        return options.getMediaLength();
+    }
+
+    /**
+     * Writes the bytes from {@code start} (inclusive) to {@code end} (exclusive).
+     */
+    void write(@NotNull OutputStream output, long start, long end) throws IOException {
+        byte[] media = options.getMedia();
+
+        if (media != null) {
+            output.write(media, (int) start, (int) (end - start));
+            return;
+        }
+
+        byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, end - start)];
+
+        for (long position = start; position < end; ) {
+            int length = (int) Math.min(chunk.length, end - position);
+
+            for (int i = 0; i < length; i++) {
+                chunk[i] = byteAt(position + i);
+            }
+
+            output.write(chunk, 0, length);
+            position += length;
+        }
+    }
+
+    @NotNull
+    byte[] getLiveSegment(long sequence) {
+        byte[] eventMessage = createEventMessage(sequence);
+        byte[] template = options.getLiveSegmentTemplate();
+
+        if (template != null) {
+            return replaceEventMessage(template, eventMessage);
+        }
+
+        int dataLength = options.getLiveSegmentLength();
+        ByteBuffer segment = ByteBuffer.allocate(eventMessage.length + 8 + dataLength);
+        segment.put(eventMessage);
+        segment.putInt(8 + dataLength).put("mdat".getBytes(StandardCharsets.US_ASCII));
+
+        long offset = sequence * dataLength;
+
+        for (int i = 0; i < dataLength; i++) {
+            segment.put(byteAt(offset + i));
+        }
+
+        return segment.array();
+    }
+
+    /**
+     * Creates a version 0 {@code emsg} box with the headers YouTube puts in the message of every live segment.
+     */
+    private byte[] createEventMessage(long sequence) {
+        long durationUs = TimeUnit.MILLISECONDS.toMicros(options.getLiveSegmentDurationMs());
+        long walltimeUs = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+
+        byte[] message = ("Sequence-Number: " + sequence + "\r\n" +
+            "Ingestion-Walltime-Us: " + walltimeUs + "\r\n" +
+            "Ingestion-Uncertainty-Us: 93\r\n" +
+            "Capture-Walltime-Us: " + walltimeUs + "\r\n" +
+            "Stream-Duration-Us: " + (sequence + 1) * durationUs + "\r\n" +
+            "Target-Duration-Us: " + durationUs + "\r\n" +
+            "Max-Dvr-Duration-Us: " + TimeUnit.HOURS.toMicros(12) + "\r\n" +
+            "Finished: F\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        byte[] scheme = EVENT_SCHEME.getBytes(StandardCharsets.US_ASCII);
+        int size = 8 + 4 + scheme.length + 1 + 2 + 16 + message.length;
+
+        ByteBuffer box = ByteBuffer.allocate(size);
+        box.putInt(size).put("emsg".getBytes(StandardCharsets.US_ASCII));
+        box.putInt(0); // version and flags
+        box.put(scheme).put((byte) 0);
+        box.put((byte) '1').put((byte) 0); // value
+        box.putInt(1000); // timescale
+        box.putInt(0); // presentation time delta
+        box.putInt((int) options.getLiveSegmentDurationMs()); // event duration
+        box.putInt((int) sequence); // id
+        box.put(message);
+        return box.array();
+    }
+
+    /**
+     * Replaces the top-level {@code emsg} box of a recorded segment, or puts one in front if it has none.
+     */
+    private static byte[] replaceEventMessage(byte[] segment, byte[] eventMessage) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(segment.length + eventMessage.length);
+        ByteBuffer buffer = ByteBuffer.wrap(segment);
+        boolean replaced = false;
+
+        while (buffer.remaining() >= 8) {
+            int start = buffer.position();
+            long size = buffer.getInt() & 0xFFFFFFFFL;
+            String type = new String(segment, start + 4, 4, StandardCharsets.US_ASCII);
+
+            if (size == 1 && buffer.remaining() >= 12) {
+                size = buffer.getLong(start + 8);
+            } else if (size == 0) {
+                size = segment.length - start;
+            }
+
+            if (size < 8 || start + size > segment.length) {
+                // not a box structure we understand, keep the rest as is.
+                buffer.position(start);
+                break;
+            }
+
+            if ("emsg".equals(type) && !replaced) {
+                output.write(eventMessage, 0, eventMessage.length);
+                replaced = true;
+            } else {
+                output.write(segment, start, (int) size);
+            }
+
+            buffer.position((int) (start + size));
+        }
+
+        output.write(segment, buffer.position(), buffer.remaining());
+
+        if (replaced) {
+            return output.toByteArray();
+        }
+
+        byte[] result = new byte[eventMessage.length + segment.length];
+        System.arraycopy(eventMessage, 0, result, 0, eventMessage.length);
+        System.arraycopy(segment, 0, result, eventMessage.length, segment.length);
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package dev.lavalink.youtube.emulator;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The latency and errors the {@link InnertubeEmulator} injects into the responses of an endpoint. Latency is added
+ * before the response headers are sent, so it shows up as time to first byte.
+ */
+public class Faults {
+    private long latencyMs = 0;
+    private long jitterMs = 0;
+    private double errorRate = 0;
+    private int errorStatusCode = 503;
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public long getJitterMs() {
+        return jitterMs;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public int getErrorStatusCode() {
+        return errorStatusCode;
+    }
+
+    /**
+     * @param latencyMs The minimum time to wait before responding.
+     */
+    @NotNull
+    public Faults setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+        return this;
+    }
+
+    /**
+     * @param jitterMs The maximum random time to wait on top of the latency.
+     */
+    @NotNull
+    public Faults setJitterMs(long jitterMs) {
+        this.jitterMs = jitterMs;
+        return this;
+    }
+
+    /**
+     * @param errorRate The fraction of requests, between 0 and 1, to respond to with the error status code.
+     */
+    @NotNull
+    public Faults setErrorRate(double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    @NotNull
+    public Faults setErrorStatusCode(int errorStatusCode) {
+        this.errorStatusCode = errorStatusCode;
+        return this;
+    }
+
+    void delay() throws InterruptedException {
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    boolean shouldFail() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+}
@@ -0,0 +1,511 @@
+package dev.lavalink.youtube.emulator;
+
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.lavalink.youtube.YoutubeAudioSourceManager;
+import org.apache.http.HttpHost;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local stand-in for the YouTube endpoints the source uses: the Innertube {@code player}, {@code search},
+ * {@code browse}, {@code next} and {@code visitor_id} endpoints, the embed page and player script used for deciphering,
+ * and media hosts serving static formats in ranges and livestreams in segments. Responses are rendered from the
+ * templates in the {@code emulator} resource directory, which follow the layout of recorded responses to the
+ * {@code ANDROID_VR} and {@code WEB_REMIX} clients, or from recorded responses set with
+ * {@link EmulatorOptions#setResponse}. Every endpoint can be slowed down and made to fail with {@link Faults}.
+ * <p>
+ * {@link #install(YoutubeAudioSourceManager)} routes all requests of a source manager to the emulator, so nothing in
+ * the source has to be pointed at it.
+ */
+public class InnertubeEmulator implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(InnertubeEmulator.class);
+
+    private static final String MEDIA_HOST = "rr1---sn-emulator.googlevideo.com";
+    private static final String PLAYER_VERSION = "e0d1ca57";
+    private static final String SIGNATURE_TIMESTAMP = "20082";
+    private static final String VISITOR_DATA = "CgtFbXVsYXRvcklkKMCAgIAGMgoKAkRFEgQSACAl";
+    private static final String SIGNATURE = "AOq0QJ8wRQIgSFxN3dNq2hVfTsGMSvFgPvBB4oXqLvwW1jeQy0fwlS0CIQCXN7bmT6Vg2pxsEsz0rlyAdkKm1NZ3k3MDfRx6HZi8EA==";
+    private static final String N_PARAMETER = "VWbLeBcvKaWuJQzfV";
+    private static final String CIPHERED_ITAG = "251";
+    // the bitrate of the emulated formats, which their duration is derived from.
+    private static final long BYTES_PER_SECOND = 16000;
+    private static final long LIVE_START_SEQUENCE = 1000;
+    private static final String VIDEO_ID_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private final EmulatorOptions options;
+    private final FakeMedia media;
+    private final LongAdder[] requestCounts;
+    private final Map<String, ResponseTemplate> templates = new HashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private long startTime;
+
+    public InnertubeEmulator() {
+        this(new EmulatorOptions());
+    }
+
+    public InnertubeEmulator(@NotNull EmulatorOptions options) {
+        this.options = options;
+        this.media = new FakeMedia(options);
+        this.requestCounts = new LongAdder[Endpoint.values().length];
+
+        for (int i = 0; i < requestCounts.length; i++) {
+            requestCounts[i] = new LongAdder();
+        }
+    }
+
+    @NotNull
+    public EmulatorOptions getOptions() {
+        return options;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Emulator has already been started");
+        }
+
+        loadTemplates();
+
+        executor = Executors.newCachedThreadPool(new DaemonThreadFactory("yt-emulator"));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), options.getPort()), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        startTime = System.currentTimeMillis();
+
+        log.info("Innertube emulator listening on {}", getAddress());
+    }
+
+    @NotNull
+    public synchronized InetSocketAddress getAddress() {
+        if (server == null) {
+            throw new IllegalStateException("Emulator has not been started");
+        }
+
+        return server.getAddress();
+    }
+
+    /**
+     * Routes every request of the source manager to this emulator. This replaces any route planner set before, e.g.
+     * one for IP rotation.
+     */
+    public void install(@NotNull YoutubeAudioSourceManager source) {
+        InetSocketAddress address = getAddress();
+        HttpHost emulator = new HttpHost(address.getHostString(), address.getPort(), "http");
+        source.getHttpInterfaceManager().configureBuilder(builder -> builder.setRoutePlanner(new EmulatorRoutePlanner(emulator)));
+    }
+
+    /**
+     * @return The amount of requests made to the endpoint, including ones that failed due to injected faults.
+     */
+    public long getRequestCount(@NotNull Endpoint endpoint) {
+        return requestCounts[endpoint.ordinal()].sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void loadTemplates() {
+        loadTemplate(Endpoint.PLAYER, "player.json");
+        loadTemplate(null, "player-live.json");
+        loadTemplate(Endpoint.SEARCH, "search.json");
+        loadTemplate(null, "search-item.json");
+        loadTemplate(Endpoint.MUSIC_SEARCH, "music-search.json");
+        loadTemplate(null, "music-search-item.json");
+        loadTemplate(Endpoint.BROWSE, "browse.json");
+        loadTemplate(null, "browse-item.json");
+        loadTemplate(Endpoint.NEXT, "next.json");
+        loadTemplate(null, "next-item.json");
+        loadTemplate(Endpoint.VISITOR_ID, "visitor-id.json");
+        loadTemplate(Endpoint.EMBED, "embed.html");
+        loadTemplate(Endpoint.PLAYER_SCRIPT, "base.js");
+    }
+
+    private void loadTemplate(Endpoint endpoint, String name) {
+        String recorded = endpoint != null ? options.getResponse(endpoint) : null;
+        templates.put(name, recorded != null ? ResponseTemplate.of(recorded) : ResponseTemplate.load(name));
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            URI uri = exchange.getRequestURI();
+            Endpoint endpoint = Endpoint.forRequest(getHost(exchange), uri.getPath());
+            requestCounts[endpoint.ordinal()].increment();
+
+            Faults faults = options.getFaults(endpoint);
+            faults.delay();
+
+            if (faults.shouldFail()) {
+                exchange.sendResponseHeaders(faults.getErrorStatusCode(), -1);
+                return;
+            }
+
+            switch (endpoint) {
+                case PLAYER:
+                    handlePlayer(exchange);
+                    break;
+                case SEARCH:
+                    handleSearch(exchange, "search.json", "search-item.json", options.getSearchResultCount());
+                    break;
+                case MUSIC_SEARCH:
+                    handleSearch(exchange, "music-search.json", "music-search-item.json", options.getSearchResultCount());
+                    break;
+                case BROWSE:
+                    handleBrowse(exchange);
+                    break;
+                case NEXT:
+                    handleNext(exchange);
+                    break;
+                case VISITOR_ID:
+                    sendText(exchange, "application/json; charset=UTF-8", render("visitor-id.json", newValues()));
+                    break;
+                case EMBED:
+                    sendText(exchange, "text/html; charset=UTF-8", render("embed.html", newValues()));
+                    break;
+                case PLAYER_SCRIPT:
+                    sendText(exchange, "text/javascript; charset=UTF-8", render("base.js", newValues()));
+                    break;
+                case MEDIA:
+                    handleMedia(exchange);
+                    break;
+                default:
+                    log.debug("No emulated endpoint for {}", uri);
+                    exchange.sendResponseHeaders(404, -1);
+                    break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to respond to {}", exchange.getRequestURI(), e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handlePlayer(HttpExchange exchange) throws IOException {
+        String videoId = readBody(exchange).get("videoId").text();
+
+        if (videoId == null) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+
+        Map<String, String> values = newValues();
+        values.put("videoId", videoId);
+
+        if (options.isLiveVideo(videoId)) {
+            values.put("aacUrl", getMediaUrl(videoId, "140", "audio/mp4", true));
+            values.put("targetDurationSec", String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(options.getLiveSegmentDurationMs()))));
+            sendText(exchange, "application/json; charset=UTF-8", render("player-live.json", values));
+            return;
+        }
+
+        long lengthSeconds = getLengthSeconds();
+        values.put("contentLength", String.valueOf(media.getLength()));
+        values.put("lengthSeconds", String.valueOf(lengthSeconds));
+        values.put("durationMs", String.valueOf(TimeUnit.SECONDS.toMillis(lengthSeconds)));
+        values.put("aacUrl", getMediaUrl(videoId, "140", "audio/mp4", false));
+        values.put("opusSignatureCipher", "s=" + encode(SIGNATURE) + "&sp=sig&url=" + encode(getMediaUrl(videoId, CIPHERED_ITAG, "audio/webm", false)));
+        sendText(exchange, "application/json; charset=UTF-8", render("player.json", values));
+    }
+
+    private void handleSearch(HttpExchange exchange, String template, String itemTemplate, int count) throws IOException {
+        String query = readBody(exchange).get("query").safeText();
+        Map<String, String> values = newValues();
+        values.put("items", renderItems(itemTemplate, query, count));
+        sendText(exchange, "application/json; charset=UTF-8", render(template, values));
+    }
+
+    private void handleBrowse(HttpExchange exchange) throws IOException {
+        String browseId = readBody(exchange).get("browseId").safeText();
+        String playlistId = browseId.startsWith("VL") ? browseId.substring(2) : browseId;
+
+        Map<String, String> values = newValues();
+        values.put("playlistId", playlistId);
+        values.put("items", renderItems("browse-item.json", playlistId, options.getPlaylistLength()));
+        sendText(exchange, "application/json; charset=UTF-8", render("browse.json", values));
+    }
+
+    private void handleNext(HttpExchange exchange) throws IOException {
+        JsonBrowser body = readBody(exchange);
+        String videoId = body.get("videoId").safeText();
+        String playlistId = body.get("playlistId").safeText();
+
+        Map<String, String> values = newValues();
+        values.put("videoId", videoId);
+        values.put("playlistId", playlistId);
+        values.put("items", renderItems("next-item.json", playlistId, options.getMixLength()));
+        sendText(exchange, "application/json; charset=UTF-8", render("next.json", values));
+    }
+
+    private void handleMedia(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if ("1".equals(query.get("live"))) {
+            handleLiveSegment(exchange, query);
+            return;
+        }
+
+        if (CIPHERED_ITAG.equals(query.get("itag")) && !query.containsKey("sig")) {
+            // like YouTube, refuse ciphered formats whose signature wasn't deciphered.
+            exchange.sendResponseHeaders(403, -1);
+            return;
+        }
+
+        long length = media.getLength();
+        long start = 0;
+        long end = length;
+        int statusCode = 200;
+
+        String range = query.get("range");
+        String rangeHeader = exchange.getRequestHeaders().getFirst("Range");
+
+        try {
+            if (range != null) {
+                // the range parameter is inclusive, and YouTube clamps its end to the content length.
+                int separator = range.indexOf('-');
+                start = Long.parseLong(range.substring(0, separator));
+                end = Math.min(Long.parseLong(range.substring(separator + 1)) + 1, length);
+            } else if (rangeHeader != null && rangeHeader.startsWith("bytes=")) {
+                String[] bounds = rangeHeader.substring("bytes=".length()).split("-", 2);
+                start = Long.parseLong(bounds[0]);
+                end = bounds[1].isEmpty() ? length : Math.min(Long.parseLong(bounds[1]) + 1, length);
+                statusCode = 206;
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+
+        if (start >= end) {
+            exchange.sendResponseHeaders(416, -1);
+            return;
+        }
+
+        String mime = query.get("mime");
+        exchange.getResponseHeaders().set("Content-Type", mime != null ? mime : "application/octet-stream");
+
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(statusCode, end - start);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            media.write(output, start, end);
+        }
+    }
+
+    private void handleLiveSegment(HttpExchange exchange, Map<String, String> query) throws IOException {
+        long head = LIVE_START_SEQUENCE + (System.currentTimeMillis() - startTime) / options.getLiveSegmentDurationMs();
+        String requested = query.get("sq");
+        long sequence;
+
+        try {
+            sequence = requested != null ? Long.parseLong(requested) : head;
+        } catch (NumberFormatException e) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("X-Head-Seqnum", String.valueOf(head));
+        exchange.getResponseHeaders().set("X-Sequence-Num", String.valueOf(sequence));
+
+        if (sequence > head) {
+            // not available yet.
+            exchange.sendResponseHeaders(204, -1);
+            return;
+        }
+
+        byte[] segment = media.getLiveSegment(sequence);
+        exchange.getResponseHeaders().set("Content-Type", "audio/mp4");
+
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(200, segment.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(segment);
+        }
+    }
+
+    private String renderItems(String template, String seed, int count) {
+        ResponseTemplate item = templates.get(template);
+        long lengthSeconds = getLengthSeconds();
+        String lengthText = String.format("%d:%02d", lengthSeconds / 60, lengthSeconds % 60);
+
+        StringBuilder builder = new StringBuilder();
+        Map<String, String> values = newValues();
+        values.put("lengthSeconds", String.valueOf(lengthSeconds));
+        values.put("lengthText", lengthText);
+
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            String videoId = getVideoId(seed, i);
+            values.put("videoId", videoId);
+            values.put("title", "Emulated track " + videoId);
+            values.put("index", String.valueOf(i + 1));
+            item.render(values, builder);
+        }
+
+        return builder.toString();
+    }
+
+    private String render(String template, Map<String, String> values) {
+        return templates.get(template).render(values);
+    }
+
+    private Map<String, String> newValues() {
+        Map<String, String> values = new HashMap<>();
+        values.put("visitorData", VISITOR_DATA);
+        values.put("playerVersion", PLAYER_VERSION);
+        values.put("signatureTimestamp", SIGNATURE_TIMESTAMP);
+        return values;
+    }
+
+    private long getLengthSeconds() {
+        return Math.max(1, media.getLength() / BYTES_PER_SECOND);
+    }
+
+    private String getMediaUrl(String videoId, String itag, String mime, boolean live) {
+        long expire = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.HOURS.toSeconds(6);
+
+        StringBuilder url = new StringBuilder("https://").append(MEDIA_HOST).append("/videoplayback")
+            .append("?expire=").append(expire)
+            .append("&ei=ZW11bGF0b3I&id=o-").append(videoId)
+            .append("&itag=").append(itag)
+            .append("&source=").append(live ? "yt_live_broadcast" : "youtube")
+            .append("&requiressl=yes&mime=").append(encode(mime));
+
+        if (live) {
+            url.append("&live=1&hang=1&noclen=1");
+        } else {
+            url.append("&clen=").append(media.getLength()).append("&dur=").append(getLengthSeconds()).append(".000");
+        }
+
+        return url.append("&c=ANDROID_VR&n=").append(N_PARAMETER)
+            .append("&sparams=expire%2Cei%2Cid%2Citag%2Csource%2Crequiressl%2Cmime")
+            .append("&lsparams=mh%2Cmm%2Cmn%2Cms%2Cmv%2Cmvi%2Cpl&lsig=AGluJ3MwRQIhAKemulator")
+            .toString();
+    }
+
+    /**
+     * @return A video ID that is always the same for the same seed and index.
+     */
+    private static String getVideoId(String seed, int index) {
+        Random random = new Random(seed.hashCode() * 31L + index);
+        char[] id = new char[11];
+
+        for (int i = 0; i < id.length; i++) {
+            id[i] = VIDEO_ID_CHARACTERS.charAt(random.nextInt(VIDEO_ID_CHARACTERS.length()));
+        }
+
+        return new String(id);
+    }
+
+    private static String getHost(HttpExchange exchange) {
+        String host = exchange.getRequestURI().getHost();
+
+        if (host == null) {
+            host = exchange.getRequestHeaders().getFirst("Host");
+
+            if (host != null && host.indexOf(':') != -1) {
+                host = host.substring(0, host.indexOf(':'));
+            }
+        }
+
+        return host;
+    }
+
+    private static JsonBrowser readBody(HttpExchange exchange) throws IOException {
+        return JsonBrowser.parse(exchange.getRequestBody());
+    }
+
+    private static void sendText(HttpExchange exchange, String contentType, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+
+        if (query == null) {
+            return parameters;
+        }
+
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+
+            if (separator == -1) {
+                parameters.put(decode(parameter), "");
+            } else {
+                parameters.put(decode(parameter.substring(0, separator)), decode(parameter.substring(separator + 1)));
+            }
+        }
+
+        return parameters;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
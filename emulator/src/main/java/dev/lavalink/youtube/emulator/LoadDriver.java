@@ -0,0 +1,370 @@
+package dev.lavalink.youtube.emulator;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import dev.lavalink.youtube.CannotBeLoaded;
+import dev.lavalink.youtube.YoutubeAudioSourceManager;
+import dev.lavalink.youtube.clients.AndroidVr;
+import dev.lavalink.youtube.clients.Music;
+import dev.lavalink.youtube.clients.Tv;
+import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.track.RenewableStreamUrl;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import dev.lavalink.youtube.track.format.TrackFormats;
+import dev.lavalink.youtube.track.timeline.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads items and plays tracks against a source manager from a number of threads at once, and reports the throughput
+ * and latency of loading and the throughput of playback. Meant to be run against an {@link InnertubeEmulator}, so that
+ * changes to the source can be compared without depending on YouTube.
+ * <p>
+ * Playback reads every byte of the best format of a track through the streams used by {@link
+ * dev.lavalink.youtube.track.YoutubeAudioTrack}, including deciphering its URL, but does not decode it, as the media
+ * served by the emulator is not real audio. Livestreams are loaded but not played.
+ */
+public class LoadDriver {
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    public static final List<String> DEFAULT_IDENTIFIERS = Arrays.asList(
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+        "ytsearch:emulated search",
+        "ytmsearch:emulated music search",
+        "https://www.youtube.com/playlist?list=PLemulatedPlaylist0000000000000000",
+        "https://www.youtube.com/watch?v=dQw4w9WgXcQ&list=RDdQw4w9WgXcQ"
+    );
+
+    private final AudioPlayerManager manager;
+    private final YoutubeAudioSourceManager source;
+    private final List<String> identifiers;
+
+    public LoadDriver(@NotNull AudioPlayerManager manager,
+                      @NotNull YoutubeAudioSourceManager source,
+                      @NotNull List<String> identifiers) {
+        if (identifiers.isEmpty()) {
+            throw new IllegalArgumentException("At least one identifier is required");
+        }
+
+        this.manager = manager;
+        this.source = source;
+        this.identifiers = identifiers;
+    }
+
+    /**
+     * Runs the load for the given duration.
+     * @param concurrency The amount of threads loading (and playing) at once.
+     * @param durationMs How long to run for.
+     * @param playback Whether to play the first track of every loaded item.
+     */
+    @NotNull
+    public Report run(int concurrency, long durationMs, boolean playback) throws InterruptedException {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+
+        Report report = new Report(concurrency);
+        AtomicInteger next = new AtomicInteger();
+        long deadline = System.currentTimeMillis() + durationMs;
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, new DaemonThreadFactory("yt-load-driver"));
+
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted()) {
+                    String identifier = identifiers.get(Math.floorMod(next.getAndIncrement(), identifiers.size()));
+                    AudioTrack track = load(identifier, report);
+
+                    if (playback && track != null && !track.getInfo().isStream) {
+                        play(track, report);
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+
+        if (!executor.awaitTermination(durationMs + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            log.warn("Load driver threads did not finish in time, interrupting them");
+            executor.shutdownNow();
+        }
+
+        report.finish();
+        return report;
+    }
+
+    @Nullable
+    private AudioTrack load(String identifier, Report report) {
+        long start = System.nanoTime();
+
+        try {
+            AudioItem item = source.loadItem(manager, new AudioReference(identifier, null));
+            report.loads.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            if (item instanceof AudioTrack) {
+                return (AudioTrack) item;
+            } else if (item instanceof AudioPlaylist && !((AudioPlaylist) item).getTracks().isEmpty()) {
+                return ((AudioPlaylist) item).getTracks().get(0);
+            }
+
+            report.loadFailures.increment();
+        } catch (RuntimeException e) {
+            log.debug("Failed to load {}", identifier, e);
+            report.loadFailures.increment();
+        }
+
+        return null;
+    }
+
+    private void play(AudioTrack track, Report report) {
+        String videoId = track.getIdentifier();
+        long start = System.nanoTime();
+
+        try (HttpInterface httpInterface = source.getInterface()) {
+            Client client = getPlaybackClient();
+            TrackFormats formats = client.loadFormats(source, httpInterface, videoId);
+
+            if (formats == null) {
+                report.playbackFailures.increment();
+                return;
+            }
+
+            StreamFormat format = formats.getBestFormat(source.getFormatSelector());
+            URI resolvedUrl = client.requirePlayerScript()
+                ? source.getCipherManager().resolveFormatUrl(httpInterface, formats.getPlayerScriptUrl(), format)
+                : format.getUrl();
+            URI playbackUrl = client.transformPlaybackUri(format.getUrl(), resolvedUrl);
+
+            try (SeekableInputStream stream = source.createStaticStream(httpInterface, videoId, format, new RenewableStreamUrl(playbackUrl, null))) {
+                long bytes = drain(stream, start, report);
+                report.playbackBytes.add(bytes);
+                report.playbacks.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } catch (IOException | RuntimeException | CannotBeLoaded e) {
+            log.debug("Failed to play {}", videoId, e);
+            report.playbackFailures.increment();
+        }
+    }
+
+    /**
+     * @return The first client that can load formats and needs the player script, so playback also exercises
+     * deciphering, or otherwise the first client that can load formats at all.
+     */
+    private Client getPlaybackClient() {
+        Client fallback = null;
+
+        for (Client client : source.getClients()) {
+            if (!client.supportsFormatLoading()) {
+                continue;
+            }
+
+            if (client.requirePlayerScript()) {
+                return client;
+            } else if (fallback == null) {
+                fallback = client;
+            }
+        }
+
+        if (fallback == null) {
+            throw new IllegalStateException("No client of the source manager supports loading formats");
+        }
+
+        return fallback;
+    }
+
+    private static long drain(InputStream stream, long start, Report report) throws IOException {
+        byte[] buffer = new byte[16384];
+        long total = 0;
+        int read;
+
+        while ((read = stream.read(buffer)) != -1) {
+            if (total == 0 && read > 0) {
+                report.firstBytes.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+
+            total += read;
+        }
+
+        return total;
+    }
+
+    /**
+     * The results of a run. Load latency covers {@code loadItem}, playback latency covers loading formats, resolving the
+     * stream URL and reading the whole format, and time to first byte ends when the first bytes of the format are read.
+     */
+    public static class Report {
+        private final int concurrency;
+        private final long startTime = System.nanoTime();
+        private final LatencyHistogram loads = new LatencyHistogram();
+        private final LatencyHistogram playbacks = new LatencyHistogram();
+        private final LatencyHistogram firstBytes = new LatencyHistogram();
+        private final LongAdder loadFailures = new LongAdder();
+        private final LongAdder playbackFailures = new LongAdder();
+        private final LongAdder playbackBytes = new LongAdder();
+        private long durationNanos;
+
+        private Report(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        private void finish() {
+            durationNanos = System.nanoTime() - startTime;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public long getDurationMs() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        @NotNull
+        public LatencyHistogram getLoadLatency() {
+            return loads;
+        }
+
+        @NotNull
+        public LatencyHistogram getPlaybackLatency() {
+            return playbacks;
+        }
+
+        @NotNull
+        public LatencyHistogram getTimeToFirstByte() {
+            return firstBytes;
+        }
+
+        public long getLoadFailures() {
+            return loadFailures.sum();
+        }
+
+        public long getPlaybackFailures() {
+            return playbackFailures.sum();
+        }
+
+        public long getPlaybackBytes() {
+            return playbackBytes.sum();
+        }
+
+        public double getLoadsPerSecond() {
+            return perSecond(loads.getCount());
+        }
+
+        public double getPlaybacksPerSecond() {
+            return perSecond(playbacks.getCount());
+        }
+
+        public double getPlaybackMegabytesPerSecond() {
+            return perSecond(getPlaybackBytes()) / (1024 * 1024);
+        }
+
+        private double perSecond(long amount) {
+            return durationNanos > 0 ? amount * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "concurrency %d, %d ms%n" +
+                    "loadItem:  %d ok, %d failed, %.1f/s, %s%n" +
+                    "playback:  %d ok, %d failed, %.1f/s, %.1f MiB/s, %s%n" +
+                    "first byte: %s",
+                concurrency, getDurationMs(),
+                loads.getCount(), getLoadFailures(), getLoadsPerSecond(), quantiles(loads),
+                playbacks.getCount(), getPlaybackFailures(), getPlaybacksPerSecond(), getPlaybackMegabytesPerSecond(), quantiles(playbacks),
+                quantiles(firstBytes));
+        }
+
+        private static String quantiles(LatencyHistogram histogram) {
+            return String.format(Locale.ROOT, "p50 <= %d ms, p90 <= %d ms, p99 <= %d ms",
+                histogram.getQuantileUpperBoundMs(0.5),
+                histogram.getQuantileUpperBoundMs(0.9),
+                histogram.getQuantileUpperBoundMs(0.99));
+        }
+    }
+
+    /**
+     * Starts an emulator and runs the load against it. Arguments:
+     * {@code [--concurrency N] [--duration SECONDS] [--latency MS] [--jitter MS] [--error-rate 0..1] [--no-playback]
+     * [identifier...]}
+     */
+    public static void main(String[] args) throws Exception {
+        int concurrency = 8;
+        long durationMs = TimeUnit.SECONDS.toMillis(30);
+        boolean playback = true;
+        Faults faults = new Faults();
+        List<String> identifiers = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--concurrency":
+                    concurrency = Integer.parseInt(args[++i]);
+                    break;
+                case "--duration":
+                    durationMs = TimeUnit.SECONDS.toMillis(Long.parseLong(args[++i]));
+                    break;
+                case "--latency":
+                    faults.setLatencyMs(Long.parseLong(args[++i]));
+                    break;
+                case "--jitter":
+                    faults.setJitterMs(Long.parseLong(args[++i]));
+                    break;
+                case "--error-rate":
+                    faults.setErrorRate(Double.parseDouble(args[++i]));
+                    break;
+                case "--no-playback":
+                    playback = false;
+                    break;
+                default:
+                    identifiers.add(args[i]);
+                    break;
+            }
+        }
+
+        try (InnertubeEmulator emulator = new InnertubeEmulator(new EmulatorOptions().setFaults(faults))) {
+            emulator.start();
+
+            YoutubeAudioSourceManager source = new YoutubeAudioSourceManager(new Music(), new AndroidVr(), new Tv());
+            emulator.install(source);
+
+            AudioPlayerManager manager = new DefaultAudioPlayerManager();
+            manager.registerSourceManager(source);
+
+            LoadDriver driver = new LoadDriver(manager, source, identifiers.isEmpty() ? DEFAULT_IDENTIFIERS : identifiers);
+            Report report = driver.run(concurrency, durationMs, playback);
+            System.out.println(report);
+
+            for (Endpoint endpoint : Endpoint.values()) {
+                long count = emulator.getRequestCount(endpoint);
+
+                if (count > 0) {
+                    System.out.printf(Locale.ROOT, "%-14s %d requests%n", endpoint, count);
+                }
+            }
+
+            manager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package dev.lavalink.youtube.emulator;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response body with {@code ${name}} placeholders. The template is split into parts once, so rendering only appends
+ * them. Placeholders without a value are left as they are.
+ */
+class ResponseTemplate {
+    private final List<String> literals = new ArrayList<>();
+    private final List<String> placeholders = new ArrayList<>();
+
+    private ResponseTemplate(String text) {
+        int position = 0;
+        int start;
+
+        while ((start = text.indexOf("${", position)) != -1) {
+            int end = text.indexOf('}', start);
+
+            if (end == -1) {
+                break;
+            }
+
+            literals.add(text.substring(position, start));
+            placeholders.add(text.substring(start + 2, end));
+            position = end + 1;
+        }
+
+        literals.add(text.substring(position));
+    }
+
+    @NotNull
+    static ResponseTemplate of(@NotNull String text) {
+        return new ResponseTemplate(text);
+    }
+
+    /**
+     * @param name The name of a file in the {@code emulator} resource directory.
+     */
+    @NotNull
+    static ResponseTemplate load(@NotNull String name) {
+        try (InputStream stream = ResponseTemplate.class.getResourceAsStream("/emulator/" + name)) {
+            if (stream == null) {
+                throw new IllegalArgumentException("No response template named " + name);
+            }
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+
+            return new ResponseTemplate(new String(output.toByteArray(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @NotNull
+    String render(@NotNull Map<String, String> values) {
+        StringBuilder builder = new StringBuilder();
+        render(values, builder);
+        return builder.toString();
+    }
+
+    void render(@NotNull Map<String, String> values, @NotNull StringBuilder builder) {
+        for (int i = 0; i < placeholders.size(); i++) {
+            builder.append(literals.get(i));
+
+            String name = placeholders.get(i);
+            String value = values.get(name);
+
+            if (value != null) {
+                builder.append(value);
+            } else {
+                builder.append("${").append(name).append('}');
+            }
+        }
+
+        builder.append(literals.get(literals.size() - 1));
+    }
+}
@@ -0,0 +1,7 @@
+var _yt_player={};(function(g){var window=this;'use strict';
+var Nx="split join length push splice reverse unshift indexOf ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_ ".split(" ");
+var vT={Ke:function(a){a[Nx[5]]()},bz:function(a,b){var c=a[0];a[0]=a[b%a[Nx[2]]];a[b%a[Nx[2]]]=c},f3:function(a,b){a[Nx[4]](0,b)}};
+var Xq=function(a){a=a[Nx[0]](Nx[9]);vT.f3(a,1);vT.Ke(a,45);vT.bz(a,39);vT.f3(a,3);vT.bz(a,58);vT.Ke(a,8);vT.bz(a,17);vT.f3(a,2);return a[Nx[1]](Nx[9])};
+var Dma=function(a){var b=a[Nx[0]](Nx[9]),c=[-1512394883,function(d){d[Nx[5]]()},Nx[8],function(d,e){e=(e%d[Nx[2]]+d[Nx[2]])%d[Nx[2]];d[Nx[4]](-e)[Nx[5]]().forEach(function(f){d[Nx[6]](f)})},1823466110,function(d,e){e=(e%d[Nx[2]]+d[Nx[2]])%d[Nx[2]];var f=d[0];d[0]=d[e];d[e]=f},function(d,e,f){d.forEach(function(h,l,m){this[Nx[3]](m[l]=f[(f[Nx[7]](h)-f[Nx[7]](this[l])+64)%f[Nx[2]]])},e[Nx[0]](Nx[9]))},function(d,e){e=(e%d[Nx[2]]+d[Nx[2]])%d[Nx[2]];d[Nx[4]](e,1)},b,"Dz7qP",-1038776441,function(d){for(var e=d[Nx[2]];e;)d[Nx[3]](d[Nx[4]](--e,1)[0])},409257651];try{c[3](c[8],c[0]);c[5](c[8],c[4]);c[6](c[8],c[9],c[2]);c[1](c[8]);c[7](c[8],c[10]);c[11](c[8]);c[3](c[8],c[12]);c[5](c[8],c[10]);c[6](c[8],c[9],c[2]);c[7](c[8],c[4]);c[1](c[8]);c[11](c[8]);c[5](c[8],c[0])}catch(d){return"enhanced_except_"+a}return b[Nx[1]](Nx[9])};
+g.Yz=function(a,b){this.config={signatureTimestamp:${signatureTimestamp},sts:${signatureTimestamp}};this.sig=Xq;this.n=Dma};
+})(_yt_player);
@@ -25,10 +25,15 @@ dependencies {
     implementation(projects.v2)
     compileOnly(libs.lavalink.server)
     compileOnly(libs.lavaplayer.ext.youtube.rotator)
+    compileOnly(libs.prometheus.simpleclient)
     implementation(libs.rhino.engine)
     implementation(libs.nanojson)
     compileOnly(libs.slf4j)
     compileOnly(libs.annotations)
+
+    testImplementation(libs.lavaplayer.v1)
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.11.0-M1")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.11.0-M1")
 }
 
 java {
@@ -53,4 +58,7 @@ tasks {
             )
         )
     }
+    test {
+        useJUnitPlatform()
+    }
 }
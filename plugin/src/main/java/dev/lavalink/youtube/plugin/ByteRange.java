@@ -0,0 +1,58 @@
+package dev.lavalink.youtube.plugin;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A single, inclusive byte range requested with the Range header.
+ */
+class ByteRange {
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    final long start;
+    final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return The requested range, {@link #UNSATISFIABLE} if it lies outside the content, or {@code null} if the
+     * whole content should be sent, which is also the case for malformed or multi-range requests.
+     */
+    @Nullable
+    static ByteRange parse(@Nullable String header, long contentLength) {
+        if (header == null || contentLength <= 0 || !header.startsWith("bytes=") || header.contains(",")) {
+            return null;
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int separator = spec.indexOf('-');
+
+        if (separator == -1) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, separator).trim();
+            String last = spec.substring(separator + 1).trim();
+
+            if (first.isEmpty()) {
+                // suffix range, the last n bytes.
+                long suffix = Long.parseLong(last);
+                return suffix <= 0 ? UNSATISFIABLE : new ByteRange(Math.max(0, contentLength - suffix), contentLength - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? contentLength - 1 : Math.min(Long.parseLong(last), contentLength - 1);
+
+            if (start >= contentLength) {
+                return UNSATISFIABLE;
+            }
+
+            return end < start ? null : new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
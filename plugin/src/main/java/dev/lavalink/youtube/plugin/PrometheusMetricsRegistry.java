@@ -0,0 +1,92 @@
+package dev.lavalink.youtube.plugin;
+
+import dev.lavalink.youtube.metrics.MetricsRegistry;
+import dev.lavalink.youtube.track.timeline.LatencyHistogram;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Histogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports the metrics of the source to Prometheus, which Lavalink serves on {@code /metrics} when
+ * {@code metrics.prometheus.enabled} is set. Dots in metric names are replaced with underscores, and timers are
+ * exposed as histograms in seconds.
+ */
+public class PrometheusMetricsRegistry implements MetricsRegistry {
+    private static final double[] BUCKETS_SECONDS = new double[LatencyHistogram.BUCKET_BOUNDS_MS.length];
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    static {
+        for (int i = 0; i < BUCKETS_SECONDS.length; i++) {
+            BUCKETS_SECONDS[i] = LatencyHistogram.BUCKET_BOUNDS_MS[i] / 1000.0;
+        }
+    }
+
+    private final CollectorRegistry registry;
+    private final Map<String, io.prometheus.client.Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public PrometheusMetricsRegistry() {
+        this(CollectorRegistry.defaultRegistry);
+    }
+
+    public PrometheusMetricsRegistry(@NotNull CollectorRegistry registry) {
+        this.registry = registry;
+    }
+
+    @NotNull
+    @Override
+    public Counter counter(@NotNull String name, @NotNull String description, @NotNull String... tags) {
+        // MetricsRegistry.Counter shadows the Prometheus counter in here.
+        io.prometheus.client.Counter counter = counters.computeIfAbsent(name, unused -> io.prometheus.client.Counter.build()
+            .name(getName(name))
+            .help(description)
+            .labelNames(getLabelNames(tags))
+            .register(registry));
+
+        io.prometheus.client.Counter.Child child = counter.labels(getLabelValues(tags));
+        return child::inc;
+    }
+
+    @NotNull
+    @Override
+    public Timer timer(@NotNull String name, @NotNull String description, @NotNull String... tags) {
+        Histogram histogram = histograms.computeIfAbsent(name, unused -> Histogram.build()
+            .name(getName(name) + "_seconds")
+            .help(description)
+            .labelNames(getLabelNames(tags))
+            .buckets(BUCKETS_SECONDS)
+            .register(registry));
+
+        Histogram.Child child = histogram.labels(getLabelValues(tags));
+        return nanos -> child.observe(nanos / NANOS_PER_SECOND);
+    }
+
+    private static String getName(String name) {
+        return name.replace('.', '_');
+    }
+
+    private static String[] getLabelNames(String[] tags) {
+        return getTagParts(tags, 0);
+    }
+
+    private static String[] getLabelValues(String[] tags) {
+        return getTagParts(tags, 1);
+    }
+
+    private static String[] getTagParts(String[] tags, int offset) {
+        if (tags.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags must be pairs of keys and values");
+        }
+
+        String[] parts = new String[tags.length / 2];
+
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = tags[i * 2 + offset];
+        }
+
+        return parts;
+    }
+}
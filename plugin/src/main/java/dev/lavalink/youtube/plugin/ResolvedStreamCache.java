@@ -0,0 +1,181 @@
+package dev.lavalink.youtube.plugin;
+
+import dev.lavalink.youtube.track.RenewableStreamUrl;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the signed URLs resolved by the stream endpoint, keyed by video, requested itag and requested client, until
+ * shortly before they expire. Concurrent requests for the same key share a single resolution: the first one resolves
+ * the stream while the others wait for its result.
+ */
+public class ResolvedStreamCache {
+    // streams are opened a while after being looked up, so they must not expire right after.
+    private static final long EXPIRY_MARGIN = TimeUnit.MINUTES.toMillis(1);
+    private static final long MAX_TTL = TimeUnit.HOURS.toMillis(1);
+    private static final long RESOLUTION_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+    static final int MAX_ENTRIES = 1024;
+
+    private final Map<String, CompletableFuture<ResolvedStream>> entries = new ConcurrentHashMap<>();
+
+    @NotNull
+    public static String getKey(@NotNull String videoId, @Nullable Integer itag, @Nullable String clientIdentifier) {
+        return videoId + "-" + (itag != null ? itag : "best") + "-" + (clientIdentifier != null ? clientIdentifier.toUpperCase() : "any");
+    }
+
+    /**
+     * @return A lookup that either holds the cached stream, or has to be completed by the caller once it has
+     * resolved the stream.
+     */
+    @NotNull
+    public Lookup lookup(@NotNull String key) {
+        if (entries.size() >= MAX_ENTRIES && !entries.containsKey(key)) {
+            makeRoom();
+        }
+
+        while (true) {
+            CompletableFuture<ResolvedStream> claim = new CompletableFuture<>();
+            CompletableFuture<ResolvedStream> existing = entries.putIfAbsent(key, claim);
+
+            if (existing == null) {
+                return new Lookup(key, claim, true);
+            } else if (isExpired(existing)) {
+                entries.remove(key, existing);
+            } else {
+                return new Lookup(key, existing, false);
+            }
+        }
+    }
+
+    /**
+     * Removes a cached stream, e.g. because its URL was rejected.
+     */
+    public void invalidate(@NotNull String key, @NotNull ResolvedStream stream) {
+        CompletableFuture<ResolvedStream> entry = entries.get(key);
+
+        if (entry != null && entry.isDone() && entry.getNow(null) == stream) {
+            entries.remove(key, entry);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        entries.values().removeIf(ResolvedStreamCache::isExpired);
+
+        if (entries.size() >= MAX_ENTRIES) {
+            // nothing has expired, so drop the resolved streams that expire soonest. streams that are still being
+            // resolved are kept, so their followers still get the result.
+            entries.entrySet().stream()
+                .filter(entry -> entry.getValue().isDone() && entry.getValue().getNow(null) != null)
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().getNow(null).expiresAt))
+                .limit(entries.size() - MAX_ENTRIES + 1)
+                .collect(Collectors.toList())
+                .forEach(entry -> entries.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private static boolean isExpired(CompletableFuture<ResolvedStream> entry) {
+        if (!entry.isDone()) {
+            return false;
+        }
+
+        ResolvedStream stream = entry.getNow(null);
+        return stream == null || System.currentTimeMillis() >= stream.expiresAt;
+    }
+
+    public class Lookup {
+        private final String key;
+        private final CompletableFuture<ResolvedStream> future;
+        private final boolean leader;
+
+        private Lookup(String key, CompletableFuture<ResolvedStream> future, boolean leader) {
+            this.key = key;
+            this.future = future;
+            this.leader = leader;
+        }
+
+        /**
+         * @return Whether the caller is responsible for resolving the stream, and no cached stream is available.
+         */
+        public boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * @return A future that completes once the request resolving the stream is done, with the resolved stream,
+         * or with {@code null} if resolving it failed or is taking too long. For the leader it is already completed
+         * with {@code null}.
+         */
+        @NotNull
+        public CompletableFuture<ResolvedStream> whenResolved() {
+            if (leader) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return future
+                .handle((stream, error) -> error == null ? stream : null)
+                .completeOnTimeout(null, RESOLUTION_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Caches a resolved stream and hands it to the waiting requests.
+         */
+        public void complete(@NotNull ResolvedStream stream) {
+            if (leader) {
+                future.complete(stream);
+            } else {
+                entries.put(key, CompletableFuture.completedFuture(stream));
+            }
+        }
+
+        /**
+         * Releases the lookup. If it was not completed, the waiting requests resolve the stream themselves.
+         */
+        public void release() {
+            if (leader && future.complete(null)) {
+                entries.remove(key, future);
+            }
+        }
+    }
+
+    public static class ResolvedStream {
+        private final String clientIdentifier;
+        private final StreamFormat format;
+        private final URI url;
+        private final long expiresAt;
+
+        public ResolvedStream(@NotNull String clientIdentifier, @NotNull StreamFormat format, @NotNull URI url) {
+            this.clientIdentifier = clientIdentifier;
+            this.format = format;
+            this.url = url;
+            this.expiresAt = Math.min(RenewableStreamUrl.getExpiry(url) - EXPIRY_MARGIN, System.currentTimeMillis() + MAX_TTL);
+        }
+
+        @NotNull
+        public String getClientIdentifier() {
+            return clientIdentifier;
+        }
+
+        @NotNull
+        public StreamFormat getFormat() {
+            return format;
+        }
+
+        @NotNull
+        public URI getUrl() {
+            return url;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dev.lavalink.youtube.plugin;
 
 import dev.lavalink.youtube.clients.ClientOptions;
+import dev.lavalink.youtube.http.YoutubeAccessTokenTracker;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -19,6 +20,16 @@ public class YoutubeConfig {
     private String[] clients;
     private Map<String, ClientOptions> clientOptions = new HashMap<>();
     private YoutubeOauthConfig oauth = null;
+    private int visitorIdPoolSize = YoutubeAccessTokenTracker.DEFAULT_POOL_SIZE;
+    private String clientConfigCacheFile = null;
+    private boolean streamReadAhead = false;
+    private int segmentedDownloadConnections = 1;
+    private boolean pooledHttpInterfaces = false;
+    private YoutubeRequestRateLimitConfig requestRateLimit = null;
+    private YoutubeMediaCacheConfig mediaCache = null;
+    private long containerHeaderCacheSizeMb = 32;
+    private YoutubeFormatSelectionConfig formatSelection = null;
+    private boolean metrics = false;
 
     public boolean getEnabled() {
         return enabled;
@@ -92,4 +103,84 @@ public class YoutubeConfig {
         this.remoteCipher = remoteCipher;
     }
 
+    public int getVisitorIdPoolSize() {
+        return visitorIdPoolSize;
+    }
+
+    public void setVisitorIdPoolSize(int visitorIdPoolSize) {
+        this.visitorIdPoolSize = visitorIdPoolSize;
+    }
+
+    public String getClientConfigCacheFile() {
+        return clientConfigCacheFile;
+    }
+
+    public void setClientConfigCacheFile(String clientConfigCacheFile) {
+        this.clientConfigCacheFile = clientConfigCacheFile;
+    }
+
+    public boolean getStreamReadAhead() {
+        return streamReadAhead;
+    }
+
+    public void setStreamReadAhead(boolean streamReadAhead) {
+        this.streamReadAhead = streamReadAhead;
+    }
+
+    public int getSegmentedDownloadConnections() {
+        return segmentedDownloadConnections;
+    }
+
+    public void setSegmentedDownloadConnections(int segmentedDownloadConnections) {
+        this.segmentedDownloadConnections = segmentedDownloadConnections;
+    }
+
+    public boolean getPooledHttpInterfaces() {
+        return pooledHttpInterfaces;
+    }
+
+    public void setPooledHttpInterfaces(boolean pooledHttpInterfaces) {
+        this.pooledHttpInterfaces = pooledHttpInterfaces;
+    }
+
+    public YoutubeRequestRateLimitConfig getRequestRateLimit() {
+        return requestRateLimit;
+    }
+
+    public void setRequestRateLimit(YoutubeRequestRateLimitConfig requestRateLimit) {
+        this.requestRateLimit = requestRateLimit;
+    }
+
+    public YoutubeMediaCacheConfig getMediaCache() {
+        return mediaCache;
+    }
+
+    public void setMediaCache(YoutubeMediaCacheConfig mediaCache) {
+        this.mediaCache = mediaCache;
+    }
+
+    public long getContainerHeaderCacheSizeMb() {
+        return containerHeaderCacheSizeMb;
+    }
+
+    public void setContainerHeaderCacheSizeMb(long containerHeaderCacheSizeMb) {
+        this.containerHeaderCacheSizeMb = containerHeaderCacheSizeMb;
+    }
+
+    public YoutubeFormatSelectionConfig getFormatSelection() {
+        return formatSelection;
+    }
+
+    public void setFormatSelection(YoutubeFormatSelectionConfig formatSelection) {
+        this.formatSelection = formatSelection;
+    }
+
+    public boolean getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(boolean metrics) {
+        this.metrics = metrics;
+    }
+
 }
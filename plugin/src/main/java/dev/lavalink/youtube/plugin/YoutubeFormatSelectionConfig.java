@@ -0,0 +1,59 @@
+package dev.lavalink.youtube.plugin;
+
+public class YoutubeFormatSelectionConfig {
+    private String[] ranking = null;
+    private long maxBitrateKbps = 0;
+    private boolean excludeDrc = false;
+    private boolean excludeMultichannel = false;
+    private double pressureCpuThreshold = 0;
+    private long pressureMaxBitrateKbps = 70;
+
+    public String[] getRanking() {
+        return ranking;
+    }
+
+    public long getMaxBitrateKbps() {
+        return maxBitrateKbps;
+    }
+
+    public boolean getExcludeDrc() {
+        return excludeDrc;
+    }
+
+    public boolean getExcludeMultichannel() {
+        return excludeMultichannel;
+    }
+
+    public double getPressureCpuThreshold() {
+        return pressureCpuThreshold;
+    }
+
+    public long getPressureMaxBitrateKbps() {
+        return pressureMaxBitrateKbps;
+    }
+
+    public void setRanking(String[] ranking) {
+        this.ranking = ranking;
+    }
+
+    public void setMaxBitrateKbps(long maxBitrateKbps) {
+        this.maxBitrateKbps = maxBitrateKbps;
+    }
+
+    public void setExcludeDrc(boolean excludeDrc) {
+        this.excludeDrc = excludeDrc;
+    }
+
+    public void setExcludeMultichannel(boolean excludeMultichannel) {
+        this.excludeMultichannel = excludeMultichannel;
+    }
+
+    public void setPressureCpuThreshold(double pressureCpuThreshold) {
+        this.pressureCpuThreshold = pressureCpuThreshold;
+    }
+
+    public void setPressureMaxBitrateKbps(long pressureMaxBitrateKbps) {
+        this.pressureMaxBitrateKbps = pressureMaxBitrateKbps;
+    }
+
+}
@@ -0,0 +1,23 @@
+package dev.lavalink.youtube.plugin;
+
+public class YoutubeMediaCacheConfig {
+    private String directory;
+    private long maxSizeMb = 1024;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public long getMaxSizeMb() {
+        return maxSizeMb;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public void setMaxSizeMb(long maxSizeMb) {
+        this.maxSizeMb = maxSizeMb;
+    }
+
+}
@@ -3,6 +3,8 @@ package dev.lavalink.youtube.plugin;
 public class YoutubeOauthConfig {
     private boolean enabled = false;
     private String refreshToken;
+    private String[] refreshTokens;
+    private String accountSelection;
     private boolean skipInitialization = false;
 
     public boolean getEnabled() {
@@ -13,6 +15,14 @@ public class YoutubeOauthConfig {
         return refreshToken;
     }
 
+    public String[] getRefreshTokens() {
+        return refreshTokens;
+    }
+
+    public String getAccountSelection() {
+        return accountSelection;
+    }
+
     public boolean getSkipInitialization() {
         return skipInitialization;
     }
@@ -25,6 +35,14 @@ public class YoutubeOauthConfig {
         this.refreshToken = refreshToken;
     }
 
+    public void setRefreshTokens(String[] refreshTokens) {
+        this.refreshTokens = refreshTokens;
+    }
+
+    public void setAccountSelection(String accountSelection) {
+        this.accountSelection = accountSelection;
+    }
+
     public void setSkipInitialization(boolean skipInitialization) {
         this.skipInitialization = skipInitialization;
     }
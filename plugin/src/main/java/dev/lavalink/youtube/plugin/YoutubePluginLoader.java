@@ -12,6 +12,13 @@ import dev.lavalink.youtube.YoutubeSource;
 import dev.lavalink.youtube.YoutubeSourceOptions;
 import dev.lavalink.youtube.clients.ClientOptions;
 import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.http.RequestRateLimiter;
+import dev.lavalink.youtube.http.YoutubeOauth2Handler;
+import dev.lavalink.youtube.metrics.YoutubeMetrics.Operation;
+import dev.lavalink.youtube.track.format.CpuPressureSignal;
+import dev.lavalink.youtube.track.format.FormatInfo;
+import dev.lavalink.youtube.track.format.FormatSelectionPolicy;
+import dev.lavalink.youtube.track.format.LoadAwareFormatSelector;
 import lavalink.server.config.RateLimitConfig;
 import lavalink.server.config.ServerConfig;
 import org.slf4j.Logger;
@@ -141,6 +148,55 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
         }
     }
 
+    private FormatSelectionPolicy getFormatSelectionPolicy(YoutubeFormatSelectionConfig config) {
+        FormatSelectionPolicy policy = FormatSelectionPolicy.DEFAULT
+            .withMaxBitrate(config.getMaxBitrateKbps() * 1000)
+            .withExcludeDrc(config.getExcludeDrc())
+            .withExcludeMultichannel(config.getExcludeMultichannel());
+
+        if (config.getRanking() == null) {
+            return policy;
+        }
+
+        List<FormatInfo> ranking = new ArrayList<>();
+
+        for (String format : config.getRanking()) {
+            try {
+                ranking.add(FormatInfo.valueOf(format.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown format '" + format + "'!");
+            }
+        }
+
+        return policy.withRanking(ranking);
+    }
+
+    private RequestRateLimiter getRequestRateLimiter(YoutubeRequestRateLimitConfig config) {
+        RequestRateLimiter limiter = new RequestRateLimiter(config.getMaxWaitMs());
+
+        if (config.getEndpoints() != null) {
+            for (Map.Entry<String, YoutubeRequestRateLimitConfig.Bucket> entry : config.getEndpoints().entrySet()) {
+                Operation operation;
+
+                try {
+                    operation = Operation.valueOf(entry.getKey().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("Unknown endpoint '" + entry.getKey() + "'!");
+                }
+
+                limiter.setEndpointLimit(operation, entry.getValue().getPermitsPerSecond(), entry.getValue().getBurst());
+            }
+        }
+
+        if (config.getClients() != null) {
+            for (Map.Entry<String, YoutubeRequestRateLimitConfig.Bucket> entry : config.getClients().entrySet()) {
+                limiter.setClientLimit(entry.getKey().toUpperCase(), entry.getValue().getPermitsPerSecond(), entry.getValue().getBurst());
+            }
+        }
+
+        return limiter;
+    }
+
     @Override
     public AudioPlayerManager configure(AudioPlayerManager audioPlayerManager) {
         if (youtubeConfig != null && !youtubeConfig.getEnabled()) {
@@ -165,6 +221,25 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
                 clients = clientProvider.getClients(youtubeConfig.getClients(), this::getOptionsForClient);
             }
 
+            sourceOptions.setVisitorIdPoolSize(youtubeConfig.getVisitorIdPoolSize())
+                .setClientConfigPersistencePath(youtubeConfig.getClientConfigCacheFile())
+                .setStreamReadAhead(youtubeConfig.getStreamReadAhead())
+                .setSegmentedDownloadConnections(youtubeConfig.getSegmentedDownloadConnections())
+                .setPooledHttpInterfaces(youtubeConfig.getPooledHttpInterfaces())
+                .setContainerHeaderCacheSize(youtubeConfig.getContainerHeaderCacheSizeMb() * 1024 * 1024);
+
+            if (youtubeConfig.getMetrics()) {
+                log.info("Reporting YouTube source metrics to Prometheus");
+                sourceOptions.setMetricsRegistry(new PrometheusMetricsRegistry());
+            }
+
+            YoutubeRequestRateLimitConfig requestRateLimitConfig = youtubeConfig.getRequestRateLimit();
+
+            if (requestRateLimitConfig != null) {
+                log.info("Rate limiting Innertube requests, rejecting those that would wait longer than {} ms", requestRateLimitConfig.getMaxWaitMs());
+                sourceOptions.setRequestRateLimiter(getRequestRateLimiter(requestRateLimitConfig));
+            }
+
             Pot pot = youtubeConfig.getPot();
             YoutubeRemoteCipherConfig cipherConfig = youtubeConfig.getRemoteCipher();
 
@@ -184,6 +259,32 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
                 log.info("Using remote cipher server with URL \"{}\"", cipherConfig.getUrl());
                 sourceOptions.setRemoteCipher(cipherConfig.getUrl(), cipherConfig.getPassword(), cipherConfig.getUserAgent());
             }
+
+            YoutubeMediaCacheConfig mediaCacheConfig = youtubeConfig.getMediaCache();
+
+            if (mediaCacheConfig != null && mediaCacheConfig.getDirectory() != null) {
+                log.info("Caching media in \"{}\" (up to {} MB)", mediaCacheConfig.getDirectory(), mediaCacheConfig.getMaxSizeMb());
+                sourceOptions.setMediaCache(mediaCacheConfig.getDirectory(), mediaCacheConfig.getMaxSizeMb() * 1024 * 1024);
+            }
+
+            YoutubeFormatSelectionConfig formatSelectionConfig = youtubeConfig.getFormatSelection();
+
+            if (formatSelectionConfig != null) {
+                FormatSelectionPolicy policy = getFormatSelectionPolicy(formatSelectionConfig);
+                log.info("Using format selection policy {}", policy);
+
+                if (formatSelectionConfig.getPressureCpuThreshold() > 0) {
+                    log.info("Selecting formats up to {} kbps while CPU load is above {}", formatSelectionConfig.getPressureMaxBitrateKbps(), formatSelectionConfig.getPressureCpuThreshold());
+
+                    sourceOptions.setFormatSelector(new LoadAwareFormatSelector(
+                        policy,
+                        new CpuPressureSignal(formatSelectionConfig.getPressureCpuThreshold()),
+                        formatSelectionConfig.getPressureMaxBitrateKbps() * 1000
+                    ));
+                } else {
+                    sourceOptions.setFormatSelector(policy);
+                }
+            }
         }
 
         final YoutubeAudioSourceManager source = new YoutubeAudioSourceManager(sourceOptions, clients);
@@ -214,8 +315,26 @@ public class YoutubePluginLoader implements AudioPlayerManagerConfiguration {
             YoutubeOauthConfig oauthConfig = youtubeConfig.getOauth();
 
             if (oauthConfig.getEnabled()) {
-                log.debug("Configuring youtube oauth integration with token: \"{}\" skipInitialization: {}", oauthConfig.getRefreshToken(), oauthConfig.getSkipInitialization());
-                source.useOauth2(oauthConfig.getRefreshToken(), oauthConfig.getSkipInitialization());
+                List<String> refreshTokens = new ArrayList<>();
+
+                if (oauthConfig.getRefreshToken() != null) {
+                    refreshTokens.add(oauthConfig.getRefreshToken());
+                }
+
+                if (oauthConfig.getRefreshTokens() != null) {
+                    refreshTokens.addAll(Arrays.asList(oauthConfig.getRefreshTokens()));
+                }
+
+                if (oauthConfig.getAccountSelection() != null) {
+                    try {
+                        source.getOauth2Handler().setAccountSelection(YoutubeOauth2Handler.AccountSelection.valueOf(oauthConfig.getAccountSelection().toUpperCase()));
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Unknown OAuth account selection \"{}\", valid options are: {}", oauthConfig.getAccountSelection(), Arrays.toString(YoutubeOauth2Handler.AccountSelection.values()));
+                    }
+                }
+
+                log.debug("Configuring youtube oauth integration with {} token(s): \"{}\" skipInitialization: {}", refreshTokens.size(), refreshTokens, oauthConfig.getSkipInitialization());
+                source.useOauth2(refreshTokens, oauthConfig.getSkipInitialization());
             }
         }
 
@@ -0,0 +1,55 @@
+package dev.lavalink.youtube.plugin;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class YoutubeRequestRateLimitConfig {
+    private long maxWaitMs = 2000;
+    private Map<String, Bucket> endpoints = new HashMap<>();
+    private Map<String, Bucket> clients = new HashMap<>();
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public Map<String, Bucket> getEndpoints() {
+        return endpoints;
+    }
+
+    public Map<String, Bucket> getClients() {
+        return clients;
+    }
+
+    public void setMaxWaitMs(long maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public void setEndpoints(Map<String, Bucket> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public void setClients(Map<String, Bucket> clients) {
+        this.clients = clients;
+    }
+
+    public static class Bucket {
+        private double permitsPerSecond = 1;
+        private int burst = 1;
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setPermitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
@@ -2,21 +2,31 @@ package dev.lavalink.youtube.plugin;
 
 import com.grack.nanojson.JsonObject;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
 import dev.lavalink.youtube.CannotBeLoaded;
 import dev.lavalink.youtube.ClientInformation;
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
+import dev.lavalink.youtube.cache.CachedMediaStream;
+import dev.lavalink.youtube.cache.HeaderCachingStream;
 import dev.lavalink.youtube.clients.Web;
 import dev.lavalink.youtube.clients.WebEmbedded;
 import dev.lavalink.youtube.clients.skeleton.Client;
+import dev.lavalink.youtube.plugin.ResolvedStreamCache.ResolvedStream;
 import dev.lavalink.youtube.plugin.rest.MinimalConfigRequest;
 import dev.lavalink.youtube.plugin.rest.MinimalConfigResponse;
+import dev.lavalink.youtube.track.RenewableStreamUrl;
 import dev.lavalink.youtube.track.YoutubePersistentHttpStream;
+import dev.lavalink.youtube.track.YoutubeSegmentedHttpStream;
 import dev.lavalink.youtube.track.format.StreamFormat;
 import dev.lavalink.youtube.track.format.TrackFormats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,18 +36,44 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RestController
-public class YoutubeRestHandler {
+public class YoutubeRestHandler implements DisposableBean {
     private static final Logger log = LoggerFactory.getLogger(YoutubeRestHandler.class);
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final int STREAM_THREADS = 32;
+    private static final int STREAM_QUEUE_CAPACITY = 256;
 
     private final AudioPlayerManager playerManager;
+    // format loading, cipher resolution and connecting upstream happen here, so they don't hold servlet threads.
+    private final ThreadPoolExecutor streamExecutor;
+    private final ResolvedStreamCache resolvedStreams = new ResolvedStreamCache();
 
     public YoutubeRestHandler(AudioPlayerManager playerManager) {
         this.playerManager = playerManager;
+        this.streamExecutor = new ThreadPoolExecutor(STREAM_THREADS, STREAM_THREADS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(STREAM_QUEUE_CAPACITY), new DaemonThreadFactory("yt-rest-stream"),
+            (task, executor) -> {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending stream requests.");
+            });
+
+        streamExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    // a DisposableBean rather than @PreDestroy, as the annotation moved from javax to jakarta between the Lavalink
+    // versions this plugin is compiled and run against.
+    @Override
+    public void destroy() {
+        ExecutorTools.shutdownExecutor(streamExecutor, "YouTube REST stream");
     }
 
     private YoutubeAudioSourceManager getYoutubeSource() {
@@ -50,10 +86,40 @@ public class YoutubeRestHandler {
         return source;
     }
 
+    /**
+     * Streams a format of a video. A single byte range can be requested with the Range header, which is answered with
+     * 206, so that consumers can seek without downloading the media from the start. The response is prepared
+     * asynchronously and the media is written from the async request executor, so servlet threads aren't held while
+     * waiting on YouTube.
+     */
     @GetMapping("/youtube/stream/{videoId}")
-    public ResponseEntity<StreamingResponseBody> getYoutubeVideoStream(@PathVariable("videoId") String videoId,
-                                                                       @RequestParam(name = "itag", required = false) Integer itag,
-                                                                       @RequestParam(name = "withClient", required = false) String clientIdentifier) throws IOException {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getYoutubeVideoStream(@PathVariable("videoId") String videoId,
+                                                                                          @RequestParam(name = "itag", required = false) Integer itag,
+                                                                                          @RequestParam(name = "withClient", required = false) String clientIdentifier,
+                                                                                          @RequestHeader(name = HttpHeaders.RANGE, required = false) String rangeHeader) {
+        String cacheKey = ResolvedStreamCache.getKey(videoId, itag, clientIdentifier);
+        ResolvedStreamCache.Lookup lookup = resolvedStreams.lookup(cacheKey);
+
+        // requests for a stream that is already being resolved wait for it without holding a thread.
+        return lookup.whenResolved()
+            .thenApplyAsync(cached -> {
+                try {
+                    return openVideoStream(videoId, itag, clientIdentifier, rangeHeader, cacheKey, lookup, cached);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, streamExecutor)
+            // releases the lookup if the request was rejected before it could resolve the stream.
+            .whenComplete((response, error) -> lookup.release());
+    }
+
+    private ResponseEntity<StreamingResponseBody> openVideoStream(String videoId,
+                                                                  Integer itag,
+                                                                  String clientIdentifier,
+                                                                  String rangeHeader,
+                                                                  String cacheKey,
+                                                                  ResolvedStreamCache.Lookup lookup,
+                                                                  ResolvedStream cached) throws IOException {
         YoutubeAudioSourceManager source = getYoutubeSource();
         Throwable lastException = null;
 
@@ -65,102 +131,90 @@ public class YoutubeRestHandler {
 
         HttpInterface httpInterface = source.getInterface();
 
-        for (Client client : source.getClients()) {
-            log.debug("REST streaming {} attempting to use client {}", videoId, client.getIdentifier());
-
-            if (clientIdentifier != null && !client.getIdentifier().equalsIgnoreCase(clientIdentifier)) {
-                log.debug("Client identifier specified but does not match, trying next.");
-                continue;
-            }
+        try {
+            if (cached != null) {
+                log.debug("Using resolved stream for {} with client {}", videoId, cached.getClientIdentifier());
+                Arrays.stream(source.getClients())
+                    .filter(client -> client.getIdentifier().equals(cached.getClientIdentifier()))
+                    .findFirst()
+                    .ifPresent(client -> httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth()));
 
-            if (!client.supportsFormatLoading()) {
-                continue;
-            }
+                ResponseEntity<StreamingResponseBody> response = openFormatStream(source, httpInterface, videoId, cached, rangeHeader);
 
-            log.debug("Loading formats for {} with client {}", videoId, client.getIdentifier());
-            httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
-
-            TrackFormats formats;
+                if (response != null) {
+                    return response;
+                }
 
-            try {
-                formats = client.loadFormats(source, httpInterface, videoId);
-            } catch (CannotBeLoaded cbl) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "This video cannot be loaded. Reason: " + cbl.getCause().getMessage());
-            }  catch (Throwable t) {
-                log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier());
-                t.addSuppressed(ClientInformation.create(client));
-                lastException = t;
-                continue;
+                resolvedStreams.invalidate(cacheKey, cached);
             }
 
-            if (formats == null || formats.getFormats().isEmpty()) {
-                log.debug("No formats found for {}", videoId);
-                continue;
-            }
+            for (Client client : source.getClients()) {
+                log.debug("REST streaming {} attempting to use client {}", videoId, client.getIdentifier());
 
-            foundFormats = true;
-            StreamFormat selectedFormat;
+                if (clientIdentifier != null && !client.getIdentifier().equalsIgnoreCase(clientIdentifier)) {
+                    log.debug("Client identifier specified but does not match, trying next.");
+                    continue;
+                }
 
-            if (itag == null) {
-                selectedFormat = formats.getBestFormat();
-            } else {
-                selectedFormat = formats.getFormats().stream().filter(fmt -> fmt.getItag() == itag).findFirst()
-                    .orElse(null);
-            }
+                if (!client.supportsFormatLoading()) {
+                    continue;
+                }
 
-            if (selectedFormat == null) {
-                log.debug("No suitable formats found. (Matching: {})", itag);
-                continue;
-            }
+                log.debug("Loading formats for {} with client {}", videoId, client.getIdentifier());
+                httpInterface.getContext().setAttribute(Client.OAUTH_CLIENT_ATTRIBUTE, client.supportsOAuth());
 
-            log.debug("Selected format {} for {}", selectedFormat.getItag(), videoId);
+                TrackFormats formats;
 
-            URI transformed = selectedFormat.getUrl();
-            if (client.requirePlayerScript()) {
-                URI resolved = source.getCipherManager().resolveFormatUrl(httpInterface, formats.getPlayerScriptUrl(), selectedFormat);
-                transformed = client.transformPlaybackUri(selectedFormat.getUrl(), resolved);
-            }
+                try {
+                    formats = client.loadFormats(source, httpInterface, videoId);
+                } catch (CannotBeLoaded cbl) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "This video cannot be loaded. Reason: " + cbl.getCause().getMessage());
+                }  catch (Throwable t) {
+                    log.debug("Client \"{}\" threw a non-fatal exception, storing and proceeding...", client.getIdentifier());
+                    t.addSuppressed(ClientInformation.create(client));
+                    lastException = t;
+                    continue;
+                }
 
-            YoutubePersistentHttpStream httpStream = new YoutubePersistentHttpStream(httpInterface, transformed, selectedFormat.getContentLength());
+                if (formats == null || formats.getFormats().isEmpty()) {
+                    log.debug("No formats found for {}", videoId);
+                    continue;
+                }
 
-            boolean streamValidated = false;
+                foundFormats = true;
+                StreamFormat selectedFormat;
 
-            try {
-                int statusCode = httpStream.checkStatusCode();
-                streamValidated = statusCode == 200;
+                if (itag == null) {
+                    selectedFormat = formats.getBestFormat(source.getFormatSelector());
+                } else {
+                    selectedFormat = formats.getFormats().stream().filter(fmt -> fmt.getItag() == itag).findFirst()
+                        .orElse(null);
+                }
 
-                if (statusCode != 200) {
-                    log.debug("REST streaming with {} for {} returned status code {} when opening video stream", client.getIdentifier(), videoId, statusCode);
+                if (selectedFormat == null) {
+                    log.debug("No suitable formats found. (Matching: {})", itag);
+                    continue;
                 }
-            } catch (Throwable t) {
-                if ("Not success status code: 403".equals(t.getMessage())) {
-                    log.debug("REST streaming with {} for {} returned status code 403 when opening video stream", client.getIdentifier(), videoId);
-                } else {
-                    IOUtils.closeQuietly(httpStream, httpInterface);
-                    throw t;
+
+                log.debug("Selected format {} for {}", selectedFormat.getItag(), videoId);
+
+                URI transformed = selectedFormat.getUrl();
+                if (client.requirePlayerScript()) {
+                    source.getConnectionWarmer().warmUp(selectedFormat.getUrl());
+                    URI resolved = source.getCipherManager().resolveFormatUrl(httpInterface, formats.getPlayerScriptUrl(), selectedFormat);
+                    transformed = client.transformPlaybackUri(selectedFormat.getUrl(), resolved);
                 }
-            }
 
-            if (!streamValidated) {
-                IOUtils.closeQuietly(httpStream);
-                continue;
-            }
+                ResolvedStream resolvedStream = new ResolvedStream(client.getIdentifier(), selectedFormat, transformed);
+                ResponseEntity<StreamingResponseBody> response = openFormatStream(source, httpInterface, videoId, resolvedStream, rangeHeader);
 
-            StreamingResponseBody buffer = (os) -> {
-              int bytesRead;
-              byte[] copy = new byte[1024];
-
-              try (httpStream; httpInterface) {
-                  while ((bytesRead = httpStream.read(copy, 0, copy.length)) != -1) {
-                      os.write(copy, 0, bytesRead);
-                  }
-              }
-            };
-
-            return ResponseEntity.ok()
-                .contentLength(selectedFormat.getContentLength())
-                .contentType(MediaType.parseMediaType(selectedFormat.getType().getMimeType()))
-                .body(buffer);
+                if (response != null) {
+                    lookup.complete(resolvedStream);
+                    return response;
+                }
+            }
+        } finally {
+            lookup.release();
         }
 
         IOUtils.closeQuietly(httpInterface);
@@ -176,6 +230,75 @@ public class YoutubeRestHandler {
         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Could not find formats for the requested videoId.");
     }
 
+    /**
+     * Opens a resolved format at the requested range.
+     * @return The response streaming the format, or {@code null} if YouTube rejected the URL.
+     */
+    private ResponseEntity<StreamingResponseBody> openFormatStream(YoutubeAudioSourceManager source,
+                                                                   HttpInterface httpInterface,
+                                                                   String videoId,
+                                                                   ResolvedStream resolvedStream,
+                                                                   String rangeHeader) throws IOException {
+        StreamFormat selectedFormat = resolvedStream.getFormat();
+        long contentLength = selectedFormat.getContentLength();
+        ByteRange range = ByteRange.parse(rangeHeader, contentLength);
+
+        if (range == ByteRange.UNSATISFIABLE) {
+            IOUtils.closeQuietly(httpInterface);
+
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + contentLength)
+                .build();
+        }
+
+        SeekableInputStream httpStream = source.createStaticStream(httpInterface, videoId, selectedFormat, new RenewableStreamUrl(resolvedStream.getUrl(), null, source.getMediaHostTracker()));
+
+        boolean streamValidated = false;
+
+        try {
+            if (range != null) {
+                httpStream.seek(range.start);
+            }
+
+            int statusCode = checkStatusCode(httpStream);
+            streamValidated = statusCode == 200;
+
+            if (statusCode != 200) {
+                log.debug("REST streaming with {} for {} returned status code {} when opening video stream", resolvedStream.getClientIdentifier(), videoId, statusCode);
+            }
+        } catch (Throwable t) {
+            if ("Not success status code: 403".equals(t.getMessage())) {
+                log.debug("REST streaming with {} for {} returned status code 403 when opening video stream", resolvedStream.getClientIdentifier(), videoId);
+            } else {
+                IOUtils.closeQuietly(httpStream, httpInterface);
+                throw t;
+            }
+        }
+
+        if (!streamValidated) {
+            IOUtils.closeQuietly(httpStream);
+            return null;
+        }
+
+        long length = range != null ? range.end - range.start + 1 : contentLength;
+
+        StreamingResponseBody buffer = (os) -> {
+            try (httpStream; httpInterface) {
+                copy(httpStream, os, length);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = range != null
+            ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).header(HttpHeaders.CONTENT_RANGE, "bytes " + range.start + "-" + range.end + "/" + contentLength)
+            : ResponseEntity.ok();
+
+        return response
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .contentLength(length)
+            .contentType(MediaType.parseMediaType(selectedFormat.getType().getMimeType()))
+            .body(buffer);
+    }
+
     @GetMapping("/youtube")
     public MinimalConfigResponse getYoutubeConfig() {
         return MinimalConfigResponse.from(getYoutubeSource());
@@ -208,4 +331,49 @@ public class YoutubeRestHandler {
             log.debug("Updated poToken to \"{}\" and visitorData to \"{}\"", poToken, visitorData);
         }
     }
+
+    /**
+     * Copies up to {@code length} bytes, or everything if the length is not positive.
+     */
+    private static void copy(SeekableInputStream input, OutputStream output, long length) throws IOException {
+        byte[] copy = new byte[STREAM_BUFFER_SIZE];
+        long remaining = length > 0 ? length : Long.MAX_VALUE;
+        int bytesRead;
+
+        while (remaining > 0 && (bytesRead = input.read(copy, 0, (int) Math.min(copy.length, remaining))) != -1) {
+            output.write(copy, 0, bytesRead);
+            remaining -= bytesRead;
+        }
+    }
+
+    private static int checkStatusCode(SeekableInputStream stream) throws IOException {
+        // the network stream is positioned where the wrappers are, so it connects at the offset that is read first.
+        if (stream instanceof CachedMediaStream) {
+            CachedMediaStream cachedStream = (CachedMediaStream) stream;
+
+            if (cachedStream.isFullyCached()) {
+                return 200;
+            }
+
+            stream = unwrap(cachedStream, cachedStream.getDelegate());
+        }
+
+        if (stream instanceof HeaderCachingStream) {
+            stream = unwrap(stream, ((HeaderCachingStream) stream).getDelegate());
+        }
+
+        if (stream instanceof YoutubeSegmentedHttpStream) {
+            return ((YoutubeSegmentedHttpStream) stream).checkStatusCode();
+        }
+
+        return ((YoutubePersistentHttpStream) stream).checkStatusCode();
+    }
+
+    private static SeekableInputStream unwrap(SeekableInputStream wrapper, SeekableInputStream delegate) throws IOException {
+        if (delegate.getPosition() != wrapper.getPosition()) {
+            delegate.seek(wrapper.getPosition());
+        }
+
+        return delegate;
+    }
 }
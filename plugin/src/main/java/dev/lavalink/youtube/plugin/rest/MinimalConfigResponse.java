@@ -1,17 +1,48 @@
 package dev.lavalink.youtube.plugin.rest;
 
 import dev.lavalink.youtube.YoutubeAudioSourceManager;
+import dev.lavalink.youtube.http.YoutubeOauth2Account;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class MinimalConfigResponse {
     @Nullable
     public String refreshToken;
+    @NotNull
+    public List<OauthAccount> oauthAccounts;
 
-    private MinimalConfigResponse(@Nullable String refreshToken) {
+    private MinimalConfigResponse(@Nullable String refreshToken, @NotNull List<OauthAccount> oauthAccounts) {
         this.refreshToken = refreshToken;
+        this.oauthAccounts = oauthAccounts;
     }
 
     public static MinimalConfigResponse from(YoutubeAudioSourceManager sourceManager) {
-        return new MinimalConfigResponse(sourceManager.getOauth2RefreshToken());
+        List<OauthAccount> accounts = sourceManager.getOauth2Handler().getAccounts().stream()
+            .map(OauthAccount::from)
+            .collect(Collectors.toList());
+
+        return new MinimalConfigResponse(sourceManager.getOauth2RefreshToken(), accounts);
+    }
+
+    public static class OauthAccount {
+        public String refreshToken;
+        public long requests;
+        public long errors;
+        public boolean quarantined;
+        @Nullable
+        public String quarantineReason;
+
+        private static OauthAccount from(YoutubeOauth2Account account) {
+            OauthAccount response = new OauthAccount();
+            response.refreshToken = account.getRefreshToken();
+            response.requests = account.getRequestCount();
+            response.errors = account.getErrorCount();
+            response.quarantined = account.isQuarantined();
+            response.quarantineReason = response.quarantined ? account.getQuarantineReason() : null;
+            return response;
+        }
     }
 }
@@ -0,0 +1,63 @@
+package dev.lavalink.youtube.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ByteRangeTest {
+    private static final long LENGTH = 1000;
+
+    @Test
+    public void closedRange() {
+        assertRange(100, 199, ByteRange.parse("bytes=100-199", LENGTH));
+        assertRange(0, 0, ByteRange.parse("bytes=0-0", LENGTH));
+    }
+
+    @Test
+    public void openEndedRange() {
+        assertRange(100, LENGTH - 1, ByteRange.parse("bytes=100-", LENGTH));
+        assertRange(0, LENGTH - 1, ByteRange.parse("bytes=0-", LENGTH));
+    }
+
+    @Test
+    public void suffixRange() {
+        assertRange(LENGTH - 100, LENGTH - 1, ByteRange.parse("bytes=-100", LENGTH));
+        // a suffix longer than the content selects all of it.
+        assertRange(0, LENGTH - 1, ByteRange.parse("bytes=-5000", LENGTH));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", LENGTH));
+    }
+
+    @Test
+    public void endPastContentIsClamped() {
+        assertRange(900, LENGTH - 1, ByteRange.parse("bytes=900-5000", LENGTH));
+    }
+
+    @Test
+    public void startPastContentIsUnsatisfiable() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", LENGTH));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=5000-6000", LENGTH));
+    }
+
+    @Test
+    public void multiRangeSendsWholeContent() {
+        assertNull(ByteRange.parse("bytes=0-99,200-299", LENGTH));
+    }
+
+    @Test
+    public void malformedRangeSendsWholeContent() {
+        assertNull(ByteRange.parse(null, LENGTH));
+        assertNull(ByteRange.parse("items=0-99", LENGTH));
+        assertNull(ByteRange.parse("bytes=abc-def", LENGTH));
+        assertNull(ByteRange.parse("bytes=100", LENGTH));
+        assertNull(ByteRange.parse("bytes=-", LENGTH));
+        assertNull(ByteRange.parse("bytes=200-100", LENGTH));
+        assertNull(ByteRange.parse("bytes=0-99", 0));
+    }
+
+    private static void assertRange(long start, long end, ByteRange range) {
+        assertEquals(start, range.start);
+        assertEquals(end, range.end);
+    }
+}
@@ -0,0 +1,90 @@
+package dev.lavalink.youtube.plugin;
+
+import dev.lavalink.youtube.plugin.ResolvedStreamCache.Lookup;
+import dev.lavalink.youtube.plugin.ResolvedStreamCache.ResolvedStream;
+import dev.lavalink.youtube.track.format.StreamFormat;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResolvedStreamCacheTest {
+    private final ResolvedStreamCache cache = new ResolvedStreamCache();
+
+    @Test
+    public void followersAreCompletedByLeader() {
+        Lookup leader = cache.lookup("video");
+        Lookup follower = cache.lookup("video");
+
+        assertTrue(leader.isLeader());
+        assertFalse(follower.isLeader());
+        assertTrue(leader.whenResolved().isDone());
+        assertNull(leader.whenResolved().getNow(stream()));
+
+        CompletableFuture<ResolvedStream> followerResult = follower.whenResolved();
+        assertFalse(followerResult.isDone());
+
+        ResolvedStream stream = stream();
+        leader.complete(stream);
+        leader.release();
+
+        assertSame(stream, followerResult.getNow(null));
+        assertSame(stream, cache.lookup("video").whenResolved().getNow(null));
+    }
+
+    @Test
+    public void followersGetNothingIfLeaderFails() {
+        Lookup leader = cache.lookup("video");
+        CompletableFuture<ResolvedStream> followerResult = cache.lookup("video").whenResolved();
+
+        leader.release();
+
+        assertTrue(followerResult.isDone());
+        assertNull(followerResult.getNow(stream()));
+        assertTrue(cache.lookup("video").isLeader());
+    }
+
+    @Test
+    public void invalidatedStreamIsResolvedAgain() {
+        Lookup leader = cache.lookup("video");
+        ResolvedStream stream = stream();
+        leader.complete(stream);
+        leader.release();
+
+        cache.invalidate("video", stream);
+
+        assertTrue(cache.lookup("video").isLeader());
+    }
+
+    @Test
+    public void entriesAreCappedWithoutDroppingPendingOnes() {
+        Lookup pending = cache.lookup("pending");
+
+        for (int i = 0; i < ResolvedStreamCache.MAX_ENTRIES + 100; i++) {
+            Lookup lookup = cache.lookup("video-" + i);
+            lookup.complete(stream());
+            lookup.release();
+        }
+
+        assertEquals(ResolvedStreamCache.MAX_ENTRIES, cache.size());
+        assertFalse(cache.lookup("pending").isLeader());
+
+        ResolvedStream stream = stream();
+        pending.complete(stream);
+        assertSame(stream, cache.lookup("pending").whenResolved().getNow(null));
+    }
+
+    private static ResolvedStream stream() {
+        StreamFormat format = new StreamFormat(ContentType.parse("audio/webm; codecs=\"opus\""), 251, 128000, 1000,
+            2, "https://rr1---sn-abcd1234.googlevideo.com/videoplayback", null, null, null, true, false);
+
+        return new ResolvedStream("WEB", format, URI.create("https://rr1---sn-abcd1234.googlevideo.com/videoplayback?itag=251"));
+    }
+}
@@ -3,6 +3,8 @@ rootProject.name = "youtube-source"
 include("v2")
 include("common")
 include("plugin")
+include("benchmarks")
+include("emulator")
 
 enableFeaturePreview("TYPESAFE_PROJECT_ACCESSORS")
 
@@ -18,12 +20,16 @@ dependencyResolutionManagement {
             version("lavalink", "3.7.11")
             library("lavalink-server", "dev.arbjerg.lavalink", "Lavalink-Server").versionRef("lavalink")
             library("lavaplayer-ext-youtube-rotator", "dev.arbjerg", "lavaplayer-ext-youtube-rotator").versionRef("lavaplayer-v1")
+            library("prometheus-simpleclient", "io.prometheus", "simpleclient").version("0.16.0")
 
             library("rhino-engine", "org.mozilla", "rhino-engine").version("1.7.15")
             library("nanojson", "com.grack", "nanojson").version("1.7")
             library("slf4j", "org.slf4j", "slf4j-api").version("1.7.25")
             library("annotations", "org.jetbrains", "annotations").version("24.1.0")
 
+            version("jmh", "1.37")
+            plugin("jmh", "me.champeau.jmh").version("0.7.2")
+
             plugin("lavalink-gradle-plugin", "dev.arbjerg.lavalink.gradle-plugin").version("1.0.15")
 
             val mavenPublishPlugin = version("maven-publish-plugin", "0.25.3")